@@ -127,6 +127,11 @@ public static void copy(Path from, Path to, byte[] buffer) throws IOException {
 
     if (Files.notExists(to)) {
       createDirectoryReported(to.getParent());
+    } else if (Files.isSameFile(from, to)) {
+      return;
+    } else {
+      // the target might be a hard link to another file, which must not be overwritten
+      Files.delete(to);
     }
 
     try (InputStream stream = Files.newInputStream(from); OutputStream target = Files.newOutputStream(to)) {
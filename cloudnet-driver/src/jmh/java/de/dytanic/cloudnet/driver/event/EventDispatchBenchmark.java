@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.driver.event;
+
+import de.dytanic.cloudnet.driver.event.invoker.ListenerInvokerGenerator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the dispatch of the event manager with the previous dispatch, which copied and sorted all registered
+ * listeners on every call and filtered them by the event class afterwards.
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventDispatchBenchmark {
+
+  @Param({"10", "100"})
+  private int listenerCount;
+
+  private DefaultEventManager eventManager;
+  private List<IRegisteredEventListener> legacyListeners;
+
+  @Setup
+  public void setup() {
+    this.eventManager = new DefaultEventManager();
+    this.legacyListeners = new ArrayList<>();
+
+    ListenerInvokerGenerator generator = new ListenerInvokerGenerator();
+    for (int i = 0; i < this.listenerCount; i++) {
+      // only every tenth listener handles the fired event, just like most listeners listen to other events
+      Object listener = i % 10 == 0 ? new TickListener() : new OtherListener();
+      this.eventManager.registerListener(listener);
+
+      boolean tick = listener instanceof TickListener;
+      this.legacyListeners.add(new DefaultRegisteredEventListener(
+        null,
+        EventPriority.NORMAL,
+        listener,
+        tick ? TickEvent.class : OtherEvent.class,
+        "handle",
+        generator.generate(listener, "handle", tick ? TickEvent.class : OtherEvent.class)));
+    }
+  }
+
+  @Benchmark
+  public Event indexedDispatch() {
+    return this.eventManager.callEvent(new TickEvent());
+  }
+
+  @Benchmark
+  public Event legacyDispatch() {
+    Event event = new TickEvent();
+
+    List<IRegisteredEventListener> listeners = new ArrayList<>(this.legacyListeners);
+    Collections.sort(listeners);
+
+    for (IRegisteredEventListener listener : listeners) {
+      listener.fireEvent(event);
+    }
+
+    return event;
+  }
+
+  public static final class TickEvent extends Event {
+
+    private int calls;
+
+    @Override
+    public boolean isShowDebug() {
+      return false;
+    }
+  }
+
+  public static final class OtherEvent extends Event {
+
+  }
+
+  public static final class TickListener {
+
+    @EventListener
+    public void handle(TickEvent event) {
+      event.calls++;
+    }
+  }
+
+  public static final class OtherListener {
+
+    @EventListener
+    public void handle(OtherEvent event) {
+    }
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.driver.network.netty.http;
+
+import de.dytanic.cloudnet.driver.network.http.IHttpHandler;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the route trie of the http server with the previous routing, which copied and sorted all registered
+ * handlers on every request and matched each of them segment by segment. The registered routes are the ones of the
+ * rest, signs, syncproxy, bridge and cloudflare modules.
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HttpRouteBenchmark {
+
+  private static final String[] ROUTES = {
+    "/api/v1", "/api/v1/auth", "/api/v1/logout", "/api/v1/ping", "/api/v1/status", "/api/v1/command",
+    "/api/v1/modules", "/api/v1/cluster", "/api/v1/cluster/{node}", "/api/v1/services", "/api/v1/services/{uuid}",
+    "/api/v1/services/{uuid}/{operation}", "/api/v1/tasks", "/api/v1/tasks/{name}", "/api/v1/groups",
+    "/api/v1/groups/{name}", "/api/v1/db/{name}", "/api/v1/db/{name}/{key}", "/api/v1/local_templates",
+    "/api/v1/local_templates/{prefix}/{name}", "/api/v1/local_templates/{prefix}/{name}/files",
+    "/api/v1/local_templates/{prefix}/{name}/files/*", "/api/v1/modules/signs/config",
+    "/api/v1/modules/syncproxy/config", "/api/v1/modules/bridge/config", "/api/v1/modules/cloudflare/config"
+  };
+
+  @Param({"/api/v1/services", "/api/v1/services/4b2c4f8e-4c2d-4f0a-9a51-8e0b0c7d6a21/start",
+    "/api/v1/local_templates/Lobby/default/files/plugins/config.yml"})
+  private String path;
+
+  private List<NettyHttpServer.HttpHandlerEntry> entries;
+  private NettyHttpRouteTrie routeTrie;
+
+  @Setup
+  public void setup() {
+    IHttpHandler handler = (path, context) -> {
+    };
+
+    this.entries = new ArrayList<>();
+    this.entries.add(new NettyHttpServer.HttpHandlerEntry("/api/v1/*", handler, null, IHttpHandler.PRIORITY_HIGH));
+    for (String route : ROUTES) {
+      this.entries.add(new NettyHttpServer.HttpHandlerEntry(route, handler, null, IHttpHandler.PRIORITY_NORMAL));
+    }
+
+    this.routeTrie = new NettyHttpRouteTrie(this.entries);
+  }
+
+  @Benchmark
+  public int trieRouting() {
+    String[] segments = NettyHttpRouteTrie.split(this.path);
+    Map<String, String> parameters = new HashMap<>();
+
+    int matches = 0;
+    for (NettyHttpRouteTrie.Route route : this.routeTrie.match("GET", 80, segments)) {
+      route.putParameters(segments, parameters);
+      matches++;
+    }
+    return matches + parameters.size();
+  }
+
+  @Benchmark
+  public int legacyRouting() {
+    Map<String, String> parameters = new HashMap<>();
+
+    List<NettyHttpServer.HttpHandlerEntry> entries = new ArrayList<>(this.entries);
+    Collections.sort(entries);
+
+    String[] pathEntries = this.path.split("/");
+    int matches = 0;
+    for (NettyHttpServer.HttpHandlerEntry entry : entries) {
+      if (this.legacyMatch(entry, parameters, pathEntries, entry.path.split("/"))) {
+        matches++;
+      }
+    }
+    return matches + parameters.size();
+  }
+
+  private boolean legacyMatch(NettyHttpServer.HttpHandlerEntry entry, Map<String, String> parameters,
+    String[] pathEntries, String[] handlerPathEntries) {
+    if (!entry.path.endsWith("*") && pathEntries.length != handlerPathEntries.length) {
+      return false;
+    }
+
+    if (pathEntries.length < handlerPathEntries.length) {
+      return false;
+    }
+
+    for (int index = 1; index < pathEntries.length; ++index) {
+      if (index >= handlerPathEntries.length) {
+        return false;
+      }
+
+      if (handlerPathEntries[index].equals("*") && handlerPathEntries.length - 1 == index) {
+        return true;
+      }
+
+      if (handlerPathEntries[index].startsWith("{") && handlerPathEntries[index].endsWith("}")
+        && handlerPathEntries[index].length() > 2) {
+        String replacedString = handlerPathEntries[index].replaceFirst("\\{", "");
+        parameters.put(replacedString.substring(0, replacedString.length() - 1), pathEntries[index]);
+        continue;
+      }
+
+      if (!handlerPathEntries[index].equals("*") && !handlerPathEntries[index].equals(pathEntries[index])) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.driver.serialization;
+
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.DriverEnvironment;
+import de.dytanic.cloudnet.driver.channel.ChannelMessage;
+import de.dytanic.cloudnet.driver.channel.ChannelMessageSender;
+import de.dytanic.cloudnet.driver.channel.ChannelMessageTarget;
+import de.dytanic.cloudnet.driver.network.HostAndPort;
+import de.dytanic.cloudnet.driver.service.ProcessConfiguration;
+import de.dytanic.cloudnet.driver.service.ProcessSnapshot;
+import de.dytanic.cloudnet.driver.service.ServiceConfiguration;
+import de.dytanic.cloudnet.driver.service.ServiceDeployment;
+import de.dytanic.cloudnet.driver.service.ServiceEnvironmentType;
+import de.dytanic.cloudnet.driver.service.ServiceId;
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import de.dytanic.cloudnet.driver.service.ServiceLifeCycle;
+import de.dytanic.cloudnet.driver.service.ServiceRemoteInclusion;
+import de.dytanic.cloudnet.driver.service.ServiceTemplate;
+import de.dytanic.cloudnet.driver.service.ThreadSnapshot;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Writes and reads the objects which are sent the most between the components of the cloud, so that changes of the
+ * protocol buffer and the serialization of these objects can be compared.
+ */
+@Fork(1)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProtocolBufferBenchmark {
+
+  private final ProtocolBuffer buffer = ProtocolBuffer.create();
+
+  private ServiceInfoSnapshot serviceInfoSnapshot;
+  private ServiceConfiguration serviceConfiguration;
+  private ChannelMessage channelMessage;
+  private Throwable throwable;
+
+  @Setup
+  public void setup() {
+    this.serviceConfiguration = new ServiceConfiguration(
+      new ServiceId(UUID.randomUUID(), "Node-1", "Lobby", 1, ServiceEnvironmentType.MINECRAFT_SERVER),
+      "jvm",
+      true,
+      false,
+      new String[]{"Lobby", "Global-Server"},
+      new ServiceRemoteInclusion[]{new ServiceRemoteInclusion("https://cloudnetservice.eu", "destination")},
+      new ServiceTemplate[]{new ServiceTemplate("Lobby", "default", "local", true)},
+      new ServiceDeployment[]{new ServiceDeployment(new ServiceTemplate("Backup", "Lobby", "local", true),
+        Collections.singletonList("logs"))},
+      new String[0],
+      new ProcessConfiguration(ServiceEnvironmentType.MINECRAFT_SERVER, 512, Collections.emptyList()),
+      JsonDocument.newDocument(),
+      44955
+    );
+
+    Collection<ThreadSnapshot> threads = new ArrayList<>();
+    for (int i = 0; i < 64; i++) {
+      threads.add(new ThreadSnapshot(i, "Thread-" + i, Thread.State.RUNNABLE, i % 2 == 0, 5));
+    }
+
+    Collection<String> players = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      players.add("Player-" + i);
+    }
+
+    this.serviceInfoSnapshot = new ServiceInfoSnapshot(
+      System.currentTimeMillis(),
+      new HostAndPort("127.0.0.1", 44955),
+      System.currentTimeMillis(),
+      ServiceLifeCycle.RUNNING,
+      new ProcessSnapshot(1024, 2048, 4096, 8000, 8000, 0, threads, 12.5, 1337),
+      JsonDocument.newDocument("Online-Count", players.size()).append("Players", players),
+      this.serviceConfiguration
+    );
+
+    this.channelMessage = ChannelMessage.builder(new ChannelMessageSender("Lobby-1", DriverEnvironment.WRAPPER))
+      .channel("cloudnet-bridge")
+      .message("update_player")
+      .json(JsonDocument.newDocument("uniqueId", UUID.randomUUID()).append("name", "derklaro"))
+      .targetAll(ChannelMessageTarget.Type.SERVICE)
+      .build();
+
+    this.throwable = new IllegalStateException("Unable to deploy template", new IOException("Disk full"));
+  }
+
+  @Benchmark
+  public ServiceInfoSnapshot serviceInfoSnapshotRoundTrip() {
+    this.buffer.clear();
+    return this.buffer.writeObject(this.serviceInfoSnapshot).readObject(ServiceInfoSnapshot.class);
+  }
+
+  @Benchmark
+  public ServiceConfiguration serviceConfigurationRoundTrip() {
+    this.buffer.clear();
+    return this.buffer.writeObject(this.serviceConfiguration).readObject(ServiceConfiguration.class);
+  }
+
+  @Benchmark
+  public ChannelMessage channelMessageRoundTrip() {
+    this.buffer.clear();
+    return this.buffer.writeObject(this.channelMessage).readObject(ChannelMessage.class);
+  }
+
+  @Benchmark
+  public Throwable throwableRoundTrip() {
+    this.buffer.clear();
+    return this.buffer.writeThrowable(this.throwable).readThrowable();
+  }
+}
@@ -25,14 +25,20 @@
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 public final class DefaultEventManager implements IEventManager {
 
-  private final Map<String, List<IRegisteredEventListener>> registeredListeners = new HashMap<>();
+  private static final IRegisteredEventListener[] NO_LISTENERS = new IRegisteredEventListener[0];
+
+  private final Map<String, List<IRegisteredEventListener>> registeredListeners = new ConcurrentHashMap<>();
+  /**
+   * The sorted listeners per channel and event class, built lazily and dropped on every change of the listeners
+   */
+  private volatile Map<String, Map<Class<?>, IRegisteredEventListener[]>> dispatchIndex = new ConcurrentHashMap<>();
 
   private final ListenerInvokerGenerator invokerGenerator = new ListenerInvokerGenerator();
 
@@ -52,6 +58,7 @@ public IEventManager unregisterListener(Object listener) {
       listeners.getValue().removeIf(registeredEventListener -> registeredEventListener.getInstance().equals(listener));
     }
 
+    this.invalidateDispatchIndex();
     return this;
   }
 
@@ -64,6 +71,7 @@ public IEventManager unregisterListener(Class<?> listener) {
         .removeIf(registeredEventListener -> registeredEventListener.getInstance().getClass().equals(listener));
     }
 
+    this.invalidateDispatchIndex();
     return this;
   }
 
@@ -77,6 +85,7 @@ public IEventManager unregisterListeners(ClassLoader classLoader) {
           .equals(classLoader));
     }
 
+    this.invalidateDispatchIndex();
     return this;
   }
 
@@ -105,6 +114,7 @@ public IEventManager unregisterListeners(Class<?>... classes) {
   @Override
   public IEventManager unregisterAll() {
     this.registeredListeners.clear();
+    this.invalidateDispatchIndex();
     return this;
   }
 
@@ -121,27 +131,50 @@ public <T extends Event> T callEvent(String channel, T event) {
 
 
   private void fireEvent(String channel, Event event) {
-    if (channel.equals("*")) {
-      List<IRegisteredEventListener> listeners = new ArrayList<>();
+    for (IRegisteredEventListener listener : this.getListeners(channel, event.getClass())) {
+      listener.fireEvent(event);
+    }
+  }
 
+  private IRegisteredEventListener[] getListeners(String channel, Class<?> eventClass) {
+    // capture the index before building, a build based on outdated listeners will then end up in a dropped index
+    Map<String, Map<Class<?>, IRegisteredEventListener[]>> index = this.dispatchIndex;
+    return index.computeIfAbsent(channel, key -> new ConcurrentHashMap<>())
+      .computeIfAbsent(eventClass, key -> this.collectListeners(channel, eventClass));
+  }
+
+  private IRegisteredEventListener[] collectListeners(String channel, Class<?> eventClass) {
+    List<IRegisteredEventListener> listeners = new ArrayList<>();
+
+    if (channel.equals("*")) {
       for (List<IRegisteredEventListener> entry : this.registeredListeners.values()) {
-        listeners.addAll(entry);
+        this.collectListeners(entry, eventClass, listeners);
       }
-
-      this.fireEvent(listeners, event);
     } else if (this.registeredListeners.containsKey(channel)) {
-      this.fireEvent(this.registeredListeners.get(channel), event);
+      this.collectListeners(this.registeredListeners.get(channel), eventClass, listeners);
+    }
+
+    if (listeners.isEmpty()) {
+      return NO_LISTENERS;
     }
-  }
 
-  private void fireEvent(List<IRegisteredEventListener> listeners, Event event) {
     Collections.sort(listeners);
+    return listeners.toArray(NO_LISTENERS);
+  }
 
-    for (IRegisteredEventListener listener : listeners) {
-      listener.fireEvent(event);
+  private void collectListeners(List<IRegisteredEventListener> source, Class<?> eventClass,
+    List<IRegisteredEventListener> target) {
+    for (IRegisteredEventListener listener : source) {
+      if (listener.getEventClass().isAssignableFrom(eventClass)) {
+        target.add(listener);
+      }
     }
   }
 
+  private void invalidateDispatchIndex() {
+    this.dispatchIndex = new ConcurrentHashMap<>();
+  }
+
   @SuppressWarnings("unchecked")
   private void registerListener0(Object listener) {
     for (Method method : listener.getClass().getMethods()) {
@@ -194,5 +227,7 @@ private void registerListener0(Object listener) {
       this.registeredListeners.computeIfAbsent(eventListener.channel(),
         key -> new CopyOnWriteArrayList<>()).add(registeredEventListener);
     }
+
+    this.invalidateDispatchIndex();
   }
 }
@@ -24,6 +24,7 @@
 import de.dytanic.cloudnet.driver.network.protocol.DefaultPacketListenerRegistry;
 import de.dytanic.cloudnet.driver.network.protocol.IPacket;
 import de.dytanic.cloudnet.driver.network.protocol.IPacketListenerRegistry;
+import de.dytanic.cloudnet.driver.network.protocol.Packet;
 import de.dytanic.cloudnet.driver.network.protocol.chunk.ChunkedPacketBuilder;
 import de.dytanic.cloudnet.driver.network.protocol.chunk.ChunkedQueryResponse;
 import java.io.IOException;
@@ -68,20 +69,37 @@ public void sendPacket(@NotNull IPacket... packets) {
 
   @Override
   public ITask<IPacket> sendQueryAsync(@NotNull IPacket packet) {
-    ITask<IPacket> task = this.registerQueryResponseHandler(packet.getUniqueId());
+    return this.sendQueryAsync(packet, InternalSyncPacketChannel.DEFAULT_QUERY_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public ITask<IPacket> sendQueryAsync(@NotNull IPacket packet, long timeout, @NotNull TimeUnit timeUnit) {
+    ITask<IPacket> task = this.registerQueryResponseHandler(packet.getUniqueId(), timeout, timeUnit);
     this.sendPacket(packet);
     return task;
   }
 
   @Override
   public IPacket sendQuery(@NotNull IPacket packet) {
-    return this.sendQueryAsync(packet).get(5, TimeUnit.SECONDS, null);
+    return this.sendQuery(packet, 5, TimeUnit.SECONDS);
+  }
+
+  @Override
+  public IPacket sendQuery(@NotNull IPacket packet, long timeout, @NotNull TimeUnit timeUnit) {
+    IPacket response = this.sendQueryAsync(packet, timeout, timeUnit).get(timeout, timeUnit, null);
+    return response == Packet.EMPTY ? null : response;
   }
 
   @Override
   public ITask<IPacket> registerQueryResponseHandler(UUID uniqueId) {
+    return this.registerQueryResponseHandler(uniqueId, InternalSyncPacketChannel.DEFAULT_QUERY_TIMEOUT_MILLIS,
+      TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public ITask<IPacket> registerQueryResponseHandler(UUID uniqueId, long timeout, @NotNull TimeUnit timeUnit) {
     CompletableTask<IPacket> task = new CompletableTask<>();
-    InternalSyncPacketChannel.registerQueryHandler(uniqueId, task::complete);
+    InternalSyncPacketChannel.registerQueryHandler(uniqueId, timeout, timeUnit, task::complete);
     return task;
   }
 
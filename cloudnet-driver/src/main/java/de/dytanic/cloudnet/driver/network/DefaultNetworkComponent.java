@@ -42,26 +42,22 @@ default void closeChannels() {
   default void sendPacket(@NotNull IPacket packet) {
     Preconditions.checkNotNull(packet);
 
-    for (INetworkChannel channel : this.getModifiableChannels()) {
-      channel.sendPacket(packet);
-    }
+    INetworkChannel.broadcastPacket(packet, this.getModifiableChannels());
   }
 
   @Override
   default void sendPacketSync(@NotNull IPacket packet) {
     Preconditions.checkNotNull(packet);
 
-    for (INetworkChannel channel : this.getModifiableChannels()) {
-      channel.sendPacketSync(packet);
-    }
+    INetworkChannel.broadcastPacketSync(packet, this.getModifiableChannels());
   }
 
   @Override
   default void sendPacket(@NotNull IPacket... packets) {
     Preconditions.checkNotNull(packets);
 
-    for (INetworkChannel channel : this.getModifiableChannels()) {
-      channel.sendPacket(packets);
+    for (IPacket packet : packets) {
+      INetworkChannel.broadcastPacket(packet, this.getModifiableChannels());
     }
   }
 
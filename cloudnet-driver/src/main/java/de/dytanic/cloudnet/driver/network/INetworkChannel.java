@@ -18,13 +18,16 @@
 
 import de.dytanic.cloudnet.common.concurrent.ITask;
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.netty.NettyNetworkChannel;
 import de.dytanic.cloudnet.driver.network.protocol.IPacket;
 import de.dytanic.cloudnet.driver.network.protocol.IPacketListenerRegistry;
 import de.dytanic.cloudnet.driver.network.protocol.IPacketSender;
 import de.dytanic.cloudnet.driver.network.protocol.chunk.ChunkedQueryResponse;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -32,6 +35,28 @@
  */
 public interface INetworkChannel extends IPacketSender, AutoCloseable {
 
+  /**
+   * Sends the given packet to all given channels. The packet is only encoded once for all channels instead of once per
+   * channel.
+   *
+   * @param packet   the packet to send
+   * @param channels the channels to send the packet to
+   */
+  static void broadcastPacket(@NotNull IPacket packet, @NotNull Collection<? extends INetworkChannel> channels) {
+    NettyNetworkChannel.broadcastPacket(packet, channels);
+  }
+
+  /**
+   * Sends the given packet to all given channels and waits until it was written to all of them. The packet is only
+   * encoded once for all channels instead of once per channel.
+   *
+   * @param packet   the packet to send
+   * @param channels the channels to send the packet to
+   */
+  static void broadcastPacketSync(@NotNull IPacket packet, @NotNull Collection<? extends INetworkChannel> channels) {
+    NettyNetworkChannel.broadcastPacketSync(packet, channels);
+  }
+
   /**
    * Returns the unique channelId. The Channel Id begins with 1 and ends with Long.MAX_VALUE
    */
@@ -73,10 +98,25 @@ public interface INetworkChannel extends IPacketSender, AutoCloseable {
 
   ITask<IPacket> sendQueryAsync(@NotNull IPacket packet);
 
+  /**
+   * Sends the given packet as a query. The returned task is completed with {@link
+   * de.dytanic.cloudnet.driver.network.protocol.Packet#EMPTY} if there is no response within the given timeout.
+   */
+  ITask<IPacket> sendQueryAsync(@NotNull IPacket packet, long timeout, @NotNull TimeUnit timeUnit);
+
   IPacket sendQuery(@NotNull IPacket packet);
 
+  /**
+   * Sends the given packet as a query and waits for the response.
+   *
+   * @return the response or null if there is no response within the given timeout
+   */
+  IPacket sendQuery(@NotNull IPacket packet, long timeout, @NotNull TimeUnit timeUnit);
+
   ITask<IPacket> registerQueryResponseHandler(UUID uniqueId);
 
+  ITask<IPacket> registerQueryResponseHandler(UUID uniqueId, long timeout, @NotNull TimeUnit timeUnit);
+
   ITask<ChunkedQueryResponse> sendChunkedPacketQuery(@NotNull IPacket packet);
 
   boolean sendChunkedPacketsResponse(@NotNull UUID uniqueId, @NotNull JsonDocument header,
@@ -88,8 +128,25 @@ boolean sendChunkedPackets(@NotNull JsonDocument header, @NotNull InputStream in
   boolean sendChunkedPackets(UUID uniqueId, @NotNull JsonDocument header, @NotNull InputStream inputStream, int channel)
     throws IOException;
 
+  /**
+   * Sends the given packet and runs the given listener as soon as the packet was written to the network or the write
+   * failed
+   *
+   * @param packet        the packet to send
+   * @param writeListener the listener to run after the write completed
+   */
+  void sendPacket(@NotNull IPacket packet, @NotNull Runnable writeListener);
+
   boolean isWriteable();
 
+  /**
+   * Waits until the channel is writable, gets inactive or the given timeout elapsed. The waiting thread is woken up by
+   * the writability changes of the channel.
+   *
+   * @return if the channel is writable
+   */
+  boolean awaitWritable(long timeout, @NotNull TimeUnit timeUnit) throws InterruptedException;
+
   boolean isActive();
 
 }
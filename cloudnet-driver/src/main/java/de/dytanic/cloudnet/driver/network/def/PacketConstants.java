@@ -35,11 +35,13 @@ public final class PacketConstants {
   public static final int CLUSTER_TEMPLATE_STORAGE_SYNC_CHANNEL = 12;
   public static final int CLUSTER_TEMPLATE_STORAGE_CHUNK_SYNC_CHANNEL = 13;
   public static final int CLUSTER_NODE_INFO_CHANNEL = 14;
+  public static final int CLUSTER_TEMPLATE_MANIFEST_SYNC_CHANNEL = 19;
 
   // events
   public static final int SERVICE_INFO_PUBLISH_CHANNEL = 15;
   public static final int PERMISSIONS_PUBLISH_CHANNEL = 16;
   public static final int CHANNEL_MESSAGING_CHANNEL = 17;
+  public static final int SERVICE_INFO_DELTA_CHANNEL = 18;
 
   private PacketConstants() {
     throw new UnsupportedOperationException();
@@ -23,9 +23,16 @@
 import de.dytanic.cloudnet.driver.network.protocol.chunk.ChunkedQueryResponse;
 import de.dytanic.cloudnet.driver.network.protocol.chunk.listener.ChunkedPacketListener;
 import de.dytanic.cloudnet.driver.network.protocol.chunk.listener.ConsumingChunkedPacketListener;
+import de.dytanic.cloudnet.driver.serialization.ProtocolBuffer;
+import io.netty.buffer.Unpooled;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import org.jetbrains.annotations.ApiStatus;
@@ -33,7 +40,17 @@
 @ApiStatus.Internal
 public final class InternalSyncPacketChannel {
 
+  public static final long DEFAULT_QUERY_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
   private static final Map<UUID, SynchronizedCallback> WAITING_PACKETS = new ConcurrentHashMap<>();
+  private static final Timer TIMEOUT_TIMER = new HashedWheelTimer(runnable -> {
+    Thread thread = new Thread(runnable, "CloudNet query timeout timer");
+    thread.setDaemon(true);
+    return thread;
+  }, 50, TimeUnit.MILLISECONDS);
+
+  private static final LongAdder REGISTERED_QUERIES = new LongAdder();
+  private static final LongAdder TIMED_OUT_QUERIES = new LongAdder();
 
   private InternalSyncPacketChannel() {
     throw new UnsupportedOperationException();
@@ -42,29 +59,33 @@ private InternalSyncPacketChannel() {
   public static boolean handleIncomingChannel(INetworkChannel channel, Packet packet) {
     Preconditions.checkNotNull(packet);
 
-    if (WAITING_PACKETS.containsKey(packet.getUniqueId())) {
-      SynchronizedCallback syncEntry = null;
-
-      try {
-        syncEntry = WAITING_PACKETS.get(packet.getUniqueId());
-        syncEntry.consumer.accept(channel, packet);
-      } catch (Throwable e) {
-        e.printStackTrace();
-      }
+    SynchronizedCallback syncEntry = WAITING_PACKETS.get(packet.getUniqueId());
+    if (syncEntry == null) {
+      return false;
+    }
 
-      if (syncEntry != null && syncEntry.autoRemove) {
-        WAITING_PACKETS.remove(packet.getUniqueId());
+    if (syncEntry.autoRemove) {
+      // the entry may have timed out in the meantime
+      if (!WAITING_PACKETS.remove(packet.getUniqueId(), syncEntry)) {
+        return false;
       }
+      syncEntry.cancelTimeout();
+    }
 
-      return true;
-
-    } else {
-      return false;
+    try {
+      syncEntry.consumer.accept(channel, packet);
+    } catch (Throwable throwable) {
+      throwable.printStackTrace();
     }
+
+    return true;
   }
 
   public static void removeEntry(UUID uniqueId) {
-    WAITING_PACKETS.remove(uniqueId);
+    SynchronizedCallback syncEntry = WAITING_PACKETS.remove(uniqueId);
+    if (syncEntry != null) {
+      syncEntry.cancelTimeout();
+    }
   }
 
   public static void registerChunkedQueryHandler(UUID uniqueId, Consumer<ChunkedQueryResponse> consumer) {
@@ -73,7 +94,8 @@ public static void registerChunkedQueryHandler(UUID uniqueId, Consumer<ChunkedQu
       consumer.accept(response);
     });
 
-    registerQueryHandler(uniqueId, false, (channel, packet) -> {
+    // chunked transfers may take longer than any sensible timeout, they are removed once completed
+    registerQueryHandler(uniqueId, false, 0, (channel, packet) -> {
       try {
         listener.handle(channel, packet);
       } catch (Exception exception) {
@@ -83,40 +105,86 @@ public static void registerChunkedQueryHandler(UUID uniqueId, Consumer<ChunkedQu
   }
 
   public static void registerQueryHandler(UUID uniqueId, Consumer<IPacket> consumer) {
-    registerQueryHandler(uniqueId, true, (channel, packet) -> consumer.accept(packet));
+    registerQueryHandler(uniqueId, DEFAULT_QUERY_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS, consumer);
   }
 
-  private static void registerQueryHandler(UUID uniqueId, boolean autoRemove,
-    BiConsumer<INetworkChannel, IPacket> consumer) {
-    checkCachedValidation();
-    WAITING_PACKETS.put(uniqueId, new SynchronizedCallback(autoRemove, consumer));
+  /**
+   * Registers a handler for the response to the query with the given id. If there is no response within the given
+   * timeout, the handler is removed and called with {@link Packet#EMPTY}.
+   */
+  public static void registerQueryHandler(UUID uniqueId, long timeout, TimeUnit timeUnit, Consumer<IPacket> consumer) {
+    Preconditions.checkArgument(timeout > 0, "Timeout has to be positive");
+    registerQueryHandler(uniqueId, true, timeUnit.toMillis(timeout),
+      (channel, packet) -> consumer.accept(detach(packet)));
   }
 
-  private static void checkCachedValidation() {
-    long systemCurrent = System.currentTimeMillis();
+  /**
+   * @return the amount of queries currently waiting for a response
+   */
+  public static int getPendingQueryCount() {
+    return WAITING_PACKETS.size();
+  }
 
-    for (Map.Entry<UUID, SynchronizedCallback> entry : WAITING_PACKETS.entrySet()) {
-      if (entry.getValue().autoRemove && entry.getValue().timeOut < systemCurrent) {
-        WAITING_PACKETS.remove(entry.getKey());
+  /**
+   * @return the amount of queries registered since the start, used to calculate the timeout rate
+   */
+  public static long getRegisteredQueryCount() {
+    return REGISTERED_QUERIES.sum();
+  }
 
-        try {
-          entry.getValue().consumer.accept(null, Packet.EMPTY);
-        } catch (Throwable throwable) {
-          throwable.printStackTrace();
+  /**
+   * @return the amount of queries which got no response within their timeout since the start
+   */
+  public static long getTimedOutQueryCount() {
+    return TIMED_OUT_QUERIES.sum();
+  }
+
+  private static IPacket detach(IPacket packet) {
+    // the response leaves the network thread, copy the body out of the inbound buffer which gets released afterwards
+    if (packet == Packet.EMPTY || packet.getBuffer() == null || packet.getBuffer().refCnt() == 0) {
+      return packet;
+    }
+
+    ProtocolBuffer body = ProtocolBuffer.wrap(Unpooled.copiedBuffer(packet.getBuffer()));
+    return new Packet(packet.getChannel(), packet.getUniqueId(), packet.getHeader(), body);
+  }
+
+  private static void registerQueryHandler(UUID uniqueId, boolean autoRemove, long timeoutMillis,
+    BiConsumer<INetworkChannel, IPacket> consumer) {
+    SynchronizedCallback syncEntry = new SynchronizedCallback(autoRemove, consumer);
+    SynchronizedCallback previous = WAITING_PACKETS.put(uniqueId, syncEntry);
+    if (previous != null) {
+      previous.cancelTimeout();
+    }
+
+    REGISTERED_QUERIES.increment();
+    if (timeoutMillis > 0) {
+      syncEntry.timeout = TIMEOUT_TIMER.newTimeout(timeout -> {
+        if (WAITING_PACKETS.remove(uniqueId, syncEntry)) {
+          TIMED_OUT_QUERIES.increment();
+          syncEntry.consumer.accept(null, Packet.EMPTY);
         }
-      }
+      }, timeoutMillis, TimeUnit.MILLISECONDS);
     }
   }
 
   private static class SynchronizedCallback {
 
-    private final long timeOut = System.currentTimeMillis() + 30000;
     private final boolean autoRemove;
     private final BiConsumer<INetworkChannel, IPacket> consumer;
 
+    private volatile Timeout timeout;
+
     public SynchronizedCallback(boolean autoRemove, BiConsumer<INetworkChannel, IPacket> consumer) {
       this.autoRemove = autoRemove;
       this.consumer = consumer;
     }
+
+    private void cancelTimeout() {
+      Timeout timeout = this.timeout;
+      if (timeout != null) {
+        timeout.cancel();
+      }
+    }
   }
 }
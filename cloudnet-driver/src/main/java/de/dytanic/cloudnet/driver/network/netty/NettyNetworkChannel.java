@@ -24,10 +24,19 @@
 import de.dytanic.cloudnet.driver.network.HostAndPort;
 import de.dytanic.cloudnet.driver.network.INetworkChannel;
 import de.dytanic.cloudnet.driver.network.INetworkChannelHandler;
+import de.dytanic.cloudnet.driver.network.netty.codec.NettyPacketFrame;
 import de.dytanic.cloudnet.driver.network.protocol.IPacket;
 import de.dytanic.cloudnet.driver.network.protocol.IPacketListenerRegistry;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.EventLoop;
+import io.netty.util.ReferenceCountUtil;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
@@ -35,6 +44,7 @@
 public final class NettyNetworkChannel extends DefaultNetworkChannel implements INetworkChannel {
 
   private final Channel channel;
+  private final Object writabilityLock = new Object();
 
   public NettyNetworkChannel(Channel channel, IPacketListenerRegistry packetRegistry, INetworkChannelHandler handler,
     HostAndPort serverAddress, HostAndPort clientAddress, boolean clientProvidedChannel) {
@@ -42,9 +52,121 @@ public NettyNetworkChannel(Channel channel, IPacketListenerRegistry packetRegist
     this.channel = channel;
   }
 
+  /**
+   * Sends the given packet to all given channels. The packet is encoded once and the encoded frame is shared between
+   * all netty channels, the writes are executed in one task per event loop of the channels.
+   *
+   * @param packet   the packet to send
+   * @param channels the channels to send the packet to
+   */
+  public static void broadcastPacket(@NotNull IPacket packet, @NotNull Collection<? extends INetworkChannel> channels) {
+    Preconditions.checkNotNull(packet);
+    Preconditions.checkNotNull(channels);
+
+    Map<EventLoop, List<NettyNetworkChannel>> channelsByEventLoop = new HashMap<>();
+    NettyNetworkChannel single = collectChannels(packet, channels, channelsByEventLoop, false);
+    if (single != null) {
+      single.sendPacket(packet);
+      return;
+    }
+
+    if (!channelsByEventLoop.isEmpty()) {
+      NettyPacketFrame frame = new NettyPacketFrame(packet);
+      try {
+        for (Map.Entry<EventLoop, List<NettyNetworkChannel>> entry : channelsByEventLoop.entrySet()) {
+          List<NettyNetworkChannel> targets = entry.getValue();
+          // each write consumes one reference of the frame
+          frame.retain(targets.size());
+
+          if (entry.getKey().inEventLoop()) {
+            writeFrame(frame, targets);
+          } else {
+            entry.getKey().execute(() -> writeFrame(frame, targets));
+          }
+        }
+      } finally {
+        frame.release();
+      }
+    }
+  }
+
+  /**
+   * Sends the given packet to all given channels and waits until it was written to all of them. The packet is encoded
+   * once and the encoded frame is shared between all netty channels.
+   *
+   * @param packet   the packet to send
+   * @param channels the channels to send the packet to
+   */
+  public static void broadcastPacketSync(@NotNull IPacket packet,
+    @NotNull Collection<? extends INetworkChannel> channels) {
+    Preconditions.checkNotNull(packet);
+    Preconditions.checkNotNull(channels);
+
+    Map<EventLoop, List<NettyNetworkChannel>> channelsByEventLoop = new HashMap<>();
+    NettyNetworkChannel single = collectChannels(packet, channels, channelsByEventLoop, true);
+    if (single != null) {
+      single.sendPacketSync(packet);
+      return;
+    }
+
+    if (!channelsByEventLoop.isEmpty()) {
+      List<ChannelFuture> futures = new ArrayList<>();
+      NettyPacketFrame frame = new NettyPacketFrame(packet);
+      try {
+        for (List<NettyNetworkChannel> targets : channelsByEventLoop.values()) {
+          for (NettyNetworkChannel target : targets) {
+            ChannelFuture future = target.writeMessage(packet, frame.retain());
+            if (future != null) {
+              futures.add(future);
+            }
+          }
+        }
+      } finally {
+        frame.release();
+      }
+
+      for (ChannelFuture future : futures) {
+        future.syncUninterruptibly();
+      }
+    }
+  }
+
+  private static NettyNetworkChannel collectChannels(IPacket packet, Collection<? extends INetworkChannel> channels,
+    Map<EventLoop, List<NettyNetworkChannel>> channelsByEventLoop, boolean sync) {
+    NettyNetworkChannel first = null;
+    int nettyChannels = 0;
+
+    for (INetworkChannel channel : channels) {
+      if (channel instanceof NettyNetworkChannel) {
+        NettyNetworkChannel nettyChannel = (NettyNetworkChannel) channel;
+        channelsByEventLoop.computeIfAbsent(nettyChannel.channel.eventLoop(), eventLoop -> new ArrayList<>())
+          .add(nettyChannel);
+
+        if (nettyChannels++ == 0) {
+          first = nettyChannel;
+        }
+      } else if (sync) {
+        channel.sendPacketSync(packet);
+      } else {
+        channel.sendPacket(packet);
+      }
+    }
+
+    // sharing the encoded frame only pays off if there is more than one receiver
+    return nettyChannels == 1 ? first : null;
+  }
+
+  private static void writeFrame(NettyPacketFrame frame, List<NettyNetworkChannel> targets) {
+    for (NettyNetworkChannel target : targets) {
+      target.writeMessage(frame.getPacket(), frame);
+    }
+  }
+
   @Override
   public void sendPacket(@NotNull IPacket packet) {
     Preconditions.checkNotNull(packet);
+    // the encoder releases the packet after writing it, retain it for the write to keep it usable for the caller
+    packet.retain();
 
     if (this.channel.eventLoop().inEventLoop()) {
       this.writePacket(packet);
@@ -53,9 +175,23 @@ public void sendPacket(@NotNull IPacket packet) {
     }
   }
 
+  @Override
+  public void sendPacket(@NotNull IPacket packet, @NotNull Runnable writeListener) {
+    Preconditions.checkNotNull(packet);
+    Preconditions.checkNotNull(writeListener);
+    packet.retain();
+
+    if (this.channel.eventLoop().inEventLoop()) {
+      this.writePacket(packet, writeListener);
+    } else {
+      this.channel.eventLoop().execute(() -> this.writePacket(packet, writeListener));
+    }
+  }
+
   @Override
   public void sendPacketSync(@NotNull IPacket packet) {
     Preconditions.checkNotNull(packet);
+    packet.retain();
 
     ChannelFuture future = this.writePacket(packet);
     if (future != null) {
@@ -68,12 +204,51 @@ public boolean isWriteable() {
     return this.channel.isWritable();
   }
 
+  @Override
+  public boolean awaitWritable(long timeout, @NotNull TimeUnit timeUnit) throws InterruptedException {
+    long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+    synchronized (this.writabilityLock) {
+      while (!this.channel.isWritable() && this.channel.isActive()) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          return false;
+        }
+        TimeUnit.NANOSECONDS.timedWait(this.writabilityLock, remaining);
+      }
+    }
+
+    return this.channel.isWritable();
+  }
+
   @Override
   public boolean isActive() {
     return this.channel.isActive();
   }
 
+  /**
+   * Wakes up all threads waiting for this channel to become writable, called when the writability or the state of the
+   * channel changed.
+   */
+  void handleWritabilityChange() {
+    synchronized (this.writabilityLock) {
+      this.writabilityLock.notifyAll();
+    }
+  }
+
+  private void writePacket(IPacket packet, Runnable writeListener) {
+    ChannelFuture future = this.writePacket(packet);
+    if (future != null) {
+      future.addListener(result -> writeListener.run());
+    } else {
+      writeListener.run();
+    }
+  }
+
   private ChannelFuture writePacket(IPacket packet) {
+    return this.writeMessage(packet, packet);
+  }
+
+  private ChannelFuture writeMessage(IPacket packet, Object message) {
     NetworkChannelPacketSendEvent event = new NetworkChannelPacketSendEvent(this, packet);
 
     CloudNetDriver.optionalInstance().ifPresent(cloudNetDriver -> cloudNetDriver.getEventManager().callEvent(event));
@@ -96,9 +271,10 @@ private ChannelFuture writePacket(IPacket packet) {
         });
       }
 
-      return this.channel.writeAndFlush(packet);
+      return this.channel.writeAndFlush(message);
     }
 
+    ReferenceCountUtil.release(message);
     return null;
   }
 
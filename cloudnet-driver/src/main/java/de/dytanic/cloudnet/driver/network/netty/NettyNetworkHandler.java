@@ -31,12 +31,21 @@ public abstract class NettyNetworkHandler extends SimpleChannelInboundHandler<Pa
 
   protected NettyNetworkChannel channel;
 
+  public NettyNetworkHandler() {
+    // packets are released by the dispatcher after handling them
+    super(false);
+  }
+
   protected abstract Collection<INetworkChannel> getChannels();
 
   protected abstract Executor getPacketDispatcher();
 
   @Override
   public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+    if (this.channel != null) {
+      this.channel.handleWritabilityChange();
+    }
+
     if (!ctx.channel().isActive() || !ctx.channel().isOpen() || !ctx.channel().isWritable()) {
       if (this.channel.getHandler() != null) {
         this.channel.getHandler().handleChannelClose(this.channel);
@@ -47,6 +56,15 @@ public void channelInactive(ChannelHandlerContext ctx) throws Exception {
     }
   }
 
+  @Override
+  public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+    if (this.channel != null) {
+      this.channel.handleWritabilityChange();
+    }
+
+    super.channelWritabilityChanged(ctx);
+  }
+
   @Override
   public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
     if (!(cause instanceof IOException)) {
@@ -68,6 +86,8 @@ protected void channelRead0(ChannelHandlerContext ctx, Packet msg) {
         }
       } catch (Exception exception) {
         CloudNetDriver.getInstance().getLogger().error("Exception whilst handling packet " + msg, exception);
+      } finally {
+        msg.release();
       }
     });
   }
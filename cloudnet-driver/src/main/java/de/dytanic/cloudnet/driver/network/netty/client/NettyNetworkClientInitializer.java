@@ -19,6 +19,7 @@
 import de.dytanic.cloudnet.driver.network.HostAndPort;
 import de.dytanic.cloudnet.driver.network.netty.codec.NettyPacketDecoder;
 import de.dytanic.cloudnet.driver.network.netty.codec.NettyPacketEncoder;
+import de.dytanic.cloudnet.driver.network.netty.codec.NettyPacketFrameEncoder;
 import de.dytanic.cloudnet.driver.network.netty.codec.NettyPacketLengthDeserializer;
 import de.dytanic.cloudnet.driver.network.netty.codec.NettyPacketLengthSerializer;
 import io.netty.channel.Channel;
@@ -56,6 +57,7 @@ protected void initChannel(@NotNull Channel ch) {
     ch.pipeline()
       .addLast("packet-length-deserializer", new NettyPacketLengthDeserializer())
       .addLast("packet-decoder", new NettyPacketDecoder())
+      .addLast("packet-frame-encoder", NettyPacketFrameEncoder.INSTANCE)
       .addLast("packet-length-serializer", new NettyPacketLengthSerializer())
       .addLast("packet-encoder", new NettyPacketEncoder())
       .addLast("network-client-handler", new NettyNetworkClientHandler(this.nettyNetworkClient, this.hostAndPort));
@@ -24,9 +24,9 @@
 import de.dytanic.cloudnet.driver.network.protocol.Packet;
 import de.dytanic.cloudnet.driver.serialization.ProtocolBuffer;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
-import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.UUID;
 import org.jetbrains.annotations.ApiStatus;
@@ -44,8 +44,8 @@ protected void decode(ChannelHandlerContext ctx, ByteBuf byteBuf, List<Object> o
     try {
       int channel = NettyUtils.readVarInt(byteBuf);
       UUID uniqueId = new UUID(byteBuf.readLong(), byteBuf.readLong());
-      JsonDocument header = this.readHeader(byteBuf);
-      ProtocolBuffer body = ProtocolBuffer.wrap(NettyUtils.readByteArray(byteBuf, NettyUtils.readVarInt(byteBuf)));
+      JsonDocument header = PacketHeaderCodec.readHeader(ctx == null ? null : ctx.channel(), byteBuf);
+      ProtocolBuffer body = this.readBody(byteBuf);
 
       Packet packet = new Packet(channel, uniqueId, header, body);
       out.add(packet);
@@ -74,14 +74,9 @@ protected void showDebug(IPacket packet) {
     }
   }
 
-  protected JsonDocument readHeader(ByteBuf buf) {
+  protected ProtocolBuffer readBody(ByteBuf buf) {
     int length = NettyUtils.readVarInt(buf);
-    if (length == 0) {
-      return JsonDocument.EMPTY;
-    } else {
-      byte[] content = new byte[length];
-      buf.readBytes(content);
-      return JsonDocument.newDocument(new String(content, StandardCharsets.UTF_8));
-    }
+    // the body shares the memory of the inbound buffer, it gets released after the packet was handled
+    return ProtocolBuffer.wrap(length == 0 ? Unpooled.EMPTY_BUFFER : buf.readRetainedSlice(length));
   }
 }
@@ -46,15 +46,21 @@ protected void encode(ChannelHandlerContext ctx, IPacket packet, ByteBuf byteBuf
       });
     }
 
+    writePacketId(byteBuf, packet);
+    PacketHeaderCodec.writeHeader(ctx == null ? null : ctx.channel(), byteBuf, packet.getHeader());
+    writePacketBody(byteBuf, packet);
+  }
+
+  static void writePacketId(ByteBuf byteBuf, IPacket packet) {
     // channel
     NettyUtils.writeVarInt(byteBuf, packet.getChannel());
     // unique id
     byteBuf
       .writeLong(packet.getUniqueId().getMostSignificantBits())
       .writeLong(packet.getUniqueId().getLeastSignificantBits());
-    // header
-    this.writeHeader(packet, byteBuf);
-    // body
+  }
+
+  static void writePacketBody(ByteBuf byteBuf, IPacket packet) {
     if (packet.getBuffer() != null) {
       int amount = packet.getBuffer().readableBytes();
       NettyUtils.writeVarInt(byteBuf, amount);
@@ -64,11 +70,12 @@ protected void encode(ChannelHandlerContext ctx, IPacket packet, ByteBuf byteBuf
     }
   }
 
-  private void writeHeader(IPacket packet, ByteBuf byteBuf) {
-    if (packet.getHeader() == null || packet.getHeader().isEmpty()) {
-      NettyUtils.writeVarInt(byteBuf, 0);
-    } else {
-      NettyUtils.writeString(byteBuf, packet.getHeader().toJson());
-    }
+  @Override
+  protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, IPacket packet, boolean preferDirect) {
+    // channel (max 5 bytes), unique id (16 bytes), header & body length (max 5 bytes each)
+    int initialSize = 31 + (packet.getBuffer() == null ? 0 : packet.getBuffer().readableBytes());
+    return preferDirect
+      ? ctx.alloc().ioBuffer(initialSize)
+      : ctx.alloc().heapBuffer(initialSize);
   }
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.driver.network.netty.codec;
+
+import de.dytanic.cloudnet.driver.network.netty.NettyUtils;
+import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.util.AbstractReferenceCounted;
+import io.netty.util.ReferenceCounted;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A packet which is sent to many channels at once. The packet is encoded once per header format into a length
+ * prefixed frame, each channel writes a duplicate of the frame instead of encoding the packet again.
+ */
+@ApiStatus.Internal
+public final class NettyPacketFrame extends AbstractReferenceCounted {
+
+  private final IPacket packet;
+
+  private volatile ByteBuf binaryHeaderFrame;
+  private volatile ByteBuf jsonHeaderFrame;
+
+  public NettyPacketFrame(@NotNull IPacket packet) {
+    this.packet = packet.retain();
+  }
+
+  public @NotNull IPacket getPacket() {
+    return this.packet;
+  }
+
+  /**
+   * Gets the encoded frame for the given header format, the frame is encoded on the first call for each format.
+   *
+   * @param binaryHeader if the header should be encoded in the binary format
+   * @return a retained duplicate of the encoded frame, which has to be released by the caller
+   */
+  public @NotNull ByteBuf retainedFrame(boolean binaryHeader) {
+    ByteBuf frame = binaryHeader ? this.binaryHeaderFrame : this.jsonHeaderFrame;
+    if (frame == null) {
+      synchronized (this) {
+        frame = binaryHeader ? this.binaryHeaderFrame : this.jsonHeaderFrame;
+        if (frame == null) {
+          frame = this.encode(binaryHeader);
+          if (binaryHeader) {
+            this.binaryHeaderFrame = frame;
+          } else {
+            this.jsonHeaderFrame = frame;
+          }
+        }
+      }
+    }
+
+    return frame.retainedDuplicate();
+  }
+
+  private ByteBuf encode(boolean binaryHeader) {
+    ByteBuf content = ByteBufAllocator.DEFAULT.heapBuffer(
+      31 + (this.packet.getBuffer() == null ? 0 : this.packet.getBuffer().readableBytes()));
+    try {
+      NettyPacketEncoder.writePacketId(content, this.packet);
+      PacketHeaderCodec.writeHeader(content, this.packet.getHeader(), binaryHeader);
+      NettyPacketEncoder.writePacketBody(content, this.packet);
+
+      ByteBuf frame = ByteBufAllocator.DEFAULT.ioBuffer(5 + content.readableBytes());
+      NettyUtils.writeVarInt(frame, content.readableBytes());
+      return frame.writeBytes(content);
+    } finally {
+      content.release();
+    }
+  }
+
+  @Override
+  protected synchronized void deallocate() {
+    if (this.binaryHeaderFrame != null) {
+      this.binaryHeaderFrame.release();
+    }
+    if (this.jsonHeaderFrame != null) {
+      this.jsonHeaderFrame.release();
+    }
+
+    this.packet.release();
+  }
+
+  @Override
+  public ReferenceCounted touch(Object hint) {
+    return this;
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.driver.network.netty.codec;
+
+import de.dytanic.cloudnet.driver.network.netty.NettyUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageEncoder;
+import java.util.List;
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * Writes the pre-encoded frames of packets sent to many channels. This encoder has to be located between the length
+ * serializer and the network, the frames already contain their length.
+ */
+@ApiStatus.Internal
+@ChannelHandler.Sharable
+public final class NettyPacketFrameEncoder extends MessageToMessageEncoder<NettyPacketFrame> {
+
+  public static final NettyPacketFrameEncoder INSTANCE = new NettyPacketFrameEncoder();
+
+  private NettyPacketFrameEncoder() {
+  }
+
+  @Override
+  protected void encode(ChannelHandlerContext ctx, NettyPacketFrame frame, List<Object> out) {
+    Boolean binaryHeader = PacketHeaderCodec.getHeaderFormat(ctx.channel());
+    if (binaryHeader != null) {
+      out.add(frame.retainedFrame(binaryHeader));
+      return;
+    }
+
+    // the first header of a connection has to advertise the binary format, so the packet is encoded for this channel
+    ByteBuf content = ctx.alloc().heapBuffer();
+    try {
+      NettyPacketEncoder.writePacketId(content, frame.getPacket());
+      PacketHeaderCodec.writeHeader(ctx.channel(), content, frame.getPacket().getHeader());
+      NettyPacketEncoder.writePacketBody(content, frame.getPacket());
+
+      ByteBuf buffer = ctx.alloc().ioBuffer(5 + content.readableBytes());
+      NettyUtils.writeVarInt(buffer, content.readableBytes());
+      out.add(buffer.writeBytes(content));
+    } finally {
+      content.release();
+    }
+  }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.driver.network.netty.codec;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.internal.LazilyParsedNumber;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.exception.SilentDecoderException;
+import de.dytanic.cloudnet.driver.network.netty.NettyUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Encodes the header of a packet either in the legacy json format or in a compact binary format. The binary format is
+ * negotiated per connection: each side advertises its support with the first json header it sends and switches to the
+ * binary format as soon as the other side advertised or used it. Both formats can always be decoded.
+ */
+@ApiStatus.Internal
+public final class PacketHeaderCodec {
+
+  /**
+   * The key which is appended to the first json header of a connection to advertise the binary header support
+   */
+  public static final String BINARY_SUPPORT_KEY = "cloudnet:binaryHeaders";
+
+  private static final AttributeKey<Boolean> BINARY_ADVERTISED = AttributeKey.valueOf("cloudnet:binaryAdvertised");
+  private static final AttributeKey<Boolean> BINARY_SUPPORTED = AttributeKey.valueOf("cloudnet:binarySupported");
+
+  private static final SilentDecoderException INVALID_HEADER = new SilentDecoderException("Invalid packet header");
+
+  // the first byte of a json header is always '{'
+  private static final byte BINARY_FORMAT = 0x01;
+
+  private static final byte TYPE_NULL = 0;
+  private static final byte TYPE_TRUE = 1;
+  private static final byte TYPE_FALSE = 2;
+  private static final byte TYPE_LONG = 3;
+  private static final byte TYPE_NUMBER = 4;
+  private static final byte TYPE_STRING = 5;
+  private static final byte TYPE_JSON = 6;
+
+  // part of the wire format, new keys may only be appended
+  private static final String[] WELL_KNOWN_KEYS = new String[]{
+    "key", "document", "documents", "path", "access", "template", "operationType", "name", "type", "preClear",
+    "authorization", "credentials"
+  };
+
+  private PacketHeaderCodec() {
+    throw new UnsupportedOperationException();
+  }
+
+  public static void writeHeader(@Nullable Channel channel, @NotNull ByteBuf buf, @Nullable JsonDocument header) {
+    if (channel != null && channel.hasAttr(BINARY_SUPPORTED)) {
+      writeHeader(buf, header, true);
+    } else if (channel != null && channel.attr(BINARY_ADVERTISED).setIfAbsent(Boolean.TRUE) == null) {
+      JsonDocument advertisingHeader = header == null ? JsonDocument.newDocument() : header.clone();
+      NettyUtils.writeString(buf, advertisingHeader.append(BINARY_SUPPORT_KEY, true).toJson());
+    } else {
+      writeHeader(buf, header, false);
+    }
+  }
+
+  /**
+   * Writes the given header in the given format, without advertising the binary format.
+   *
+   * @param buf    the buffer to write the header to
+   * @param header the header to write
+   * @param binary if the header should be written in the binary or in the json format
+   */
+  public static void writeHeader(@NotNull ByteBuf buf, @Nullable JsonDocument header, boolean binary) {
+    if (header == null || header.isEmpty()) {
+      NettyUtils.writeVarInt(buf, 0);
+    } else if (binary) {
+      writeBinaryHeader(buf, header);
+    } else {
+      NettyUtils.writeString(buf, header.toJson());
+    }
+  }
+
+  /**
+   * Gets the header format which is used for the next packet sent to the given channel.
+   *
+   * @param channel the channel to get the format of
+   * @return true for the binary format, false for the json format or null if the next header still has to advertise
+   * the binary format
+   */
+  public static @Nullable Boolean getHeaderFormat(@NotNull Channel channel) {
+    if (channel.hasAttr(BINARY_SUPPORTED)) {
+      return Boolean.TRUE;
+    }
+    return channel.hasAttr(BINARY_ADVERTISED) ? Boolean.FALSE : null;
+  }
+
+  public static @NotNull JsonDocument readHeader(@Nullable Channel channel, @NotNull ByteBuf buf) {
+    int length = NettyUtils.readVarInt(buf);
+    if (length == 0) {
+      return JsonDocument.EMPTY;
+    }
+
+    int endIndex = buf.readerIndex() + length;
+    if (buf.getByte(buf.readerIndex()) == BINARY_FORMAT) {
+      buf.skipBytes(1);
+      JsonDocument header = readBinaryHeader(buf);
+      if (buf.readerIndex() != endIndex) {
+        throw INVALID_HEADER;
+      }
+
+      markBinarySupported(channel);
+      return header;
+    }
+
+    JsonDocument header = JsonDocument.newDocument(buf.readCharSequence(length, StandardCharsets.UTF_8).toString());
+    if (header.contains(BINARY_SUPPORT_KEY)) {
+      header.remove(BINARY_SUPPORT_KEY);
+      markBinarySupported(channel);
+    }
+
+    return header;
+  }
+
+  private static void markBinarySupported(@Nullable Channel channel) {
+    if (channel != null) {
+      channel.attr(BINARY_SUPPORTED).set(Boolean.TRUE);
+    }
+  }
+
+  private static void writeBinaryHeader(ByteBuf buf, JsonDocument header) {
+    // reserve the space for the length, 3 bytes are enough for headers up to 2 MiB
+    int lengthIndex = buf.writerIndex();
+    buf.writeMedium(0);
+    buf.writeByte(BINARY_FORMAT);
+
+    NettyUtils.writeVarInt(buf, header.size());
+    for (Map.Entry<String, JsonElement> entry : header.toJsonObject().entrySet()) {
+      writeKey(buf, entry.getKey());
+      writeValue(buf, entry.getValue());
+    }
+
+    int length = buf.writerIndex() - lengthIndex - 3;
+    if (length >= 1 << 21) {
+      throw new IllegalArgumentException("Packet header exceeds the maximum length of 2 MiB");
+    }
+    // write the length as a var int padded to 3 bytes
+    buf.setByte(lengthIndex, length & 0x7F | 0x80);
+    buf.setByte(lengthIndex + 1, (length >>> 7) & 0x7F | 0x80);
+    buf.setByte(lengthIndex + 2, length >>> 14);
+  }
+
+  private static void writeKey(ByteBuf buf, String key) {
+    for (int i = 0; i < WELL_KNOWN_KEYS.length; i++) {
+      if (WELL_KNOWN_KEYS[i].equals(key)) {
+        NettyUtils.writeVarInt(buf, i + 1);
+        return;
+      }
+    }
+
+    NettyUtils.writeVarInt(buf, 0);
+    NettyUtils.writeString(buf, key);
+  }
+
+  private static void writeValue(ByteBuf buf, JsonElement element) {
+    if (element == null || element.isJsonNull()) {
+      buf.writeByte(TYPE_NULL);
+    } else if (element.isJsonPrimitive()) {
+      JsonPrimitive primitive = element.getAsJsonPrimitive();
+      if (primitive.isBoolean()) {
+        buf.writeByte(primitive.getAsBoolean() ? TYPE_TRUE : TYPE_FALSE);
+      } else if (primitive.isNumber()) {
+        Number number = primitive.getAsNumber();
+        if (number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte) {
+          buf.writeByte(TYPE_LONG);
+          NettyUtils.writeVarLong(buf, number.longValue());
+        } else {
+          buf.writeByte(TYPE_NUMBER);
+          NettyUtils.writeString(buf, number.toString());
+        }
+      } else {
+        buf.writeByte(TYPE_STRING);
+        NettyUtils.writeString(buf, primitive.getAsString());
+      }
+    } else {
+      buf.writeByte(TYPE_JSON);
+      NettyUtils.writeString(buf, element.toString());
+    }
+  }
+
+  private static JsonDocument readBinaryHeader(ByteBuf buf) {
+    int size = NettyUtils.readVarInt(buf);
+    JsonDocument header = JsonDocument.newDocument();
+
+    for (int i = 0; i < size; i++) {
+      String key = readKey(buf);
+      byte type = buf.readByte();
+      switch (type) {
+        case TYPE_NULL:
+          header.appendNull(key);
+          break;
+        case TYPE_TRUE:
+          header.append(key, true);
+          break;
+        case TYPE_FALSE:
+          header.append(key, false);
+          break;
+        case TYPE_LONG:
+          header.append(key, NettyUtils.readVarLong(buf));
+          break;
+        case TYPE_NUMBER:
+          header.append(key, new LazilyParsedNumber(NettyUtils.readString(buf)));
+          break;
+        case TYPE_STRING:
+          header.append(key, NettyUtils.readString(buf));
+          break;
+        case TYPE_JSON:
+          header.toJsonObject().add(key, JsonParser.parseString(NettyUtils.readString(buf)));
+          break;
+        default:
+          throw INVALID_HEADER;
+      }
+    }
+
+    return header;
+  }
+
+  private static String readKey(ByteBuf buf) {
+    int keyId = NettyUtils.readVarInt(buf);
+    if (keyId == 0) {
+      return NettyUtils.readString(buf);
+    } else if (keyId <= WELL_KNOWN_KEYS.length) {
+      return WELL_KNOWN_KEYS[keyId - 1];
+    } else {
+      throw INVALID_HEADER;
+    }
+  }
+}
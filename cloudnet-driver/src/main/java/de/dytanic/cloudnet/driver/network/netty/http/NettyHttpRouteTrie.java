@@ -0,0 +1,219 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.driver.network.netty.http;
+
+import de.dytanic.cloudnet.driver.network.http.IHttpContext;
+import de.dytanic.cloudnet.driver.network.http.IHttpHandler;
+import de.dytanic.cloudnet.driver.network.http.IMethodHttpHandler;
+import de.dytanic.cloudnet.driver.network.http.MethodHttpHandlerAdapter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * An immutable segment trie of all registered http handlers. The trie is built once when the handlers change, the
+ * order in which matching handlers are called is resolved at that point: handlers with a higher priority first,
+ * handlers with the same priority in the order of their registration.
+ */
+@ApiStatus.Internal
+final class NettyHttpRouteTrie {
+
+  private static final String[] NO_SEGMENTS = new String[0];
+  private static final String[] HTTP_METHODS = {"POST", "GET", "PUT", "HEAD", "DELETE", "PATCH", "TRACE", "OPTIONS",
+    "CONNECT"};
+
+  private final Node root = new Node();
+
+  public NettyHttpRouteTrie(Collection<NettyHttpServer.HttpHandlerEntry> entries) {
+    List<NettyHttpServer.HttpHandlerEntry> sortedEntries = new ArrayList<>(entries);
+    // the sort is stable, handlers with the same priority stay in the order of their registration
+    sortedEntries.sort(Comparator.comparingInt(entry -> -entry.priority));
+
+    for (int rank = 0; rank < sortedEntries.size(); rank++) {
+      this.insert(new Route(sortedEntries.get(rank), rank));
+    }
+  }
+
+  /**
+   * Splits the given path into its segments, the leading slash is ignored.
+   *
+   * @param path the path to split
+   * @return the segments of the path, empty for the root path
+   */
+  public static String[] split(String path) {
+    if (path.isEmpty() || path.equals("/")) {
+      return NO_SEGMENTS;
+    }
+
+    List<String> segments = new ArrayList<>();
+    int start = path.charAt(0) == '/' ? 1 : 0;
+    for (int index = start; index < path.length(); index++) {
+      if (path.charAt(index) == '/') {
+        segments.add(path.substring(start, index));
+        start = index + 1;
+      }
+    }
+    segments.add(path.substring(start));
+
+    return segments.toArray(NO_SEGMENTS);
+  }
+
+  /**
+   * Resolves all routes matching the given request in the order they should be called in.
+   *
+   * @param method   the upper case http method of the request
+   * @param port     the port the request was received on
+   * @param segments the segments of the requested path
+   * @return the matching routes, ordered by their precedence
+   */
+  public List<Route> match(String method, int port, String[] segments) {
+    List<Route> routes = new ArrayList<>(4);
+    this.collect(this.root, segments, 0, method, port, routes);
+
+    if (routes.size() > 1) {
+      routes.sort(Comparator.comparingInt(route -> route.rank));
+    }
+    return routes;
+  }
+
+  private void collect(Node node, String[] segments, int index, String method, int port, List<Route> routes) {
+    if (index == segments.length) {
+      this.addMatching(node.routes, method, port, routes);
+      return;
+    }
+
+    // a trailing wildcard matches one or more remaining segments
+    this.addMatching(node.wildcardRoutes, method, port, routes);
+
+    Node child = node.children.get(segments[index]);
+    if (child != null) {
+      this.collect(child, segments, index + 1, method, port, routes);
+    }
+
+    if (node.anyChild != null) {
+      this.collect(node.anyChild, segments, index + 1, method, port, routes);
+    }
+  }
+
+  private void addMatching(List<Route> candidates, String method, int port, List<Route> routes) {
+    for (Route route : candidates) {
+      if ((route.entry.port == null || route.entry.port == port)
+        && (route.methods == null || route.methods.contains(method))) {
+        routes.add(route);
+      }
+    }
+  }
+
+  private void insert(Route route) {
+    String[] segments = split(route.entry.path);
+    Node node = this.root;
+
+    for (int index = 0; index < segments.length; index++) {
+      String segment = segments[index];
+
+      if (segment.equals("*")) {
+        if (index == segments.length - 1) {
+          node.wildcardRoutes.add(route);
+          return;
+        }
+
+        node = node.anyChild();
+      } else if (segment.length() > 2 && segment.startsWith("{") && segment.endsWith("}")) {
+        route.parameterNames[index] = segment.substring(1, segment.length() - 1);
+        node = node.anyChild();
+      } else {
+        node = node.children.computeIfAbsent(segment, key -> new Node());
+      }
+    }
+
+    node.routes.add(route);
+  }
+
+  private static Set<String> resolveMethods(IHttpHandler handler) {
+    if (!(handler instanceof IMethodHttpHandler)) {
+      return null;
+    }
+
+    try {
+      Class<?> handlerClass = handler.getClass();
+      // handlers overriding handle may do something for every method
+      if (handlerClass.getMethod("handle", String.class, IHttpContext.class).getDeclaringClass()
+        != IMethodHttpHandler.class) {
+        return null;
+      }
+
+      Set<String> methods = new HashSet<>();
+      for (String method : HTTP_METHODS) {
+        String methodName = "handle" + method.charAt(0) + method.substring(1).toLowerCase(Locale.ROOT);
+        if (handlerClass.getMethod(methodName, String.class, IHttpContext.class).getDeclaringClass()
+          != MethodHttpHandlerAdapter.class) {
+          methods.add(method);
+        }
+      }
+      return methods;
+    } catch (NoSuchMethodException exception) {
+      return null;
+    }
+  }
+
+  static final class Route {
+
+    final NettyHttpServer.HttpHandlerEntry entry;
+    final int rank;
+    final String[] parameterNames;
+    // the methods the handler does something for, null if the handler has to be called for every method
+    final Set<String> methods;
+
+    Route(NettyHttpServer.HttpHandlerEntry entry, int rank) {
+      this.entry = entry;
+      this.rank = rank;
+      this.parameterNames = new String[split(entry.path).length];
+      this.methods = resolveMethods(entry.httpHandler);
+    }
+
+    void putParameters(String[] segments, Map<String, String> parameters) {
+      for (int index = 0; index < this.parameterNames.length; index++) {
+        if (this.parameterNames[index] != null) {
+          parameters.put(this.parameterNames[index], segments[index]);
+        }
+      }
+    }
+  }
+
+  private static final class Node {
+
+    private final Map<String, Node> children = new HashMap<>();
+    private final List<Route> routes = new ArrayList<>(1);
+    private final List<Route> wildcardRoutes = new ArrayList<>(1);
+
+    private Node anyChild;
+
+    private Node anyChild() {
+      if (this.anyChild == null) {
+        this.anyChild = new Node();
+      }
+      return this.anyChild;
+    }
+  }
+}
@@ -31,6 +31,7 @@
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -47,6 +48,8 @@ public final class NettyHttpServer extends NettySSLServer implements IHttpServer
   protected final List<HttpHandlerEntry> registeredHandlers = new CopyOnWriteArrayList<>();
   protected final Map<Integer, Pair<HostAndPort, ChannelFuture>> channelFutures = new ConcurrentHashMap<>();
 
+  protected volatile NettyHttpRouteTrie routeTrie = new NettyHttpRouteTrie(Collections.emptyList());
+
   protected final EventLoopGroup bossGroup = NettyUtils.newEventLoopGroup();
   protected final EventLoopGroup workerGroup = NettyUtils.newEventLoopGroup();
 
@@ -139,6 +142,8 @@ public IHttpServer registerHandler(String path, Integer port, int priority, IHtt
       }
     }
 
+    this.rebuildRouteTrie();
+
     return this;
   }
 
@@ -147,6 +152,7 @@ public IHttpServer removeHandler(IHttpHandler handler) {
     Preconditions.checkNotNull(handler);
 
     this.registeredHandlers.removeIf(registeredHandler -> registeredHandler.httpHandler.equals(handler));
+    this.rebuildRouteTrie();
 
     return this;
   }
@@ -156,6 +162,7 @@ public IHttpServer removeHandler(Class<? extends IHttpHandler> handler) {
     Preconditions.checkNotNull(handler);
 
     this.registeredHandlers.removeIf(registeredHandler -> registeredHandler.httpHandler.getClass().equals(handler));
+    this.rebuildRouteTrie();
 
     return this;
   }
@@ -166,6 +173,7 @@ public IHttpServer removeHandler(ClassLoader classLoader) {
 
     this.registeredHandlers
       .removeIf(registeredHandler -> registeredHandler.httpHandler.getClass().getClassLoader().equals(classLoader));
+    this.rebuildRouteTrie();
 
     return this;
   }
@@ -179,9 +187,14 @@ public Collection<IHttpHandler> getHttpHandlers() {
   @Override
   public IHttpServer clearHandlers() {
     this.registeredHandlers.clear();
+    this.rebuildRouteTrie();
     return this;
   }
 
+  private synchronized void rebuildRouteTrie() {
+    this.routeTrie = new NettyHttpRouteTrie(this.registeredHandlers);
+  }
+
   @Override
   public void close() {
     for (Pair<HostAndPort, ChannelFuture> entry : this.channelFutures.values()) {
@@ -25,10 +25,8 @@
 import io.netty.handler.codec.http.HttpRequest;
 import java.io.IOException;
 import java.net.URI;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import org.jetbrains.annotations.ApiStatus;
 
@@ -93,25 +91,24 @@ private void handleMessage(Channel channel, HttpRequest httpRequest) {
     }
 
     Map<String, String> pathParameters = new HashMap<>();
-
-    List<NettyHttpServer.HttpHandlerEntry> entries = new ArrayList<>(this.nettyHttpServer.registeredHandlers);
-    Collections.sort(entries);
-
-    String[] pathEntries = fullPath.split("/");
-    String[] handlerPathEntries;
+    String[] pathSegments = NettyHttpRouteTrie.split(fullPath);
 
     NettyHttpServerContext context = new NettyHttpServerContext(this.nettyHttpServer, this.channel, uri, pathParameters,
       httpRequest);
 
-    for (NettyHttpServer.HttpHandlerEntry httpHandlerEntry : entries) {
+    for (NettyHttpRouteTrie.Route route : this.nettyHttpServer.routeTrie
+      .match(httpRequest.method().name().toUpperCase(Locale.ROOT), this.connectedAddress.getPort(), pathSegments)) {
       if (context.cancelNext) {
         break;
       }
-      handlerPathEntries = httpHandlerEntry.path.split("/");
 
-      if (this.handleMessage0(httpHandlerEntry, context, pathParameters, fullPath, pathEntries, handlerPathEntries)) {
-        context.lastHandler = httpHandlerEntry.httpHandler;
+      route.putParameters(pathSegments, pathParameters);
+      try {
+        route.entry.httpHandler.handle(fullPath, context);
+      } catch (Throwable ex) {
+        ex.printStackTrace();
       }
+      context.lastHandler = route.entry.httpHandler;
     }
 
     if (!context.cancelSendResponse) {
@@ -128,60 +125,4 @@ private void handleMessage(Channel channel, HttpRequest httpRequest) {
       }
     }
   }
-
-  private boolean handleMessage0(NettyHttpServer.HttpHandlerEntry httpHandlerEntry, NettyHttpServerContext context,
-    Map<String, String> pathParameters, String fullPath, String[] pathEntries, String[] handlerPathEntries) {
-    if (httpHandlerEntry.port != null && httpHandlerEntry.port != this.connectedAddress.getPort()) {
-      return false;
-    }
-
-    if (!httpHandlerEntry.path.endsWith("*") && pathEntries.length != handlerPathEntries.length) {
-      return false;
-    }
-
-    if (pathEntries.length < handlerPathEntries.length) {
-      return false;
-    }
-
-    boolean wildCard = false;
-
-    if (!(pathEntries.length == 1 && handlerPathEntries.length == 1)) {
-      for (int index = 1; index < pathEntries.length; ++index) {
-        if (wildCard) {
-          continue;
-        }
-
-        if (index >= handlerPathEntries.length) {
-          return false;
-        }
-
-        if (handlerPathEntries[index].equals("*") && handlerPathEntries.length - 1 == index) {
-          wildCard = true;
-          continue;
-        }
-
-        if (handlerPathEntries[index].startsWith("{") && handlerPathEntries[index].endsWith("}")
-          && handlerPathEntries[index].length() > 2) {
-          String replacedString = handlerPathEntries[index].replaceFirst("\\{", "");
-          pathParameters.put(replacedString.substring(0, replacedString.length() - 1), pathEntries[index]);
-          continue;
-        }
-
-        if (handlerPathEntries[index].equals("*")) {
-          continue;
-        }
-
-        if (!handlerPathEntries[index].equals(pathEntries[index])) {
-          return false;
-        }
-      }
-    }
-
-    try {
-      httpHandlerEntry.httpHandler.handle(fullPath, context);
-    } catch (Throwable ex) {
-      ex.printStackTrace();
-    }
-    return true;
-  }
 }
@@ -157,8 +157,8 @@ public Collection<INetworkChannel> getModifiableChannels() {
   public void sendPacketSync(@NotNull IPacket... packets) {
     Preconditions.checkNotNull(packets);
 
-    for (INetworkChannel channel : this.channels) {
-      channel.sendPacketSync(packets);
+    for (IPacket packet : packets) {
+      INetworkChannel.broadcastPacketSync(packet, this.channels);
     }
   }
 
@@ -19,6 +19,7 @@
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
 import de.dytanic.cloudnet.driver.network.INetworkClient;
 import de.dytanic.cloudnet.driver.serialization.ProtocolBuffer;
+import io.netty.util.ReferenceCounted;
 import java.util.UUID;
 import org.jetbrains.annotations.NotNull;
 
@@ -32,12 +33,15 @@
  * <p>
  * The channel id is the id from that the listeners should be filter The header has the specify information or the data
  * that is important The body has binary packet information like for files, or zip compressed data
+ * <p>
+ * A packet is reference counted through its body. Packets decoded from the network are released after all listeners
+ * handled them, a listener which needs the body after returning has to {@link #retain()} and later release the packet.
  *
  * @see Packet
  * @see INetworkClient
  * @see de.dytanic.cloudnet.driver.network.INetworkServer
  */
-public interface IPacket {
+public interface IPacket extends ReferenceCounted {
 
   /**
    * Returns the uuid of the packet. Each packet should has a own defined UUID instance, less the callback packets for
@@ -89,4 +93,51 @@ default boolean isShowDebug() {
     return true;
   }
 
+  @Override
+  default int refCnt() {
+    return this.getBuffer() == null ? 1 : this.getBuffer().refCnt();
+  }
+
+  @Override
+  default IPacket retain() {
+    if (this.getBuffer() != null) {
+      this.getBuffer().retain();
+    }
+    return this;
+  }
+
+  @Override
+  default IPacket retain(int increment) {
+    if (this.getBuffer() != null) {
+      this.getBuffer().retain(increment);
+    }
+    return this;
+  }
+
+  @Override
+  default IPacket touch() {
+    if (this.getBuffer() != null) {
+      this.getBuffer().touch();
+    }
+    return this;
+  }
+
+  @Override
+  default IPacket touch(Object hint) {
+    if (this.getBuffer() != null) {
+      this.getBuffer().touch(hint);
+    }
+    return this;
+  }
+
+  @Override
+  default boolean release() {
+    return this.getBuffer() != null && this.getBuffer().refCnt() > 0 && this.getBuffer().release();
+  }
+
+  @Override
+  default boolean release(int decrement) {
+    return this.getBuffer() != null && this.getBuffer().refCnt() > 0 && this.getBuffer().release(decrement);
+  }
+
 }
@@ -48,6 +48,18 @@ protected ChunkedPacket(int channel, @NotNull UUID uniqueId, @NotNull JsonDocume
     super(channel, uniqueId, header, body);
   }
 
+  /**
+   * Creates a data segment whose body was already written, the data of the segment is read directly into the body
+   * instead of being copied from an array.
+   */
+  protected ChunkedPacket(int channel, @NotNull UUID uniqueId, int chunkId, int chunkSize, int dataLength,
+    @NotNull ProtocolBuffer body) {
+    super(channel, uniqueId, JsonDocument.EMPTY, body);
+    this.chunkId = chunkId;
+    this.chunkSize = chunkSize;
+    this.dataLength = dataLength;
+  }
+
   public static ChunkedPacket createIncomingPacket(int channel, @NotNull UUID uniqueId, @NotNull JsonDocument header,
     ProtocolBuffer body) {
     return new ChunkedPacket(channel, uniqueId, header, body);
@@ -115,12 +127,6 @@ public byte[] getData() {
   }
 
   public void clearData() {
-    if (super.body != null) {
-      while (super.body.refCnt() > 0) {
-        super.body.release();
-      }
-    }
-
     this.data = null;
   }
 }
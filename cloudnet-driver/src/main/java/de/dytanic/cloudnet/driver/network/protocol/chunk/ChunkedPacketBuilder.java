@@ -19,11 +19,13 @@
 import com.google.common.base.Preconditions;
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
 import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.serialization.ProtocolBuffer;
+import io.netty.buffer.Unpooled;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Files;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
-import java.util.Arrays;
+import java.nio.file.StandardOpenOption;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.UUID;
@@ -33,13 +35,19 @@ public class ChunkedPacketBuilder {
 
   public static final int DEFAULT_CHUNK_SIZE = 128 * 1024;
 
+  // chunk id (max 5 bytes), end flag (1 byte) and data length (4 bytes)
+  private static final int SEGMENT_PREFIX_LENGTH = 10;
+
   private InputStream inputStream;
+  private FileChannel fileChannel;
   private Integer channel;
   private Consumer<ChunkedPacket> target;
+  private Collection<INetworkChannel> targetChannels;
 
   private UUID uniqueId = UUID.randomUUID();
   private JsonDocument header = JsonDocument.EMPTY;
   private int chunkSize = DEFAULT_CHUNK_SIZE;
+  private int maxInFlightChunks = DefaultChunkedPacketHandler.DEFAULT_MAX_IN_FLIGHT_CHUNKS;
 
   private boolean completed;
   private boolean success;
@@ -54,11 +62,18 @@ public static ChunkedPacketBuilder newBuilder() {
 
   public ChunkedPacketBuilder input(InputStream inputStream) {
     this.inputStream = inputStream;
+    this.fileChannel = null;
     return this;
   }
 
+  /**
+   * Uses the given file as input, the chunks are read directly from the file into the packet bodies. The file is closed
+   * by the builder.
+   */
   public ChunkedPacketBuilder input(Path path) throws IOException {
-    return this.input(Files.newInputStream(path));
+    this.inputStream = null;
+    this.fileChannel = FileChannel.open(path, StandardOpenOption.READ);
+    return this;
   }
 
   public ChunkedPacketBuilder channel(int channel) {
@@ -72,6 +87,7 @@ public int channel() {
 
   public ChunkedPacketBuilder target(Consumer<ChunkedPacket> target) {
     this.target = target;
+    this.targetChannels = null;
     return this;
   }
 
@@ -80,7 +96,9 @@ public ChunkedPacketBuilder target(INetworkChannel channel) {
   }
 
   public ChunkedPacketBuilder target(Collection<INetworkChannel> channels) {
-    return this.target(DefaultChunkedPacketHandler.createHandler(channels));
+    this.target = null;
+    this.targetChannels = channels;
+    return this;
   }
 
   public ChunkedPacketBuilder uniqueId(UUID uniqueId) {
@@ -110,12 +128,48 @@ public int chunkSize() {
     return this.chunkSize;
   }
 
+  /**
+   * Sets the amount of chunks which may be written to a target channel without being flushed to the network yet. Only
+   * used if the target of this builder are network channels.
+   */
+  public ChunkedPacketBuilder maxInFlightChunks(int maxInFlightChunks) {
+    this.maxInFlightChunks = maxInFlightChunks;
+    return this;
+  }
+
+  public int maxInFlightChunks() {
+    return this.maxInFlightChunks;
+  }
+
   private ChunkedPacket createStartPacket(int channel, UUID uniqueId, JsonDocument header, int chunkSize) {
     return new ChunkedPacket(channel, uniqueId, header, 0, chunkSize, chunkSize, false, new byte[0], 0);
   }
 
-  private ChunkedPacket createSegment(int channel, UUID uniqueId, int id, int chunkSize, int length, byte[] data) {
-    return new ChunkedPacket(channel, uniqueId, JsonDocument.EMPTY, id, chunkSize, length, false, data, 0);
+  private ChunkedPacket readSegment(int channel, UUID uniqueId, int id, int chunkSize) throws IOException {
+    ProtocolBuffer body = ProtocolBuffer.wrap(Unpooled.buffer(SEGMENT_PREFIX_LENGTH + chunkSize));
+    body.writeVarInt(id).writeBoolean(false);
+
+    int lengthIndex = body.writerIndex();
+    body.writeInt(0);
+
+    int length = 0;
+    while (length < chunkSize) {
+      int read = this.fileChannel != null
+        ? body.writeBytes(this.fileChannel, chunkSize - length)
+        : body.writeBytes(this.inputStream, chunkSize - length);
+      if (read == -1) {
+        break;
+      }
+      length += read;
+    }
+
+    if (length == 0) {
+      body.release();
+      return null;
+    }
+
+    body.setInt(lengthIndex, length);
+    return new ChunkedPacket(channel, uniqueId, id, chunkSize, length, body);
   }
 
   private ChunkedPacket createEndPacket(int channel, UUID uniqueId, int id, int chunkSize) {
@@ -125,24 +179,32 @@ private ChunkedPacket createEndPacket(int channel, UUID uniqueId, int id, int ch
   public ChunkedPacketBuilder complete() throws IOException {
     this.validate();
 
+    Consumer<ChunkedPacket> target = this.target != null
+      ? this.target
+      : DefaultChunkedPacketHandler.createHandler(this.targetChannels, this.maxInFlightChunks);
+
     try {
-      this.target.accept(this.createStartPacket(this.channel, this.uniqueId, this.header, this.chunkSize));
+      target.accept(this.createStartPacket(this.channel, this.uniqueId, this.header, this.chunkSize));
 
       int chunkId = 1;
 
-      int read;
-      byte[] buffer = new byte[this.chunkSize];
-      while ((read = this.inputStream.read(buffer)) != -1) {
-        this.target
-          .accept(this.createSegment(this.channel, this.uniqueId, chunkId++,
-              this.chunkSize, read, Arrays.copyOf(buffer, buffer.length)));
+      ChunkedPacket segment;
+      while ((segment = this.readSegment(this.channel, this.uniqueId, chunkId, this.chunkSize)) != null) {
+        ++chunkId;
+        target.accept(segment);
       }
 
-      this.target.accept(this.createEndPacket(this.channel, this.uniqueId, chunkId, this.chunkSize));
-      this.inputStream.close();
+      target.accept(this.createEndPacket(this.channel, this.uniqueId, chunkId, this.chunkSize));
+      if (this.inputStream != null) {
+        this.inputStream.close();
+      }
 
       this.success = true;
     } catch (ChunkInterrupt ignored) {
+    } finally {
+      if (this.fileChannel != null) {
+        this.fileChannel.close();
+      }
     }
 
     this.completed = true;
@@ -150,8 +212,9 @@ public ChunkedPacketBuilder complete() throws IOException {
   }
 
   private void validate() {
-    Preconditions.checkNotNull(this.inputStream, "No input provided");
-    Preconditions.checkNotNull(this.target, "No handler provided");
+    Preconditions.checkState(this.inputStream != null || this.fileChannel != null, "No input provided");
+    Preconditions.checkState(this.target != null || this.targetChannels != null, "No handler provided");
+    Preconditions.checkArgument(this.chunkSize > 0, "Chunk size must be positive");
     Preconditions.checkNotNull(this.channel, "No channel provided");
     Preconditions.checkState(!this.completed, "Builder cannot be completed twice");
   }
@@ -16,30 +16,63 @@
 
 package de.dytanic.cloudnet.driver.network.protocol.chunk;
 
+import com.google.common.base.Preconditions;
 import de.dytanic.cloudnet.driver.network.INetworkChannel;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
+/**
+ * Sends chunked packets to network channels with a credit based flow control: every channel has a limited amount of
+ * credits, one credit is taken for each chunk written to the channel and given back as soon as the chunk was flushed to
+ * the network. If no credit is available or the channel is not writable, the sending thread waits until the channel
+ * signals that it can accept more data instead of polling it.
+ */
 public class DefaultChunkedPacketHandler {
 
+  public static final int DEFAULT_MAX_IN_FLIGHT_CHUNKS = 8;
+
   public static Consumer<ChunkedPacket> createHandler(Collection<INetworkChannel> channels) {
+    return createHandler(channels, DEFAULT_MAX_IN_FLIGHT_CHUNKS);
+  }
+
+  public static Consumer<ChunkedPacket> createHandler(Collection<INetworkChannel> channels, int maxInFlightChunks) {
+    Preconditions.checkArgument(maxInFlightChunks > 0, "At least one chunk has to be allowed in flight");
+
+    Map<INetworkChannel, Semaphore> credits = new HashMap<>();
     return packet -> {
-      for (INetworkChannel channel : channels) {
-        if (!channel.isActive()) {
-          if (noneActive(channels)) {
-            throw ChunkInterrupt.INSTANCE;
+      packet.fillBuffer();
+
+      try {
+        for (INetworkChannel channel : channels) {
+          if (!channel.isActive()) {
+            if (noneActive(channels)) {
+              throw ChunkInterrupt.INSTANCE;
+            }
+            continue;
+          }
+
+          Semaphore channelCredits = credits.computeIfAbsent(channel, $ -> new Semaphore(maxInFlightChunks));
+          if (!acquireCredit(channel, channelCredits)) {
+            continue;
           }
-          continue;
-        }
 
-        if (!waitWritable(channel)) {
-          continue;
+          channel.sendPacket(packet, channelCredits::release);
         }
 
-        channel.sendPacketSync(packet.fillBuffer());
+        if (packet.isEnd()) {
+          // the transfer is only completed when all chunks were written
+          for (Map.Entry<INetworkChannel, Semaphore> entry : credits.entrySet()) {
+            awaitInFlightChunks(entry.getKey(), entry.getValue(), maxInFlightChunks);
+          }
+        }
+      } finally {
+        packet.clearData();
+        packet.release();
       }
-
-      packet.clearData();
     };
   }
 
@@ -52,20 +85,39 @@ private static boolean noneActive(Collection<INetworkChannel> channels) {
     return true;
   }
 
-  private static boolean waitWritable(INetworkChannel channel) {
-    while (!channel.isWriteable()) {
-      try {
-        Thread.sleep(1);
-      } catch (InterruptedException exception) {
-        throw ChunkInterrupt.INSTANCE;
+  private static boolean acquireCredit(INetworkChannel channel, Semaphore credits) {
+    try {
+      // the timeouts are only used to notice a closed channel, the credits are given back by the write listeners
+      while (!credits.tryAcquire(1, TimeUnit.SECONDS)) {
+        if (!channel.isActive()) {
+          return false;
+        }
       }
 
-      if (!channel.isActive()) {
-        return false;
+      while (!channel.awaitWritable(1, TimeUnit.SECONDS)) {
+        if (!channel.isActive()) {
+          credits.release();
+          return false;
+        }
       }
+
+      return true;
+    } catch (InterruptedException exception) {
+      throw ChunkInterrupt.INSTANCE;
     }
+  }
 
-    return true;
+  private static void awaitInFlightChunks(INetworkChannel channel, Semaphore credits, int maxInFlightChunks) {
+    try {
+      while (!credits.tryAcquire(maxInFlightChunks, 1, TimeUnit.SECONDS)) {
+        if (!channel.isActive()) {
+          return;
+        }
+      }
+      credits.release(maxInFlightChunks);
+    } catch (InterruptedException exception) {
+      throw ChunkInterrupt.INSTANCE;
+    }
   }
 
 }
@@ -72,6 +72,8 @@ public void handleIncomingChunk(@NotNull ChunkedPacket packet) throws IOExceptio
 
     try {
       if (this.chunkId != packet.getChunkId()) {
+        // the packet is released after the listener returns, keep it until the missing chunks arrived
+        packet.retain();
         this.pendingPackets.add(packet);
       } else {
         this.storeChunk(packet);
@@ -113,7 +115,11 @@ private void checkPendingPackets() throws IOException {
         ChunkedPacket pending = iterator.next();
         if (this.chunkId == pending.getChunkId() || (pending.isEnd() && this.chunkId - 1 == pending.getChunks())) {
           iterator.remove();
-          this.storeChunk(pending);
+          try {
+            this.storeChunk(pending);
+          } finally {
+            pending.release();
+          }
         }
       }
     }
@@ -121,17 +127,20 @@ private void checkPendingPackets() throws IOException {
 
   protected void close() throws IOException {
     if (!this.pendingPackets.isEmpty()) {
+      int pendingCount = this.pendingPackets.size();
       String packets = this.pendingPackets.stream().map(ChunkedPacket::getChunkId).map(String::valueOf)
         .collect(Collectors.joining(", "));
+
+      this.pendingPackets.forEach(ChunkedPacket::release);
+      this.pendingPackets.clear();
+
       throw new IllegalStateException(
-        String.format("Closing with %d pending packets: %s", this.pendingPackets.size(), packets));
+        String.format("Closing with %d pending packets: %s", pendingCount, packets));
     }
 
     this.closed = true;
     this.outputStream.close();
 
-    System.gc();
-
     this.listener.getSessions().remove(this.sessionUniqueId);
     this.listener.handleComplete(this);
   }
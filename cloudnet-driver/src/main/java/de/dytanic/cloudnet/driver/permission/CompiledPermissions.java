@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.driver.permission;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An immutable, pre-resolved view of a flattened permission collection. Exact permissions are indexed by their lower
+ * case name, wildcard permissions ({@code *} and {@code perm.*}) are stored in a trie of their names without the star
+ * characters. A lookup resolves to the same permission as {@link IPermissionManagement#findHighestPermission(Collection,
+ * Permission)} without scanning the whole collection; if two matching permissions have the same absolute potency the
+ * negative one is preferred.
+ */
+@ApiStatus.Internal
+public final class CompiledPermissions {
+
+  private final Map<String, Permission> exactPermissions;
+  private final Node wildcardRoot;
+
+  private CompiledPermissions(Map<String, Permission> exactPermissions, Node wildcardRoot) {
+    this.exactPermissions = exactPermissions;
+    this.wildcardRoot = wildcardRoot;
+  }
+
+  public static @NotNull CompiledPermissions compile(@NotNull Collection<Permission> permissions) {
+    Map<String, Permission> exactPermissions = new HashMap<>(permissions.size());
+    Node wildcardRoot = new Node();
+
+    for (Permission permission : permissions) {
+      String name = permission.getName();
+      exactPermissions.merge(name.toLowerCase(Locale.ROOT), permission, CompiledPermissions::stronger);
+
+      if (name.endsWith("*")) {
+        Node node = wildcardRoot;
+        for (int i = 0; i < name.length(); i++) {
+          char c = name.charAt(i);
+          if (c != '*') {
+            node = node.children.computeIfAbsent(c, $ -> new Node());
+          }
+        }
+        node.permission = node.permission == null ? permission : stronger(node.permission, permission);
+      }
+    }
+
+    return new CompiledPermissions(exactPermissions, wildcardRoot);
+  }
+
+  private static Permission stronger(Permission current, Permission candidate) {
+    int currentPotency = Math.abs(current.getPotency());
+    int candidatePotency = Math.abs(candidate.getPotency());
+    return candidatePotency > currentPotency
+      || (candidatePotency == currentPotency && candidate.getPotency() < current.getPotency()) ? candidate : current;
+  }
+
+  private static Permission select(Permission current, Permission candidate, Permission requested) {
+    if (candidate == null || candidate.compareTo(requested) < 0) {
+      return current;
+    }
+    return current == null ? candidate : stronger(current, candidate);
+  }
+
+  public @Nullable Permission findHighestPermission(@NotNull Permission permission) {
+    String name = permission.getName();
+    Permission result = select(null, this.exactPermissions.get(name.toLowerCase(Locale.ROOT)), permission);
+    // "*" and "**" are stored in the root node and match every permission
+    result = select(result, this.wildcardRoot.permission, permission);
+
+    if (!this.wildcardRoot.children.isEmpty()) {
+      // wildcard permissions match if their name without the stars is contained anywhere in the requested name
+      for (int start = 0; start < name.length(); start++) {
+        Node node = this.wildcardRoot;
+        for (int i = start; i < name.length(); i++) {
+          node = node.children.get(name.charAt(i));
+          if (node == null) {
+            break;
+          }
+          result = select(result, node.permission, permission);
+        }
+      }
+    }
+
+    return result;
+  }
+
+  private static final class Node {
+
+    private final Map<Character, Node> children = new HashMap<>(4);
+    private Permission permission;
+  }
+}
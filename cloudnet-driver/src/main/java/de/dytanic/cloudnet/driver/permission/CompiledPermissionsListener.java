@@ -0,0 +1,78 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.driver.permission;
+
+import de.dytanic.cloudnet.driver.event.EventListener;
+import de.dytanic.cloudnet.driver.event.events.permission.PermissionAddGroupEvent;
+import de.dytanic.cloudnet.driver.event.events.permission.PermissionDeleteGroupEvent;
+import de.dytanic.cloudnet.driver.event.events.permission.PermissionDeleteUserEvent;
+import de.dytanic.cloudnet.driver.event.events.permission.PermissionSetGroupsEvent;
+import de.dytanic.cloudnet.driver.event.events.permission.PermissionSetUsersEvent;
+import de.dytanic.cloudnet.driver.event.events.permission.PermissionUpdateGroupEvent;
+import de.dytanic.cloudnet.driver.event.events.permission.PermissionUpdateUserEvent;
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * Invalidates the {@link CompiledPermissions} of a {@link DefaultCachedPermissionManagement} when a user or group was
+ * changed. A user change only affects the compiled permissions of that user, a group change affects every user.
+ */
+@ApiStatus.Internal
+public final class CompiledPermissionsListener {
+
+  private final DefaultCachedPermissionManagement permissionManagement;
+
+  public CompiledPermissionsListener(DefaultCachedPermissionManagement permissionManagement) {
+    this.permissionManagement = permissionManagement;
+  }
+
+  @EventListener
+  public void handle(PermissionUpdateUserEvent event) {
+    this.permissionManagement.invalidateCompiledPermissions(event.getPermissionUser().getUniqueId());
+  }
+
+  @EventListener
+  public void handle(PermissionDeleteUserEvent event) {
+    this.permissionManagement.invalidateCompiledPermissions(event.getPermissionUser().getUniqueId());
+  }
+
+  @EventListener
+  public void handle(PermissionSetUsersEvent event) {
+    for (IPermissionUser user : event.getUsers()) {
+      this.permissionManagement.invalidateCompiledPermissions(user.getUniqueId());
+    }
+  }
+
+  @EventListener
+  public void handle(PermissionAddGroupEvent event) {
+    this.permissionManagement.invalidateCompiledPermissions();
+  }
+
+  @EventListener
+  public void handle(PermissionUpdateGroupEvent event) {
+    this.permissionManagement.invalidateCompiledPermissions();
+  }
+
+  @EventListener
+  public void handle(PermissionDeleteGroupEvent event) {
+    this.permissionManagement.invalidateCompiledPermissions();
+  }
+
+  @EventListener
+  public void handle(PermissionSetGroupsEvent event) {
+    this.permissionManagement.invalidateCompiledPermissions();
+  }
+}
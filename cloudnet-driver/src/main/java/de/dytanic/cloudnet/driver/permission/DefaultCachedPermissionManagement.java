@@ -19,11 +19,15 @@
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.RemovalCause;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -45,6 +49,11 @@ public abstract class DefaultCachedPermissionManagement extends DefaultPermissio
       .handleGroupRemove((String) notification.getKey(), (IPermissionGroup) notification.getValue(),
         notification.getCause()))
     .build();
+  protected final Cache<UUID, CompiledUserPermissions> compiledPermissionCache = CacheBuilder.newBuilder()
+    .expireAfterAccess(5, TimeUnit.MINUTES)
+    .concurrencyLevel(4)
+    .build();
+  private final AtomicLong compiledPermissionVersion = new AtomicLong();
 
   @Override
   public Map<UUID, IPermissionUser> getCachedPermissionUsers() {
@@ -114,15 +123,87 @@ public void unlockFully(IPermissionGroup group) {
     this.permissionGroupLocks.remove(group.getName());
   }
 
+  /**
+   * Drops the compiled permissions of the user with the given unique id, they will be compiled again on the next
+   * permission check of the user.
+   *
+   * @param uniqueId the unique id of the user whose permissions changed
+   */
+  public void invalidateCompiledPermissions(@NotNull UUID uniqueId) {
+    // the version has to be changed first, see getCompiledPermissions
+    this.compiledPermissionVersion.incrementAndGet();
+    this.compiledPermissionCache.invalidate(uniqueId);
+  }
+
+  /**
+   * Drops the compiled permissions of all users, used when a group changed which might be inherited by any user.
+   */
+  public void invalidateCompiledPermissions() {
+    this.compiledPermissionVersion.incrementAndGet();
+    this.compiledPermissionCache.invalidateAll();
+  }
+
+  @Override
+  protected @Nullable Permission findHighestPermission(@NotNull IPermissible permissible, @Nullable String[] groups,
+    @NotNull Permission permission) {
+    if (permissible instanceof IPermissionUser) {
+      return this.getCompiledPermissions((IPermissionUser) permissible, groups).findHighestPermission(permission);
+    }
+    return super.findHighestPermission(permissible, groups, permission);
+  }
+
+  @NotNull
+  protected CompiledPermissions getCompiledPermissions(@NotNull IPermissionUser user, @Nullable String[] groups) {
+    List<String> taskGroups = groups == null || groups.length == 0 ? Collections.emptyList() : Arrays.asList(groups);
+
+    CompiledUserPermissions entry = this.compiledPermissionCache.getIfPresent(user.getUniqueId());
+    // a different user instance means that the user was reloaded or updated
+    if (entry != null && entry.user == user) {
+      CompiledPermissions permissions = entry.permissions.get(taskGroups);
+      if (permissions != null) {
+        return permissions;
+      }
+    } else {
+      entry = null;
+    }
+
+    long version = this.compiledPermissionVersion.get();
+    CompiledPermissions permissions = CompiledPermissions.compile(this.collectAllPermissions(user, groups));
+
+    if (entry == null) {
+      entry = new CompiledUserPermissions(user);
+      this.compiledPermissionCache.put(user.getUniqueId(), entry);
+    }
+    entry.permissions.put(taskGroups.isEmpty() ? taskGroups : Arrays.asList(groups.clone()), permissions);
+
+    // an invalidation happened while compiling, the result might already be outdated
+    if (version != this.compiledPermissionVersion.get()) {
+      this.compiledPermissionCache.asMap().remove(user.getUniqueId(), entry);
+    }
+    return permissions;
+  }
+
   protected void handleUserRemove(@NotNull UUID key, @NotNull IPermissionUser user, @NotNull RemovalCause cause) {
+    this.invalidateCompiledPermissions(key);
     if (cause != RemovalCause.REPLACED && this.isLocked(user)) {
       this.permissionUserCache.put(key, user);
     }
   }
 
   protected void handleGroupRemove(@NotNull String key, @NotNull IPermissionGroup group, @NotNull RemovalCause cause) {
+    this.invalidateCompiledPermissions();
     if (cause != RemovalCause.REPLACED && this.isLocked(group)) {
       this.permissionGroupCache.put(key, group);
     }
   }
+
+  protected static final class CompiledUserPermissions {
+
+    private final IPermissionUser user;
+    private final Map<List<String>, CompiledPermissions> permissions = new ConcurrentHashMap<>();
+
+    private CompiledUserPermissions(IPermissionUser user) {
+      this.user = user;
+    }
+  }
 }
@@ -145,8 +145,7 @@ public PermissionCheckResult getPermissionResult(@NotNull IPermissible permissib
   @Override
   @NotNull
   public PermissionCheckResult getPermissionResult(@NotNull IPermissible permissible, @NotNull Permission permission) {
-    return PermissionCheckResult
-      .fromPermission(this.findHighestPermission(this.collectAllPermissions(permissible, null), permission));
+    return PermissionCheckResult.fromPermission(this.findHighestPermission(permissible, null, permission));
   }
 
   @Override
@@ -165,8 +164,7 @@ public PermissionCheckResult getPermissionResult(@NotNull IPermissible permissib
   @Override
   public @NotNull PermissionCheckResult getPermissionResult(@NotNull IPermissible permissible, @NotNull String[] groups,
     @NotNull Permission permission) {
-    return PermissionCheckResult
-      .fromPermission(this.findHighestPermission(this.collectAllPermissions(permissible, groups), permission));
+    return PermissionCheckResult.fromPermission(this.findHighestPermission(permissible, groups, permission));
   }
 
   @Override
@@ -197,6 +195,12 @@ public Permission findHighestPermission(@NotNull Collection<Permission> permissi
     return lastMatch;
   }
 
+  @Nullable
+  protected Permission findHighestPermission(@NotNull IPermissible permissible, @Nullable String[] groups,
+    @NotNull Permission permission) {
+    return this.findHighestPermission(this.collectAllPermissions(permissible, groups), permission);
+  }
+
   protected Collection<Permission> collectAllPermissions(@NotNull IPermissible permissible, @Nullable String[] groups) {
     return this.collectAllPermissionsTo(new HashSet<>(), permissible, groups);
   }
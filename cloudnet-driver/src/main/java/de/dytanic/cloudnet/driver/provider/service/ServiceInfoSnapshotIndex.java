@@ -0,0 +1,281 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.driver.provider.service;
+
+import com.google.common.base.Preconditions;
+import de.dytanic.cloudnet.driver.service.ServiceEnvironmentType;
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import de.dytanic.cloudnet.driver.service.ServiceLifeCycle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Holds service info snapshots together with case insensitive views by name, task, group and environment and the count
+ * of services per life cycle, so that the lookups of the {@link GeneralCloudServiceProvider} don't have to check every
+ * known service. Lookups are lock free, modifications are serialized. The index keys of a service are stored when it is
+ * put, changes of an indexed snapshot object are only reflected in the views once the snapshot is put again.
+ */
+@ApiStatus.Internal
+public class ServiceInfoSnapshotIndex {
+
+  protected final Map<UUID, ServiceInfoSnapshot> services = new ConcurrentHashMap<>();
+  protected final Map<String, ServiceInfoSnapshot> servicesByName = new ConcurrentHashMap<>();
+  protected final Map<String, Map<UUID, ServiceInfoSnapshot>> servicesByTask = new ConcurrentHashMap<>();
+  protected final Map<String, Map<UUID, ServiceInfoSnapshot>> servicesByGroup = new ConcurrentHashMap<>();
+  protected final Map<ServiceEnvironmentType, Map<UUID, ServiceInfoSnapshot>> servicesByEnvironment =
+    new ConcurrentHashMap<>();
+  protected final Map<ServiceLifeCycle, AtomicInteger> lifeCycleCounts = new EnumMap<>(ServiceLifeCycle.class);
+  // the keys under which every service was indexed, snapshots may be changed in place after they were put
+  protected final Map<UUID, IndexedKeys> indexedKeys = new HashMap<>();
+
+  public ServiceInfoSnapshotIndex() {
+    for (ServiceLifeCycle lifeCycle : ServiceLifeCycle.values()) {
+      this.lifeCycleCounts.put(lifeCycle, new AtomicInteger());
+    }
+  }
+
+  private static String lowerCase(String value) {
+    return value.toLowerCase(Locale.ROOT);
+  }
+
+  private static Collection<ServiceInfoSnapshot> copy(Map<UUID, ServiceInfoSnapshot> services) {
+    return services == null ? new ArrayList<>() : new ArrayList<>(services.values());
+  }
+
+  private static <K> void addToView(Map<K, Map<UUID, ServiceInfoSnapshot>> view, K key, ServiceInfoSnapshot snapshot) {
+    view.computeIfAbsent(key, k -> new ConcurrentHashMap<>()).put(snapshot.getServiceId().getUniqueId(), snapshot);
+  }
+
+  private static <K> void removeFromView(Map<K, Map<UUID, ServiceInfoSnapshot>> view, K key, UUID uniqueId) {
+    Map<UUID, ServiceInfoSnapshot> services = view.get(key);
+    if (services != null) {
+      services.remove(uniqueId);
+      if (services.isEmpty()) {
+        view.remove(key);
+      }
+    }
+  }
+
+  /**
+   * Adds the given snapshot or replaces the snapshot of the same service.
+   *
+   * @param snapshot the snapshot to add
+   * @return the snapshot which was replaced, or null if the service wasn't known before
+   */
+  @Nullable
+  public synchronized ServiceInfoSnapshot put(@NotNull ServiceInfoSnapshot snapshot) {
+    Preconditions.checkNotNull(snapshot);
+
+    UUID uniqueId = snapshot.getServiceId().getUniqueId();
+    ServiceInfoSnapshot previous = this.services.put(uniqueId, snapshot);
+    this.removeFromViews(uniqueId);
+
+    IndexedKeys keys = new IndexedKeys(snapshot);
+    this.indexedKeys.put(uniqueId, keys);
+
+    this.servicesByName.put(keys.name, snapshot);
+    addToView(this.servicesByTask, keys.task, snapshot);
+    addToView(this.servicesByEnvironment, keys.environment, snapshot);
+    for (String group : keys.groups) {
+      addToView(this.servicesByGroup, group, snapshot);
+    }
+    this.lifeCycleCounts.get(keys.lifeCycle).incrementAndGet();
+
+    return previous;
+  }
+
+  @Nullable
+  public synchronized ServiceInfoSnapshot remove(@NotNull UUID uniqueId) {
+    Preconditions.checkNotNull(uniqueId);
+
+    ServiceInfoSnapshot previous = this.services.remove(uniqueId);
+    this.removeFromViews(uniqueId);
+
+    return previous;
+  }
+
+  public synchronized void clear() {
+    this.services.clear();
+    this.servicesByName.clear();
+    this.servicesByTask.clear();
+    this.servicesByGroup.clear();
+    this.servicesByEnvironment.clear();
+    this.indexedKeys.clear();
+    for (AtomicInteger count : this.lifeCycleCounts.values()) {
+      count.set(0);
+    }
+  }
+
+  private void removeFromViews(UUID uniqueId) {
+    IndexedKeys keys = this.indexedKeys.remove(uniqueId);
+    if (keys == null) {
+      return;
+    }
+
+    ServiceInfoSnapshot byName = this.servicesByName.get(keys.name);
+    if (byName != null && byName.getServiceId().getUniqueId().equals(uniqueId)) {
+      this.servicesByName.remove(keys.name);
+    }
+    removeFromView(this.servicesByTask, keys.task, uniqueId);
+    removeFromView(this.servicesByEnvironment, keys.environment, uniqueId);
+    for (String group : keys.groups) {
+      removeFromView(this.servicesByGroup, group, uniqueId);
+    }
+    this.lifeCycleCounts.get(keys.lifeCycle).decrementAndGet();
+  }
+
+  @Nullable
+  public ServiceInfoSnapshot get(@NotNull UUID uniqueId) {
+    return this.services.get(uniqueId);
+  }
+
+  /**
+   * @param name the name of the service, case insensitive
+   */
+  @Nullable
+  public ServiceInfoSnapshot getByName(@NotNull String name) {
+    return this.servicesByName.get(lowerCase(name));
+  }
+
+  /**
+   * @return an unmodifiable live view of all services by their unique id
+   */
+  @NotNull
+  public Map<UUID, ServiceInfoSnapshot> asMap() {
+    return Collections.unmodifiableMap(this.services);
+  }
+
+  @NotNull
+  public Collection<UUID> getUniqueIds() {
+    return new ArrayList<>(this.services.keySet());
+  }
+
+  @NotNull
+  public Collection<ServiceInfoSnapshot> getAll() {
+    return new ArrayList<>(this.services.values());
+  }
+
+  @NotNull
+  public Collection<ServiceInfoSnapshot> getStarted() {
+    // the life cycle of a snapshot may be changed in place, the counts can't be used to skip the check
+    Collection<ServiceInfoSnapshot> started = new ArrayList<>();
+    for (ServiceInfoSnapshot snapshot : this.services.values()) {
+      if (snapshot.getLifeCycle() == ServiceLifeCycle.RUNNING) {
+        started.add(snapshot);
+      }
+    }
+
+    return started;
+  }
+
+  /**
+   * @param taskName the name of the task, case insensitive
+   */
+  @NotNull
+  public Collection<ServiceInfoSnapshot> getByTask(@NotNull String taskName) {
+    return copy(this.servicesByTask.get(lowerCase(taskName)));
+  }
+
+  /**
+   * @param group the name of the group, case sensitive
+   */
+  @NotNull
+  public Collection<ServiceInfoSnapshot> getByGroup(@NotNull String group) {
+    Map<UUID, ServiceInfoSnapshot> services = this.servicesByGroup.get(lowerCase(group));
+    Collection<ServiceInfoSnapshot> result = new ArrayList<>();
+    if (services != null) {
+      for (ServiceInfoSnapshot snapshot : services.values()) {
+        if (Arrays.asList(snapshot.getConfiguration().getGroups()).contains(group)) {
+          result.add(snapshot);
+        }
+      }
+    }
+
+    return result;
+  }
+
+  @NotNull
+  public Collection<ServiceInfoSnapshot> getByEnvironment(@NotNull ServiceEnvironmentType environment) {
+    return copy(this.servicesByEnvironment.get(environment));
+  }
+
+  public int size() {
+    return this.services.size();
+  }
+
+  /**
+   * @param group the name of the group, case sensitive
+   */
+  public int countByGroup(@NotNull String group) {
+    return this.getByGroup(group).size();
+  }
+
+  public int countByLifeCycle(@NotNull ServiceLifeCycle lifeCycle) {
+    return this.lifeCycleCounts.get(lifeCycle).get();
+  }
+
+  /**
+   * @param taskName the name of the task, case sensitive
+   */
+  public int countByTask(@NotNull String taskName) {
+    Map<UUID, ServiceInfoSnapshot> services = this.servicesByTask.get(lowerCase(taskName));
+    if (services == null) {
+      return 0;
+    }
+
+    int amount = 0;
+    for (ServiceInfoSnapshot snapshot : services.values()) {
+      if (snapshot.getServiceId().getTaskName().equals(taskName)) {
+        amount++;
+      }
+    }
+
+    return amount;
+  }
+
+  protected static final class IndexedKeys {
+
+    private final String name;
+    private final String task;
+    private final ServiceEnvironmentType environment;
+    private final Collection<String> groups;
+    private final ServiceLifeCycle lifeCycle;
+
+    private IndexedKeys(ServiceInfoSnapshot snapshot) {
+      this.name = lowerCase(snapshot.getName());
+      this.task = lowerCase(snapshot.getServiceId().getTaskName());
+      this.environment = snapshot.getServiceId().getEnvironment();
+      this.groups = new ArrayList<>();
+      for (String group : snapshot.getConfiguration().getGroups()) {
+        this.groups.add(lowerCase(group));
+      }
+      this.lifeCycle = snapshot.getLifeCycle();
+    }
+  }
+}
@@ -21,17 +21,11 @@
 import de.dytanic.cloudnet.driver.serialization.json.SerializableJsonDocument;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
-import io.netty.buffer.ByteBufInputStream;
-import io.netty.buffer.ByteBufOutputStream;
 import io.netty.util.ByteProcessor;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Array;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
@@ -48,6 +42,15 @@
 
 public class DefaultProtocolBuffer extends ProtocolBuffer {
 
+  private static final int MAX_THROWABLE_CAUSE_DEPTH = 16;
+
+  private static final ClassValue<Object[]> ENUM_CONSTANTS = new ClassValue<Object[]>() {
+    @Override
+    protected Object[] computeValue(Class<?> type) {
+      return type.getEnumConstants();
+    }
+  };
+
   private final ByteBuf wrapped;
 
   public DefaultProtocolBuffer(ByteBuf wrapped) {
@@ -248,12 +251,7 @@ public ProtocolBuffer writeOptionalJsonDocument(@Nullable JsonDocument document)
 
   @Override
   public <T extends SerializableObject> @NotNull T readObject(@NotNull Class<T> objectClass) {
-    try {
-      T t = objectClass.getDeclaredConstructor().newInstance();
-      return this.readObject(t);
-    } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException exception) {
-      throw new Error(exception);
-    }
+    return this.readObject(ObjectFactoryGenerator.newInstance(objectClass));
   }
 
   @Override
@@ -292,13 +290,9 @@ public ProtocolBuffer writeOptionalObject(@Nullable SerializableObject object) {
     int size = this.readVarInt();
     Collection<T> result = new ArrayList<>(size);
 
-    try {
-      Constructor<T> constructor = objectClass.getDeclaredConstructor();
-      for (int i = 0; i < size; i++) {
-        result.add(this.readObject(constructor.newInstance()));
-      }
-    } catch (NoSuchMethodException | InstantiationException | IllegalAccessException | InvocationTargetException exception) {
-      throw new Error(exception);
+    ObjectFactory factory = ObjectFactoryGenerator.getFactory(objectClass);
+    for (int i = 0; i < size; i++) {
+      result.add(this.readObject(objectClass.cast(factory.newInstance())));
     }
 
     return result;
@@ -317,18 +311,14 @@ public ProtocolBuffer writeObjectCollection(@NotNull Collection<? extends Serial
   @SuppressWarnings("unchecked")
   public @NotNull <T extends SerializableObject> T[] readObjectArray(@NotNull Class<T> objectClass) {
     int size = this.readVarInt();
-    Object result = Array.newInstance(objectClass, size);
+    T[] result = (T[]) Array.newInstance(objectClass, size);
 
-    try {
-      Constructor<T> constructor = objectClass.getDeclaredConstructor();
-      for (int i = 0; i < size; i++) {
-        Array.set(result, i, this.readObject(constructor.newInstance()));
-      }
-    } catch (NoSuchMethodException | InstantiationException | IllegalAccessException | InvocationTargetException exception) {
-      throw new Error(exception);
+    ObjectFactory factory = ObjectFactoryGenerator.getFactory(objectClass);
+    for (int i = 0; i < size; i++) {
+      result[i] = this.readObject(objectClass.cast(factory.newInstance()));
     }
 
-    return (T[]) result;
+    return result;
   }
 
   @Override
@@ -342,7 +332,7 @@ public <T extends SerializableObject> ProtocolBuffer writeObjectArray(@NotNull T
 
   @Override
   public <E extends Enum<E>> E readEnumConstant(@NotNull Class<E> enumClass) {
-    return enumClass.getEnumConstants()[this.readVarInt()];
+    return enumClass.cast(ENUM_CONSTANTS.get(enumClass)[this.readVarInt()]);
   }
 
   @Override
@@ -354,7 +344,7 @@ public <E extends Enum<E>> ProtocolBuffer writeEnumConstant(@NotNull E enumConst
   @Override
   public <E extends Enum<E>> E readOptionalEnumConstant(@NotNull Class<E> enumClass) {
     int value = this.readVarInt();
-    return value != -1 ? enumClass.getEnumConstants()[value] : null;
+    return value != -1 ? enumClass.cast(ENUM_CONSTANTS.get(enumClass)[value]) : null;
   }
 
   @Override
@@ -365,24 +355,80 @@ public <E extends Enum<E>> ProtocolBuffer writeOptionalEnumConstant(@Nullable E
 
   @Override
   public ProtocolBuffer writeThrowable(Throwable throwable) {
-    try (ByteBufOutputStream outputStream = new ByteBufOutputStream(this);
-      ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream)) {
-      objectOutputStream.writeObject(throwable);
-    } catch (IOException exception) {
-      exception.printStackTrace();
-    }
+    this.writeThrowable(throwable, 0);
     return this;
   }
 
+  private void writeThrowable(Throwable throwable, int depth) {
+    this.writeBoolean(throwable != null);
+    if (throwable == null) {
+      return;
+    }
+
+    this.writeString(throwable.getClass().getName());
+    this.writeOptionalString(throwable.getMessage());
+
+    StackTraceElement[] stackTrace = throwable.getStackTrace();
+    this.writeVarInt(stackTrace.length);
+    for (StackTraceElement element : stackTrace) {
+      this.writeOptionalString(element.getClassLoaderName());
+      this.writeOptionalString(element.getModuleName());
+      this.writeOptionalString(element.getModuleVersion());
+      this.writeString(element.getClassName());
+      this.writeString(element.getMethodName());
+      this.writeOptionalString(element.getFileName());
+      this.writeVarInt(element.getLineNumber());
+    }
+
+    Throwable cause = throwable.getCause();
+    this.writeThrowable(cause != throwable && depth < MAX_THROWABLE_CAUSE_DEPTH ? cause : null, depth + 1);
+  }
+
   @Override
   public Throwable readThrowable() {
-    try (ByteBufInputStream inputStream = new ByteBufInputStream(this);
-      ObjectInputStream objectInputStream = new ObjectInputStream(inputStream)) {
-      return (Throwable) objectInputStream.readObject();
-    } catch (IOException | ClassNotFoundException exception) {
-      exception.printStackTrace();
+    if (!this.readBoolean()) {
+      return null;
+    }
+
+    String className = this.readString();
+    String message = this.readOptionalString();
+
+    StackTraceElement[] stackTrace = new StackTraceElement[this.readVarInt()];
+    for (int i = 0; i < stackTrace.length; i++) {
+      stackTrace[i] = new StackTraceElement(this.readOptionalString(), this.readOptionalString(),
+        this.readOptionalString(), this.readString(), this.readString(), this.readOptionalString(), this.readVarInt());
+    }
+
+    Throwable cause = this.readThrowable();
+
+    Throwable throwable = this.createThrowable(className, message);
+    throwable.setStackTrace(stackTrace);
+    if (cause != null) {
+      try {
+        throwable.initCause(cause);
+      } catch (IllegalStateException | IllegalArgumentException ignored) {
+        // the cause was already set by the constructor of the throwable
+      }
+    }
+
+    return throwable;
+  }
+
+  private Throwable createThrowable(String className, String message) {
+    try {
+      Class<?> throwableClass = Class.forName(className, false, DefaultProtocolBuffer.class.getClassLoader());
+      if (Throwable.class.isAssignableFrom(throwableClass)) {
+        try {
+          return (Throwable) throwableClass.getConstructor(String.class).newInstance(message);
+        } catch (NoSuchMethodException exception) {
+          return (Throwable) throwableClass.getConstructor().newInstance();
+        }
+      }
+    } catch (ReflectiveOperationException | LinkageError ignored) {
+      // the class of the throwable is not available on this side, fall through to the generic exception
     }
-    return null;
+
+    return new RuntimeException(message == null ? className : className + ": " + message);
   }
 
   @Override
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.driver.serialization;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.security.SecureClassLoader;
+import java.util.UUID;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtNewMethod;
+import javassist.LoaderClassPath;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Generates and caches an {@link ObjectFactory} for every class read from a {@link ProtocolBuffer}, so that reading an
+ * object doesn't have to look up and invoke its constructor reflectively. The factory of a public class with a public
+ * no-args constructor calls the constructor directly, the constructors of all other classes are cached and invoked
+ * reflectively.
+ */
+@ApiStatus.Internal
+public final class ObjectFactoryGenerator {
+
+  private static final String GENERATED_CLASS_TEMPLATE = "GeneratedObjectFactory_%s";
+
+  private static final ClassValue<ObjectFactory> FACTORIES = new ClassValue<ObjectFactory>() {
+    @Override
+    protected ObjectFactory computeValue(Class<?> type) {
+      return generate(type);
+    }
+  };
+
+  private ObjectFactoryGenerator() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Gets the factory of the given class, which is generated on the first call for the class.
+   *
+   * @param objectClass the class to get the factory of
+   * @return the factory of the given class
+   */
+  @NotNull
+  public static ObjectFactory getFactory(@NotNull Class<?> objectClass) {
+    return FACTORIES.get(objectClass);
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <T> T newInstance(@NotNull Class<T> objectClass) {
+    return (T) FACTORIES.get(objectClass).newInstance();
+  }
+
+  private static ObjectFactory generate(Class<?> objectClass) {
+    Constructor<?> constructor;
+    try {
+      constructor = objectClass.getDeclaredConstructor();
+    } catch (NoSuchMethodException exception) {
+      throw new Error(exception);
+    }
+
+    if (Modifier.isPublic(objectClass.getModifiers()) && Modifier.isPublic(constructor.getModifiers())
+      && !Modifier.isAbstract(objectClass.getModifiers()) && isAccessible(objectClass)) {
+      try {
+        return generateFactory(objectClass);
+      } catch (Exception exception) {
+        exception.printStackTrace();
+      }
+    }
+
+    return () -> {
+      try {
+        return constructor.newInstance();
+      } catch (InstantiationException | IllegalAccessException | InvocationTargetException exception) {
+        throw new Error(exception);
+      }
+    };
+  }
+
+  private static boolean isAccessible(Class<?> objectClass) {
+    // nested classes are only accessible if all enclosing classes are public
+    for (Class<?> enclosing = objectClass.getEnclosingClass(); enclosing != null;
+      enclosing = enclosing.getEnclosingClass()) {
+      if (!Modifier.isPublic(enclosing.getModifiers())) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private static ObjectFactory generateFactory(Class<?> objectClass) throws Exception {
+    ClassLoader parent = objectClass.getClassLoader() != null
+      ? objectClass.getClassLoader()
+      : ObjectFactoryGenerator.class.getClassLoader();
+    String className = String.format(GENERATED_CLASS_TEMPLATE, UUID.randomUUID().toString().replace("-", ""));
+
+    ClassPool classPool = new ClassPool(true);
+    classPool.appendClassPath(new LoaderClassPath(parent));
+    classPool.appendClassPath(new LoaderClassPath(ObjectFactoryGenerator.class.getClassLoader()));
+
+    CtClass factoryClass = classPool.makeClass(className);
+    factoryClass.addInterface(classPool.get(ObjectFactory.class.getName()));
+    factoryClass.addMethod(CtNewMethod.make(String.format(
+      "public Object newInstance() { return new %s(); }",
+      objectClass.getName().replace('$', '.')
+    ), factoryClass));
+
+    // every factory gets its own class loader, the factory can be collected together with the class it creates
+    FactoryClassLoader classLoader = new FactoryClassLoader(parent);
+    Class<?> generatedClass = classLoader.defineClass(className, factoryClass.toBytecode());
+
+    return (ObjectFactory) generatedClass.getDeclaredConstructor().newInstance();
+  }
+
+  private static final class FactoryClassLoader extends SecureClassLoader {
+
+    private FactoryClassLoader(ClassLoader parent) {
+      super(parent);
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+      // the class loader of the created class doesn't have to know the driver classes
+      if (name.equals(ObjectFactory.class.getName())) {
+        return ObjectFactory.class;
+      }
+
+      return super.loadClass(name, resolve);
+    }
+
+    private Class<?> defineClass(String className, byte[] bytes) {
+      return super.defineClass(className, bytes, 0, bytes.length);
+    }
+  }
+}
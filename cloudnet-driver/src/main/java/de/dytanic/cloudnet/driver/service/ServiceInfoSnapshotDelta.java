@@ -0,0 +1,316 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.driver.service;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.HostAndPort;
+import de.dytanic.cloudnet.driver.serialization.ProtocolBuffer;
+import de.dytanic.cloudnet.driver.serialization.SerializableObject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import lombok.ToString;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The changes between two versions of the {@link ServiceInfoSnapshot} of a service. Only the fields and property keys
+ * which differ from the base version are transferred, the receiver has to know the snapshot of the base version to
+ * apply the delta.
+ */
+@ToString
+@ApiStatus.Internal
+public class ServiceInfoSnapshotDelta implements SerializableObject {
+
+  public static final byte KIND_FULL = 0;
+  public static final byte KIND_DELTA = 1;
+  public static final byte KIND_RESYNC = 2;
+
+  /**
+   * The version of snapshots which are not part of a versioned stream and are always applied as they are.
+   */
+  public static final long UNVERSIONED = -1;
+
+  private static final int TIMES = 1;
+  private static final int ADDRESSES = 1 << 1;
+  private static final int LIFE_CYCLE = 1 << 2;
+  private static final int PROCESS = 1 << 3;
+  private static final int CONFIGURATION = 1 << 4;
+  private static final int PROPERTIES = 1 << 5;
+
+  private UUID uniqueId;
+  private long baseVersion;
+  private long version;
+  private int changes;
+
+  private long creationTime;
+  private long connectedTime;
+  private HostAndPort address;
+  private HostAndPort connectAddress;
+  private ServiceLifeCycle lifeCycle;
+  private ProcessSnapshot processSnapshot;
+  private ServiceConfiguration configuration;
+  private JsonDocument changedProperties;
+  private Collection<String> removedProperties;
+
+  public ServiceInfoSnapshotDelta() {
+  }
+
+  /**
+   * Creates the delta which transforms the snapshot captured by {@code previous} into the one captured by {@code
+   * current}.
+   *
+   * @param uniqueId    the unique id of the service the snapshots belong to
+   * @param previous    the state of the base version
+   * @param current     the state of the new version
+   * @param baseVersion the version the delta has to be applied on
+   * @param version     the version of the snapshot after applying the delta
+   * @return the delta between both states
+   */
+  @NotNull
+  public static ServiceInfoSnapshotDelta create(@NotNull UUID uniqueId, @NotNull State previous,
+    @NotNull State current, long baseVersion, long version) {
+    ServiceInfoSnapshotDelta delta = new ServiceInfoSnapshotDelta();
+    delta.uniqueId = uniqueId;
+    delta.baseVersion = baseVersion;
+    delta.version = version;
+
+    if (previous.creationTime != current.creationTime || previous.connectedTime != current.connectedTime) {
+      delta.changes |= TIMES;
+      delta.creationTime = current.creationTime;
+      delta.connectedTime = current.connectedTime;
+    }
+
+    if (!Objects.equals(previous.address, current.address)
+      || !Objects.equals(previous.connectAddress, current.connectAddress)) {
+      delta.changes |= ADDRESSES;
+      delta.address = current.address;
+      delta.connectAddress = current.connectAddress;
+    }
+
+    if (previous.lifeCycle != current.lifeCycle) {
+      delta.changes |= LIFE_CYCLE;
+      delta.lifeCycle = current.lifeCycle;
+    }
+
+    if (!Objects.equals(previous.processSnapshot, current.processSnapshot)) {
+      delta.changes |= PROCESS;
+      delta.processSnapshot = current.processSnapshot;
+    }
+
+    if (!Arrays.equals(previous.configuration, current.configuration)) {
+      delta.changes |= CONFIGURATION;
+      delta.configuration = current.serviceConfiguration;
+    }
+
+    JsonObject changedProperties = new JsonObject();
+    Collection<String> removedProperties = new ArrayList<>();
+
+    for (Map.Entry<String, JsonElement> entry : current.properties.entrySet()) {
+      if (!entry.getValue().equals(previous.properties.get(entry.getKey()))) {
+        changedProperties.add(entry.getKey(), entry.getValue());
+      }
+    }
+
+    for (String key : previous.properties.keySet()) {
+      if (!current.properties.has(key)) {
+        removedProperties.add(key);
+      }
+    }
+
+    if (changedProperties.size() > 0 || !removedProperties.isEmpty()) {
+      delta.changes |= PROPERTIES;
+      delta.changedProperties = new JsonDocument(changedProperties);
+      delta.removedProperties = removedProperties;
+    }
+
+    return delta;
+  }
+
+  /**
+   * Applies this delta on the snapshot of the base version. The given snapshot is not modified, unchanged parts are
+   * shared between the given and the new snapshot.
+   *
+   * @param base the snapshot of the base version of this delta
+   * @return the snapshot of the version of this delta
+   */
+  @NotNull
+  public ServiceInfoSnapshot apply(@NotNull ServiceInfoSnapshot base) {
+    boolean times = this.hasChanged(TIMES);
+    boolean addresses = this.hasChanged(ADDRESSES);
+
+    return new ServiceInfoSnapshot(
+      times ? this.creationTime : base.getCreationTime(),
+      addresses ? this.address : base.getAddress(),
+      addresses ? this.connectAddress : base.getConnectAddress(),
+      times ? this.connectedTime : base.getConnectedTime(),
+      this.hasChanged(LIFE_CYCLE) ? this.lifeCycle : base.getLifeCycle(),
+      this.hasChanged(PROCESS) ? this.processSnapshot : base.getProcessSnapshot(),
+      this.hasChanged(PROPERTIES) ? this.applyProperties(base.getProperties()) : base.getProperties(),
+      this.hasChanged(CONFIGURATION) ? this.configuration : base.getConfiguration()
+    );
+  }
+
+  private JsonDocument applyProperties(JsonDocument base) {
+    JsonDocument properties = base.clone();
+    JsonObject target = properties.toJsonObject();
+
+    for (Map.Entry<String, JsonElement> entry : this.changedProperties.toJsonObject().entrySet()) {
+      target.add(entry.getKey(), entry.getValue());
+    }
+
+    for (String key : this.removedProperties) {
+      target.remove(key);
+    }
+
+    return properties;
+  }
+
+  private boolean hasChanged(int part) {
+    return (this.changes & part) != 0;
+  }
+
+  public UUID getUniqueId() {
+    return this.uniqueId;
+  }
+
+  public long getBaseVersion() {
+    return this.baseVersion;
+  }
+
+  public long getVersion() {
+    return this.version;
+  }
+
+  @Override
+  public void write(@NotNull ProtocolBuffer buffer) {
+    buffer.writeUUID(this.uniqueId);
+    buffer.writeVarLong(this.baseVersion);
+    buffer.writeVarLong(this.version);
+    buffer.writeVarInt(this.changes);
+
+    if (this.hasChanged(TIMES)) {
+      buffer.writeLong(this.creationTime);
+      buffer.writeLong(this.connectedTime);
+    }
+    if (this.hasChanged(ADDRESSES)) {
+      buffer.writeObject(this.address);
+      buffer.writeObject(this.connectAddress);
+    }
+    if (this.hasChanged(LIFE_CYCLE)) {
+      buffer.writeEnumConstant(this.lifeCycle);
+    }
+    if (this.hasChanged(PROCESS)) {
+      buffer.writeObject(this.processSnapshot);
+    }
+    if (this.hasChanged(CONFIGURATION)) {
+      buffer.writeObject(this.configuration);
+    }
+    if (this.hasChanged(PROPERTIES)) {
+      buffer.writeJsonDocument(this.changedProperties);
+      buffer.writeStringCollection(this.removedProperties);
+    }
+  }
+
+  @Override
+  public void read(@NotNull ProtocolBuffer buffer) {
+    this.uniqueId = buffer.readUUID();
+    this.baseVersion = buffer.readVarLong();
+    this.version = buffer.readVarLong();
+    this.changes = buffer.readVarInt();
+
+    if (this.hasChanged(TIMES)) {
+      this.creationTime = buffer.readLong();
+      this.connectedTime = buffer.readLong();
+    }
+    if (this.hasChanged(ADDRESSES)) {
+      this.address = buffer.readObject(HostAndPort.class);
+      this.connectAddress = buffer.readObject(HostAndPort.class);
+    }
+    if (this.hasChanged(LIFE_CYCLE)) {
+      this.lifeCycle = buffer.readEnumConstant(ServiceLifeCycle.class);
+    }
+    if (this.hasChanged(PROCESS)) {
+      this.processSnapshot = buffer.readObject(ProcessSnapshot.class);
+    }
+    if (this.hasChanged(CONFIGURATION)) {
+      this.configuration = buffer.readObject(ServiceConfiguration.class);
+    }
+    if (this.hasChanged(PROPERTIES)) {
+      this.changedProperties = buffer.readJsonDocument();
+      this.removedProperties = buffer.readStringCollection();
+    }
+  }
+
+  /**
+   * An immutable copy of the parts of a {@link ServiceInfoSnapshot} which are compared to create a delta. The
+   * properties and the configuration are copied because both are mutable and often shared between snapshots.
+   */
+  public static final class State {
+
+    private final long creationTime;
+    private final long connectedTime;
+    private final HostAndPort address;
+    private final HostAndPort connectAddress;
+    private final ServiceLifeCycle lifeCycle;
+    private final ProcessSnapshot processSnapshot;
+    private final ServiceConfiguration serviceConfiguration;
+    private final byte[] configuration;
+    private final JsonObject properties;
+
+    private State(ServiceInfoSnapshot snapshot) {
+      this.creationTime = snapshot.getCreationTime();
+      this.connectedTime = snapshot.getConnectedTime();
+      this.address = snapshot.getAddress();
+      this.connectAddress = snapshot.getConnectAddress();
+      this.lifeCycle = snapshot.getLifeCycle();
+      this.processSnapshot = snapshot.getProcessSnapshot();
+      this.serviceConfiguration = snapshot.getConfiguration();
+      this.configuration = ProtocolBuffer.create().writeObject(snapshot.getConfiguration()).toArray();
+      this.properties = snapshot.getProperties().clone().toJsonObject();
+    }
+
+    @NotNull
+    public static State capture(@NotNull ServiceInfoSnapshot snapshot) {
+      return new State(snapshot);
+    }
+
+    /**
+     * Creates a new snapshot from this state, which is independent of the snapshot this state was captured from.
+     *
+     * @return the snapshot as it was when this state was captured
+     */
+    @NotNull
+    public ServiceInfoSnapshot toSnapshot() {
+      return new ServiceInfoSnapshot(
+        this.creationTime,
+        this.address,
+        this.connectAddress,
+        this.connectedTime,
+        this.lifeCycle,
+        this.processSnapshot,
+        new JsonDocument(this.properties.deepCopy()),
+        ProtocolBuffer.wrap(this.configuration).readObject(ServiceConfiguration.class)
+      );
+    }
+  }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.driver.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.network.protocol.Packet;
+import de.dytanic.cloudnet.driver.serialization.ProtocolBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Rebuilds the snapshots published by {@link ServiceInfoSnapshotDeltaWriter}s. Deltas which arrive before their base
+ * version are held back until the base version arrived, because packets are not always handled in the order they were
+ * received. If the base version doesn't arrive in time, the complete snapshot is requested from the sender.
+ */
+@ApiStatus.Internal
+public class ServiceInfoSnapshotDeltaReader {
+
+  private static final int MAX_PENDING_DELTAS = 16;
+  private static final long RESYNC_TIMEOUT_MILLIS = 1000;
+
+  private final int channel;
+  private final Cache<UUID, Entry> entries = CacheBuilder.newBuilder()
+    .expireAfterAccess(10, TimeUnit.MINUTES)
+    .build();
+
+  public ServiceInfoSnapshotDeltaReader(int channel) {
+    this.channel = channel;
+  }
+
+  /**
+   * Reads a full snapshot or a delta from the given buffer.
+   *
+   * @param sender the channel the buffer was received from, resync requests are sent to it
+   * @param kind   the kind of the message, which was already read from the buffer
+   * @param buffer the buffer to read the message from
+   * @return the new snapshots in the order of their versions, empty if the message was outdated or held back
+   */
+  @NotNull
+  public Collection<ServiceInfoSnapshot> read(@NotNull INetworkChannel sender, byte kind,
+    @NotNull ProtocolBuffer buffer) {
+    return this.read(sender, kind, buffer, packet -> {
+    });
+  }
+
+  /**
+   * Reads a full snapshot or a delta from the given buffer and passes a packet for every applied version to the given
+   * consumer, including the versions of deltas which were held back before. Sending these packets in the given order
+   * to other readers rebuilds the same snapshots there.
+   *
+   * @param sender  the channel the buffer was received from, resync requests are sent to it
+   * @param kind    the kind of the message, which was already read from the buffer
+   * @param buffer  the buffer to read the message from
+   * @param applied the consumer of the packets of the applied versions, called in the order of the versions
+   * @return the new snapshots in the order of their versions, empty if the message was outdated or held back
+   */
+  @NotNull
+  public synchronized Collection<ServiceInfoSnapshot> read(@NotNull INetworkChannel sender, byte kind,
+    @NotNull ProtocolBuffer buffer, @NotNull Consumer<IPacket> applied) {
+    switch (kind) {
+      case ServiceInfoSnapshotDelta.KIND_FULL: {
+        long version = buffer.readVarLong();
+        ServiceInfoSnapshot snapshot = buffer.readObject(ServiceInfoSnapshot.class);
+
+        if (version == ServiceInfoSnapshotDelta.UNVERSIONED) {
+          applied.accept(new Packet(this.channel,
+            ServiceInfoSnapshotDeltaWriter.writeFull(ProtocolBuffer.create(), version, snapshot)));
+          return Collections.singletonList(snapshot);
+        }
+
+        Entry entry = this.getEntry(snapshot.getServiceId().getUniqueId());
+        if (entry.snapshot != null && version <= entry.version) {
+          return Collections.emptyList();
+        }
+
+        entry.snapshot = snapshot;
+        entry.version = version;
+        entry.resyncRequestTime = 0;
+
+        List<ServiceInfoSnapshot> snapshots = new ArrayList<>();
+        snapshots.add(snapshot);
+        applied.accept(new Packet(this.channel,
+          ServiceInfoSnapshotDeltaWriter.writeFull(ProtocolBuffer.create(), version, snapshot)));
+        this.applyPending(entry, snapshots, applied);
+        return snapshots;
+      }
+      case ServiceInfoSnapshotDelta.KIND_DELTA: {
+        ServiceInfoSnapshotDelta delta = buffer.readObject(ServiceInfoSnapshotDelta.class);
+        Entry entry = this.getEntry(delta.getUniqueId());
+
+        if (entry.snapshot != null && delta.getVersion() <= entry.version) {
+          return Collections.emptyList();
+        }
+
+        if (entry.snapshot != null && delta.getBaseVersion() == entry.version) {
+          List<ServiceInfoSnapshot> snapshots = new ArrayList<>();
+          this.apply(entry, delta, snapshots, applied);
+          this.applyPending(entry, snapshots, applied);
+          return snapshots;
+        }
+
+        if (entry.pending.isEmpty()) {
+          entry.gapTime = System.currentTimeMillis();
+        }
+        entry.pending.put(delta.getBaseVersion(), delta);
+        if (entry.pending.size() > MAX_PENDING_DELTAS) {
+          entry.pending.pollFirstEntry();
+        }
+
+        if (entry.snapshot == null || entry.pending.size() == MAX_PENDING_DELTAS
+          || System.currentTimeMillis() - entry.gapTime >= RESYNC_TIMEOUT_MILLIS) {
+          this.requestResync(sender, delta.getUniqueId(), entry);
+        }
+        return Collections.emptyList();
+      }
+      default:
+        return Collections.emptyList();
+    }
+  }
+
+  /**
+   * Sends the complete snapshot of the latest known version of the given service to the given channel.
+   *
+   * @param uniqueId the unique id of the service
+   * @param channel  the channel to send the snapshot to
+   * @return whether a snapshot of the service is known
+   */
+  public synchronized boolean resend(@NotNull UUID uniqueId, @NotNull INetworkChannel channel) {
+    Entry entry = this.entries.getIfPresent(uniqueId);
+    if (entry == null || entry.snapshot == null) {
+      return false;
+    }
+
+    channel.sendPacket(new Packet(this.channel,
+      ServiceInfoSnapshotDeltaWriter.writeFull(ProtocolBuffer.create(), entry.version, entry.snapshot)));
+    return true;
+  }
+
+  public synchronized void forget(@NotNull UUID uniqueId) {
+    this.entries.invalidate(uniqueId);
+  }
+
+  private Entry getEntry(UUID uniqueId) {
+    Entry entry = this.entries.getIfPresent(uniqueId);
+    if (entry == null) {
+      entry = new Entry();
+      this.entries.put(uniqueId, entry);
+    }
+
+    return entry;
+  }
+
+  private void applyPending(Entry entry, List<ServiceInfoSnapshot> snapshots, Consumer<IPacket> applied) {
+    entry.pending.headMap(entry.version).clear();
+
+    ServiceInfoSnapshotDelta delta;
+    while ((delta = entry.pending.remove(entry.version)) != null) {
+      this.apply(entry, delta, snapshots, applied);
+    }
+
+    if (!entry.pending.isEmpty()) {
+      entry.gapTime = System.currentTimeMillis();
+    }
+  }
+
+  private void apply(Entry entry, ServiceInfoSnapshotDelta delta, List<ServiceInfoSnapshot> snapshots,
+    Consumer<IPacket> applied) {
+    entry.snapshot = delta.apply(entry.snapshot);
+    entry.version = delta.getVersion();
+    snapshots.add(entry.snapshot);
+    applied.accept(new Packet(this.channel,
+      ProtocolBuffer.create().writeByte(ServiceInfoSnapshotDelta.KIND_DELTA).writeObject(delta)));
+  }
+
+  private void requestResync(INetworkChannel sender, UUID uniqueId, Entry entry) {
+    long now = System.currentTimeMillis();
+    if (now - entry.resyncRequestTime >= RESYNC_TIMEOUT_MILLIS) {
+      entry.resyncRequestTime = now;
+      sender.sendPacket(ServiceInfoSnapshotDeltaWriter.createResyncRequest(this.channel, uniqueId));
+    }
+  }
+
+  private static final class Entry {
+
+    private final NavigableMap<Long, ServiceInfoSnapshotDelta> pending = new TreeMap<>();
+
+    private ServiceInfoSnapshot snapshot;
+    private long version;
+    private long gapTime;
+    private long resyncRequestTime;
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.driver.service;
+
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.network.protocol.Packet;
+import de.dytanic.cloudnet.driver.serialization.ProtocolBuffer;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Publishes the versioned snapshots of a single service. The first snapshot is sent completely, every following one
+ * only as {@link ServiceInfoSnapshotDelta} against the previously sent version. Receivers which missed a version ask
+ * for a resync, which is answered with the complete snapshot of the current version.
+ */
+@ApiStatus.Internal
+public class ServiceInfoSnapshotDeltaWriter {
+
+  private final int channel;
+
+  private ServiceInfoSnapshotDelta.State lastState;
+  private long version;
+
+  public ServiceInfoSnapshotDeltaWriter(int channel) {
+    this.channel = channel;
+  }
+
+  @NotNull
+  public static ProtocolBuffer writeFull(@NotNull ProtocolBuffer buffer, long version,
+    @NotNull ServiceInfoSnapshot snapshot) {
+    return buffer.writeByte(ServiceInfoSnapshotDelta.KIND_FULL).writeVarLong(version).writeObject(snapshot);
+  }
+
+  @NotNull
+  public static IPacket createResyncRequest(int channel, @NotNull UUID uniqueId) {
+    return new Packet(channel, ProtocolBuffer.create().writeByte(ServiceInfoSnapshotDelta.KIND_RESYNC)
+      .writeUUID(uniqueId));
+  }
+
+  /**
+   * Creates the packet for the next version of the snapshot and passes it to the given sender. The sender is called
+   * while holding the lock of this writer so that the packets are sent in the order of their versions.
+   *
+   * @param snapshot the new snapshot of the service
+   * @param sender   the sender of the created packet
+   */
+  public synchronized void publish(@NotNull ServiceInfoSnapshot snapshot, @NotNull Consumer<IPacket> sender) {
+    ServiceInfoSnapshotDelta.State state = ServiceInfoSnapshotDelta.State.capture(snapshot);
+    long version = ++this.version;
+
+    ProtocolBuffer buffer = ProtocolBuffer.create();
+    if (this.lastState == null) {
+      writeFull(buffer, version, snapshot);
+    } else {
+      buffer.writeByte(ServiceInfoSnapshotDelta.KIND_DELTA).writeObject(ServiceInfoSnapshotDelta.create(
+        snapshot.getServiceId().getUniqueId(), this.lastState, state, version - 1, version));
+    }
+
+    this.lastState = state;
+
+    sender.accept(new Packet(this.channel, buffer));
+  }
+
+  /**
+   * Sends the complete snapshot of the current version to the given channel, used to answer resync requests.
+   *
+   * @param channel the channel which requested the resync
+   */
+  public synchronized void resend(@NotNull INetworkChannel channel) {
+    if (this.lastState != null) {
+      ServiceInfoSnapshot snapshot = this.lastState.toSnapshot();
+      channel.sendPacket(new Packet(this.channel, writeFull(ProtocolBuffer.create(), this.version, snapshot)));
+    }
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.driver.network.def.internal;
+
+import de.dytanic.cloudnet.common.concurrent.CompletableTask;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.network.protocol.Packet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class InternalSyncPacketChannelTest {
+
+  @Test
+  public void testQueryTimeout() throws Exception {
+    long timedOut = InternalSyncPacketChannel.getTimedOutQueryCount();
+
+    CompletableTask<IPacket> task = new CompletableTask<>();
+    InternalSyncPacketChannel.registerQueryHandler(UUID.randomUUID(), 100, TimeUnit.MILLISECONDS, task::complete);
+
+    Assert.assertSame(Packet.EMPTY, task.get(5, TimeUnit.SECONDS));
+    Assert.assertEquals(timedOut + 1, InternalSyncPacketChannel.getTimedOutQueryCount());
+  }
+
+  @Test
+  public void testQueryResponse() throws Exception {
+    UUID uniqueId = UUID.randomUUID();
+    long timedOut = InternalSyncPacketChannel.getTimedOutQueryCount();
+
+    CompletableTask<IPacket> task = new CompletableTask<>();
+    InternalSyncPacketChannel.registerQueryHandler(uniqueId, 200, TimeUnit.MILLISECONDS, task::complete);
+
+    Packet response = new Packet(-1, uniqueId, JsonDocument.newDocument("test", true));
+    Assert.assertTrue(InternalSyncPacketChannel.handleIncomingChannel(null, response));
+    Assert.assertTrue(task.get(5, TimeUnit.SECONDS).getHeader().getBoolean("test"));
+
+    // the response removed the handler and cancelled its timeout
+    Assert.assertFalse(InternalSyncPacketChannel.handleIncomingChannel(null, response));
+    Thread.sleep(400);
+    Assert.assertEquals(timedOut, InternalSyncPacketChannel.getTimedOutQueryCount());
+  }
+}
@@ -27,6 +27,8 @@
 import de.dytanic.cloudnet.driver.network.protocol.IPacket;
 import de.dytanic.cloudnet.driver.network.protocol.IPacketListener;
 import de.dytanic.cloudnet.driver.network.protocol.Packet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -76,6 +78,46 @@ public void testNettyConnectorServer() throws Throwable {
     Assert.assertEquals(0, networkServer.getChannels().size());
   }
 
+  @Test
+  public void testBroadcastPacket() throws Throwable {
+    INetworkServer networkServer = new NettyNetworkServer(NetworkChannelServerHandler::new);
+    INetworkClient[] networkClients = new INetworkClient[3];
+
+    HostAndPort address = new HostAndPort("127.0.0.1", NettyTestUtil.generateRandomPort());
+    Assert.assertTrue(networkServer.addListener(address));
+
+    // two packets for each client, the first one advertises the binary header, the second one is binary
+    CountDownLatch latch = new CountDownLatch(networkClients.length * 2);
+    for (int i = 0; i < networkClients.length; i++) {
+      networkClients[i] = new NettyNetworkClient(NetworkChannelClientHandler::new);
+      networkClients[i].getPacketRegistry().addListener(7, (channel, packet) -> {
+        if (packet.getHeader().getString("key").equals("value") && new String(packet.getBodyAsArray()).equals("Test")) {
+          latch.countDown();
+        }
+      });
+      Assert.assertTrue(networkClients[i].connect(address));
+    }
+
+    Thread.sleep(500);
+    Assert.assertEquals(networkClients.length, networkServer.getChannels().size());
+
+    networkServer.sendPacketSync(new Packet(7, JsonDocument.newDocument("key", "value"), "Test".getBytes()));
+    for (INetworkClient networkClient : networkClients) {
+      // the clients answer to switch the server to the binary header format
+      networkClient.sendPacketSync(new Packet(8, JsonDocument.newDocument("key", "value"), new byte[0]));
+    }
+
+    Thread.sleep(500);
+    networkServer.sendPacket(new Packet(7, JsonDocument.newDocument("key", "value"), "Test".getBytes()));
+
+    Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+    for (INetworkClient networkClient : networkClients) {
+      networkClient.close();
+    }
+    networkServer.close();
+  }
+
   private final class NetworkChannelClientHandler implements INetworkChannelHandler {
 
     @Override
@@ -58,4 +58,24 @@ public void testEncoderDecoder() {
     Assert
       .assertEquals("Test_Nachricht", new String(((Packet) packets.get(1)).getBodyAsArray(), StandardCharsets.UTF_8));
   }
+
+  @Test
+  public void testDecodedBodyIsReleasable() {
+    NettyPacketEncoder nettyPacketEncoder = new NettyPacketEncoder();
+    NettyPacketDecoder nettyPacketDecoder = new NettyPacketDecoder();
+
+    ByteBuf byteBuf = Unpooled.buffer();
+    nettyPacketEncoder.encode(null, new Packet(1, new JsonDocument(), "body".getBytes()), byteBuf);
+
+    List<Object> packets = new ArrayList<>();
+    nettyPacketDecoder.decode(null, byteBuf, packets);
+
+    Packet packet = (Packet) packets.get(0);
+    // the body is a slice of the inbound buffer which holds a reference to it
+    Assert.assertEquals(2, byteBuf.refCnt());
+    Assert.assertEquals("body", new String(packet.getBodyAsArray(), StandardCharsets.UTF_8));
+
+    packet.release();
+    Assert.assertEquals(1, byteBuf.refCnt());
+  }
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.driver.network.netty.codec;
+
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.protocol.Packet;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.nio.charset.StandardCharsets;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class NettyPacketFrameTest {
+
+  @Test
+  public void testFrameEqualsPacketEncoding() {
+    Packet packet = new Packet(5, JsonDocument.newDocument("key", "value"), "body".getBytes(StandardCharsets.UTF_8));
+    NettyPacketFrame frame = new NettyPacketFrame(packet);
+
+    EmbeddedChannel[] frameChannels = {this.newChannel(), this.newChannel(), this.newChannel()};
+    EmbeddedChannel[] packetChannels = {this.newChannel(), this.newChannel(), this.newChannel()};
+
+    // the first channels still have to advertise the binary header, the second ones already advertised it
+    // and the third ones know that the binary header is supported by the other side
+    for (int i = 1; i < 3; i++) {
+      this.advertise(frameChannels[i]);
+      this.advertise(packetChannels[i]);
+    }
+    this.enableBinaryHeader(frameChannels[2]);
+    this.enableBinaryHeader(packetChannels[2]);
+
+    for (int i = 0; i < 3; i++) {
+      Assert.assertTrue(frameChannels[i].writeOutbound(frame.retain()));
+      Assert.assertTrue(packetChannels[i].writeOutbound(packet.retain()));
+
+      ByteBuf expected = this.readOutbound(packetChannels[i]);
+      ByteBuf actual = this.readOutbound(frameChannels[i]);
+      Assert.assertTrue(ByteBufUtil.equals(expected, actual));
+
+      expected.release();
+      actual.release();
+    }
+
+    Assert.assertTrue(frame.release());
+    Assert.assertEquals(0, frame.refCnt());
+  }
+
+  private EmbeddedChannel newChannel() {
+    return new EmbeddedChannel(
+      NettyPacketFrameEncoder.INSTANCE,
+      new NettyPacketLengthSerializer(),
+      new NettyPacketEncoder()
+    );
+  }
+
+  private void advertise(EmbeddedChannel channel) {
+    channel.writeOutbound(new Packet(1, JsonDocument.newDocument(), new byte[0]));
+    this.readOutbound(channel).release();
+  }
+
+  private void enableBinaryHeader(EmbeddedChannel channel) {
+    ByteBuf buf = Unpooled.buffer();
+    PacketHeaderCodec.writeHeader(new EmbeddedChannel(), buf, JsonDocument.newDocument("key", "value"));
+    PacketHeaderCodec.readHeader(channel, buf);
+  }
+
+  private ByteBuf readOutbound(EmbeddedChannel channel) {
+    ByteBuf result = Unpooled.buffer();
+    ByteBuf buf;
+    while ((buf = channel.readOutbound()) != null) {
+      result.writeBytes(buf);
+      buf.release();
+    }
+    return result;
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.driver.network.netty.codec;
+
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.netty.NettyUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PacketHeaderCodecTest {
+
+  @Test
+  public void testBinaryHeaderNegotiation() {
+    EmbeddedChannel client = new EmbeddedChannel();
+    EmbeddedChannel server = new EmbeddedChannel();
+
+    JsonDocument header = JsonDocument.newDocument("key", "value")
+      .append("number", 5)
+      .append("decimal", 2.5D)
+      .append("flag", true)
+      .append("document", JsonDocument.newDocument("nested", "value"))
+      .append("list", Arrays.asList("a", "b"))
+      .appendNull("empty");
+
+    // the first header is json and advertises the binary support
+    ByteBuf buf = Unpooled.buffer();
+    PacketHeaderCodec.writeHeader(client, buf, header);
+    Assert.assertEquals('{', this.firstHeaderByte(buf));
+    Assert.assertEquals(header, PacketHeaderCodec.readHeader(server, buf));
+
+    // the server knows about the support now and answers with a binary header
+    buf = Unpooled.buffer();
+    PacketHeaderCodec.writeHeader(server, buf, header);
+    Assert.assertNotEquals('{', this.firstHeaderByte(buf));
+    JsonDocument decoded = PacketHeaderCodec.readHeader(client, buf);
+
+    Assert.assertFalse(buf.isReadable());
+    Assert.assertEquals("value", decoded.getString("key"));
+    Assert.assertEquals(5, decoded.getInt("number"));
+    Assert.assertEquals(2.5D, decoded.getDouble("decimal"), 0D);
+    Assert.assertTrue(decoded.getBoolean("flag"));
+    Assert.assertEquals("value", decoded.getDocument("document").getString("nested"));
+    Assert.assertEquals(2, decoded.getJsonArray("list").size());
+    Assert.assertTrue(decoded.contains("empty"));
+
+    // the client switched to binary as well
+    buf = Unpooled.buffer();
+    PacketHeaderCodec.writeHeader(client, buf, JsonDocument.newDocument("path", "test"));
+    Assert.assertNotEquals('{', this.firstHeaderByte(buf));
+    Assert.assertEquals("test", PacketHeaderCodec.readHeader(server, buf).getString("path"));
+  }
+
+  @Test
+  public void testEmptyHeader() {
+    ByteBuf buf = Unpooled.buffer();
+    PacketHeaderCodec.writeHeader(null, buf, JsonDocument.EMPTY);
+
+    Assert.assertEquals(1, buf.readableBytes());
+    Assert.assertTrue(PacketHeaderCodec.readHeader(null, buf).isEmpty());
+  }
+
+  private byte firstHeaderByte(ByteBuf buf) {
+    ByteBuf duplicate = buf.duplicate();
+    NettyUtils.readVarInt(duplicate);
+    return duplicate.readByte();
+  }
+}
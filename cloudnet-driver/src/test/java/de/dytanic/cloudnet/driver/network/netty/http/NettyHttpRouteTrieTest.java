@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.driver.network.netty.http;
+
+import de.dytanic.cloudnet.driver.network.http.IHttpContext;
+import de.dytanic.cloudnet.driver.network.http.IHttpHandler;
+import de.dytanic.cloudnet.driver.network.http.MethodHttpHandlerAdapter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class NettyHttpRouteTrieTest {
+
+  private static final IHttpHandler SECURITY = (path, context) -> {
+  };
+  private static final IHttpHandler SERVICES = (path, context) -> {
+  };
+  private static final IHttpHandler SERVICE = (path, context) -> {
+  };
+  private static final IHttpHandler ROOT = (path, context) -> {
+  };
+  private static final IHttpHandler GET_ONLY = new MethodHttpHandlerAdapter() {
+    @Override
+    public void handleGet(String path, IHttpContext context) {
+    }
+  };
+  private static final IHttpHandler EVERY_METHOD = new MethodHttpHandlerAdapter() {
+    @Override
+    public void handle(String path, IHttpContext context) {
+    }
+  };
+
+  private final NettyHttpRouteTrie routeTrie = new NettyHttpRouteTrie(Arrays.asList(
+    new NettyHttpServer.HttpHandlerEntry("/", ROOT, null, IHttpHandler.PRIORITY_NORMAL),
+    new NettyHttpServer.HttpHandlerEntry("/api/v1/services", SERVICES, null, IHttpHandler.PRIORITY_NORMAL),
+    new NettyHttpServer.HttpHandlerEntry("/api/v1/*", SECURITY, null, IHttpHandler.PRIORITY_HIGH),
+    new NettyHttpServer.HttpHandlerEntry("/api/v1/services/{uuid}/{operation}", SERVICE, null,
+      IHttpHandler.PRIORITY_NORMAL),
+    new NettyHttpServer.HttpHandlerEntry("/api/v1/*/get", GET_ONLY, null, IHttpHandler.PRIORITY_NORMAL),
+    new NettyHttpServer.HttpHandlerEntry("/api/v1/*/get", EVERY_METHOD, null, IHttpHandler.PRIORITY_LOW),
+    new NettyHttpServer.HttpHandlerEntry("/port", ROOT, 8080, IHttpHandler.PRIORITY_NORMAL)
+  ));
+
+  @Test
+  public void testSplit() {
+    Assert.assertEquals(0, NettyHttpRouteTrie.split("/").length);
+    Assert.assertArrayEquals(new String[]{"api", "v1"}, NettyHttpRouteTrie.split("/api/v1"));
+    Assert.assertArrayEquals(new String[]{"a", "", "b"}, NettyHttpRouteTrie.split("/a//b"));
+  }
+
+  @Test
+  public void testPrecedence() {
+    Assert.assertEquals(Arrays.asList(SECURITY, SERVICES), this.match("GET", 80, "/api/v1/services"));
+    Assert.assertEquals(Arrays.asList(SECURITY, SERVICE), this.match("GET", 80, "/api/v1/services/a/start"));
+    Assert.assertEquals(Arrays.asList(SECURITY), this.match("GET", 80, "/api/v1/services/a/start/now"));
+  }
+
+  @Test
+  public void testWildcardAndRoot() {
+    Assert.assertEquals(Arrays.asList(ROOT), this.match("GET", 80, "/"));
+    Assert.assertTrue(this.match("GET", 80, "/api/v1").isEmpty());
+    Assert.assertTrue(this.match("GET", 80, "/unknown").isEmpty());
+  }
+
+  @Test
+  public void testPathParameters() {
+    String[] segments = NettyHttpRouteTrie.split("/api/v1/services/a/start");
+    List<NettyHttpRouteTrie.Route> routes = this.routeTrie.match("GET", 80, segments);
+
+    Map<String, String> parameters = new HashMap<>();
+    routes.get(1).putParameters(segments, parameters);
+
+    Assert.assertEquals(2, parameters.size());
+    Assert.assertEquals("a", parameters.get("uuid"));
+    Assert.assertEquals("start", parameters.get("operation"));
+  }
+
+  @Test
+  public void testMethodAndPort() {
+    Assert.assertEquals(Arrays.asList(SECURITY, GET_ONLY, EVERY_METHOD), this.match("GET", 80, "/api/v1/test/get"));
+    Assert.assertEquals(Arrays.asList(SECURITY, EVERY_METHOD), this.match("POST", 80, "/api/v1/test/get"));
+
+    Assert.assertEquals(Arrays.asList(ROOT), this.match("GET", 8080, "/port"));
+    Assert.assertTrue(this.match("GET", 80, "/port").isEmpty());
+  }
+
+  private List<IHttpHandler> match(String method, int port, String path) {
+    return this.routeTrie.match(method, port, NettyHttpRouteTrie.split(path)).stream()
+      .map(route -> route.entry.httpHandler)
+      .collect(Collectors.toList());
+  }
+}
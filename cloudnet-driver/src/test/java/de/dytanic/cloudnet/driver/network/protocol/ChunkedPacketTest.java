@@ -91,6 +91,37 @@ public void testChunkedPacket() throws IOException {
     Assert.assertFalse(Files.exists(output));
   }
 
+  @Test
+  public void testChunkedPacketFromFile() throws IOException {
+    Path input = Paths.get("build/chunked_file_packet");
+    Path output = Paths.get("build/chunked_file_packet_result");
+
+    byte[] data = new byte[3 * ChunkedPacketBuilder.DEFAULT_CHUNK_SIZE + 12345];
+    new Random().nextBytes(data);
+    Files.write(input, data);
+
+    TestChunkedPacketListener listener = new TestChunkedPacketListener(output);
+    ChunkedPacketBuilder builder = ChunkedPacketBuilder.newBuilder()
+      .channel(1)
+      .input(input)
+      .header(JsonDocument.newDocument("test", "test"))
+      .target(packet -> {
+        try {
+          listener.handle(null, packet.fillBuffer());
+        } catch (Exception exception) {
+          exception.printStackTrace();
+        }
+      })
+      .complete();
+
+    Assert.assertTrue(builder.isSuccess());
+    Assert.assertEquals(0, listener.getSessions().size());
+    Assert.assertArrayEquals(data, Files.readAllBytes(output));
+
+    Files.delete(input);
+    Files.delete(output);
+  }
+
   private long getUnequalIndex(Path expected, Path actual) throws IOException {
     try (InputStream expectedStream = Files.newInputStream(expected);
       InputStream actualStream = Files.newInputStream(actual)) {
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.driver.permission;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompiledPermissionsTest {
+
+  @Test
+  public void testExactPermissions() {
+    CompiledPermissions permissions = CompiledPermissions.compile(Arrays.asList(
+      new Permission("test.permission", 10),
+      new Permission("test.forbidden", -1)
+    ));
+
+    Assert.assertEquals(10, permissions.findHighestPermission(new Permission("Test.Permission")).getPotency());
+    Assert.assertEquals(10, permissions.findHighestPermission(new Permission("test.permission", 10)).getPotency());
+    Assert.assertNull(permissions.findHighestPermission(new Permission("test.permission", 11)));
+    Assert.assertEquals(-1, permissions.findHighestPermission(new Permission("test.forbidden")).getPotency());
+    Assert.assertNull(permissions.findHighestPermission(new Permission("test.unknown")));
+  }
+
+  @Test
+  public void testWildcardPermissions() {
+    CompiledPermissions permissions = CompiledPermissions.compile(Arrays.asList(
+      new Permission("test.*", 5),
+      new Permission("test.sub.*", -20),
+      new Permission("test.sub.allowed", 30)
+    ));
+
+    Assert.assertEquals(5, permissions.findHighestPermission(new Permission("test.other")).getPotency());
+    Assert.assertEquals(-20, permissions.findHighestPermission(new Permission("test.sub.other")).getPotency());
+    Assert.assertEquals(30, permissions.findHighestPermission(new Permission("test.sub.allowed")).getPotency());
+    // the name of a wildcard permission only has to be contained in the requested permission
+    Assert.assertEquals(5, permissions.findHighestPermission(new Permission("other.test.x")).getPotency());
+    Assert.assertNull(permissions.findHighestPermission(new Permission("tes")));
+    Assert.assertNull(permissions.findHighestPermission(new Permission("test.other", 6)));
+  }
+
+  @Test
+  public void testStarPermission() {
+    CompiledPermissions permissions = CompiledPermissions.compile(Arrays.asList(
+      new Permission("*", 100),
+      new Permission("test.permission", -50)
+    ));
+
+    Assert.assertEquals(100, permissions.findHighestPermission(new Permission("test.permission")).getPotency());
+    Assert.assertEquals(100, permissions.findHighestPermission(new Permission("anything")).getPotency());
+    Assert.assertNull(permissions.findHighestPermission(new Permission("anything", 101)));
+  }
+
+  @Test
+  public void testNegativePermissionWinsTie() {
+    CompiledPermissions permissions = CompiledPermissions.compile(Arrays.asList(
+      new Permission("test.*", 10),
+      new Permission("test.permission", -10)
+    ));
+
+    Assert.assertEquals(-10, permissions.findHighestPermission(new Permission("test.permission")).getPotency());
+  }
+
+  @Test
+  public void testEmptyPermissions() {
+    CompiledPermissions permissions = CompiledPermissions.compile(Collections.emptyList());
+    Assert.assertNull(permissions.findHighestPermission(new Permission("test.permission")));
+  }
+}
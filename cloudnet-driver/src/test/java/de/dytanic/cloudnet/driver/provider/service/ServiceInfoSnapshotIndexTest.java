@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.driver.provider.service;
+
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.service.ServiceEnvironmentType;
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshots;
+import de.dytanic.cloudnet.driver.service.ServiceLifeCycle;
+import java.util.UUID;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ServiceInfoSnapshotIndexTest {
+
+  private static ServiceInfoSnapshot createSnapshot(UUID uniqueId, String task, int id, ServiceLifeCycle lifeCycle,
+    String... groups) {
+    return ServiceInfoSnapshots.create(uniqueId, task, id, lifeCycle, JsonDocument.newDocument(), groups);
+  }
+
+  @Test
+  public void testLookups() {
+    ServiceInfoSnapshotIndex index = new ServiceInfoSnapshotIndex();
+
+    UUID lobbyId = UUID.randomUUID();
+    index.put(createSnapshot(lobbyId, "Lobby", 1, ServiceLifeCycle.RUNNING, "Lobby", "Global"));
+    index.put(createSnapshot(UUID.randomUUID(), "Lobby", 2, ServiceLifeCycle.PREPARED, "Lobby", "Global"));
+    index.put(createSnapshot(UUID.randomUUID(), "BedWars", 1, ServiceLifeCycle.RUNNING, "Global"));
+
+    Assert.assertEquals(3, index.size());
+    Assert.assertEquals(3, index.getAll().size());
+    Assert.assertEquals(2, index.getStarted().size());
+    Assert.assertEquals(lobbyId, index.getByName("lobby-1").getServiceId().getUniqueId());
+    Assert.assertEquals(2, index.getByTask("LOBBY").size());
+    Assert.assertEquals(0, index.countByTask("LOBBY"));
+    Assert.assertEquals(2, index.countByTask("Lobby"));
+    Assert.assertEquals(3, index.getByGroup("Global").size());
+    Assert.assertEquals(0, index.getByGroup("global").size());
+    Assert.assertEquals(2, index.countByGroup("Lobby"));
+    Assert.assertEquals(3, index.getByEnvironment(ServiceEnvironmentType.MINECRAFT_SERVER).size());
+    Assert.assertTrue(index.getByEnvironment(ServiceEnvironmentType.BUNGEECORD).isEmpty());
+    Assert.assertEquals(2, index.countByLifeCycle(ServiceLifeCycle.RUNNING));
+    Assert.assertEquals(1, index.countByLifeCycle(ServiceLifeCycle.PREPARED));
+  }
+
+  @Test
+  public void testUpdateAndRemove() {
+    ServiceInfoSnapshotIndex index = new ServiceInfoSnapshotIndex();
+
+    UUID uniqueId = UUID.randomUUID();
+    index.put(createSnapshot(uniqueId, "Lobby", 1, ServiceLifeCycle.PREPARED, "Lobby", "Global"));
+    Assert.assertNotNull(index.put(createSnapshot(uniqueId, "Lobby", 1, ServiceLifeCycle.RUNNING, "Lobby")));
+
+    Assert.assertEquals(1, index.size());
+    Assert.assertEquals(ServiceLifeCycle.RUNNING, index.get(uniqueId).getLifeCycle());
+    Assert.assertEquals(1, index.countByGroup("Lobby"));
+    Assert.assertEquals(0, index.countByGroup("Global"));
+    Assert.assertEquals(0, index.countByLifeCycle(ServiceLifeCycle.PREPARED));
+    Assert.assertEquals(1, index.countByLifeCycle(ServiceLifeCycle.RUNNING));
+
+    Assert.assertNotNull(index.remove(uniqueId));
+    Assert.assertNull(index.remove(uniqueId));
+    Assert.assertEquals(0, index.size());
+    Assert.assertNull(index.getByName("Lobby-1"));
+    Assert.assertTrue(index.getByTask("Lobby").isEmpty());
+    Assert.assertEquals(0, index.countByGroup("Lobby"));
+    Assert.assertEquals(0, index.countByLifeCycle(ServiceLifeCycle.RUNNING));
+    Assert.assertTrue(index.asMap().isEmpty());
+  }
+
+  @Test
+  public void testInPlaceChange() {
+    ServiceInfoSnapshotIndex index = new ServiceInfoSnapshotIndex();
+
+    UUID uniqueId = UUID.randomUUID();
+    ServiceInfoSnapshot snapshot = createSnapshot(uniqueId, "Lobby", 1, ServiceLifeCycle.PREPARED, "Lobby");
+    index.put(snapshot);
+
+    // services change the life cycle of their indexed snapshot when they are started
+    snapshot.setLifeCycle(ServiceLifeCycle.RUNNING);
+    Assert.assertEquals(1, index.getStarted().size());
+
+    Assert.assertSame(snapshot, index.put(snapshot));
+    Assert.assertEquals(1, index.size());
+    Assert.assertEquals(0, index.countByLifeCycle(ServiceLifeCycle.PREPARED));
+    Assert.assertEquals(1, index.countByLifeCycle(ServiceLifeCycle.RUNNING));
+    Assert.assertEquals(1, index.getStarted().size());
+    Assert.assertSame(snapshot, index.getByName("Lobby-1"));
+
+    snapshot.setLifeCycle(ServiceLifeCycle.STOPPED);
+    Assert.assertSame(snapshot, index.remove(uniqueId));
+    Assert.assertEquals(0, index.countByLifeCycle(ServiceLifeCycle.RUNNING));
+    Assert.assertEquals(0, index.countByLifeCycle(ServiceLifeCycle.STOPPED));
+    Assert.assertTrue(index.getStarted().isEmpty());
+    Assert.assertTrue(index.getByTask("Lobby").isEmpty());
+  }
+}
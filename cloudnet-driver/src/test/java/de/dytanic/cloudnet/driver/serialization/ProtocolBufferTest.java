@@ -77,4 +77,64 @@ public void testProtocolBuffer() {
 
   }
 
+  @Test
+  public void testThrowableWithCause() {
+    IllegalStateException exception = new IllegalStateException("outer", new IOException("inner"));
+
+    Throwable throwable = ProtocolBuffer.wrap(ProtocolBuffer.create().writeThrowable(exception).toArray())
+      .readThrowable();
+
+    assertTrue(throwable instanceof IllegalStateException);
+    assertEquals("outer", throwable.getMessage());
+    assertEquals(exception.getStackTrace().length, throwable.getStackTrace().length);
+    assertEquals(exception.getStackTrace()[0], throwable.getStackTrace()[0]);
+    assertTrue(throwable.getCause() instanceof IOException);
+    assertEquals("inner", throwable.getCause().getMessage());
+    assertNull(ProtocolBuffer.wrap(ProtocolBuffer.create().writeThrowable(null).toArray()).readThrowable());
+  }
+
+  @Test
+  public void testObjectFactories() {
+    assertTrue(ObjectFactoryGenerator.getFactory(PublicObject.class).getClass().getName()
+      .startsWith("GeneratedObjectFactory_"));
+    assertTrue(ObjectFactoryGenerator.newInstance(PublicObject.class) instanceof PublicObject);
+    assertTrue(ObjectFactoryGenerator.newInstance(PackagePrivateObject.class) instanceof PackagePrivateObject);
+
+    ProtocolBuffer buffer = ProtocolBuffer.create().writeObjectArray(new PublicObject[]{new PublicObject(3)});
+    assertEquals(3, buffer.readObjectArray(PublicObject.class)[0].value);
+  }
+
+  public static class PublicObject implements SerializableObject {
+
+    private int value;
+
+    public PublicObject() {
+    }
+
+    public PublicObject(int value) {
+      this.value = value;
+    }
+
+    @Override
+    public void write(ProtocolBuffer buffer) {
+      buffer.writeVarInt(this.value);
+    }
+
+    @Override
+    public void read(ProtocolBuffer buffer) {
+      this.value = buffer.readVarInt();
+    }
+  }
+
+  static class PackagePrivateObject implements SerializableObject {
+
+    @Override
+    public void write(ProtocolBuffer buffer) {
+    }
+
+    @Override
+    public void read(ProtocolBuffer buffer) {
+    }
+  }
+
 }
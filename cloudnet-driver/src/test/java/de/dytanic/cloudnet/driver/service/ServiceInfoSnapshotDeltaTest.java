@@ -0,0 +1,144 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.driver.service;
+
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.serialization.ProtocolBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ServiceInfoSnapshotDeltaTest {
+
+  private static ServiceInfoSnapshot createSnapshot(UUID uniqueId, ServiceLifeCycle lifeCycle, JsonDocument properties) {
+    return ServiceInfoSnapshots.create(uniqueId, "Lobby", 1, lifeCycle, properties, "Lobby");
+  }
+
+  private static Collection<ServiceInfoSnapshot> read(ServiceInfoSnapshotDeltaReader reader, IPacket packet) {
+    ProtocolBuffer buffer = ProtocolBuffer.wrap(packet.getBuffer().toArray());
+    return reader.read(null, buffer.readByte(), buffer);
+  }
+
+  @Test
+  public void testCreateAndApply() {
+    UUID uniqueId = UUID.randomUUID();
+    ServiceInfoSnapshot base = createSnapshot(uniqueId, ServiceLifeCycle.PREPARED, JsonDocument.newDocument()
+      .append("Online", false)
+      .append("Players", Arrays.asList("derklaro", "0utplay"))
+      .append("Motd", "Hello"));
+    ServiceInfoSnapshot current = createSnapshot(uniqueId, ServiceLifeCycle.RUNNING, JsonDocument.newDocument()
+      .append("Online", true)
+      .append("Players", Arrays.asList("derklaro", "0utplay"))
+      .append("Max-Players", 20));
+
+    ServiceInfoSnapshotDelta delta = ServiceInfoSnapshotDelta.create(uniqueId,
+      ServiceInfoSnapshotDelta.State.capture(base), ServiceInfoSnapshotDelta.State.capture(current), 1, 2);
+    ServiceInfoSnapshotDelta transferred = ProtocolBuffer.create().writeObject(delta)
+      .readObject(ServiceInfoSnapshotDelta.class);
+
+    Assert.assertEquals(uniqueId, transferred.getUniqueId());
+    Assert.assertEquals(1, transferred.getBaseVersion());
+    Assert.assertEquals(2, transferred.getVersion());
+
+    ServiceInfoSnapshot applied = transferred.apply(base);
+    Assert.assertEquals(ServiceLifeCycle.RUNNING, applied.getLifeCycle());
+    Assert.assertSame(base.getConfiguration(), applied.getConfiguration());
+    Assert.assertEquals(current.getProperties().toJson(), applied.getProperties().toJson());
+    Assert.assertEquals("Hello", base.getProperties().getString("Motd"));
+  }
+
+  @Test
+  public void testDeltasOnlyContainChanges() {
+    UUID uniqueId = UUID.randomUUID();
+    List<String> players = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      players.add("Player-" + i);
+    }
+
+    JsonDocument properties = JsonDocument.newDocument().append("Players", players).append("Online-Count", 200);
+    ServiceInfoSnapshotDelta.State previous = ServiceInfoSnapshotDelta.State
+      .capture(createSnapshot(uniqueId, ServiceLifeCycle.RUNNING, properties));
+
+    // the properties document is shared and changed in place, like the wrapper does
+    properties.append("Online-Count", 201);
+    ServiceInfoSnapshot current = createSnapshot(uniqueId, ServiceLifeCycle.RUNNING, properties);
+
+    int fullSize = ProtocolBuffer.create().writeObject(current).readableBytes();
+    int deltaSize = ProtocolBuffer.create().writeObject(ServiceInfoSnapshotDelta
+      .create(uniqueId, previous, ServiceInfoSnapshotDelta.State.capture(current), 1, 2)).readableBytes();
+
+    Assert.assertTrue(deltaSize * 10 < fullSize);
+  }
+
+  @Test
+  public void testReaderAppliesReorderedDeltas() {
+    UUID uniqueId = UUID.randomUUID();
+    ServiceInfoSnapshotDeltaWriter writer = new ServiceInfoSnapshotDeltaWriter(1);
+    List<IPacket> packets = new ArrayList<>();
+
+    for (int i = 0; i < 4; i++) {
+      writer.publish(createSnapshot(uniqueId, ServiceLifeCycle.RUNNING, JsonDocument.newDocument().append("Count", i)),
+        packets::add);
+    }
+
+    ServiceInfoSnapshotDeltaReader reader = new ServiceInfoSnapshotDeltaReader(1);
+    Assert.assertEquals(1, read(reader, packets.get(0)).size());
+    Assert.assertTrue(read(reader, packets.get(2)).isEmpty());
+    Assert.assertTrue(read(reader, packets.get(3)).isEmpty());
+
+    List<ServiceInfoSnapshot> snapshots = new ArrayList<>(read(reader, packets.get(1)));
+    Assert.assertEquals(3, snapshots.size());
+    for (int i = 0; i < snapshots.size(); i++) {
+      Assert.assertEquals(i + 1, snapshots.get(i).getProperties().getInt("Count"));
+    }
+
+    Assert.assertTrue(read(reader, packets.get(2)).isEmpty());
+  }
+
+  @Test
+  public void testAppliedPacketsRebuildHeldBackDeltas() {
+    UUID uniqueId = UUID.randomUUID();
+    ServiceInfoSnapshotDeltaWriter writer = new ServiceInfoSnapshotDeltaWriter(1);
+    List<IPacket> packets = new ArrayList<>();
+
+    for (int i = 0; i < 4; i++) {
+      writer.publish(createSnapshot(uniqueId, ServiceLifeCycle.RUNNING, JsonDocument.newDocument().append("Count", i)),
+        packets::add);
+    }
+
+    ServiceInfoSnapshotDeltaReader reader = new ServiceInfoSnapshotDeltaReader(1);
+    List<IPacket> appliedPackets = new ArrayList<>();
+    for (int index : new int[]{0, 2, 3, 1}) {
+      ProtocolBuffer buffer = ProtocolBuffer.wrap(packets.get(index).getBuffer().toArray());
+      reader.read(null, buffer.readByte(), buffer, appliedPackets::add);
+    }
+
+    Assert.assertEquals(4, appliedPackets.size());
+
+    ServiceInfoSnapshotDeltaReader forwardedReader = new ServiceInfoSnapshotDeltaReader(1);
+    for (int i = 0; i < appliedPackets.size(); i++) {
+      Collection<ServiceInfoSnapshot> snapshots = read(forwardedReader, appliedPackets.get(i));
+      Assert.assertEquals(1, snapshots.size());
+      Assert.assertEquals(i, snapshots.iterator().next().getProperties().getInt("Count"));
+    }
+  }
+}
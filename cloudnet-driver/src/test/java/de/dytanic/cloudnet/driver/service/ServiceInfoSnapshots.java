@@ -0,0 +1,40 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.driver.service;
+
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.network.HostAndPort;
+import java.util.Collections;
+import java.util.UUID;
+
+public final class ServiceInfoSnapshots {
+
+  private ServiceInfoSnapshots() {
+    throw new UnsupportedOperationException();
+  }
+
+  public static ServiceInfoSnapshot create(UUID uniqueId, String task, int id, ServiceLifeCycle lifeCycle,
+    JsonDocument properties, String... groups) {
+    ServiceId serviceId = new ServiceId(uniqueId, "Node-1", task, id, ServiceEnvironmentType.MINECRAFT_SERVER);
+    ServiceConfiguration configuration = new ServiceConfiguration(serviceId, "jvm", true, false, groups,
+      new ServiceRemoteInclusion[0], new ServiceTemplate[0], new ServiceDeployment[0],
+      new ProcessConfiguration(ServiceEnvironmentType.MINECRAFT_SERVER, 512, Collections.emptyList()), 44955);
+
+    return new ServiceInfoSnapshot(1000, new HostAndPort("127.0.0.1", 44955), -1, lifeCycle, ProcessSnapshot.empty(),
+      properties, configuration);
+  }
+}
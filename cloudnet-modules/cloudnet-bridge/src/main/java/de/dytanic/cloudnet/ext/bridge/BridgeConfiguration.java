@@ -45,6 +45,7 @@ public final class BridgeConfiguration extends BasicJsonDocPropertyable {
       "§7You do not have the required permissions to connect to this server.");
     DEFAULT_MESSAGES.put("command-cloud-sub-command-no-permission", "§7You are not allowed to use §b%command%");
     DEFAULT_MESSAGES.put("already-connected", "§cYou are already connected to this network!");
+    DEFAULT_MESSAGES.put("proxy-login-overloaded", "§cToo many players are joining right now, please try again");
   }
 
   private String prefix = "&7Cloud &8| &b";
@@ -25,8 +25,10 @@
 import de.dytanic.cloudnet.ext.bridge.player.NetworkServiceInfo;
 import de.dytanic.cloudnet.ext.bridge.player.ServicePlayer;
 import de.dytanic.cloudnet.ext.bridge.proxy.BridgeProxyHelper;
+import de.dytanic.cloudnet.ext.bridge.proxy.ProxyLoginRequestQueue;
 import de.dytanic.cloudnet.wrapper.Wrapper;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public final class BridgeHelper {
 
@@ -73,6 +75,18 @@ public static String sendChannelMessageProxyLoginRequest(NetworkConnectionInfo n
     return response != null ? response.getBuffer().readOptionalString() : null;
   }
 
+  /**
+   * Requests the login of the given player without blocking. The requests of all players joining at the same time are
+   * sent to the node in batches.
+   *
+   * @param networkConnectionInfo the connection of the player
+   * @return a future completed with the kick reason or null if the player is allowed to join
+   */
+  public static CompletableFuture<String> sendChannelMessageProxyLoginRequestAsync(
+    NetworkConnectionInfo networkConnectionInfo) {
+    return ProxyLoginRequestQueue.getInstance().request(networkConnectionInfo);
+  }
+
   public static void sendChannelMessageProxyLoginSuccess(NetworkConnectionInfo networkConnectionInfo) {
     messageBuilder()
       .message(BridgeConstants.BRIDGE_EVENT_CHANNEL_MESSAGE_NAME_PROXY_LOGIN_SUCCESS)
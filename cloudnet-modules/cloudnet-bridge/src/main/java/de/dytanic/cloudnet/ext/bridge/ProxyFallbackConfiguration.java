@@ -29,6 +29,8 @@ public class ProxyFallbackConfiguration {
 
   protected List<ProxyFallback> fallbacks;
 
+  protected ProxyFallbackStrategy fallbackStrategy = ProxyFallbackStrategy.LEAST_LOADED;
+
   public ProxyFallbackConfiguration(String targetGroup, String defaultFallbackTask, List<ProxyFallback> fallbacks) {
     this.targetGroup = targetGroup;
     this.defaultFallbackTask = defaultFallbackTask;
@@ -59,4 +61,12 @@ public void setFallbacks(List<ProxyFallback> fallbacks) {
     this.fallbacks = fallbacks;
   }
 
+  public ProxyFallbackStrategy getFallbackStrategy() {
+    // configurations of older versions don't contain a strategy
+    return this.fallbackStrategy == null ? ProxyFallbackStrategy.LEAST_LOADED : this.fallbackStrategy;
+  }
+
+  public void setFallbackStrategy(ProxyFallbackStrategy fallbackStrategy) {
+    this.fallbackStrategy = fallbackStrategy;
+  }
 }
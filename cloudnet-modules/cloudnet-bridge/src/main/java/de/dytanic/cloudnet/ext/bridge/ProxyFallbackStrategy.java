@@ -0,0 +1,33 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.ext.bridge;
+
+/**
+ * The strategy used by proxies to choose between the services of the fallbacks with the same priority.
+ */
+public enum ProxyFallbackStrategy {
+
+  /**
+   * Chooses the service with the fewest online players
+   */
+  LEAST_LOADED,
+  /**
+   * Chooses the service with the most online players which is not full yet, to keep as few services as possible in
+   * use. If all services are full the service with the fewest online players is chosen.
+   */
+  FILL_FIRST
+}
@@ -48,6 +48,17 @@ public void includeExistingServices() {
 
   protected abstract void handleUpdate();
 
+  /**
+   * Called for every change of a watched service, including the services added by {@link #includeExistingServices()},
+   * before {@link #handleUpdate()} is fired
+   *
+   * @param serviceInfoSnapshot the changed service
+   * @param serviceInfoState    the new state of the service or null, if the service was unregistered
+   */
+  protected void handleServiceUpdate(@NotNull ServiceInfoSnapshot serviceInfoSnapshot,
+    @Nullable ServiceInfoState serviceInfoState) {
+  }
+
   protected abstract boolean shouldWatchService(ServiceInfoSnapshot serviceInfoSnapshot);
 
   protected abstract boolean shouldShowFullServices();
@@ -64,6 +75,7 @@ private void putService(ServiceInfoSnapshot serviceInfoSnapshot, ServiceInfoStat
 
     this.services
       .put(serviceInfoSnapshot.getServiceId().getUniqueId(), new Pair<>(serviceInfoSnapshot, serviceInfoState));
+    this.handleServiceUpdate(serviceInfoSnapshot, serviceInfoState);
 
     if (fireUpdate) {
       this.handleUpdate();
@@ -106,6 +118,7 @@ public void handle(CloudServiceUnregisterEvent event) {
     }
 
     this.services.remove(serviceInfoSnapshot.getServiceId().getUniqueId());
+    this.handleServiceUpdate(serviceInfoSnapshot, null);
     this.handleUpdate();
   }
 
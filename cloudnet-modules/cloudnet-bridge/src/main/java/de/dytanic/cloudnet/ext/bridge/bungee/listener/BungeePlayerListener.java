@@ -44,12 +44,17 @@ public BungeePlayerListener(BungeeCloudNetBridgePlugin plugin) {
 
   @EventHandler
   public void handle(LoginEvent event) {
-    String kickReason = BridgeHelper
-      .sendChannelMessageProxyLoginRequest(BungeeCloudNetHelper.createNetworkConnectionInfo(event.getConnection()));
-    if (kickReason != null) {
-      event.setCancelled(true);
-      event.setCancelReason(TextComponent.fromLegacyText(kickReason));
-    }
+    // the login event is completed when the node answered, the login thread of the proxy isn't blocked meanwhile
+    event.registerIntent(this.plugin);
+    BridgeHelper
+      .sendChannelMessageProxyLoginRequestAsync(BungeeCloudNetHelper.createNetworkConnectionInfo(event.getConnection()))
+      .whenComplete((kickReason, throwable) -> {
+        if (kickReason != null) {
+          event.setCancelled(true);
+          event.setCancelReason(TextComponent.fromLegacyText(kickReason));
+        }
+        event.completeIntent(this.plugin);
+      });
   }
 
   @EventHandler
@@ -87,6 +87,8 @@ public void writeConfiguration(BridgeConfiguration bridgeConfiguration) {
 
   @ModuleTask(order = 36, event = ModuleLifeCycle.STARTED)
   public void initNodePlayerManager() {
+    // offline players are looked up by their name
+    super.getCloudNet().getDatabaseProvider().registerIndexedField(this.nodePlayerManager.getDatabaseName(), "name");
     super.getCloudNet().getServicesRegistry()
       .registerService(IPlayerManager.class, "NodePlayerManager", this.nodePlayerManager);
 
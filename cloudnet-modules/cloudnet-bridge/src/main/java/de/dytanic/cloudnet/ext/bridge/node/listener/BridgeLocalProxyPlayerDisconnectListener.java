@@ -56,7 +56,8 @@ public void handleServiceUpdate(CloudServiceInfoUpdateEvent event) {
         return;
       }
       // test if any player has the login service but is not connected to it
-      for (CloudPlayer value : this.playerManager.getOnlineCloudPlayers().values()) {
+      for (CloudPlayer value : this.playerManager.getOnlinePlayerRegistry()
+        .getByLoginService(info.getServiceId().getUniqueId())) {
         if (value.getLoginService().getServiceId().getUniqueId().equals(info.getServiceId().getUniqueId())) {
           // the player is on the service
           ServicePlayer match = Iterables.tryFind(
@@ -100,7 +101,8 @@ public void handle(CloudServiceUnregisterEvent event) {
   private void handleCloudServiceRemove(@NotNull ServiceInfoSnapshot snapshot) {
     if (snapshot.getServiceId().getEnvironment().isMinecraftProxy()) {
       // test if any player has the stopped service as the login service
-      for (CloudPlayer value : this.playerManager.getOnlineCloudPlayers().values()) {
+      for (CloudPlayer value : this.playerManager.getOnlinePlayerRegistry()
+        .getByLoginService(snapshot.getServiceId().getUniqueId())) {
         if (value.getLoginService().getServiceId().getUniqueId().equals(snapshot.getServiceId().getUniqueId())) {
           // the player was connected to that proxy, log him out now
           this.playerManager.logoutPlayer(value);
@@ -40,7 +40,9 @@
 import de.dytanic.cloudnet.ext.bridge.player.NetworkConnectionInfo;
 import de.dytanic.cloudnet.ext.bridge.player.NetworkPlayerServerInfo;
 import de.dytanic.cloudnet.ext.bridge.player.NetworkServiceInfo;
+import java.util.Collection;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 public final class NodeCustomChannelMessageListener {
 
@@ -61,22 +63,44 @@ public void handleProxyLoginRequest(ChannelMessageReceiveEvent event) {
 
     if (BridgeConstants.BRIDGE_EVENT_CHANNEL_MESSAGE_NAME_PROXY_LOGIN_REQUEST.equals(event.getMessage())) {
       NetworkConnectionInfo networkConnectionInfo = event.getBuffer().readObject(NetworkConnectionInfo.class);
-      ProtocolBuffer response = this
-        .processLoginRequest(new NodeLocalBridgePlayerProxyLoginRequestEvent(networkConnectionInfo, null));
-      event.setQueryResponse(ChannelMessage.buildResponseFor(event.getChannelMessage()).buffer(response).build());
+      ProtocolBuffer response = ProtocolBuffer.create()
+        .writeOptionalString(this.handleLoginRequest(networkConnectionInfo));
 
-      this.callProxyLoginRequest(networkConnectionInfo);
+      event.setQueryResponse(ChannelMessage.buildResponseFor(event.getChannelMessage()).buffer(response).build());
+    } else if (BridgeConstants.BRIDGE_EVENT_CHANNEL_MESSAGE_NAME_PROXY_LOGIN_REQUEST_BATCH.equals(event.getMessage())) {
+      Collection<NetworkConnectionInfo> networkConnectionInfos = event.getBuffer()
+        .readObjectCollection(NetworkConnectionInfo.class);
+      // load the players from the database before the logins of them are processed
+      this.nodePlayerManager.prefetchOfflinePlayers(networkConnectionInfos.stream()
+        .map(NetworkConnectionInfo::getUniqueId)
+        .collect(Collectors.toList()));
+
+      ProtocolBuffer response = ProtocolBuffer.create();
+      response.writeVarInt(networkConnectionInfos.size());
+      for (NetworkConnectionInfo networkConnectionInfo : networkConnectionInfos) {
+        response.writeOptionalString(this.handleLoginRequest(networkConnectionInfo));
+      }
 
-      this.nodePlayerManager.messageBuilder()
-        .message(BridgeConstants.BRIDGE_EVENT_CHANNEL_MESSAGE_NAME_PROXY_LOGIN_REQUEST)
-        .buffer(ProtocolBuffer.create().writeObject(networkConnectionInfo))
-        .targetAll()
-        .build()
-        .send();
+      event.setQueryResponse(ChannelMessage.buildResponseFor(event.getChannelMessage()).buffer(response).build());
     }
   }
 
-  private ProtocolBuffer processLoginRequest(NodeLocalBridgePlayerProxyLoginRequestEvent requestEvent) {
+  private String handleLoginRequest(NetworkConnectionInfo networkConnectionInfo) {
+    String kickReason = this
+      .processLoginRequest(new NodeLocalBridgePlayerProxyLoginRequestEvent(networkConnectionInfo, null));
+
+    this.callProxyLoginRequest(networkConnectionInfo);
+
+    this.nodePlayerManager.messageBuilder()
+      .message(BridgeConstants.BRIDGE_EVENT_CHANNEL_MESSAGE_NAME_PROXY_LOGIN_REQUEST)
+      .buffer(ProtocolBuffer.create().writeObject(networkConnectionInfo))
+      .targetAll()
+      .build()
+      .send();
+    return kickReason;
+  }
+
+  private String processLoginRequest(NodeLocalBridgePlayerProxyLoginRequestEvent requestEvent) {
     CloudNetDriver.getInstance().getEventManager().callEvent(requestEvent);
 
     if (this.nodePlayerManager.getOnlinePlayer(requestEvent.getConnectionInfo().getUniqueId()) != null) {
@@ -88,9 +112,9 @@ private ProtocolBuffer processLoginRequest(NodeLocalBridgePlayerProxyLoginReques
       if (requestEvent.getKickReason() == null) {
         requestEvent.setKickReason("§cNo kick reason given");
       }
-      return ProtocolBuffer.create().writeOptionalString(requestEvent.getKickReason());
+      return requestEvent.getKickReason();
     }
-    return ProtocolBuffer.create().writeOptionalString(null);
+    return null;
   }
 
   private void callProxyLoginRequest(NetworkConnectionInfo networkConnectionInfo) {
@@ -47,7 +47,7 @@ public PlayerManagerListener(NodePlayerManager nodePlayerManager) {
   @EventListener
   public void handle(CloudServiceStopEvent event) {
     UUID serviceId = event.getServiceInfo().getServiceId().getUniqueId();
-    for (CloudPlayer cloudPlayer : this.nodePlayerManager.getOnlineCloudPlayers().values()) {
+    for (CloudPlayer cloudPlayer : this.nodePlayerManager.getOnlinePlayerRegistry().getByLoginService(serviceId)) {
       if (cloudPlayer.getLoginService() == null) {
         continue;
       }
@@ -90,7 +90,7 @@ public void handle(ChannelMessageReceiveEvent event) {
         Collection<CloudPlayer> cloudPlayers = event.getBuffer().readObjectCollection(CloudPlayer.class);
 
         for (CloudPlayer cloudPlayer : cloudPlayers) {
-          this.nodePlayerManager.getOnlineCloudPlayers().put(cloudPlayer.getUniqueId(), cloudPlayer);
+          this.nodePlayerManager.getOnlinePlayerRegistry().put(cloudPlayer);
         }
       }
       break;
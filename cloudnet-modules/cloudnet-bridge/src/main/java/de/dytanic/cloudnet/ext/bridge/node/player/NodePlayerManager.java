@@ -43,13 +43,12 @@
 import de.dytanic.cloudnet.ext.bridge.player.NetworkServiceInfo;
 import de.dytanic.cloudnet.ext.bridge.player.PlayerProvider;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.function.Predicate;
@@ -67,11 +66,11 @@ public final class NodePlayerManager extends DefaultPlayerManager implements IPl
     .concurrencyLevel(4)
     .expireAfterAccess(5, TimeUnit.MINUTES)
     .build();
-  private final Map<UUID, CloudPlayer> onlineCloudPlayers = new ConcurrentHashMap<>();
+  private final OnlinePlayerRegistry onlinePlayerRegistry = new OnlinePlayerRegistry();
 
   private final Striped<Lock> managementLocks = Striped.lazyWeakLock(1);
   private final PlayerProvider allPlayersProvider = new NodePlayerProvider(this,
-    () -> this.onlineCloudPlayers.values().stream());
+    () -> this.onlinePlayerRegistry.getPlayers().stream());
 
   public NodePlayerManager(String databaseName) {
     this.databaseName = databaseName;
@@ -86,12 +85,13 @@ public static NodePlayerManager getInstance() {
   }
 
   public Database getDatabase() {
-    return CloudNet.getInstance().getDatabaseProvider().getDatabase(this.databaseName);
+    // offline players are rewritten on every login, server switch and logout
+    return CloudNet.getInstance().getDatabaseProvider().getWriteBehindDatabase(this.databaseName);
   }
 
   @Override
   public int getOnlineCount() {
-    return this.onlineCloudPlayers.size();
+    return this.onlinePlayerRegistry.size();
   }
 
   @Override
@@ -102,43 +102,32 @@ public long getRegisteredCount() {
   @Nullable
   @Override
   public CloudPlayer getOnlinePlayer(@NotNull UUID uniqueId) {
-    return this.onlineCloudPlayers.get(uniqueId);
+    return this.onlinePlayerRegistry.get(uniqueId);
   }
 
   @Override
   public @Nullable CloudPlayer getFirstOnlinePlayer(@NotNull String name) {
-    for (CloudPlayer player : this.onlineCloudPlayers.values()) {
-      if (player.getName().equalsIgnoreCase(name)) {
-        return player;
-      }
-    }
-    return null;
+    List<CloudPlayer> players = this.onlinePlayerRegistry.getByName(name);
+    return players.isEmpty() ? null : players.get(0);
   }
 
   @Override
   public @NotNull List<? extends ICloudPlayer> getOnlinePlayers(@NotNull String name) {
     Preconditions.checkNotNull(name);
 
-    return this.onlineCloudPlayers.values().stream().filter(cloudPlayer -> cloudPlayer.getName().equalsIgnoreCase(name))
-      .collect(Collectors.toList());
+    return this.onlinePlayerRegistry.getByName(name);
   }
 
   @Override
   public @NotNull List<? extends ICloudPlayer> getOnlinePlayers(@NotNull ServiceEnvironmentType environment) {
     Preconditions.checkNotNull(environment);
 
-    return this.onlineCloudPlayers.values()
-      .stream()
-      .filter(cloudPlayer ->
-        (cloudPlayer.getLoginService() != null && cloudPlayer.getLoginService().getEnvironment() == environment)
-          || (cloudPlayer.getConnectedService() != null
-          && cloudPlayer.getConnectedService().getEnvironment() == environment))
-      .collect(Collectors.toList());
+    return this.onlinePlayerRegistry.getByEnvironment(environment);
   }
 
   @Override
   public @NotNull List<CloudPlayer> getOnlinePlayers() {
-    return new ArrayList<>(this.onlineCloudPlayers.values());
+    return new ArrayList<>(this.onlinePlayerRegistry.getPlayers());
   }
 
   @Override
@@ -148,24 +137,12 @@ public CloudPlayer getOnlinePlayer(@NotNull UUID uniqueId) {
 
   @Override
   public @NotNull PlayerProvider taskOnlinePlayers(@NotNull String task) {
-    return new NodePlayerProvider(
-      this,
-      () -> this.onlineCloudPlayers.values().stream()
-        .filter(cloudPlayer -> cloudPlayer.getConnectedService().getTaskName().equalsIgnoreCase(task)
-          || cloudPlayer.getLoginService().getTaskName().equalsIgnoreCase(task))
-    );
+    return new NodePlayerProvider(this, () -> this.onlinePlayerRegistry.getByTask(task).stream());
   }
 
   @Override
   public @NotNull PlayerProvider groupOnlinePlayers(@NotNull String group) {
-    return new NodePlayerProvider(
-      this,
-      () -> this.onlineCloudPlayers.values().stream()
-        .filter(cloudPlayer ->
-          Arrays.binarySearch(cloudPlayer.getConnectedService().getGroups(), group) >= 0
-            || Arrays.binarySearch(cloudPlayer.getLoginService().getGroups(), group) >= 0
-        )
-    );
+    return new NodePlayerProvider(this, () -> this.onlinePlayerRegistry.getByGroup(group).stream());
   }
 
   @Override
@@ -244,7 +221,7 @@ private CloudOfflinePlayer parseOfflinePlayer(JsonDocument jsonDocument) {
   @Override
   @NotNull
   public ITask<Integer> getOnlineCountAsync() {
-    return CompletedTask.create(this.onlineCloudPlayers.size());
+    return CompletedTask.create(this.onlinePlayerRegistry.size());
   }
 
   @Override
@@ -377,8 +354,8 @@ protected void updateOnlinePlayerInCache(ICloudPlayer cloudPlayer) {
     try {
       // lock the management lock of the player to ensure only one update at a time
       handlingLock.lock();
-      // actually update the player if needed
-      this.onlineCloudPlayers.replace(cloudPlayer.getUniqueId(), (CloudPlayer) cloudPlayer);
+      // actually update the player and the indexes of it if needed
+      this.onlinePlayerRegistry.replace((CloudPlayer) cloudPlayer);
     } finally {
       handlingLock.unlock();
     }
@@ -391,8 +368,15 @@ public <T> ITask<T> schedule(Callable<T> callable) {
     return task;
   }
 
+  /**
+   * @return an unmodifiable view of all online players, use {@link #getOnlinePlayerRegistry()} to modify them
+   */
   public Map<UUID, CloudPlayer> getOnlineCloudPlayers() {
-    return this.onlineCloudPlayers;
+    return this.onlinePlayerRegistry.asMap();
+  }
+
+  public OnlinePlayerRegistry getOnlinePlayerRegistry() {
+    return this.onlinePlayerRegistry;
   }
 
   public String getDatabaseName() {
@@ -448,7 +432,7 @@ protected CloudPlayer selectPlayerForLogin(NetworkConnectionInfo connectionInfo,
     CloudPlayer cloudPlayer = this.getOnlinePlayer(connectionInfo.getUniqueId());
     if (cloudPlayer == null) {
       // try to load the player using the name and the login service
-      for (CloudPlayer player : this.getOnlineCloudPlayers().values()) {
+      for (CloudPlayer player : this.onlinePlayerRegistry.getByName(connectionInfo.getName())) {
         if (player.getName().equals(connectionInfo.getName())
           && player.getLoginService() != null
           && player.getLoginService().getUniqueId().equals(connectionInfo.getNetworkService().getUniqueId())) {
@@ -469,7 +453,7 @@ protected CloudPlayer selectPlayerForLogin(NetworkConnectionInfo connectionInfo,
         );
         cloudPlayer.setLastLoginTimeMillis(System.currentTimeMillis());
 
-        this.getOnlineCloudPlayers().put(cloudPlayer.getUniqueId(), cloudPlayer);
+        this.onlinePlayerRegistry.put(cloudPlayer);
       }
     }
     return cloudPlayer;
@@ -493,9 +477,9 @@ public void processLoginMessage(@NotNull CloudPlayer cloudPlayer) {
       // ensure we only handle one login at a time
       loginLock.lock();
       // check if the player is already loaded
-      CloudPlayer registeredPlayer = this.onlineCloudPlayers.get(cloudPlayer.getUniqueId());
+      CloudPlayer registeredPlayer = this.onlinePlayerRegistry.get(cloudPlayer.getUniqueId());
       if (registeredPlayer == null) {
-        this.onlineCloudPlayers.put(cloudPlayer.getUniqueId(), cloudPlayer);
+        this.onlinePlayerRegistry.put(cloudPlayer);
         this.offlinePlayerCache.put(cloudPlayer.getUniqueId(), cloudPlayer);
       } else {
         boolean needsUpdate = false;
@@ -530,6 +514,28 @@ public void processLoginMessage(@NotNull CloudPlayer cloudPlayer) {
     }
   }
 
+  /**
+   * Loads the offline players with the given unique ids into the cache in the background, so that the logins of the
+   * players don't have to load them from the database while holding the management lock.
+   *
+   * @param uniqueIds the unique ids of the players to load
+   */
+  public void prefetchOfflinePlayers(@NotNull Collection<UUID> uniqueIds) {
+    List<UUID> missingPlayers = uniqueIds.stream()
+      .filter(uniqueId -> this.offlinePlayerCache.getIfPresent(uniqueId) == null)
+      .filter(uniqueId -> this.onlinePlayerRegistry.get(uniqueId) == null)
+      .collect(Collectors.toList());
+
+    if (!missingPlayers.isEmpty()) {
+      this.schedule(() -> {
+        for (UUID uniqueId : missingPlayers) {
+          this.getOfflinePlayer(uniqueId);
+        }
+        return null;
+      });
+    }
+  }
+
   public ICloudOfflinePlayer getOrRegisterOfflinePlayer(NetworkConnectionInfo networkConnectionInfo) {
     ICloudOfflinePlayer cloudOfflinePlayer = this.getOfflinePlayer(networkConnectionInfo.getUniqueId());
 
@@ -563,7 +569,7 @@ public void logoutPlayer(CloudPlayer cloudPlayer) {
 
   private void logoutPlayer0(CloudPlayer cloudPlayer) {
     // remove the player from the cache
-    this.onlineCloudPlayers.remove(cloudPlayer.getUniqueId());
+    this.onlinePlayerRegistry.remove(cloudPlayer.getUniqueId());
     cloudPlayer.setLastNetworkConnectionInfo(cloudPlayer.getNetworkConnectionInfo());
     // update the offline version of the player into the database
     this.updateOfflinePlayer0(CloudOfflinePlayer.of(cloudPlayer));
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.ext.bridge.node.player;
+
+import de.dytanic.cloudnet.driver.service.ServiceEnvironmentType;
+import de.dytanic.cloudnet.ext.bridge.player.CloudPlayer;
+import de.dytanic.cloudnet.ext.bridge.player.NetworkServiceInfo;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Holds all online players of the node together with secondary indexes by the name, the login and connected service,
+ * the task, the group and the environment of the players. The index keys of a player are recomputed on every update
+ * of the player, changes of the player object which are not followed by an update are not visible in the indexes.
+ */
+@ApiStatus.Internal
+public final class OnlinePlayerRegistry {
+
+  private final Map<UUID, CloudPlayer> players = new ConcurrentHashMap<>();
+  private final Map<UUID, List<Set<Object>>> indexedKeys = new HashMap<>();
+  private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
+
+  private final Index nameIndex = new Index(player -> player.getName() == null
+    ? Collections.emptySet()
+    : Collections.singleton(player.getName().toLowerCase()));
+  private final Index loginServiceIndex = new Index(player -> player.getLoginService() == null
+    ? Collections.emptySet()
+    : Collections.singleton(player.getLoginService().getUniqueId()));
+  private final Index connectedServiceIndex = new Index(player -> player.getConnectedService() == null
+    ? Collections.emptySet()
+    : Collections.singleton(player.getConnectedService().getUniqueId()));
+  private final Index taskIndex = new Index(player -> servicesKeys(player,
+    service -> Collections.singleton(service.getTaskName().toLowerCase())));
+  private final Index groupIndex = new Index(player -> servicesKeys(player,
+    service -> service.getGroups() == null ? Collections.emptyList() : Arrays.asList(service.getGroups())));
+  private final Index environmentIndex = new Index(player -> servicesKeys(player,
+    service -> Collections.singleton(service.getEnvironment())));
+
+  private final List<Index> indexes = Arrays.asList(
+    this.nameIndex,
+    this.loginServiceIndex,
+    this.connectedServiceIndex,
+    this.taskIndex,
+    this.groupIndex,
+    this.environmentIndex
+  );
+
+  private static Set<Object> servicesKeys(CloudPlayer player, Function<NetworkServiceInfo, Collection<?>> keyFunction) {
+    Set<Object> keys = new HashSet<>();
+    if (player.getLoginService() != null) {
+      keys.addAll(keyFunction.apply(player.getLoginService()));
+    }
+    if (player.getConnectedService() != null) {
+      keys.addAll(keyFunction.apply(player.getConnectedService()));
+    }
+    return keys;
+  }
+
+  public int size() {
+    return this.players.size();
+  }
+
+  public @Nullable CloudPlayer get(@NotNull UUID uniqueId) {
+    return this.players.get(uniqueId);
+  }
+
+  /**
+   * @return an unmodifiable view of all online players mapped by their unique id
+   */
+  public @NotNull Map<UUID, CloudPlayer> asMap() {
+    return Collections.unmodifiableMap(this.players);
+  }
+
+  public @NotNull Collection<CloudPlayer> getPlayers() {
+    return Collections.unmodifiableCollection(this.players.values());
+  }
+
+  public @NotNull List<CloudPlayer> getByName(@NotNull String name) {
+    return this.lookup(this.nameIndex, name.toLowerCase());
+  }
+
+  public @NotNull List<CloudPlayer> getByLoginService(@NotNull UUID serviceUniqueId) {
+    return this.lookup(this.loginServiceIndex, serviceUniqueId);
+  }
+
+  public @NotNull List<CloudPlayer> getByConnectedService(@NotNull UUID serviceUniqueId) {
+    return this.lookup(this.connectedServiceIndex, serviceUniqueId);
+  }
+
+  /**
+   * @return all players whose login or connected service is a service of the given task, ignoring the case
+   */
+  public @NotNull List<CloudPlayer> getByTask(@NotNull String task) {
+    return this.lookup(this.taskIndex, task.toLowerCase());
+  }
+
+  /**
+   * @return all players whose login or connected service is in the given group
+   */
+  public @NotNull List<CloudPlayer> getByGroup(@NotNull String group) {
+    return this.lookup(this.groupIndex, group);
+  }
+
+  /**
+   * @return all players whose login or connected service has the given environment
+   */
+  public @NotNull List<CloudPlayer> getByEnvironment(@NotNull ServiceEnvironmentType environment) {
+    return this.lookup(this.environmentIndex, environment);
+  }
+
+  /**
+   * Adds or replaces the given player and updates the indexes of it.
+   */
+  public void put(@NotNull CloudPlayer player) {
+    this.indexLock.writeLock().lock();
+    try {
+      this.players.put(player.getUniqueId(), player);
+      this.reindex(player);
+    } finally {
+      this.indexLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Adds the given player if there is no online player with the same unique id yet.
+   *
+   * @return if the player was added
+   */
+  public boolean putIfAbsent(@NotNull CloudPlayer player) {
+    this.indexLock.writeLock().lock();
+    try {
+      if (this.players.putIfAbsent(player.getUniqueId(), player) == null) {
+        this.reindex(player);
+        return true;
+      }
+      return false;
+    } finally {
+      this.indexLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Replaces the online player with the same unique id as the given player and updates the indexes of it.
+   *
+   * @return if there was a player to replace
+   */
+  public boolean replace(@NotNull CloudPlayer player) {
+    this.indexLock.writeLock().lock();
+    try {
+      if (this.players.replace(player.getUniqueId(), player) != null) {
+        this.reindex(player);
+        return true;
+      }
+      return false;
+    } finally {
+      this.indexLock.writeLock().unlock();
+    }
+  }
+
+  public @Nullable CloudPlayer remove(@NotNull UUID uniqueId) {
+    this.indexLock.writeLock().lock();
+    try {
+      CloudPlayer player = this.players.remove(uniqueId);
+      if (player != null) {
+        this.unindex(uniqueId);
+      }
+      return player;
+    } finally {
+      this.indexLock.writeLock().unlock();
+    }
+  }
+
+  private void reindex(CloudPlayer player) {
+    this.unindex(player.getUniqueId());
+
+    List<Set<Object>> keys = new ArrayList<>(this.indexes.size());
+    for (Index index : this.indexes) {
+      Set<Object> indexKeys = index.keyFunction.apply(player);
+      for (Object key : indexKeys) {
+        index.entries.computeIfAbsent(key, k -> new HashSet<>()).add(player.getUniqueId());
+      }
+      keys.add(indexKeys);
+    }
+    this.indexedKeys.put(player.getUniqueId(), keys);
+  }
+
+  private void unindex(UUID uniqueId) {
+    List<Set<Object>> keys = this.indexedKeys.remove(uniqueId);
+    if (keys != null) {
+      for (int i = 0; i < keys.size(); i++) {
+        Map<Object, Set<UUID>> entries = this.indexes.get(i).entries;
+        for (Object key : keys.get(i)) {
+          Set<UUID> uniqueIds = entries.get(key);
+          if (uniqueIds != null && uniqueIds.remove(uniqueId) && uniqueIds.isEmpty()) {
+            entries.remove(key);
+          }
+        }
+      }
+    }
+  }
+
+  private List<CloudPlayer> lookup(Index index, Object key) {
+    this.indexLock.readLock().lock();
+    try {
+      Set<UUID> uniqueIds = index.entries.get(key);
+      if (uniqueIds == null) {
+        return Collections.emptyList();
+      }
+
+      List<CloudPlayer> result = new ArrayList<>(uniqueIds.size());
+      for (UUID uniqueId : uniqueIds) {
+        result.add(this.players.get(uniqueId));
+      }
+      return result;
+    } finally {
+      this.indexLock.readLock().unlock();
+    }
+  }
+
+  private static final class Index {
+
+    private final Map<Object, Set<UUID>> entries = new HashMap<>();
+    private final Function<CloudPlayer, Set<Object>> keyFunction;
+
+    public Index(Function<CloudPlayer, Set<Object>> keyFunction) {
+      this.keyFunction = keyFunction;
+    }
+  }
+}
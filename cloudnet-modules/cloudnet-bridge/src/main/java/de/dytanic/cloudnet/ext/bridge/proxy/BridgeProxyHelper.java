@@ -17,14 +17,17 @@
 package de.dytanic.cloudnet.ext.bridge.proxy;
 
 import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import de.dytanic.cloudnet.ext.bridge.BridgeConfiguration;
 import de.dytanic.cloudnet.ext.bridge.BridgeConfigurationProvider;
-import de.dytanic.cloudnet.ext.bridge.BridgeServiceProperty;
 import de.dytanic.cloudnet.ext.bridge.ProxyFallback;
 import de.dytanic.cloudnet.ext.bridge.ProxyFallbackConfiguration;
+import de.dytanic.cloudnet.ext.bridge.ProxyFallbackStrategy;
 import de.dytanic.cloudnet.wrapper.Wrapper;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -33,6 +36,7 @@
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -41,6 +45,9 @@ public class BridgeProxyHelper {
 
   public static final Map<String, ServiceInfoSnapshot> SERVICE_CACHE = new ConcurrentHashMap<>();
   private static final Map<UUID, PlayerFallbackProfile> PROFILES = new ConcurrentHashMap<>();
+  private static final ProxyFallbackIndex FALLBACK_INDEX = new ProxyFallbackIndex();
+
+  private static volatile FallbackConfiguration fallbackConfiguration;
 
   private static volatile int maxPlayers;
 
@@ -63,10 +70,12 @@ public static ServiceInfoSnapshot getCachedServiceInfoSnapshot(@NotNull String n
 
   public static void cacheServiceInfoSnapshot(@NotNull ServiceInfoSnapshot serviceInfoSnapshot) {
     SERVICE_CACHE.put(serviceInfoSnapshot.getName(), serviceInfoSnapshot);
+    FALLBACK_INDEX.update(serviceInfoSnapshot);
   }
 
   public static void removeCachedServiceInfoSnapshot(@NotNull ServiceInfoSnapshot serviceInfoSnapshot) {
     SERVICE_CACHE.remove(serviceInfoSnapshot.getName());
+    FALLBACK_INDEX.remove(serviceInfoSnapshot);
   }
 
   public static void handleConnectionFailed(UUID uniqueId, String serviceName) {
@@ -91,16 +100,23 @@ public static Stream<ProxyFallbackConfiguration> getProxyFallbackConfigurations(
       );
   }
 
+  /**
+   * @return all fallbacks of this proxy, ordered by their priority starting with the highest one
+   */
   public static Stream<ProxyFallback> getFallbacks() {
-    return getProxyFallbackConfigurations()
-      .flatMap(proxyFallbackConfiguration -> {
-        List<ProxyFallback> fallbacks = new ArrayList<>(proxyFallbackConfiguration.getFallbacks());
-        if (proxyFallbackConfiguration.getDefaultFallbackTask() != null) {
-          fallbacks
-            .add(new ProxyFallback(proxyFallbackConfiguration.getDefaultFallbackTask(), null, Integer.MIN_VALUE));
-        }
-        return fallbacks.stream();
-      });
+    return getFallbackConfiguration().fallbacks.stream();
+  }
+
+  private static FallbackConfiguration getFallbackConfiguration() {
+    BridgeConfiguration bridgeConfiguration = BridgeConfigurationProvider.load();
+
+    FallbackConfiguration configuration = BridgeProxyHelper.fallbackConfiguration;
+    if (configuration == null || configuration.bridgeConfiguration != bridgeConfiguration) {
+      // the bridge configuration changed, the fallbacks have to be collected again
+      configuration = new FallbackConfiguration(bridgeConfiguration);
+      BridgeProxyHelper.fallbackConfiguration = configuration;
+    }
+    return configuration;
   }
 
   public static Stream<ProxyFallback> filterPlayerFallbacks(@NotNull UUID uniqueId,
@@ -138,18 +154,31 @@ public static Optional<ServiceInfoSnapshot> getNextFallback(@NotNull UUID unique
     @Nullable String virtualHost,
     @NotNull Predicate<String> permissionTester) {
     PlayerFallbackProfile profile = PROFILES.computeIfAbsent(uniqueId, uuid -> new PlayerFallbackProfile());
+    Predicate<ServiceInfoSnapshot> filter = serviceInfoSnapshot -> !serviceInfoSnapshot.getName().equals(currentServer)
+      && profile.canConnect(serviceInfoSnapshot);
+    ProxyFallbackStrategy strategy = getFallbackConfiguration().strategy;
+
+    // the fallbacks are ordered by their priority, only the fallbacks with the highest priority which has an available
+    // service are compared
+    ProxyFallbackIndex.Candidate selected = null;
+    int selectedPriority = 0;
 
-    return filterPlayerFallbacks(uniqueId, currentServer, virtualHost, permissionTester)
-      .flatMap(proxyFallback -> getCachedServiceInfoSnapshots(proxyFallback.getTask())
-        .map(serviceInfoSnapshot -> new PlayerFallback(proxyFallback.getPriority(), serviceInfoSnapshot)))
+    Iterator<ProxyFallback> fallbacks = filterPlayerFallbacks(uniqueId, currentServer, virtualHost, permissionTester)
+      .iterator();
+    while (fallbacks.hasNext()) {
+      ProxyFallback fallback = fallbacks.next();
+      if (selected != null && fallback.getPriority() < selectedPriority) {
+        break;
+      }
 
-      .filter(fallback -> fallback.getTarget().isConnected() && fallback.getTarget()
-        .getProperty(BridgeServiceProperty.IS_ONLINE).orElse(false))
-      .filter(fallback -> !fallback.getTarget().getName().equals(currentServer))
-      .filter(fallback -> profile.canConnect(fallback.getTarget()))
+      ProxyFallbackIndex.Candidate candidate = FALLBACK_INDEX.select(fallback.getTask(), strategy, filter);
+      if (candidate != null && (selected == null || ProxyFallbackIndex.isPreferred(candidate, selected, strategy))) {
+        selected = candidate;
+        selectedPriority = fallback.getPriority();
+      }
+    }
 
-      .min(PlayerFallback::compareTo)
-      .map(PlayerFallback::getTarget);
+    return Optional.ofNullable(selected).map(ProxyFallbackIndex.Candidate::getServiceInfoSnapshot);
   }
 
   public static boolean isFallbackService(String name) {
@@ -219,4 +248,31 @@ public static int getMaxPlayers() {
   public static void setMaxPlayers(int maxPlayers) {
     BridgeProxyHelper.maxPlayers = maxPlayers;
   }
+
+  private static final class FallbackConfiguration {
+
+    private final BridgeConfiguration bridgeConfiguration;
+    private final List<ProxyFallback> fallbacks = new ArrayList<>();
+    private ProxyFallbackStrategy strategy = ProxyFallbackStrategy.LEAST_LOADED;
+
+    private FallbackConfiguration(BridgeConfiguration bridgeConfiguration) {
+      this.bridgeConfiguration = bridgeConfiguration;
+
+      boolean strategySet = false;
+      for (ProxyFallbackConfiguration configuration : getProxyFallbackConfigurations().collect(Collectors.toList())) {
+        if (!strategySet) {
+          // the strategy of the first configuration targeting this proxy is used
+          this.strategy = configuration.getFallbackStrategy();
+          strategySet = true;
+        }
+
+        this.fallbacks.addAll(configuration.getFallbacks());
+        if (configuration.getDefaultFallbackTask() != null) {
+          this.fallbacks.add(new ProxyFallback(configuration.getDefaultFallbackTask(), null, Integer.MIN_VALUE));
+        }
+      }
+      // a stable sort, fallbacks with the same priority stay in the configured order
+      Collections.sort(this.fallbacks);
+    }
+  }
 }
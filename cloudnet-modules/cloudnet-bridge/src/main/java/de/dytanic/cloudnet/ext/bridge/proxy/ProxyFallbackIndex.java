@@ -0,0 +1,159 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.ext.bridge.proxy;
+
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import de.dytanic.cloudnet.ext.bridge.BridgeServiceProperty;
+import de.dytanic.cloudnet.ext.bridge.ProxyFallbackStrategy;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Predicate;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Holds the online services of each task ordered by their online count. The bridge properties of the services are
+ * decoded once when a service is updated instead of each time a fallback is chosen.
+ */
+public final class ProxyFallbackIndex {
+
+  private static final Comparator<Candidate> CANDIDATE_COMPARATOR = Comparator
+    .comparingInt(Candidate::getOnlineCount)
+    .thenComparing(Candidate::getName);
+
+  private final Map<String, Candidate> candidates = new ConcurrentHashMap<>();
+  private final Map<String, NavigableSet<Candidate>> onlineCandidates = new ConcurrentHashMap<>();
+
+  public synchronized void update(@NotNull ServiceInfoSnapshot serviceInfoSnapshot) {
+    Candidate candidate = new Candidate(serviceInfoSnapshot);
+    this.removeOnlineCandidate(this.candidates.put(candidate.getName(), candidate));
+
+    if (candidate.isOnline()) {
+      this.onlineCandidates
+        .computeIfAbsent(candidate.getTask(), task -> new ConcurrentSkipListSet<>(CANDIDATE_COMPARATOR))
+        .add(candidate);
+    }
+  }
+
+  public synchronized void remove(@NotNull ServiceInfoSnapshot serviceInfoSnapshot) {
+    this.removeOnlineCandidate(this.candidates.remove(serviceInfoSnapshot.getName()));
+  }
+
+  private void removeOnlineCandidate(@Nullable Candidate candidate) {
+    if (candidate != null && candidate.isOnline()) {
+      NavigableSet<Candidate> taskCandidates = this.onlineCandidates.get(candidate.getTask());
+      if (taskCandidates != null) {
+        taskCandidates.remove(candidate);
+      }
+    }
+  }
+
+  /**
+   * Selects the online service of the given task which should be used next according to the given strategy.
+   *
+   * @param task     the name of the task to select the service of
+   * @param strategy the strategy to choose between the services
+   * @param filter   the filter every selected service has to pass
+   * @return the selected service or null if there is no online service of the task which passes the filter
+   */
+  public @Nullable Candidate select(@NotNull String task, @NotNull ProxyFallbackStrategy strategy,
+    @NotNull Predicate<ServiceInfoSnapshot> filter) {
+    NavigableSet<Candidate> taskCandidates = this.onlineCandidates.get(task);
+    if (taskCandidates == null) {
+      return null;
+    }
+
+    if (strategy == ProxyFallbackStrategy.FILL_FIRST) {
+      for (Candidate candidate : taskCandidates.descendingSet()) {
+        if (!candidate.isFull() && filter.test(candidate.getServiceInfoSnapshot())) {
+          return candidate;
+        }
+      }
+    }
+
+    for (Candidate candidate : taskCandidates) {
+      if (filter.test(candidate.getServiceInfoSnapshot())) {
+        return candidate;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return if the first candidate should be preferred over the second one when using the given strategy
+   */
+  public static boolean isPreferred(@NotNull Candidate candidate, @NotNull Candidate other,
+    @NotNull ProxyFallbackStrategy strategy) {
+    if (strategy == ProxyFallbackStrategy.FILL_FIRST && candidate.isFull() != other.isFull()) {
+      return !candidate.isFull();
+    }
+
+    int result = CANDIDATE_COMPARATOR.compare(candidate, other);
+    return strategy == ProxyFallbackStrategy.FILL_FIRST && !candidate.isFull() ? result > 0 : result < 0;
+  }
+
+  public static final class Candidate {
+
+    private final ServiceInfoSnapshot serviceInfoSnapshot;
+    private final String name;
+    private final String task;
+    private final boolean online;
+    private final int onlineCount;
+    private final int maxPlayers;
+
+    private Candidate(ServiceInfoSnapshot serviceInfoSnapshot) {
+      this.serviceInfoSnapshot = serviceInfoSnapshot;
+      this.name = serviceInfoSnapshot.getName();
+      this.task = serviceInfoSnapshot.getServiceId().getTaskName();
+      this.online = serviceInfoSnapshot.isConnected()
+        && serviceInfoSnapshot.getProperty(BridgeServiceProperty.IS_ONLINE).orElse(false);
+      this.onlineCount = serviceInfoSnapshot.getProperty(BridgeServiceProperty.ONLINE_COUNT).orElse(-1);
+      this.maxPlayers = serviceInfoSnapshot.getProperty(BridgeServiceProperty.MAX_PLAYERS).orElse(-1);
+    }
+
+    public ServiceInfoSnapshot getServiceInfoSnapshot() {
+      return this.serviceInfoSnapshot;
+    }
+
+    public String getName() {
+      return this.name;
+    }
+
+    public String getTask() {
+      return this.task;
+    }
+
+    public boolean isOnline() {
+      return this.online;
+    }
+
+    public int getOnlineCount() {
+      return this.onlineCount;
+    }
+
+    public int getMaxPlayers() {
+      return this.maxPlayers;
+    }
+
+    public boolean isFull() {
+      return this.maxPlayers >= 0 && this.onlineCount >= this.maxPlayers;
+    }
+  }
+}
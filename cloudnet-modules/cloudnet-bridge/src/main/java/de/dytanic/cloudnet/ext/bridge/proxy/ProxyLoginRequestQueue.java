@@ -0,0 +1,150 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.ext.bridge.proxy;
+
+import de.dytanic.cloudnet.driver.CloudNetDriver;
+import de.dytanic.cloudnet.driver.channel.ChannelMessage;
+import de.dytanic.cloudnet.driver.serialization.ProtocolBuffer;
+import de.dytanic.cloudnet.ext.bridge.BridgeConfigurationProvider;
+import de.dytanic.cloudnet.ext.bridge.BridgeConstants;
+import de.dytanic.cloudnet.ext.bridge.BridgeHelper;
+import de.dytanic.cloudnet.ext.bridge.player.NetworkConnectionInfo;
+import de.dytanic.cloudnet.wrapper.Wrapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Collects the login requests of a proxy and sends them as batches to the node. Requests which arrive while a batch is
+ * sent are collected into the next batch, so the batches grow with the login rate without delaying single logins.
+ * <p>
+ * If too many requests are waiting for the response of the node, new requests are denied immediately instead of being
+ * queued.
+ */
+public final class ProxyLoginRequestQueue {
+
+  private static final int MAX_BATCH_SIZE = Integer.getInteger("cloudnet.bridge.proxy.login.max-batch-size", 256);
+  private static final int MAX_PENDING_REQUESTS = Integer.getInteger("cloudnet.bridge.proxy.login.max-pending", 4096);
+
+  private static final ProxyLoginRequestQueue INSTANCE = new ProxyLoginRequestQueue();
+
+  private final Queue<PendingRequest> queuedRequests = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pendingRequests = new AtomicInteger();
+  private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+  private ProxyLoginRequestQueue() {
+  }
+
+  public static ProxyLoginRequestQueue getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Queues a login request for the given player.
+   *
+   * @param networkConnectionInfo the connection of the player
+   * @return a future completed with the kick reason or null if the player is allowed to join
+   */
+  public @NotNull CompletableFuture<String> request(@NotNull NetworkConnectionInfo networkConnectionInfo) {
+    if (this.pendingRequests.incrementAndGet() > MAX_PENDING_REQUESTS) {
+      this.pendingRequests.decrementAndGet();
+      return CompletableFuture.completedFuture(BridgeConfigurationProvider.load().getMessages()
+        .get("proxy-login-overloaded"));
+    }
+
+    PendingRequest request = new PendingRequest(networkConnectionInfo);
+    this.queuedRequests.add(request);
+    this.scheduleFlush();
+
+    return request.future;
+  }
+
+  public int getPendingRequests() {
+    return this.pendingRequests.get();
+  }
+
+  private void scheduleFlush() {
+    if (!this.queuedRequests.isEmpty() && this.flushScheduled.compareAndSet(false, true)) {
+      CloudNetDriver.getInstance().getTaskExecutor().execute(this::flush);
+    }
+  }
+
+  private void flush() {
+    List<PendingRequest> batch = new ArrayList<>();
+
+    PendingRequest request;
+    while (batch.size() < MAX_BATCH_SIZE && (request = this.queuedRequests.poll()) != null) {
+      batch.add(request);
+    }
+
+    this.flushScheduled.set(false);
+    // requests which didn't fit into this batch or were queued while draining
+    this.scheduleFlush();
+
+    if (!batch.isEmpty()) {
+      this.sendBatch(batch);
+    }
+  }
+
+  private void sendBatch(List<PendingRequest> batch) {
+    List<NetworkConnectionInfo> connectionInfos = new ArrayList<>(batch.size());
+    for (PendingRequest pendingRequest : batch) {
+      connectionInfos.add(pendingRequest.networkConnectionInfo);
+    }
+
+    try {
+      BridgeHelper.messageBuilder()
+        .message(BridgeConstants.BRIDGE_EVENT_CHANNEL_MESSAGE_NAME_PROXY_LOGIN_REQUEST_BATCH)
+        .buffer(ProtocolBuffer.create().writeObjectCollection(connectionInfos))
+        .targetNode(Wrapper.getInstance().getServiceId().getNodeUniqueId())
+        .build()
+        .sendSingleQueryAsync()
+        .onComplete(response -> this.complete(batch, response))
+        .onFailure(throwable -> this.complete(batch, null))
+        .onCancelled(task -> this.complete(batch, null));
+    } catch (Exception exception) {
+      exception.printStackTrace();
+      this.complete(batch, null);
+    }
+  }
+
+  private void complete(List<PendingRequest> batch, ChannelMessage response) {
+    ProtocolBuffer buffer = response == null ? null : response.getBuffer();
+    int responses = buffer == null ? 0 : buffer.readVarInt();
+
+    for (int i = 0; i < batch.size(); i++) {
+      // the player is allowed to join if there is no response, like the previous blocking request did
+      batch.get(i).future.complete(i < responses ? buffer.readOptionalString() : null);
+    }
+    this.pendingRequests.addAndGet(-batch.size());
+  }
+
+  private static final class PendingRequest {
+
+    private final NetworkConnectionInfo networkConnectionInfo;
+    private final CompletableFuture<String> future = new CompletableFuture<>();
+
+    private PendingRequest(NetworkConnectionInfo networkConnectionInfo) {
+      this.networkConnectionInfo = networkConnectionInfo;
+    }
+  }
+}
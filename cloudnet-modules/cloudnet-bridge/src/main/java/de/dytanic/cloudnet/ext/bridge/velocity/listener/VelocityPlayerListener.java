@@ -43,8 +43,10 @@ public VelocityPlayerListener(VelocityCloudNetBridgePlugin plugin) {
 
   @Subscribe
   public void handle(LoginEvent event) {
+    // velocity fires the login event on its async event executor, the request is still batched with other logins
     String kickReason = BridgeHelper
-      .sendChannelMessageProxyLoginRequest(VelocityCloudNetHelper.createNetworkConnectionInfo(event.getPlayer()));
+      .sendChannelMessageProxyLoginRequestAsync(VelocityCloudNetHelper.createNetworkConnectionInfo(event.getPlayer()))
+      .join();
     if (kickReason != null) {
       Component reason = LegacyComponentSerializer.legacySection().deserialize(kickReason);
       event.setResult(ResultedEvent.ComponentResult.denied(reason));
@@ -35,8 +35,9 @@ public WaterdogPEPlayerListener() {
     EventManager eventManager = ProxyServer.getInstance().getEventManager();
 
     eventManager.subscribe(PlayerPreLoginEvent.class, event -> {
-      String kickReason = BridgeHelper.sendChannelMessageProxyLoginRequest(
-        WaterdogPECloudNetHelper.createNetworkConnectionInfo(event.getLoginData()));
+      // the request is batched with the requests of the other players joining at the same time
+      String kickReason = BridgeHelper.sendChannelMessageProxyLoginRequestAsync(
+        WaterdogPECloudNetHelper.createNetworkConnectionInfo(event.getLoginData())).join();
       if (kickReason != null) {
         event.setCancelled(true);
         event.setCancelReason(kickReason);
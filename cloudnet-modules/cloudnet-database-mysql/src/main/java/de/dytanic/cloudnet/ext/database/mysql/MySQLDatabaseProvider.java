@@ -28,6 +28,7 @@
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Random;
@@ -95,6 +96,7 @@ public boolean deleteDatabase(String name) {
     Preconditions.checkNotNull(name);
 
     this.cachedDatabaseInstances.remove(name);
+    this.discardWriteBehindDatabase(name);
 
     if (this.containsDatabase(name)) {
       try (Connection connection = this.getConnection();
@@ -159,7 +161,7 @@ public int executeUpdate(String query, Object... objects) {
       PreparedStatement preparedStatement = connection.prepareStatement(query)) {
       int i = 1;
       for (Object object : objects) {
-        preparedStatement.setString(i++, object.toString());
+        preparedStatement.setString(i++, object == null ? null : object.toString());
       }
 
       return preparedStatement.executeUpdate();
@@ -171,6 +173,33 @@ public int executeUpdate(String query, Object... objects) {
     return -1;
   }
 
+  @Override
+  public int[] executeBatchUpdate(String query, List<Object[]> parameters) {
+    Preconditions.checkNotNull(query);
+    Preconditions.checkNotNull(parameters);
+
+    try (Connection connection = this.getConnection();
+      PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+      for (Object[] objects : parameters) {
+        int i = 1;
+        for (Object object : objects) {
+          preparedStatement.setString(i++, object == null ? null : object.toString());
+        }
+
+        preparedStatement.addBatch();
+      }
+
+      return preparedStatement.executeBatch();
+
+    } catch (SQLException exception) {
+      exception.printStackTrace();
+    }
+
+    int[] updateCounts = new int[parameters.size()];
+    Arrays.fill(updateCounts, -1);
+    return updateCounts;
+  }
+
   public <T> T executeQuery(String query, IThrowableCallback<ResultSet, T> callback, Object... objects) {
     Preconditions.checkNotNull(query);
     Preconditions.checkNotNull(callback);
@@ -180,7 +209,7 @@ public <T> T executeQuery(String query, IThrowableCallback<ResultSet, T> callbac
       PreparedStatement preparedStatement = connection.prepareStatement(query)) {
       int i = 1;
       for (Object object : objects) {
-        preparedStatement.setString(i++, object.toString());
+        preparedStatement.setString(i++, object == null ? null : object.toString());
       }
 
       try (ResultSet resultSet = preparedStatement.executeQuery()) {
@@ -35,10 +35,10 @@
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
@@ -47,10 +47,11 @@
 
 public abstract class AbstractSignManagement extends ServiceInfoStateWatcher {
 
-  private static final Comparator<Pair<ServiceInfoSnapshot, ServiceInfoStateWatcher.ServiceInfoState>> ENTRY_NAME_COMPARATOR = Comparator
-    .comparing(entry -> entry.getFirst().getName());
-  private static final Comparator<Pair<ServiceInfoSnapshot, ServiceInfoStateWatcher.ServiceInfoState>> ENTRY_STATE_COMPARATOR = Comparator
-    .comparingInt(entry -> entry.getSecond().getPriority());
+  /**
+   * The time after which a sign is sent to the platform again even if its content didn't change, this ensures that
+   * signs in chunks which were not loaded during the last update are updated eventually
+   */
+  private static final long SIGN_REFRESH_MILLIS = Long.getLong("cloudnet.signs.refresh-millis", 5000);
 
   protected final Set<Sign> signs;
   private final AtomicInteger[] indexes = new AtomicInteger[]{
@@ -58,6 +59,13 @@ public abstract class AbstractSignManagement extends ServiceInfoStateWatcher {
     new AtomicInteger(-1) //search
   };
 
+  private final SignServiceIndex serviceIndex = new SignServiceIndex();
+  private Map<Long, SignState> signStates = new HashMap<>();
+
+  private volatile Set<String> signGroups = Collections.emptySet();
+  private volatile Set<String> signTemplatePaths = Collections.emptySet();
+  private volatile boolean assignmentsOutdated = true;
+
   public AbstractSignManagement() {
     Collection<Sign> signsFromNode = this.getSignsFromNode();
     this.signs = signsFromNode == null ? new HashSet<>() : signsFromNode.stream()
@@ -65,6 +73,7 @@ public AbstractSignManagement() {
         .contains(sign.getProvidedGroup()))
       .collect(Collectors.toSet());
 
+    this.updateSignTargets();
     super.includeExistingServices();
   }
 
@@ -95,7 +104,21 @@ protected abstract void updateSignNext(@NotNull Sign sign, @NotNull SignLayout s
 
   @Override
   protected void handleUpdate() {
-    this.updateSigns();
+    if (this.assignmentsOutdated) {
+      this.updateSigns();
+    }
+  }
+
+  @Override
+  protected void handleServiceUpdate(@NotNull ServiceInfoSnapshot serviceInfoSnapshot,
+    @Nullable ServiceInfoStateWatcher.ServiceInfoState serviceInfoState) {
+    Pair<ServiceInfoSnapshot, ServiceInfoStateWatcher.ServiceInfoState> previous = this.serviceIndex
+      .update(serviceInfoSnapshot, serviceInfoState);
+
+    boolean candidate = serviceInfoState != null && serviceInfoState != ServiceInfoStateWatcher.ServiceInfoState.STOPPED;
+    if ((previous != null || candidate) && this.isTargetedBySign(serviceInfoSnapshot)) {
+      this.assignmentsOutdated = true;
+    }
   }
 
   @Override
@@ -127,6 +150,7 @@ public void handle(ChannelMessageReceiveEvent event) {
       case SignConstants.SIGN_CHANNEL_UPDATE_SIGN_CONFIGURATION: {
         SignConfiguration signConfiguration = event.getData().get("signConfiguration", SignConfiguration.TYPE);
         SignConfigurationProvider.setLocal(signConfiguration);
+        CloudNetDriver.getInstance().getTaskExecutor().execute(this::updateSigns);
       }
       break;
       case SignConstants.SIGN_CHANNEL_ADD_SIGN_MESSAGE: {
@@ -159,6 +183,7 @@ public void handle(ChannelMessageReceiveEvent event) {
   public boolean addSign(@NotNull Sign sign) {
     if (Arrays.asList(Wrapper.getInstance().getServiceConfiguration().getGroups()).contains(sign.getProvidedGroup())) {
       this.signs.add(sign);
+      this.updateSignTargets();
       CloudNetDriver.getInstance().getTaskExecutor().execute(this::updateSigns);
       return true;
     }
@@ -174,11 +199,17 @@ public void removeSign(@NotNull Sign sign) {
     this.signs.stream()
       .filter(filterSign -> filterSign.getSignId() == sign.getSignId())
       .findFirst().ifPresent(this.signs::remove);
+    this.updateSignTargets();
 
     CloudNetDriver.getInstance().getTaskExecutor().execute(this::updateSigns);
   }
 
-  public void updateSigns() {
+  /**
+   * Reassigns the tracked services to all signs and updates the signs whose content changed
+   */
+  public synchronized void updateSigns() {
+    this.assignmentsOutdated = false;
+
     SignConfigurationEntry signConfiguration = this.getOwnSignConfigurationEntry();
     if (signConfiguration == null) {
       return;
@@ -187,68 +218,94 @@ public void updateSigns() {
     List<Sign> signs = new ArrayList<>(this.signs);
     Collections.sort(signs);
 
-    List<Pair<ServiceInfoSnapshot, ServiceInfoStateWatcher.ServiceInfoState>> entries = super.services.values().stream()
-      .filter(pair -> pair.getSecond() != ServiceInfoStateWatcher.ServiceInfoState.STOPPED)
-      .sorted(ENTRY_NAME_COMPARATOR)
-      .collect(Collectors.toList());
+    List<Pair<ServiceInfoSnapshot, ServiceInfoStateWatcher.ServiceInfoState>> assignments = this.serviceIndex
+      .assign(signs);
+    Map<Long, SignState> signStates = new HashMap<>();
 
-    for (Sign sign : signs) {
-      this.updateSign(sign, signConfiguration, entries);
-    }
-  }
+    for (int i = 0; i < signs.size(); i++) {
+      Sign sign = signs.get(i);
+      SignState signState = this.signStates.get(sign.getSignId());
 
-  private void updateSign(Sign sign,
-    SignConfigurationEntry signConfiguration,
-    List<Pair<ServiceInfoSnapshot, ServiceInfoStateWatcher.ServiceInfoState>> entries) {
+      if (signState == null) {
+        signState = new SignState();
+      }
 
-    Optional<Pair<ServiceInfoSnapshot, ServiceInfoStateWatcher.ServiceInfoState>> optionalEntry = entries.stream()
-      .filter(entry -> {
-        boolean access = Arrays.asList(entry.getFirst().getConfiguration().getGroups())
-          .contains(sign.getTargetGroup());
+      signState.entry = assignments.get(i);
+      signStates.put(sign.getSignId(), signState);
 
-        if (sign.getTemplatePath() != null) {
-          boolean condition = false;
+      this.updateSign(sign, signConfiguration, signState);
+    }
 
-          for (ServiceTemplate template : entry.getFirst().getConfiguration().getTemplates()) {
-            if (sign.getTemplatePath().equals(template.getTemplatePath())) {
-              condition = true;
-              break;
-            }
-          }
+    this.signStates = signStates;
+  }
 
-          access = condition;
-        }
+  /**
+   * Updates the signs which are animated by the given state without reassigning the services, other signs are only
+   * updated if they weren't sent to the platform for a while
+   *
+   * @param state the state of the animated signs, null for the signs searching for a service
+   */
+  private synchronized void updateAnimatedSigns(@Nullable ServiceInfoStateWatcher.ServiceInfoState state) {
+    SignConfigurationEntry signConfiguration = this.getOwnSignConfigurationEntry();
+    if (signConfiguration == null) {
+      return;
+    }
 
-        return access;
-      })
-      .max(ENTRY_STATE_COMPARATOR);
+    long refreshTime = System.currentTimeMillis() - SIGN_REFRESH_MILLIS;
 
-    if (optionalEntry.isPresent()) {
-      Pair<ServiceInfoSnapshot, ServiceInfoStateWatcher.ServiceInfoState> entry = optionalEntry.get();
+    for (Sign sign : new ArrayList<>(this.signs)) {
+      SignState signState = this.signStates.get(sign.getSignId());
 
-      sign.setServiceInfoSnapshot(entry.getFirst());
-      this.applyState(sign, signConfiguration, entry.getFirst(), entry.getSecond());
+      if (signState != null && (signState.getState() == state || signState.renderTime <= refreshTime)) {
+        this.updateSign(sign, signConfiguration, signState);
+      }
+    }
+  }
 
-      entries.remove(entry);
+  private void updateSign(Sign sign, SignConfigurationEntry signConfiguration, SignState signState) {
+    if (signState.entry != null) {
+      sign.setServiceInfoSnapshot(signState.entry.getFirst());
+      this.applyState(sign, signConfiguration, signState.entry.getFirst(), signState.entry.getSecond(), signState);
     } else {
       sign.setServiceInfoSnapshot(null);
 
-      if (!signConfiguration.getSearchLayouts().getSignLayouts().isEmpty()) {
-        this.updateSignNext(sign, signConfiguration.getSearchLayouts().getSignLayouts().get(this.indexes[1].get()),
-          null);
+      int searchingIndex = this.indexes[1].get();
+      if (searchingIndex != -1 && !signConfiguration.getSearchLayouts().getSignLayouts().isEmpty()) {
+        this.renderSign(sign, signConfiguration.getSearchLayouts().getSignLayouts().get(searchingIndex), null,
+          signState);
       }
     }
   }
 
+  private void renderSign(Sign sign, SignLayout signLayout, ServiceInfoSnapshot serviceInfoSnapshot,
+    SignState signState) {
+    List<String> content = new ArrayList<>();
+    for (String line : signLayout.getLines()) {
+      content.add(line == null ? null : this.replaceServiceInfo(line, sign.getTargetGroup(), serviceInfoSnapshot));
+    }
+
+    content.add(signLayout.getBlockType());
+    content.add(String.valueOf(signLayout.getSubId()));
+
+    long currentTime = System.currentTimeMillis();
+    if (!content.equals(signState.content) || signState.renderTime <= currentTime - SIGN_REFRESH_MILLIS) {
+      signState.content = content;
+      signState.renderTime = currentTime;
+
+      this.updateSignNext(sign, signLayout, serviceInfoSnapshot);
+    }
+  }
+
   private void applyState(Sign sign, SignConfigurationEntry signConfiguration, ServiceInfoSnapshot serviceInfoSnapshot,
-    ServiceInfoStateWatcher.ServiceInfoState state) {
+    ServiceInfoStateWatcher.ServiceInfoState state, SignState signState) {
     switch (state) {
       case STOPPED: {
         sign.setServiceInfoSnapshot(null);
 
         int searchingIndex = this.indexes[1].get();
         if (searchingIndex != -1) {
-          this.updateSignNext(sign, signConfiguration.getSearchLayouts().getSignLayouts().get(searchingIndex), null);
+          this.renderSign(sign, signConfiguration.getSearchLayouts().getSignLayouts().get(searchingIndex), null,
+            signState);
         }
       }
       break;
@@ -257,8 +314,8 @@ private void applyState(Sign sign, SignConfigurationEntry signConfiguration, Ser
 
         int startingIndex = this.indexes[0].get();
         if (startingIndex != -1) {
-          this.updateSignNext(sign, signConfiguration.getStartingLayouts().getSignLayouts().get(startingIndex),
-            serviceInfoSnapshot);
+          this.renderSign(sign, signConfiguration.getStartingLayouts().getSignLayouts().get(startingIndex),
+            serviceInfoSnapshot, signState);
         }
       }
       break;
@@ -276,7 +333,7 @@ private void applyState(Sign sign, SignConfigurationEntry signConfiguration, Ser
           signLayout = signConfiguration.getDefaultEmptyLayout();
         }
 
-        this.updateSignNext(sign, signLayout, serviceInfoSnapshot);
+        this.renderSign(sign, signLayout, serviceInfoSnapshot, signState);
       }
       break;
       case ONLINE: {
@@ -293,7 +350,7 @@ private void applyState(Sign sign, SignConfigurationEntry signConfiguration, Ser
           signLayout = signConfiguration.getDefaultOnlineLayout();
         }
 
-        this.updateSignNext(sign, signLayout, serviceInfoSnapshot);
+        this.renderSign(sign, signLayout, serviceInfoSnapshot, signState);
       }
       break;
       case FULL_ONLINE: {
@@ -310,7 +367,7 @@ private void applyState(Sign sign, SignConfigurationEntry signConfiguration, Ser
           signLayout = signConfiguration.getDefaultFullLayout();
         }
 
-        this.updateSignNext(sign, signLayout, serviceInfoSnapshot);
+        this.renderSign(sign, signLayout, serviceInfoSnapshot, signState);
       }
       break;
       default:
@@ -318,6 +375,38 @@ private void applyState(Sign sign, SignConfigurationEntry signConfiguration, Ser
     }
   }
 
+  private void updateSignTargets() {
+    Set<String> signGroups = new HashSet<>();
+    Set<String> signTemplatePaths = new HashSet<>();
+
+    for (Sign sign : new ArrayList<>(this.signs)) {
+      if (sign.getTemplatePath() != null) {
+        signTemplatePaths.add(sign.getTemplatePath());
+      } else if (sign.getTargetGroup() != null) {
+        signGroups.add(sign.getTargetGroup());
+      }
+    }
+
+    this.signGroups = signGroups;
+    this.signTemplatePaths = signTemplatePaths;
+  }
+
+  private boolean isTargetedBySign(ServiceInfoSnapshot serviceInfoSnapshot) {
+    for (String group : serviceInfoSnapshot.getConfiguration().getGroups()) {
+      if (this.signGroups.contains(group)) {
+        return true;
+      }
+    }
+
+    for (ServiceTemplate template : serviceInfoSnapshot.getConfiguration().getTemplates()) {
+      if (this.signTemplatePaths.contains(template.getTemplatePath())) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
   private SignConfigurationTaskEntry getValidSignConfigurationTaskEntryFromSignConfigurationEntry(
     SignConfigurationEntry entry, String targetTask) {
     return entry.getTaskLayouts().stream()
@@ -424,7 +513,7 @@ protected void executeStartingTask() {
     }
 
     // CloudNetDriver.getInstance().getTaskScheduler().schedule(this::updateSigns);
-    this.updateSigns();
+    this.updateAnimatedSigns(ServiceInfoStateWatcher.ServiceInfoState.STARTING);
   }
 
   protected void executeSearchingTask() {
@@ -453,7 +542,7 @@ protected void executeSearchingTask() {
     }
 
     // CloudNetDriver.getInstance().getTaskScheduler().schedule(this::updateSigns);
-    this.updateSigns();
+    this.updateAnimatedSigns(null);
   }
 
   public AtomicInteger[] getIndexes() {
@@ -470,4 +559,15 @@ public Set<Sign> getSigns() {
     return new HashSet<>(this.signs);
   }
 
+  private static final class SignState {
+
+    private Pair<ServiceInfoSnapshot, ServiceInfoStateWatcher.ServiceInfoState> entry;
+    private List<String> content;
+    private long renderTime;
+
+    private ServiceInfoStateWatcher.ServiceInfoState getState() {
+      return this.entry == null ? null : this.entry.getSecond();
+    }
+  }
+
 }
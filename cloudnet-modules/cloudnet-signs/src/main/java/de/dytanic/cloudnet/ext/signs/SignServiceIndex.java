@@ -0,0 +1,144 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.ext.signs;
+
+import de.dytanic.cloudnet.common.collection.Pair;
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import de.dytanic.cloudnet.driver.service.ServiceTemplate;
+import de.dytanic.cloudnet.ext.bridge.ServiceInfoStateWatcher.ServiceInfoState;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Keeps the services which can be displayed on signs in candidate queues per group and per template path, ordered by
+ * the priority of their state and their name. The queues are updated for every service change, so an assignment of
+ * the signs doesn't need to sort and scan all services again.
+ */
+@ApiStatus.Internal
+final class SignServiceIndex {
+
+  private static final Comparator<Pair<ServiceInfoSnapshot, ServiceInfoState>> CANDIDATE_COMPARATOR = Comparator
+    .<Pair<ServiceInfoSnapshot, ServiceInfoState>>comparingInt(entry -> entry.getSecond().getPriority())
+    .reversed()
+    .thenComparing(entry -> entry.getFirst().getName())
+    .thenComparing(entry -> entry.getFirst().getServiceId().getUniqueId());
+
+  private final Map<UUID, Pair<ServiceInfoSnapshot, ServiceInfoState>> candidates = new HashMap<>();
+  private final Map<String, NavigableSet<Pair<ServiceInfoSnapshot, ServiceInfoState>>> groupCandidates = new HashMap<>();
+  private final Map<String, NavigableSet<Pair<ServiceInfoSnapshot, ServiceInfoState>>> templateCandidates = new HashMap<>();
+
+  /**
+   * Updates the candidate queues for the given service
+   *
+   * @param serviceInfoSnapshot the changed service
+   * @param serviceInfoState    the new state of the service or null if the service was removed
+   * @return the entry which was replaced by the update or null if the service wasn't a candidate before
+   */
+  @Nullable
+  public synchronized Pair<ServiceInfoSnapshot, ServiceInfoState> update(@NotNull ServiceInfoSnapshot serviceInfoSnapshot,
+    @Nullable ServiceInfoState serviceInfoState) {
+    Pair<ServiceInfoSnapshot, ServiceInfoState> previous = this.candidates
+      .remove(serviceInfoSnapshot.getServiceId().getUniqueId());
+    if (previous != null) {
+      this.unlink(previous);
+    }
+
+    if (serviceInfoState != null && serviceInfoState != ServiceInfoState.STOPPED) {
+      Pair<ServiceInfoSnapshot, ServiceInfoState> entry = new Pair<>(serviceInfoSnapshot, serviceInfoState);
+
+      this.candidates.put(serviceInfoSnapshot.getServiceId().getUniqueId(), entry);
+      this.link(entry);
+    }
+
+    return previous;
+  }
+
+  /**
+   * Assigns the best free candidate to each of the given signs, the signs are served in the order of the given list
+   * and each service is assigned to one sign at most.
+   *
+   * @param signs the signs to assign, in the order they should be served
+   * @return the assigned entries in the order of the given signs, null for signs without a free candidate
+   */
+  @NotNull
+  public synchronized List<Pair<ServiceInfoSnapshot, ServiceInfoState>> assign(@NotNull List<Sign> signs) {
+    List<Pair<ServiceInfoSnapshot, ServiceInfoState>> assignments = new ArrayList<>(signs.size());
+    Set<Pair<ServiceInfoSnapshot, ServiceInfoState>> assigned = new HashSet<>();
+
+    for (Sign sign : signs) {
+      Collection<Pair<ServiceInfoSnapshot, ServiceInfoState>> candidates = sign.getTemplatePath() != null
+        ? this.templateCandidates.get(sign.getTemplatePath())
+        : this.groupCandidates.get(sign.getTargetGroup());
+      Pair<ServiceInfoSnapshot, ServiceInfoState> assignment = null;
+
+      if (candidates != null) {
+        for (Pair<ServiceInfoSnapshot, ServiceInfoState> candidate : candidates) {
+          if (assigned.add(candidate)) {
+            assignment = candidate;
+            break;
+          }
+        }
+      }
+
+      assignments.add(assignment);
+    }
+
+    return assignments;
+  }
+
+  private void link(Pair<ServiceInfoSnapshot, ServiceInfoState> entry) {
+    for (String group : entry.getFirst().getConfiguration().getGroups()) {
+      this.groupCandidates.computeIfAbsent(group, key -> new TreeSet<>(CANDIDATE_COMPARATOR)).add(entry);
+    }
+
+    for (ServiceTemplate template : entry.getFirst().getConfiguration().getTemplates()) {
+      this.templateCandidates.computeIfAbsent(template.getTemplatePath(), key -> new TreeSet<>(CANDIDATE_COMPARATOR))
+        .add(entry);
+    }
+  }
+
+  private void unlink(Pair<ServiceInfoSnapshot, ServiceInfoState> entry) {
+    for (String group : entry.getFirst().getConfiguration().getGroups()) {
+      this.removeCandidate(this.groupCandidates, group, entry);
+    }
+
+    for (ServiceTemplate template : entry.getFirst().getConfiguration().getTemplates()) {
+      this.removeCandidate(this.templateCandidates, template.getTemplatePath(), entry);
+    }
+  }
+
+  private void removeCandidate(Map<String, NavigableSet<Pair<ServiceInfoSnapshot, ServiceInfoState>>> candidates,
+    String key, Pair<ServiceInfoSnapshot, ServiceInfoState> entry) {
+    NavigableSet<Pair<ServiceInfoSnapshot, ServiceInfoState>> set = candidates.get(key);
+    if (set != null && set.remove(entry) && set.isEmpty()) {
+      candidates.remove(key);
+    }
+  }
+
+}
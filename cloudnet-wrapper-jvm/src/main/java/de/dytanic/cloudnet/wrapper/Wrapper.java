@@ -41,6 +41,7 @@
 import de.dytanic.cloudnet.driver.service.ServiceConfiguration;
 import de.dytanic.cloudnet.driver.service.ServiceId;
 import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshotDeltaWriter;
 import de.dytanic.cloudnet.driver.service.ServiceLifeCycle;
 import de.dytanic.cloudnet.driver.service.ServiceTemplate;
 import de.dytanic.cloudnet.driver.template.RemoteTemplateStorage;
@@ -55,7 +56,9 @@
 import de.dytanic.cloudnet.wrapper.network.NetworkClientChannelHandler;
 import de.dytanic.cloudnet.wrapper.network.listener.PacketServerAuthorizationResponseListener;
 import de.dytanic.cloudnet.wrapper.network.listener.PacketServerChannelMessageListener;
+import de.dytanic.cloudnet.wrapper.network.listener.PacketServerServiceInfoDeltaListener;
 import de.dytanic.cloudnet.wrapper.network.listener.PacketServerServiceInfoPublisherListener;
+import de.dytanic.cloudnet.wrapper.network.listener.PacketServerServiceInfoResyncListener;
 import de.dytanic.cloudnet.wrapper.network.listener.PacketServerSetGlobalLogLevelListener;
 import de.dytanic.cloudnet.wrapper.network.listener.PacketServerUpdatePermissionsListener;
 import de.dytanic.cloudnet.wrapper.network.listener.PacketServerWrapperDriverAPIListener;
@@ -128,13 +131,19 @@ public final class Wrapper extends CloudNetDriver implements DriverAPIUser {
    */
   private ServiceInfoSnapshot lastServiceInfoSnapShot = this.config.getServiceInfoSnapshot();
   private ServiceInfoSnapshot currentServiceInfoSnapshot = this.config.getServiceInfoSnapshot();
+  /**
+   * Sends the ServiceInfoSnapshot updates of this process as deltas against the previously sent version to the node
+   */
+  private final ServiceInfoSnapshotDeltaWriter serviceInfoSnapshotWriter = new ServiceInfoSnapshotDeltaWriter(
+    PacketConstants.INTERNAL_WRAPPER_TO_NODE_INFO_CHANNEL);
 
   Wrapper(List<String> commandLineArguments, ILogger logger) {
     super(logger);
     setInstance(this);
 
     super.cloudServiceFactory = new RemoteCloudServiceFactory(this::getNetworkChannel);
-    super.generalCloudServiceProvider = new WrapperGeneralCloudServiceProvider(this);
+    WrapperGeneralCloudServiceProvider cloudServiceProvider = new WrapperGeneralCloudServiceProvider(this);
+    super.generalCloudServiceProvider = cloudServiceProvider;
     super.serviceTaskProvider = new WrapperServiceTaskProvider(this);
     super.groupConfigurationProvider = new WrapperGroupConfigurationProvider(this);
     super.nodeInfoProvider = new WrapperNodeInfoProvider(this);
@@ -163,7 +172,14 @@ public final class Wrapper extends CloudNetDriver implements DriverAPIUser {
 
     //- Packet client registry
     this.networkClient.getPacketRegistry()
-      .addListener(PacketConstants.SERVICE_INFO_PUBLISH_CHANNEL, new PacketServerServiceInfoPublisherListener());
+      .addListener(PacketConstants.SERVICE_INFO_PUBLISH_CHANNEL,
+        new PacketServerServiceInfoPublisherListener(cloudServiceProvider));
+    this.networkClient.getPacketRegistry()
+      .addListener(PacketConstants.SERVICE_INFO_DELTA_CHANNEL,
+        new PacketServerServiceInfoDeltaListener(cloudServiceProvider));
+    this.networkClient.getPacketRegistry()
+      .addListener(PacketConstants.INTERNAL_WRAPPER_TO_NODE_INFO_CHANNEL,
+        new PacketServerServiceInfoResyncListener(this.serviceInfoSnapshotWriter));
     this.networkClient.getPacketRegistry()
       .addListener(PacketConstants.PERMISSIONS_PUBLISH_CHANNEL, new PacketServerUpdatePermissionsListener());
     this.networkClient.getPacketRegistry()
@@ -215,6 +231,11 @@ public synchronized void start() throws Exception {
       throw new IllegalStateException("authorization response is: denied");
     }
 
+    if (Boolean.getBoolean(WrapperGeneralCloudServiceProvider.READ_MODEL_PROPERTY)) {
+      ((WrapperGeneralCloudServiceProvider) this.generalCloudServiceProvider).enableLocalReadModel()
+        .get(5, TimeUnit.SECONDS, null);
+    }
+
     Runtime.getRuntime().addShutdownHook(new Thread(this::stop));
 
     if (!this.startApplication()) {
@@ -395,9 +416,10 @@ public void publishServiceInfoUpdate() {
   public void publishServiceInfoUpdate(@NotNull ServiceInfoSnapshot serviceInfoSnapshot) {
     if (this.currentServiceInfoSnapshot.getServiceId().equals(serviceInfoSnapshot.getServiceId())) {
       this.configureServiceInfoSnapshot(serviceInfoSnapshot);
+      this.serviceInfoSnapshotWriter.publish(serviceInfoSnapshot, this.networkClient::sendPacket);
+    } else {
+      this.networkClient.sendPacket(new PacketClientServiceInfoUpdate(serviceInfoSnapshot));
     }
-
-    this.networkClient.sendPacket(new PacketClientServiceInfoUpdate(serviceInfoSnapshot));
   }
 
 
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.wrapper.network.listener;
+
+import de.dytanic.cloudnet.driver.CloudNetDriver;
+import de.dytanic.cloudnet.driver.event.events.service.CloudServiceInfoUpdateEvent;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.def.PacketConstants;
+import de.dytanic.cloudnet.driver.network.def.packet.PacketClientServerServiceInfoPublisher;
+import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.network.protocol.IPacketListener;
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshotDeltaReader;
+import de.dytanic.cloudnet.wrapper.provider.service.WrapperGeneralCloudServiceProvider;
+
+public final class PacketServerServiceInfoDeltaListener implements IPacketListener {
+
+  private final ServiceInfoSnapshotDeltaReader reader = new ServiceInfoSnapshotDeltaReader(
+    PacketConstants.SERVICE_INFO_DELTA_CHANNEL);
+  private final WrapperGeneralCloudServiceProvider cloudServiceProvider;
+
+  public PacketServerServiceInfoDeltaListener(WrapperGeneralCloudServiceProvider cloudServiceProvider) {
+    this.cloudServiceProvider = cloudServiceProvider;
+  }
+
+  @Override
+  public void handle(INetworkChannel channel, IPacket packet) {
+    byte kind = packet.getBuffer().readByte();
+
+    for (ServiceInfoSnapshot serviceInfoSnapshot : this.reader.read(channel, kind, packet.getBuffer())) {
+      this.cloudServiceProvider
+        .handleServiceInfoPublish(serviceInfoSnapshot, PacketClientServerServiceInfoPublisher.PublisherType.UPDATE);
+      CloudNetDriver.getInstance().getEventManager().callEvent(new CloudServiceInfoUpdateEvent(serviceInfoSnapshot));
+    }
+  }
+}
@@ -30,15 +30,25 @@
 import de.dytanic.cloudnet.driver.network.protocol.IPacket;
 import de.dytanic.cloudnet.driver.network.protocol.IPacketListener;
 import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import de.dytanic.cloudnet.wrapper.provider.service.WrapperGeneralCloudServiceProvider;
 
 public final class PacketServerServiceInfoPublisherListener implements IPacketListener {
 
+  private final WrapperGeneralCloudServiceProvider cloudServiceProvider;
+
+  public PacketServerServiceInfoPublisherListener(WrapperGeneralCloudServiceProvider cloudServiceProvider) {
+    this.cloudServiceProvider = cloudServiceProvider;
+  }
+
   @Override
   public void handle(INetworkChannel channel, IPacket packet) {
     ServiceInfoSnapshot serviceInfoSnapshot = packet.getBuffer().readObject(ServiceInfoSnapshot.class);
     PacketClientServerServiceInfoPublisher.PublisherType publisherType = packet.getBuffer()
       .readEnumConstant(PacketClientServerServiceInfoPublisher.PublisherType.class);
 
+    // update the local read model first so that event listeners already see the new state
+    this.cloudServiceProvider.handleServiceInfoPublish(serviceInfoSnapshot, publisherType);
+
     switch (publisherType) {
       case UPDATE:
         this.invoke0(new CloudServiceInfoUpdateEvent(serviceInfoSnapshot));
@@ -20,11 +20,14 @@
 import de.dytanic.cloudnet.driver.network.protocol.Packet;
 import de.dytanic.cloudnet.driver.serialization.ProtocolBuffer;
 import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshotDelta;
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshotDeltaWriter;
 
 public final class PacketClientServiceInfoUpdate extends Packet {
 
   public PacketClientServiceInfoUpdate(ServiceInfoSnapshot serviceInfoSnapshot) {
     super(PacketConstants.INTERNAL_WRAPPER_TO_NODE_INFO_CHANNEL,
-      ProtocolBuffer.create().writeObject(serviceInfoSnapshot));
+      ServiceInfoSnapshotDeltaWriter.writeFull(ProtocolBuffer.create(), ServiceInfoSnapshotDelta.UNVERSIONED,
+        serviceInfoSnapshot));
   }
 }
@@ -23,6 +23,7 @@
 import de.dytanic.cloudnet.driver.api.DriverAPIRequestType;
 import de.dytanic.cloudnet.driver.api.DriverAPIUser;
 import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.permission.CompiledPermissionsListener;
 import de.dytanic.cloudnet.driver.permission.DefaultCachedPermissionManagement;
 import de.dytanic.cloudnet.driver.permission.DefaultSynchronizedPermissionManagement;
 import de.dytanic.cloudnet.driver.permission.IPermissible;
@@ -62,6 +63,7 @@ public void init() {
     }
 
     CloudNetDriver.getInstance().getEventManager().registerListener(new PermissionCacheListener(this));
+    CloudNetDriver.getInstance().getEventManager().registerListener(new CompiledPermissionsListener(this));
   }
 
   @Override
@@ -121,6 +123,8 @@ public ITask<IPermissionUser> addUserAsync(@NotNull IPermissionUser permissionUs
   @Override
   @NotNull
   public ITask<Void> updateUserAsync(@NotNull IPermissionUser permissionUser) {
+    // the update event of the node arrives later, the changes should be visible on this service immediately
+    this.invalidateCompiledPermissions(permissionUser.getUniqueId());
     return this.executeDriverAPIMethod(
       DriverAPIRequestType.PERMISSION_MANAGEMENT_UPDATE_USER,
       buffer -> buffer.writeObject(permissionUser),
@@ -301,6 +305,7 @@ public ITask<IPermissionGroup> addGroupAsync(@NotNull IPermissionGroup permissio
   @Override
   @NotNull
   public ITask<Void> updateGroupAsync(@NotNull IPermissionGroup permissionGroup) {
+    this.invalidateCompiledPermissions();
     return this.executeVoidDriverAPIMethod(
       DriverAPIRequestType.PERMISSION_MANAGEMENT_UPDATE_GROUP,
       buffer -> buffer.writeObject(permissionGroup)
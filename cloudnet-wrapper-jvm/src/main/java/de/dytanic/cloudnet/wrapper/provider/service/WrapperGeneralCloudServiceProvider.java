@@ -17,11 +17,17 @@
 package de.dytanic.cloudnet.wrapper.provider.service;
 
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import de.dytanic.cloudnet.common.concurrent.CompletableTask;
+import de.dytanic.cloudnet.common.concurrent.CompletedTask;
 import de.dytanic.cloudnet.common.concurrent.ITask;
 import de.dytanic.cloudnet.driver.api.DriverAPIRequestType;
 import de.dytanic.cloudnet.driver.api.DriverAPIUser;
 import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.def.packet.PacketClientServerServiceInfoPublisher;
 import de.dytanic.cloudnet.driver.provider.service.GeneralCloudServiceProvider;
+import de.dytanic.cloudnet.driver.provider.service.ServiceInfoSnapshotIndex;
 import de.dytanic.cloudnet.driver.service.ServiceEnvironmentType;
 import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
 import de.dytanic.cloudnet.wrapper.Wrapper;
@@ -33,73 +39,219 @@
 
 public class WrapperGeneralCloudServiceProvider implements GeneralCloudServiceProvider, DriverAPIUser {
 
+  /**
+   * The system property which enables the local read model as soon as the wrapper is connected to the node
+   */
+  public static final String READ_MODEL_PROPERTY = "cloudnet.wrapper.services.readModel";
+
   private final Wrapper wrapper;
 
+  private final ServiceInfoSnapshotIndex localServices = new ServiceInfoSnapshotIndex();
+  // services which were unregistered recently, updates of them which arrive late must not add them again
+  private final Cache<UUID, Boolean> unregisteredServices = CacheBuilder.newBuilder()
+    .expireAfterWrite(1, TimeUnit.MINUTES)
+    .build();
+
+  private CompletableTask<Void> readModelTask;
+  private volatile boolean readModelTracking;
+  private volatile boolean readModelReady;
+
   public WrapperGeneralCloudServiceProvider(Wrapper wrapper) {
     this.wrapper = wrapper;
   }
 
+  /**
+   * Enables a local copy of all services of the cluster. The copy is seeded once from the node and kept up to date by
+   * the service info updates the node publishes to every service. As soon as the returned task is completed, all
+   * lookups of this provider are answered from memory instead of asking the node.
+   *
+   * @return a task which is completed when the local copy is seeded
+   */
+  @NotNull
+  public synchronized ITask<Void> enableLocalReadModel() {
+    if (this.readModelTask != null) {
+      return this.readModelTask;
+    }
+
+    CompletableTask<Void> task = this.readModelTask = new CompletableTask<>();
+    // track the updates before requesting the services to not miss the updates which are sent in the meantime
+    this.readModelTracking = true;
+
+    this.getCloudServicesAsync()
+      .onComplete(services -> {
+        if (services == null) {
+          this.disableLocalReadModel(task, new IllegalStateException("Unable to load the services from the node"));
+          return;
+        }
+
+        for (ServiceInfoSnapshot snapshot : services) {
+          this.seedService(snapshot);
+        }
+
+        this.readModelReady = true;
+        task.complete(null);
+      })
+      .onFailure(throwable -> this.disableLocalReadModel(task, throwable))
+      .onCancelled(cancelled -> this.disableLocalReadModel(task, new IllegalStateException("Cancelled")));
+
+    return task;
+  }
+
+  public boolean isLocalReadModelEnabled() {
+    return this.readModelReady;
+  }
+
+  private synchronized void disableLocalReadModel(CompletableTask<Void> task, Throwable throwable) {
+    this.readModelTracking = false;
+    this.readModelTask = null;
+    this.localServices.clear();
+    this.unregisteredServices.invalidateAll();
+
+    task.fail(throwable);
+  }
+
+  private void seedService(ServiceInfoSnapshot snapshot) {
+    synchronized (this.localServices) {
+      UUID uniqueId = snapshot.getServiceId().getUniqueId();
+      // updates which were received while loading are newer than the loaded snapshot
+      if (this.localServices.get(uniqueId) == null && this.unregisteredServices.getIfPresent(uniqueId) == null) {
+        this.localServices.put(snapshot);
+      }
+    }
+  }
+
+  /**
+   * Applies a service info update which was published by the node to the local read model, if it is enabled.
+   *
+   * @param snapshot      the published snapshot
+   * @param publisherType the type of the update
+   */
+  public void handleServiceInfoPublish(@NotNull ServiceInfoSnapshot snapshot,
+    @NotNull PacketClientServerServiceInfoPublisher.PublisherType publisherType) {
+    if (!this.readModelTracking) {
+      return;
+    }
+
+    synchronized (this.localServices) {
+      UUID uniqueId = snapshot.getServiceId().getUniqueId();
+      if (publisherType == PacketClientServerServiceInfoPublisher.PublisherType.UNREGISTER) {
+        this.unregisteredServices.put(uniqueId, Boolean.TRUE);
+        this.localServices.remove(uniqueId);
+      } else if (this.unregisteredServices.getIfPresent(uniqueId) == null) {
+        this.localServices.put(snapshot);
+      }
+    }
+  }
+
   @Override
   public Collection<UUID> getServicesAsUniqueId() {
+    if (this.readModelReady) {
+      return this.localServices.getUniqueIds();
+    }
+
     return this.getServicesAsUniqueIdAsync().get(5, TimeUnit.SECONDS, null);
   }
 
   @Nullable
   @Override
   public ServiceInfoSnapshot getCloudServiceByName(@NotNull String name) {
+    if (this.readModelReady) {
+      return this.localServices.getByName(name);
+    }
+
     return this.getCloudServiceByNameAsync(name).get(5, TimeUnit.SECONDS, null);
   }
 
   @Override
   public Collection<ServiceInfoSnapshot> getCloudServices() {
+    if (this.readModelReady) {
+      return this.localServices.getAll();
+    }
+
     return this.getCloudServicesAsync().get(5, TimeUnit.SECONDS, null);
   }
 
   @Override
   public Collection<ServiceInfoSnapshot> getStartedCloudServices() {
+    if (this.readModelReady) {
+      return this.localServices.getStarted();
+    }
+
     return this.getStartedCloudServicesAsync().get(5, TimeUnit.SECONDS, null);
   }
 
   @Override
   public Collection<ServiceInfoSnapshot> getCloudServices(@NotNull String taskName) {
+    if (this.readModelReady) {
+      return this.localServices.getByTask(taskName);
+    }
+
     return this.getCloudServicesAsync(taskName).get(5, TimeUnit.SECONDS, null);
   }
 
   @Override
   public Collection<ServiceInfoSnapshot> getCloudServices(@NotNull ServiceEnvironmentType environment) {
     Preconditions.checkNotNull(environment);
+    if (this.readModelReady) {
+      return this.localServices.getByEnvironment(environment);
+    }
+
     return this.getCloudServicesAsync(environment).get(5, TimeUnit.SECONDS, null);
   }
 
   @Override
   public Collection<ServiceInfoSnapshot> getCloudServicesByGroup(@NotNull String group) {
+    if (this.readModelReady) {
+      return this.localServices.getByGroup(group);
+    }
+
     return this.getCloudServicesByGroupAsync(group).get(5, TimeUnit.SECONDS, null);
   }
 
   @Nullable
   @Override
   public ServiceInfoSnapshot getCloudService(@NotNull UUID uniqueId) {
+    if (this.readModelReady) {
+      return this.localServices.get(uniqueId);
+    }
+
     return this.getCloudServiceAsync(uniqueId).get(5, TimeUnit.SECONDS, null);
   }
 
   @Override
   public int getServicesCount() {
+    if (this.readModelReady) {
+      return this.localServices.size();
+    }
+
     return this.getServicesCountAsync().get(5, TimeUnit.SECONDS, null);
   }
 
   @Override
   public int getServicesCountByGroup(@NotNull String group) {
+    if (this.readModelReady) {
+      return this.localServices.countByGroup(group);
+    }
+
     return this.getServicesCountByGroupAsync(group).get(5, TimeUnit.SECONDS, null);
   }
 
   @Override
   public int getServicesCountByTask(@NotNull String taskName) {
+    if (this.readModelReady) {
+      return this.localServices.countByTask(taskName);
+    }
+
     return this.getServicesCountByTaskAsync(taskName).get(5, TimeUnit.SECONDS, null);
   }
 
   @Override
   @NotNull
   public ITask<Collection<UUID>> getServicesAsUniqueIdAsync() {
+    if (this.readModelReady) {
+      return CompletedTask.create(this.localServices.getUniqueIds());
+    }
+
     return this.executeDriverAPIMethod(
       DriverAPIRequestType.GET_SERVICES_AS_UNIQUE_ID,
       packet -> packet.getBuffer().readUUIDCollection()
@@ -109,6 +261,10 @@ public ITask<Collection<UUID>> getServicesAsUniqueIdAsync() {
   @Override
   @NotNull
   public ITask<ServiceInfoSnapshot> getCloudServiceByNameAsync(@NotNull String name) {
+    if (this.readModelReady) {
+      return CompletedTask.create(this.localServices.getByName(name));
+    }
+
     return this.executeDriverAPIMethod(
       DriverAPIRequestType.GET_CLOUD_SERVICE_BY_NAME,
       buffer -> buffer.writeString(name),
@@ -119,6 +275,10 @@ public ITask<ServiceInfoSnapshot> getCloudServiceByNameAsync(@NotNull String nam
   @Override
   @NotNull
   public ITask<Collection<ServiceInfoSnapshot>> getCloudServicesAsync() {
+    if (this.readModelReady) {
+      return CompletedTask.create(this.localServices.getAll());
+    }
+
     return this.executeDriverAPIMethod(
       DriverAPIRequestType.GET_CLOUD_SERVICES,
       packet -> packet.getBuffer().readObjectCollection(ServiceInfoSnapshot.class)
@@ -128,6 +288,10 @@ public ITask<Collection<ServiceInfoSnapshot>> getCloudServicesAsync() {
   @Override
   @NotNull
   public ITask<Collection<ServiceInfoSnapshot>> getStartedCloudServicesAsync() {
+    if (this.readModelReady) {
+      return CompletedTask.create(this.localServices.getStarted());
+    }
+
     return this.executeDriverAPIMethod(
       DriverAPIRequestType.GET_STARTED_CLOUD_SERVICES,
       packet -> packet.getBuffer().readObjectCollection(ServiceInfoSnapshot.class)
@@ -137,6 +301,10 @@ public ITask<Collection<ServiceInfoSnapshot>> getStartedCloudServicesAsync() {
   @Override
   @NotNull
   public ITask<Collection<ServiceInfoSnapshot>> getCloudServicesAsync(@NotNull String taskName) {
+    if (this.readModelReady) {
+      return CompletedTask.create(this.localServices.getByTask(taskName));
+    }
+
     return this.executeDriverAPIMethod(
       DriverAPIRequestType.GET_CLOUD_SERVICES_BY_SERVICE_TASK,
       buffer -> buffer.writeString(taskName),
@@ -149,6 +317,10 @@ public ITask<Collection<ServiceInfoSnapshot>> getCloudServicesAsync(@NotNull Str
   public ITask<Collection<ServiceInfoSnapshot>> getCloudServicesAsync(@NotNull ServiceEnvironmentType environment) {
     Preconditions.checkNotNull(environment);
 
+    if (this.readModelReady) {
+      return CompletedTask.create(this.localServices.getByEnvironment(environment));
+    }
+
     return this.executeDriverAPIMethod(
       DriverAPIRequestType.GET_CLOUD_SERVICES_BY_ENVIRONMENT,
       buffer -> buffer.writeEnumConstant(environment),
@@ -159,6 +331,10 @@ public ITask<Collection<ServiceInfoSnapshot>> getCloudServicesAsync(@NotNull Ser
   @Override
   @NotNull
   public ITask<Collection<ServiceInfoSnapshot>> getCloudServicesByGroupAsync(@NotNull String group) {
+    if (this.readModelReady) {
+      return CompletedTask.create(this.localServices.getByGroup(group));
+    }
+
     return this.executeDriverAPIMethod(
       DriverAPIRequestType.GET_CLOUD_SERVICES_BY_GROUP,
       buffer -> buffer.writeString(group),
@@ -169,6 +345,10 @@ public ITask<Collection<ServiceInfoSnapshot>> getCloudServicesByGroupAsync(@NotN
   @Override
   @NotNull
   public ITask<Integer> getServicesCountAsync() {
+    if (this.readModelReady) {
+      return CompletedTask.create(this.localServices.size());
+    }
+
     return this.executeDriverAPIMethod(
       DriverAPIRequestType.GET_SERVICES_COUNT,
       packet -> packet.getBuffer().readInt()
@@ -178,6 +358,10 @@ public ITask<Integer> getServicesCountAsync() {
   @Override
   @NotNull
   public ITask<Integer> getServicesCountByGroupAsync(@NotNull String group) {
+    if (this.readModelReady) {
+      return CompletedTask.create(this.localServices.countByGroup(group));
+    }
+
     return this.executeDriverAPIMethod(
       DriverAPIRequestType.GET_SERVICES_COUNT_BY_GROUP,
       buffer -> buffer.writeString(group),
@@ -188,6 +372,10 @@ public ITask<Integer> getServicesCountByGroupAsync(@NotNull String group) {
   @Override
   @NotNull
   public ITask<Integer> getServicesCountByTaskAsync(@NotNull String taskName) {
+    if (this.readModelReady) {
+      return CompletedTask.create(this.localServices.countByTask(taskName));
+    }
+
     return this.executeDriverAPIMethod(
       DriverAPIRequestType.GET_SERVICES_COUNT_BY_TASK,
       buffer -> buffer.writeString(taskName),
@@ -198,6 +386,10 @@ public ITask<Integer> getServicesCountByTaskAsync(@NotNull String taskName) {
   @Override
   @NotNull
   public ITask<ServiceInfoSnapshot> getCloudServiceAsync(@NotNull UUID uniqueId) {
+    if (this.readModelReady) {
+      return CompletedTask.create(this.localServices.get(uniqueId));
+    }
+
     return this.executeDriverAPIMethod(
       DriverAPIRequestType.GET_CLOUD_SERVICE_BY_UNIQUE_ID,
       buffer -> buffer.writeUUID(uniqueId),
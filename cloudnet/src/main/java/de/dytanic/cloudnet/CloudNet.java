@@ -21,6 +21,7 @@
 import de.dytanic.cloudnet.cluster.IClusterNodeServer;
 import de.dytanic.cloudnet.cluster.IClusterNodeServerProvider;
 import de.dytanic.cloudnet.cluster.NodeServer;
+import de.dytanic.cloudnet.cluster.placement.NodePlacementScheduler;
 import de.dytanic.cloudnet.command.ConsoleCommandSender;
 import de.dytanic.cloudnet.command.DefaultCommandMap;
 import de.dytanic.cloudnet.command.ICommandMap;
@@ -81,6 +82,8 @@
 import de.dytanic.cloudnet.driver.network.netty.server.NettyNetworkServer;
 import de.dytanic.cloudnet.driver.network.protocol.IPacket;
 import de.dytanic.cloudnet.driver.network.protocol.IPacketListenerRegistry;
+import de.dytanic.cloudnet.driver.permission.CompiledPermissionsListener;
+import de.dytanic.cloudnet.driver.permission.DefaultCachedPermissionManagement;
 import de.dytanic.cloudnet.driver.permission.IPermissionGroup;
 import de.dytanic.cloudnet.driver.permission.IPermissionManagement;
 import de.dytanic.cloudnet.driver.permission.IPermissionUser;
@@ -109,6 +112,7 @@
 import de.dytanic.cloudnet.network.listener.cluster.PacketServerClusterNodeInfoUpdateListener;
 import de.dytanic.cloudnet.network.listener.cluster.PacketServerDeployLocalTemplateListener;
 import de.dytanic.cloudnet.network.listener.cluster.PacketServerH2DatabaseListener;
+import de.dytanic.cloudnet.network.listener.cluster.PacketServerServiceInfoDeltaListener;
 import de.dytanic.cloudnet.network.listener.cluster.PacketServerServiceInfoPublisherListener;
 import de.dytanic.cloudnet.network.listener.cluster.PacketServerSetGlobalServiceInfoListListener;
 import de.dytanic.cloudnet.network.listener.cluster.PacketServerSetGroupConfigurationListListener;
@@ -117,6 +121,7 @@
 import de.dytanic.cloudnet.network.listener.cluster.PacketServerSetServiceTaskListListener;
 import de.dytanic.cloudnet.network.listener.cluster.PacketServerSyncTemplateStorageChunkListener;
 import de.dytanic.cloudnet.network.listener.cluster.PacketServerSyncTemplateStorageListener;
+import de.dytanic.cloudnet.network.listener.cluster.PacketServerTemplateSyncListener;
 import de.dytanic.cloudnet.network.listener.cluster.PacketServerUpdatePermissionsListener;
 import de.dytanic.cloudnet.network.listener.driver.PacketServerDriverAPIListener;
 import de.dytanic.cloudnet.network.packet.PacketServerClusterNodeInfoUpdate;
@@ -141,6 +146,8 @@
 import de.dytanic.cloudnet.setup.DefaultInstallation;
 import de.dytanic.cloudnet.template.LocalTemplateStorage;
 import de.dytanic.cloudnet.template.install.ServiceVersionProvider;
+import de.dytanic.cloudnet.template.sync.TemplateBlobStore;
+import de.dytanic.cloudnet.template.sync.TemplateSynchronizer;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -199,6 +206,10 @@ public final class CloudNet extends CloudNetDriver {
 
   private final DefaultInstallation defaultInstallation = new DefaultInstallation();
   private final ServiceVersionProvider serviceVersionProvider = new ServiceVersionProvider();
+  private final NodePlacementScheduler nodePlacementScheduler = new NodePlacementScheduler(this);
+  private final TemplateSynchronizer templateSynchronizer = new TemplateSynchronizer(new TemplateBlobStore(
+    Paths.get(System.getProperty("cloudnet.template.blobs.directory", "local/template-blobs")),
+    Long.getLong("cloudnet.template.blobs.max-size-mb", 2048) * 1024 * 1024));
 
   private INetworkClient networkClient;
   private INetworkServer networkServer;
@@ -363,6 +374,12 @@ public void reload() {
     this.getConfigurationRegistry().load();
     this.clusterNodeServerProvider.setClusterServers(this.config.getClusterConfig());
 
+    TemplateStorage localTemplateStorage = this.getLocalTemplateStorage();
+    if (localTemplateStorage instanceof LocalTemplateStorage) {
+      ((LocalTemplateStorage) localTemplateStorage)
+        .setLinkedFiles(this.config.getTemplateLinkPatterns(), this.config.getTemplateCopyPatterns());
+    }
+
     this.serviceTaskProvider.reload();
     this.groupConfigurationProvider.reload();
 
@@ -450,6 +467,10 @@ public LogLevel getDefaultLogLevel() {
   public void setPermissionManagement(@NotNull IPermissionManagement permissionManagement) {
     super.setPermissionManagement(permissionManagement);
     permissionManagement.init();
+    if (permissionManagement instanceof DefaultCachedPermissionManagement) {
+      this.eventManager.registerListener(
+        new CompiledPermissionsListener((DefaultCachedPermissionManagement) permissionManagement));
+    }
     if (permissionManagement instanceof NodePermissionManagement) {
       ((NodePermissionManagement) permissionManagement)
         .setPermissionManagementHandler(new DefaultPermissionManagementHandler());
@@ -704,12 +725,27 @@ public NetworkClusterNodeInfoSnapshot searchLogicNode(ServiceTask serviceTask) {
   public NodeServer searchLogicNodeServer(ServiceTask serviceTask) {
     Preconditions.checkNotNull(serviceTask);
 
-    return this.searchLogicNodeServer(serviceTask.getAssociatedNodes(),
+    return this.searchLogicNodeServer(serviceTask.getAssociatedNodes(), serviceTask.getName(),
       serviceTask.getProcessConfiguration().getMaxHeapMemorySize());
   }
 
   @Nullable
   public NodeServer searchLogicNodeServer(Collection<String> allowedNodes, int maxHeapMemory) {
+    return this.searchLogicNodeServer(allowedNodes, null, maxHeapMemory);
+  }
+
+  /**
+   * Searches the best node to start a new service on and reserves the memory of the service on the node until the
+   * node published its new usage
+   *
+   * @param allowedNodes  the nodes which are allowed to start the service, empty for all nodes
+   * @param taskName      the name of the task of the service or null if the service is not related to a task
+   * @param maxHeapMemory the max heap memory of the service
+   * @return the node the service should be started on or null if no node has enough resources left
+   */
+  @Nullable
+  public NodeServer searchLogicNodeServer(Collection<String> allowedNodes, @Nullable String taskName,
+    int maxHeapMemory) {
     Preconditions.checkNotNull(allowedNodes);
 
     Collection<NodeServer> nodes = new ArrayList<>(this.getValidClusterNodeServers(allowedNodes));
@@ -717,20 +753,7 @@ public NodeServer searchLogicNodeServer(Collection<String> allowedNodes, int max
       nodes.add(this.clusterNodeServerProvider.getSelfNode());
     }
 
-    boolean includeSystemCpuUsage = nodes.stream()
-      .noneMatch(server -> server.getNodeInfoSnapshot().getSystemCpuUsage() < 0);
-    return nodes.stream()
-      .filter(node -> {
-        NetworkClusterNodeInfoSnapshot info = node.getNodeInfoSnapshot();
-        return info.getUsedMemory() + maxHeapMemory <= info.getMaxMemory()
-          && info.getMaxCPUUsageToStartServices() >= info.getSystemCpuUsage();
-      })
-      .min(Comparator.comparingDouble(node -> {
-        NetworkClusterNodeInfoSnapshot info = node.getNodeInfoSnapshot();
-        return (includeSystemCpuUsage ? info.getSystemCpuUsage() : 0) +
-          ((double) info.getReservedMemory() / info.getMaxMemory() * 100);
-      }))
-      .orElse(null);
+    return this.nodePlacementScheduler.place(nodes, taskName, maxHeapMemory);
   }
 
   public boolean canStartServices(Collection<String> allowedNodes, String nodeUniqueId) {
@@ -776,29 +799,7 @@ public Pair<NodeServer, Set<ServiceInfoSnapshot>> searchLogicNodeServer(
       nodes.add(this.clusterNodeServerProvider.getSelfNode());
     }
 
-    boolean includeSystemCpuUsage = nodes.stream()
-      .noneMatch(server -> server.getNodeInfoSnapshot().getSystemCpuUsage() < 0);
-    return nodes.stream()
-      .filter(Objects::nonNull)
-      .map(server -> new Pair<>(server, services.get(server.getNodeInfo().getUniqueId())))
-      .peek(pair -> pair.setSecond(pair.getSecond().stream()
-        .filter(info -> {
-          NetworkClusterNodeInfoSnapshot snapshot = pair.getFirst().getNodeInfoSnapshot();
-          int usedAfterStart =
-            snapshot.getUsedMemory() + info.getConfiguration().getProcessConfig().getMaxHeapMemorySize();
-
-          return snapshot.getMaxMemory() >= usedAfterStart
-            && snapshot.getMaxCPUUsageToStartServices() >= snapshot.getSystemCpuUsage();
-        })
-        .collect(Collectors.toSet()))
-      )
-      .filter(pair -> !pair.getSecond().isEmpty())
-      .min(Comparator.comparingDouble(pair -> {
-        NetworkClusterNodeInfoSnapshot snapshot = pair.getFirst().getNodeInfoSnapshot();
-        return (includeSystemCpuUsage ? snapshot.getSystemCpuUsage() : 0) +
-          ((double) snapshot.getReservedMemory() / snapshot.getMaxMemory() * 100);
-      }))
-      .orElse(null);
+    return this.nodePlacementScheduler.placePrepared(nodes, services);
   }
 
   @Deprecated
@@ -843,6 +844,7 @@ public void publishPermissionGroupUpdates(Collection<IPermissionGroup> permissio
   public void publishH2DatabaseDataToCluster(INetworkChannel channel) {
     if (channel != null) {
       if (this.databaseProvider instanceof H2DatabaseProvider) {
+        this.databaseProvider.flushWriteBehindDatabases();
         Map<String, Map<String, JsonDocument>> map = this.allocateDatabaseData();
 
         channel.sendPacket(new PacketServerSetH2DatabaseData(map, NetworkUpdateType.ADD));
@@ -877,6 +879,7 @@ public void registerClusterPacketRegistryListeners(IPacketListenerRegistry regis
     }
 
     registry.addListener(PacketConstants.SERVICE_INFO_PUBLISH_CHANNEL, new PacketServerServiceInfoPublisherListener());
+    registry.addListener(PacketConstants.SERVICE_INFO_DELTA_CHANNEL, new PacketServerServiceInfoDeltaListener());
     registry.addListener(PacketConstants.PERMISSIONS_PUBLISH_CHANNEL, new PacketServerUpdatePermissionsListener());
     registry.addListener(PacketConstants.CHANNEL_MESSAGING_CHANNEL, new PacketServerChannelMessageListener(false));
 
@@ -893,6 +896,7 @@ public void registerClusterPacketRegistryListeners(IPacketListenerRegistry regis
     registry
       .addListener(PacketConstants.CLUSTER_TEMPLATE_DEPLOY_CHANNEL, new PacketServerDeployLocalTemplateListener());
     registry.addListener(PacketConstants.CLUSTER_NODE_INFO_CHANNEL, new PacketServerClusterNodeInfoUpdateListener());
+    registry.addListener(PacketConstants.CLUSTER_TEMPLATE_MANIFEST_SYNC_CHANNEL, new PacketServerTemplateSyncListener());
 
     registry.addListener(PacketConstants.INTERNAL_H2_DATABASE_UPDATE_MODULE, new PacketServerH2DatabaseListener());
     registry
@@ -1015,10 +1019,14 @@ private void setDefaultRegistryEntries() {
   }
 
   private void registerDefaultServices() {
+    LocalTemplateStorage localTemplateStorage = new LocalTemplateStorage(
+      Paths.get(System.getProperty("cloudnet.storage.local", "local/templates")));
+    localTemplateStorage.setLinkedFiles(this.config.getTemplateLinkPatterns(), this.config.getTemplateCopyPatterns());
+
     this.servicesRegistry.registerService(
       TemplateStorage.class,
       LocalTemplateStorage.LOCAL_TEMPLATE_STORAGE,
-      new LocalTemplateStorage(Paths.get(System.getProperty("cloudnet.storage.local", "local/templates")))
+      localTemplateStorage
     );
 
     this.servicesRegistry.registerService(
@@ -1090,6 +1098,18 @@ public IClusterNodeServerProvider getClusterNodeServerProvider() {
     return this.clusterNodeServerProvider;
   }
 
+  public TemplateSynchronizer getTemplateSynchronizer() {
+    return this.templateSynchronizer;
+  }
+
+  public NodePlacementScheduler getNodePlacementScheduler() {
+    return this.nodePlacementScheduler;
+  }
+
+  public ServiceTaskReconciler getServiceTaskReconciler() {
+    return this.mainLoop.getServiceTaskReconciler();
+  }
+
   @Deprecated
   @ApiStatus.ScheduledForRemoval
   public ITaskScheduler getNetworkTaskScheduler() {
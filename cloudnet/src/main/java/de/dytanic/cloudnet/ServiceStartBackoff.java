@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet;
+
+import java.util.function.LongSupplier;
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * The start backoff of a task. Every failure doubles the time until the next start of the task up to a maximum, failures
+ * further apart than the reset time start at the initial interval again.
+ */
+@ApiStatus.Internal
+final class ServiceStartBackoff {
+
+  private final LongSupplier clock;
+  private final long startIntervalMillis;
+  private final long maxBackoffMillis;
+  private final long resetMillis;
+
+  private int failures;
+  private long lastFailure;
+  private long nextStart;
+
+  ServiceStartBackoff(LongSupplier clock, long startIntervalMillis, long maxBackoffMillis, long resetMillis) {
+    this.clock = clock;
+    this.startIntervalMillis = startIntervalMillis;
+    this.maxBackoffMillis = maxBackoffMillis;
+    this.resetMillis = resetMillis;
+  }
+
+  public synchronized boolean canStart() {
+    return this.clock.getAsLong() >= this.nextStart;
+  }
+
+  public synchronized void recordStart() {
+    this.nextStart = Math.max(this.nextStart, this.clock.getAsLong() + this.startIntervalMillis);
+  }
+
+  public synchronized void recordFailure() {
+    long now = this.clock.getAsLong();
+    this.failures = this.failures == 0 || now - this.lastFailure > this.resetMillis
+      ? 1
+      : Math.min(this.failures + 1, 30);
+    this.lastFailure = now;
+
+    long backoff = Math.min(this.maxBackoffMillis, this.startIntervalMillis << (this.failures - 1));
+    this.nextStart = Math.max(this.nextStart, now + backoff);
+  }
+}
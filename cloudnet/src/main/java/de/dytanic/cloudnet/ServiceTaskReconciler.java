@@ -0,0 +1,376 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet;
+
+import de.dytanic.cloudnet.cluster.NodeServer;
+import de.dytanic.cloudnet.common.collection.Pair;
+import de.dytanic.cloudnet.driver.event.EventListener;
+import de.dytanic.cloudnet.driver.event.events.service.CloudServiceEvent;
+import de.dytanic.cloudnet.driver.event.events.service.CloudServiceUnregisterEvent;
+import de.dytanic.cloudnet.driver.provider.service.SpecificCloudServiceProvider;
+import de.dytanic.cloudnet.driver.service.ServiceConfiguration;
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import de.dytanic.cloudnet.driver.service.ServiceLifeCycle;
+import de.dytanic.cloudnet.driver.service.ServiceTask;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Keeps the running services of the permanent tasks at their minimum service count. The reconciler is woken up by
+ * service lifecycle changes and task configuration changes and then only checks the affected tasks on the main
+ * thread. Tasks which are still missing services after a check (for example because no node is available) are
+ * retried every second and all tasks are checked again periodically to catch changes without a wake up. Every task
+ * starts a limited amount of services per check, tasks whose services fail to start or stop shortly after their start
+ * back off exponentially before the next start.
+ */
+@ApiStatus.Internal
+public final class ServiceTaskReconciler {
+
+  private static final long PENDING_START_TIMEOUT_MILLIS = Long.getLong("cloudnet.tasks.pending-start-timeout", 15_000);
+  private static final long RESYNC_INTERVAL_TICKS = CloudNetTick.TPS
+    * Long.getLong("cloudnet.tasks.resync-interval-seconds", 10);
+  private static final int MAX_STARTS_PER_CHECK = Integer.getInteger("cloudnet.tasks.max-starts-per-check", 1);
+  private static final long START_INTERVAL_MILLIS = Long.getLong("cloudnet.tasks.start-interval", 1000);
+  private static final long MAX_BACKOFF_MILLIS = Long.getLong("cloudnet.tasks.max-start-backoff", 60_000);
+  // failures further apart than this don't increase the backoff anymore
+  private static final long BACKOFF_RESET_MILLIS = Long.getLong("cloudnet.tasks.start-backoff-reset", 120_000);
+  // services which stop after running shorter than this are counted as failed starts
+  private static final long MIN_RUN_MILLIS = Long.getLong("cloudnet.tasks.min-service-run-time", 30_000);
+
+  private final CloudNet cloudNet;
+  private final LongSupplier clock;
+
+  private final Set<String> dirtyTasks = ConcurrentHashMap.newKeySet();
+  private final Map<String, ServiceStartBackoff> backoffs = new ConcurrentHashMap<>();
+  private final Map<UUID, ServiceRun> serviceRuns = new ConcurrentHashMap<>();
+  private final AtomicBoolean scheduled = new AtomicBoolean();
+  private volatile boolean allTasksDirty = true;
+
+  // only accessed from the main thread
+  private final Map<String, TaskState> taskStates = new HashMap<>();
+  private boolean headNode;
+
+  public ServiceTaskReconciler(CloudNet cloudNet) {
+    this(cloudNet, System::currentTimeMillis);
+  }
+
+  ServiceTaskReconciler(CloudNet cloudNet, LongSupplier clock) {
+    this.cloudNet = cloudNet;
+    this.clock = clock;
+  }
+
+  /**
+   * Schedules a check of the given task on the main thread
+   *
+   * @param taskName the name of the task to check
+   */
+  public void wakeUp(@NotNull String taskName) {
+    this.dirtyTasks.add(taskName.toLowerCase());
+    this.schedule();
+  }
+
+  /**
+   * Schedules a check of all permanent tasks on the main thread
+   */
+  public void wakeUpAll() {
+    this.allTasksDirty = true;
+    this.schedule();
+  }
+
+  @EventListener
+  public void handle(CloudServiceEvent event) {
+    if (this.updateServiceRun(event.getServiceInfo(), event instanceof CloudServiceUnregisterEvent)) {
+      this.wakeUp(event.getServiceInfo().getServiceId().getTaskName());
+    }
+  }
+
+  /**
+   * Tracks the lifecycle of the given service. A service which stops without having run for at least the minimum run
+   * time is counted as a failure of its task, a task whose services keep crashing must not be restarted instantly.
+   * Services which are stopped gracefully after running for a while are just replaced.
+   *
+   * @param serviceInfoSnapshot the current snapshot of the service
+   * @param unregistered        whether the service was unregistered
+   * @return whether the lifecycle of the service changed
+   */
+  boolean updateServiceRun(ServiceInfoSnapshot serviceInfoSnapshot, boolean unregistered) {
+    UUID uniqueId = serviceInfoSnapshot.getServiceId().getUniqueId();
+    String taskName = serviceInfoSnapshot.getServiceId().getTaskName();
+
+    ServiceLifeCycle lifeCycle = serviceInfoSnapshot.getLifeCycle();
+    if (unregistered || lifeCycle == ServiceLifeCycle.DELETED) {
+      ServiceRun serviceRun = this.serviceRuns.remove(uniqueId);
+      if (serviceRun != null) {
+        this.recordStop(taskName, serviceRun);
+      }
+      return true;
+    }
+
+    ServiceRun serviceRun = this.serviceRuns.computeIfAbsent(uniqueId, id -> new ServiceRun());
+    synchronized (serviceRun) {
+      if (serviceRun.lifeCycle == lifeCycle) {
+        return false;
+      }
+
+      serviceRun.lifeCycle = lifeCycle;
+      if (lifeCycle == ServiceLifeCycle.RUNNING) {
+        serviceRun.runningSince = this.clock.getAsLong();
+        serviceRun.stopRecorded = false;
+      } else if (lifeCycle == ServiceLifeCycle.STOPPED) {
+        this.recordStop(taskName, serviceRun);
+      }
+    }
+    return true;
+  }
+
+  private void recordStop(String taskName, ServiceRun serviceRun) {
+    synchronized (serviceRun) {
+      // a service which is deleted after it stopped was already counted
+      if (serviceRun.stopRecorded) {
+        return;
+      }
+      serviceRun.stopRecorded = true;
+
+      if (serviceRun.runningSince == 0 || this.clock.getAsLong() - serviceRun.runningSince < MIN_RUN_MILLIS) {
+        this.getBackoff(taskName).recordFailure();
+      }
+      serviceRun.runningSince = 0;
+    }
+  }
+
+  ServiceStartBackoff getBackoff(String taskName) {
+    return this.backoffs.computeIfAbsent(taskName.toLowerCase(),
+      name -> new ServiceStartBackoff(this.clock, START_INTERVAL_MILLIS, MAX_BACKOFF_MILLIS, BACKOFF_RESET_MILLIS));
+  }
+
+  void tick(long currentTickNumber) {
+    boolean headNode = this.cloudNet.getClusterNodeServerProvider().getSelfNode().isHeadNode();
+    if (headNode != this.headNode) {
+      this.headNode = headNode;
+      this.taskStates.clear();
+      this.allTasksDirty = true;
+    }
+
+    if (!headNode) {
+      return;
+    }
+
+    if (currentTickNumber % RESYNC_INTERVAL_TICKS == 0) {
+      this.allTasksDirty = true;
+    } else if (currentTickNumber % CloudNetTick.TPS == 0) {
+      for (TaskState taskState : this.taskStates.values()) {
+        if (taskState.getMissingServices() > 0) {
+          this.dirtyTasks.add(taskState.name);
+        }
+      }
+    }
+
+    if (this.allTasksDirty || !this.dirtyTasks.isEmpty()) {
+      this.reconcile();
+    }
+  }
+
+  private void schedule() {
+    if (this.scheduled.compareAndSet(false, true)) {
+      this.cloudNet.runTask((Runnable) this::reconcile);
+    }
+  }
+
+  private void reconcile() {
+    this.scheduled.set(false);
+
+    if (!this.headNode) {
+      this.dirtyTasks.clear();
+      return;
+    }
+
+    if (this.allTasksDirty) {
+      this.allTasksDirty = false;
+      this.dirtyTasks.clear();
+
+      Set<String> taskNames = new HashSet<>();
+      for (ServiceTask serviceTask : this.cloudNet.getServiceTaskProvider().getPermanentServiceTasks()) {
+        taskNames.add(serviceTask.getName().toLowerCase());
+        this.reconcile(serviceTask);
+      }
+
+      this.taskStates.keySet().retainAll(taskNames);
+      this.backoffs.keySet().retainAll(taskNames);
+    } else {
+      Iterator<String> iterator = this.dirtyTasks.iterator();
+      while (iterator.hasNext()) {
+        String taskName = iterator.next();
+        iterator.remove();
+
+        ServiceTask serviceTask = this.cloudNet.getServiceTaskProvider().getServiceTask(taskName);
+        if (serviceTask != null) {
+          this.reconcile(serviceTask);
+        } else {
+          this.taskStates.remove(taskName);
+          this.backoffs.remove(taskName);
+        }
+      }
+    }
+  }
+
+  private void reconcile(ServiceTask serviceTask) {
+    TaskState taskState = this.taskStates.computeIfAbsent(serviceTask.getName().toLowerCase(), TaskState::new);
+    Collection<ServiceInfoSnapshot> taskServices = this.cloudNet.getCloudServiceProvider()
+      .getCloudServices(serviceTask.getName());
+
+    taskState.update(serviceTask, taskServices);
+
+    int missing = taskState.getMissingServices();
+    ServiceStartBackoff backoff = this.getBackoff(taskState.name);
+    if (missing <= 0 || !backoff.canStart()) {
+      // the task is retried with the next second as long as services are missing
+      return;
+    }
+
+    // starting a service may block for a cluster wide creation, only a few are started per check
+    for (int starts = Math.min(missing, MAX_STARTS_PER_CHECK); starts > 0; starts--) {
+      ServiceInfoSnapshot snapshot = this.startService(serviceTask, taskServices, taskState);
+      if (snapshot == null) {
+        // no node available or the creation failed
+        backoff.recordFailure();
+        return;
+      }
+
+      taskState.pendingStarts.put(snapshot.getServiceId().getUniqueId(), System.currentTimeMillis());
+    }
+
+    backoff.recordStart();
+  }
+
+  private ServiceInfoSnapshot startService(ServiceTask serviceTask, Collection<ServiceInfoSnapshot> taskServices,
+    TaskState taskState) {
+    // checking if there is a prepared service that can be started instead of creating a new service
+    ServiceInfoSnapshot prepared = this.startPreparedService(taskServices, taskState);
+    if (prepared != null) {
+      return prepared;
+    }
+    // start a new service if no service is available, the factory places it on the best node
+    ServiceInfoSnapshot snapshot = this.cloudNet.getCloudServiceFactory()
+      .createCloudService(ServiceConfiguration.builder(serviceTask).build());
+    if (snapshot != null) {
+      NodeServer nodeServer = this.getNodeServer(snapshot.getServiceId().getNodeUniqueId());
+      if (nodeServer != null && this.startPreparedService(nodeServer, snapshot)) {
+        return snapshot;
+      }
+    }
+    return null;
+  }
+
+  private ServiceInfoSnapshot startPreparedService(@NotNull Collection<ServiceInfoSnapshot> taskServices,
+    @NotNull TaskState taskState) {
+    Map<String, Set<ServiceInfoSnapshot>> preparedServices = taskServices.stream()
+      .filter(taskService -> taskService.getLifeCycle() == ServiceLifeCycle.PREPARED)
+      .filter(taskService -> !taskState.pendingStarts.containsKey(taskService.getServiceId().getUniqueId()))
+      .collect(Collectors.groupingBy(info -> info.getServiceId().getNodeUniqueId(), Collectors.toSet()));
+
+    if (!preparedServices.isEmpty()) {
+      Pair<NodeServer, Set<ServiceInfoSnapshot>> logicServices = this.cloudNet.searchLogicNodeServer(preparedServices);
+      if (logicServices != null && !logicServices.getSecond().isEmpty()) {
+        ServiceInfoSnapshot snapshot = logicServices.getSecond().stream()
+          .min(Comparator.comparingInt(info -> info.getServiceId().getTaskServiceId()))
+          .orElse(null);
+        if (this.startPreparedService(logicServices.getFirst(), snapshot)) {
+          return snapshot;
+        }
+      }
+    }
+    return null;
+  }
+
+  private NodeServer getNodeServer(String nodeUniqueId) {
+    NodeServer selfNode = this.cloudNet.getClusterNodeServerProvider().getSelfNode();
+    return selfNode.getNodeInfo().getUniqueId().equals(nodeUniqueId)
+      ? selfNode
+      : this.cloudNet.getClusterNodeServerProvider().getNodeServer(nodeUniqueId);
+  }
+
+  private boolean startPreparedService(@NotNull NodeServer nodeServer, @Nullable ServiceInfoSnapshot snapshot) {
+    if (snapshot != null) {
+      SpecificCloudServiceProvider provider = nodeServer.getCloudServiceProvider(snapshot);
+      if (provider != null) {
+        provider.start();
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static final class TaskState {
+
+    private final String name;
+    private final Map<UUID, Long> pendingStarts = new HashMap<>();
+
+    private int desiredServices;
+    private int runningServices;
+
+    public TaskState(String name) {
+      this.name = name;
+    }
+
+    public void update(ServiceTask serviceTask, Collection<ServiceInfoSnapshot> taskServices) {
+      this.desiredServices = serviceTask.canStartServices() ? serviceTask.getMinServiceCount() : 0;
+      this.runningServices = 0;
+
+      Set<UUID> startedServices = new HashSet<>();
+      for (ServiceInfoSnapshot taskService : taskServices) {
+        if (taskService.getLifeCycle() == ServiceLifeCycle.RUNNING) {
+          this.runningServices++;
+        }
+
+        if (taskService.getLifeCycle() != ServiceLifeCycle.DEFINED
+          && taskService.getLifeCycle() != ServiceLifeCycle.PREPARED) {
+          startedServices.add(taskService.getServiceId().getUniqueId());
+        }
+      }
+
+      // services we started are pending until they left the prepared state or the start timed out, services which
+      // are not known yet are still kept as they may not have been published by their node
+      long timeout = System.currentTimeMillis() - PENDING_START_TIMEOUT_MILLIS;
+      this.pendingStarts.entrySet()
+        .removeIf(entry -> startedServices.contains(entry.getKey()) || entry.getValue() < timeout);
+    }
+
+    public int getMissingServices() {
+      return this.desiredServices - this.runningServices - this.pendingStarts.size();
+    }
+  }
+
+  private static final class ServiceRun {
+
+    private ServiceLifeCycle lifeCycle;
+    private long runningSince;
+    private boolean stopRecorded;
+  }
+}
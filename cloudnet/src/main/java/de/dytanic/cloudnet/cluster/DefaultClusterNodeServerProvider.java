@@ -19,6 +19,7 @@
 import com.google.common.base.Preconditions;
 import de.dytanic.cloudnet.CloudNet;
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.common.io.FileUtils;
 import de.dytanic.cloudnet.common.language.LanguageManager;
 import de.dytanic.cloudnet.driver.network.INetworkChannel;
 import de.dytanic.cloudnet.driver.network.cluster.NetworkCluster;
@@ -30,6 +31,7 @@
 import de.dytanic.cloudnet.driver.service.ServiceTemplate;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.text.DecimalFormat;
 import java.text.Format;
 import java.util.Collection;
@@ -104,45 +106,64 @@ public void setClusterServers(@NotNull NetworkCluster networkCluster) {
   public void sendPacket(@NotNull IPacket packet) {
     Preconditions.checkNotNull(packet);
 
-    for (IClusterNodeServer nodeServer : this.nodeServers) {
-      nodeServer.saveSendPacket(packet);
-    }
+    INetworkChannel.broadcastPacket(packet, this.getConnectedNodeChannels());
   }
 
   @Override
   public void sendPacketSync(@NotNull IPacket packet) {
     Preconditions.checkNotNull(packet);
 
-    for (IClusterNodeServer nodeServer : this.nodeServers) {
-      nodeServer.saveSendPacketSync(packet);
-    }
+    INetworkChannel.broadcastPacketSync(packet, this.getConnectedNodeChannels());
   }
 
   @Override
   public void deployTemplateInCluster(@NotNull ServiceTemplate serviceTemplate, @NotNull InputStream inputStream) {
     if (!this.nodeServers.isEmpty()) {
-      Collection<INetworkChannel> channels = this.nodeServers
-        .stream()
-        .filter(IClusterNodeServer::isConnected)
-        .map(IClusterNodeServer::getChannel)
-        .filter(Objects::nonNull)
-        .collect(Collectors.toList());
+      this.deployTemplate(serviceTemplate, inputStream, this.getConnectedNodeChannels());
+    }
+  }
 
-      try {
-        JsonDocument header = JsonDocument.newDocument()
-          .append("template", serviceTemplate)
-          .append("preClear", true);
-
-        ChunkedPacketBuilder.newBuilder(PacketConstants.CLUSTER_TEMPLATE_DEPLOY_CHANNEL, inputStream)
-          .header(header)
-          .target(channels)
-          .complete();
-      } catch (IOException exception) {
-        exception.printStackTrace();
+  @Override
+  public void syncTemplateInCluster(@NotNull ServiceTemplate serviceTemplate, @NotNull Path directory) {
+    if (!this.nodeServers.isEmpty()) {
+      Collection<INetworkChannel> failedChannels = CloudNet.getInstance().getTemplateSynchronizer()
+        .push(serviceTemplate, directory, this.getConnectedNodeChannels());
+
+      if (!failedChannels.isEmpty()) {
+        try (InputStream inputStream = FileUtils.zipToStream(directory)) {
+          this.deployTemplate(serviceTemplate, inputStream, failedChannels);
+        } catch (IOException exception) {
+          exception.printStackTrace();
+        }
       }
     }
   }
 
+  private Collection<INetworkChannel> getConnectedNodeChannels() {
+    return this.nodeServers
+      .stream()
+      .filter(IClusterNodeServer::isConnected)
+      .map(IClusterNodeServer::getChannel)
+      .filter(Objects::nonNull)
+      .collect(Collectors.toList());
+  }
+
+  private void deployTemplate(@NotNull ServiceTemplate serviceTemplate, @NotNull InputStream inputStream,
+    @NotNull Collection<INetworkChannel> channels) {
+    try {
+      JsonDocument header = JsonDocument.newDocument()
+        .append("template", serviceTemplate)
+        .append("preClear", true);
+
+      ChunkedPacketBuilder.newBuilder(PacketConstants.CLUSTER_TEMPLATE_DEPLOY_CHANNEL, inputStream)
+        .header(header)
+        .target(channels)
+        .complete();
+    } catch (IOException exception) {
+      exception.printStackTrace();
+    }
+  }
+
   @Override
   public Collection<INetworkChannel> getConnectedChannels() {
     return this.getNodeServers().stream()
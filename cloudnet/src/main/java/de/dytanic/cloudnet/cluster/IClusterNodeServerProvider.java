@@ -22,6 +22,7 @@
 import de.dytanic.cloudnet.driver.service.ServiceTemplate;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.Collection;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -71,6 +72,16 @@ default void deployTemplateInCluster(@NotNull ServiceTemplate serviceTemplate, b
    */
   void deployTemplateInCluster(@NotNull ServiceTemplate serviceTemplate, @NotNull InputStream inputStream);
 
+  /**
+   * Synchronizes the given template to all connected nodes. Only the parts of the template which differ from the
+   * template on the other nodes are transferred. Nodes which can't be synchronized incrementally receive the whole
+   * template.
+   *
+   * @param serviceTemplate the specific template prefix and name configuration
+   * @param directory       the directory containing the local copy of the template
+   */
+  void syncTemplateInCluster(@NotNull ServiceTemplate serviceTemplate, @NotNull Path directory);
+
   /**
    * Get all node server network channels which are currently connected and recognized by this provider.
    *
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.cluster.placement;
+
+import com.google.common.base.Preconditions;
+import de.dytanic.cloudnet.CloudNet;
+import de.dytanic.cloudnet.cluster.NodeServer;
+import de.dytanic.cloudnet.common.collection.Pair;
+import de.dytanic.cloudnet.driver.network.cluster.NetworkClusterNodeInfoSnapshot;
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import de.dytanic.cloudnet.driver.service.ServiceTask;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Places new services on the nodes of the cluster. The node info snapshots are only published about once per second,
+ * so every placement reserves the memory and cpu of the service on the picked node until two newer snapshots of the
+ * node were received and the real usage caught up. Services placed in the same burst are therefore distributed based
+ * on the reservations of each other instead of all seeing the same stale snapshot.
+ */
+public class NodePlacementScheduler {
+
+  /**
+   * The name of the task property to choose the placement strategy for the services of a task
+   */
+  public static final String TASK_STRATEGY_PROPERTY = "placementStrategy";
+
+  private static final double RESERVED_CPU_PER_SERVICE = Double
+    .parseDouble(System.getProperty("cloudnet.placement.reserved-cpu", "1"));
+  private static final long RESERVATION_TIMEOUT_MILLIS = Long.getLong("cloudnet.placement.reservation-timeout", 30_000);
+
+  private final CloudNet cloudNet;
+
+  private final Map<String, NodePlacementStrategy> strategies = new ConcurrentHashMap<>();
+  private final Map<String, List<Reservation>> reservations = new HashMap<>();
+
+  private volatile NodePlacementStrategy defaultStrategy;
+
+  public NodePlacementScheduler(CloudNet cloudNet) {
+    this.cloudNet = cloudNet;
+
+    for (NodePlacementStrategies strategy : NodePlacementStrategies.values()) {
+      this.registerStrategy(strategy.name(), strategy);
+    }
+
+    NodePlacementStrategy defaultStrategy = this.getStrategy(System.getProperty("cloudnet.placement.strategy"));
+    this.defaultStrategy = defaultStrategy == null ? NodePlacementStrategies.SPREAD : defaultStrategy;
+  }
+
+  public void registerStrategy(@NotNull String name, @NotNull NodePlacementStrategy strategy) {
+    Preconditions.checkNotNull(name, "name");
+    Preconditions.checkNotNull(strategy, "strategy");
+
+    this.strategies.put(name.toUpperCase(), strategy);
+  }
+
+  public void unregisterStrategy(@NotNull String name) {
+    this.strategies.remove(name.toUpperCase());
+  }
+
+  @Nullable
+  public NodePlacementStrategy getStrategy(@Nullable String name) {
+    return name == null ? null : this.strategies.get(name.toUpperCase());
+  }
+
+  @NotNull
+  public NodePlacementStrategy getDefaultStrategy() {
+    return this.defaultStrategy;
+  }
+
+  public void setDefaultStrategy(@NotNull NodePlacementStrategy defaultStrategy) {
+    this.defaultStrategy = Preconditions.checkNotNull(defaultStrategy, "defaultStrategy");
+  }
+
+  /**
+   * Returns the strategy configured by the {@link #TASK_STRATEGY_PROPERTY} of the given task or the default strategy
+   *
+   * @param taskName the name of the task the service belongs to
+   * @return the strategy to place the services of the task
+   */
+  @NotNull
+  public NodePlacementStrategy getTaskStrategy(@Nullable String taskName) {
+    if (taskName != null) {
+      ServiceTask serviceTask = this.cloudNet.getServiceTaskProvider().getServiceTask(taskName);
+      if (serviceTask != null) {
+        NodePlacementStrategy strategy = this.getStrategy(serviceTask.getProperties().getString(TASK_STRATEGY_PROPERTY));
+        if (strategy != null) {
+          return strategy;
+        }
+      }
+    }
+
+    return this.defaultStrategy;
+  }
+
+  /**
+   * Picks the best node to start a new service on and reserves the memory of the service on the node
+   *
+   * @param nodes         the nodes which are allowed to start the service
+   * @param taskName      the name of the task of the service or null if the service is not related to a task
+   * @param maxHeapMemory the max heap memory of the service
+   * @return the node the service should be started on or null if no node has enough resources left
+   */
+  @Nullable
+  public synchronized NodeServer place(@NotNull Collection<? extends NodeServer> nodes, @Nullable String taskName,
+    int maxHeapMemory) {
+    NodePlacementStrategy strategy = this.getTaskStrategy(taskName);
+
+    NodeResources best = this.getNodeResources(nodes, taskName).stream()
+      .filter(resources -> resources.canStartService(maxHeapMemory))
+      .min(Comparator.comparingDouble(strategy::score))
+      .orElse(null);
+    if (best == null) {
+      return null;
+    }
+
+    this.reserve(best.getNodeServer(), taskName, maxHeapMemory);
+    return best.getNodeServer();
+  }
+
+  /**
+   * Picks the best node to start one of the prepared services on and reserves the memory of the service with the
+   * lowest task service id on the node
+   *
+   * @param nodes    the nodes which are allowed to start the services
+   * @param services the prepared services mapped by the unique id of the node they are prepared on
+   * @return the node and the services which can be started on the node or null if no node has enough resources left
+   */
+  @Nullable
+  public synchronized Pair<NodeServer, Set<ServiceInfoSnapshot>> placePrepared(
+    @NotNull Collection<? extends NodeServer> nodes, @NotNull Map<String, Set<ServiceInfoSnapshot>> services) {
+    String taskName = services.values().stream()
+      .flatMap(Collection::stream)
+      .map(info -> info.getServiceId().getTaskName())
+      .findFirst()
+      .orElse(null);
+    NodePlacementStrategy strategy = this.getTaskStrategy(taskName);
+
+    Pair<NodeResources, Set<ServiceInfoSnapshot>> best = this.getNodeResources(nodes, taskName).stream()
+      .map(resources -> new Pair<>(resources, services.get(resources.getNodeServer().getNodeInfo().getUniqueId())))
+      .filter(pair -> pair.getSecond() != null)
+      .peek(pair -> pair.setSecond(pair.getSecond().stream()
+        .filter(info -> pair.getFirst().canStartService(info.getConfiguration().getProcessConfig().getMaxHeapMemorySize()))
+        .collect(Collectors.toSet())))
+      .filter(pair -> !pair.getSecond().isEmpty())
+      .min(Comparator.comparingDouble(pair -> strategy.score(pair.getFirst())))
+      .orElse(null);
+    if (best == null) {
+      return null;
+    }
+
+    best.getSecond().stream()
+      .min(Comparator.comparingInt(info -> info.getServiceId().getTaskServiceId()))
+      .ifPresent(info -> this.reserve(best.getFirst().getNodeServer(), taskName,
+        info.getConfiguration().getProcessConfig().getMaxHeapMemorySize()));
+    return new Pair<>(best.getFirst().getNodeServer(), best.getSecond());
+  }
+
+  /**
+   * Reserves the memory of a service on the given node without choosing the node
+   *
+   * @param nodeServer    the node the service is started on
+   * @param taskName      the name of the task of the service or null if the service is not related to a task
+   * @param maxHeapMemory the max heap memory of the service
+   */
+  public synchronized void reserve(@NotNull NodeServer nodeServer, @Nullable String taskName, int maxHeapMemory) {
+    this.reservations.computeIfAbsent(nodeServer.getNodeInfo().getUniqueId(), key -> new ArrayList<>())
+      .add(new Reservation(nodeServer.getNodeInfoSnapshot(), taskName, maxHeapMemory));
+  }
+
+  private List<NodeResources> getNodeResources(Collection<? extends NodeServer> nodes, String taskName) {
+    Map<String, Long> taskServices = taskName == null ? null : this.cloudNet.getCloudServiceProvider()
+      .getCloudServices(taskName).stream()
+      .collect(Collectors.groupingBy(info -> info.getServiceId().getNodeUniqueId(), Collectors.counting()));
+    boolean includeSystemCpuUsage = nodes.stream()
+      .filter(Objects::nonNull)
+      .noneMatch(node -> node.getNodeInfoSnapshot().getSystemCpuUsage() < 0);
+
+    List<NodeResources> resources = new ArrayList<>(nodes.size());
+    for (NodeServer node : nodes) {
+      if (node == null) {
+        continue;
+      }
+
+      NetworkClusterNodeInfoSnapshot info = node.getNodeInfoSnapshot();
+      String uniqueId = node.getNodeInfo().getUniqueId();
+
+      int reservedMemory = 0;
+      int reservedServices = 0;
+      int reservedTaskServices = 0;
+
+      List<Reservation> nodeReservations = this.reservations.get(uniqueId);
+      if (nodeReservations != null) {
+        long timeout = System.currentTimeMillis() - RESERVATION_TIMEOUT_MILLIS;
+        for (Iterator<Reservation> iterator = nodeReservations.iterator(); iterator.hasNext(); ) {
+          Reservation reservation = iterator.next();
+          // the reservation is part of the real usage once two snapshots were published after it
+          if (reservation.creationTime < timeout || (node.getNodeInfoSnapshot() != reservation.snapshot
+            && node.getLastNodeInfoSnapshot() != reservation.snapshot)) {
+            iterator.remove();
+            continue;
+          }
+
+          reservedMemory += reservation.maxHeapMemory;
+          reservedServices++;
+          if (taskName != null && taskName.equalsIgnoreCase(reservation.taskName)) {
+            reservedTaskServices++;
+          }
+        }
+
+        if (nodeReservations.isEmpty()) {
+          this.reservations.remove(uniqueId);
+        }
+      }
+
+      double cpuUsage = info.getSystemCpuUsage() < 0
+        ? info.getSystemCpuUsage()
+        : info.getSystemCpuUsage() + reservedServices * RESERVED_CPU_PER_SERVICE;
+      int placedTaskServices = taskServices == null ? 0 : taskServices.getOrDefault(uniqueId, 0L).intValue();
+
+      resources.add(new NodeResources(node,
+        info.getUsedMemory() + reservedMemory,
+        info.getReservedMemory() + reservedMemory,
+        info.getMaxMemory(),
+        cpuUsage,
+        info.getMaxCPUUsageToStartServices(),
+        includeSystemCpuUsage,
+        placedTaskServices + reservedTaskServices));
+    }
+
+    return resources;
+  }
+
+  private static final class Reservation {
+
+    private final NetworkClusterNodeInfoSnapshot snapshot;
+    private final String taskName;
+    private final int maxHeapMemory;
+    private final long creationTime = System.currentTimeMillis();
+
+    public Reservation(NetworkClusterNodeInfoSnapshot snapshot, String taskName, int maxHeapMemory) {
+      this.snapshot = snapshot;
+      this.taskName = taskName;
+      this.maxHeapMemory = maxHeapMemory;
+    }
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.cluster.placement;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The placement strategies which are always registered in the {@link NodePlacementScheduler}
+ */
+public enum NodePlacementStrategies implements NodePlacementStrategy {
+
+  /**
+   * Prefers the node with the lowest cpu usage and the lowest reserved memory
+   */
+  SPREAD {
+    @Override
+    public double score(@NotNull NodeResources node) {
+      return node.getCpuUsage() + node.getReservedMemoryPercentage();
+    }
+  },
+  /**
+   * Prefers the node with the highest reserved memory which is still able to start the service, to keep other nodes
+   * free for large services
+   */
+  BIN_PACK {
+    @Override
+    public double score(@NotNull NodeResources node) {
+      return -node.getReservedMemoryPercentage();
+    }
+  },
+  /**
+   * Prefers the node with the fewest services of the task, the usage of the nodes is only used as tie breaker
+   */
+  TASK_ANTI_AFFINITY {
+    @Override
+    public double score(@NotNull NodeResources node) {
+      return node.getTaskServices() * 1000D + SPREAD.score(node);
+    }
+  }
+
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.cluster.placement;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Scores a node for the placement of a new service, the {@link NodePlacementScheduler} picks the node with the lowest
+ * score from all nodes which have enough resources left to start the service.
+ */
+@FunctionalInterface
+public interface NodePlacementStrategy {
+
+  /**
+   * Scores the given node for the placement of a new service
+   *
+   * @param node the resources of the node including the in-flight reservations
+   * @return the score of the node, a lower score is preferred
+   */
+  double score(@NotNull NodeResources node);
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.cluster.placement;
+
+import de.dytanic.cloudnet.cluster.NodeServer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The resources of a node as seen by the {@link NodePlacementScheduler}, the values of the last node info snapshot
+ * combined with the reservations of the services placed on the node since then.
+ */
+public final class NodeResources {
+
+  private final NodeServer nodeServer;
+
+  private final int usedMemory;
+  private final int reservedMemory;
+  private final int maxMemory;
+
+  private final double cpuUsage;
+  private final double maxCpuUsage;
+  private final boolean cpuUsageComparable;
+
+  private final int taskServices;
+
+  public NodeResources(@NotNull NodeServer nodeServer, int usedMemory, int reservedMemory, int maxMemory,
+    double cpuUsage, double maxCpuUsage, boolean cpuUsageComparable, int taskServices) {
+    this.nodeServer = nodeServer;
+    this.usedMemory = usedMemory;
+    this.reservedMemory = reservedMemory;
+    this.maxMemory = maxMemory;
+    this.cpuUsage = cpuUsage;
+    this.maxCpuUsage = maxCpuUsage;
+    this.cpuUsageComparable = cpuUsageComparable;
+    this.taskServices = taskServices;
+  }
+
+  @NotNull
+  public NodeServer getNodeServer() {
+    return this.nodeServer;
+  }
+
+  public int getUsedMemory() {
+    return this.usedMemory;
+  }
+
+  public int getReservedMemory() {
+    return this.reservedMemory;
+  }
+
+  public int getMaxMemory() {
+    return this.maxMemory;
+  }
+
+  public double getReservedMemoryPercentage() {
+    return (double) this.reservedMemory / this.maxMemory * 100;
+  }
+
+  /**
+   * @return the cpu usage of the node or 0 if the cpu usage of any node in the cluster is unknown
+   */
+  public double getCpuUsage() {
+    return this.cpuUsageComparable ? this.cpuUsage : 0;
+  }
+
+  public double getMaxCpuUsage() {
+    return this.maxCpuUsage;
+  }
+
+  /**
+   * @return the amount of services of the task which is placed on this node, 0 if the placement is not for a task
+   */
+  public int getTaskServices() {
+    return this.taskServices;
+  }
+
+  public boolean canStartService(int maxHeapMemory) {
+    return this.usedMemory + maxHeapMemory <= this.maxMemory && this.maxCpuUsage >= this.cpuUsage;
+  }
+}
@@ -39,8 +39,10 @@
 import de.dytanic.cloudnet.driver.service.ServiceTemplate;
 import de.dytanic.cloudnet.driver.template.TemplateStorage;
 import de.dytanic.cloudnet.network.NetworkUpdateType;
+import de.dytanic.cloudnet.template.ClusterSynchronizedTemplateStorage;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -185,6 +187,16 @@ private static void pushLocalTemplate(ICommandSender sender, TemplateStorage sto
     ServiceTemplate serviceTemplate) {
     String template = serviceTemplate.getStorage() + ":" + serviceTemplate.getTemplatePath();
 
+    if (storage instanceof ClusterSynchronizedTemplateStorage) {
+      Path directory = ((ClusterSynchronizedTemplateStorage) storage).getTemplateDirectory(serviceTemplate);
+      if (directory != null) {
+        CloudNet.getInstance().getClusterNodeServerProvider().syncTemplateInCluster(serviceTemplate, directory);
+        sender.sendMessage(LanguageManager.getMessage("command-cluster-push-template-from-local-success")
+          .replace("%template%", template));
+        return;
+      }
+    }
+
     try {
       sender.sendMessage(
         LanguageManager.getMessage("command-cluster-push-template-compress").replace("%template%", template));
@@ -19,6 +19,7 @@
 import de.dytanic.cloudnet.command.ICommandSender;
 import de.dytanic.cloudnet.common.Properties;
 import de.dytanic.cloudnet.common.unsafe.CPUUsageResolver;
+import de.dytanic.cloudnet.driver.network.def.internal.InternalSyncPacketChannel;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
 import java.util.ArrayList;
@@ -53,6 +54,9 @@ public void execute(ICommandSender sender, String command, String[] args, String
         this.getCloudNet().getCurrentNetworkClusterNodeInfoSnapshot().getReservedMemory() + "/" +
         this.getCloudNet().getCurrentNetworkClusterNodeInfoSnapshot().getMaxMemory() + " MB",
       "Threads: " + Thread.getAllStackTraces().keySet().size(),
+      "Pending queries: " + InternalSyncPacketChannel.getPendingQueryCount() + " (timed out: "
+        + InternalSyncPacketChannel.getTimedOutQueryCount() + "/" + InternalSyncPacketChannel.getRegisteredQueryCount()
+        + ")",
       "Heap usage: " + (memoryMXBean.getHeapMemoryUsage().getUsed() / 1048576) + "/" + (
         memoryMXBean.getHeapMemoryUsage().getMax() / 1048576) + "MB",
       "Loaded classes: " + ManagementFactory.getClassLoadingMXBean().getLoadedClassCount(),
@@ -98,6 +98,22 @@ public interface IConfiguration {
 
   void setProcessTerminationTimeoutSeconds(int processTerminationTimeoutSeconds);
 
+  /**
+   * Gets the patterns of template files which are hard linked into the service directories instead of being copied,
+   * empty by default. A linked file shares its data with the template file, so only files which are never written in
+   * place may match, for example not plugin jars replaced through the update folder or appended to by the template
+   * storage. A write to a linked file changes the template for every service started afterwards.
+   *
+   * @return the patterns of the files to link
+   */
+  Collection<String> getTemplateLinkPatterns();
+
+  void setTemplateLinkPatterns(Collection<String> templateLinkPatterns);
+
+  Collection<String> getTemplateCopyPatterns();
+
+  void setTemplateCopyPatterns(Collection<String> templateCopyPatterns);
+
   enum DefaultJVMFlags {
     NONE(Collections.emptyList()),
     DYTANIC(Arrays.asList(
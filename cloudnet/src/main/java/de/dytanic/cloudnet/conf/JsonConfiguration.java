@@ -83,6 +83,9 @@ public final class JsonConfiguration implements IConfiguration {
 
   private int processTerminationTimeoutSeconds;
 
+  private Collection<String> templateLinkPatterns;
+  private Collection<String> templateCopyPatterns;
+
   @Override
   public boolean isFileExists() {
     return Files.exists(CONFIG_FILE_PATH);
@@ -161,6 +164,9 @@ public void load() {
         "java"
     );
     this.processTerminationTimeoutSeconds = this.document.getInt("processTerminationTimeoutSeconds", 5);
+    // opt-in, linked files share their data with the template and must never be written in place by a service
+    this.templateLinkPatterns = this.document.get("templateLinkPatterns", SET_STRING, new HashSet<>());
+    this.templateCopyPatterns = this.document.get("templateCopyPatterns", SET_STRING, new HashSet<>());
 
     this.hostAddress = this.document.getString("hostAddress", address);
     this.connectHostAddress = this.document.getString("connectHostAddress", this.hostAddress);
@@ -198,6 +204,8 @@ public void save() {
       .append("maxMemory", this.maxMemory)
       .append("jvmCommand", this.jvmCommand)
       .append("processTerminationTimeoutSeconds", this.processTerminationTimeoutSeconds)
+      .append("templateLinkPatterns", this.templateLinkPatterns)
+      .append("templateCopyPatterns", this.templateCopyPatterns)
       .append("maxServiceConsoleLogCacheSize", this.maxServiceConsoleLogCacheSize)
       .append("printErrorStreamLinesFromServices", this.printErrorStreamLinesFromServices)
       .append("maxCPUUsageToStartServices", this.maxCPUUsageToStartServices)
@@ -382,6 +390,32 @@ public void setProcessTerminationTimeoutSeconds(int processTerminationTimeoutSec
     this.processTerminationTimeoutSeconds = processTerminationTimeoutSeconds;
   }
 
+  @Override
+  public Collection<String> getTemplateLinkPatterns() {
+    return this.templateLinkPatterns != null ? this.templateLinkPatterns : Collections.emptyList();
+  }
+
+  @Override
+  public void setTemplateLinkPatterns(Collection<String> templateLinkPatterns) {
+    Preconditions.checkNotNull(templateLinkPatterns);
+
+    this.templateLinkPatterns = templateLinkPatterns;
+    this.save();
+  }
+
+  @Override
+  public Collection<String> getTemplateCopyPatterns() {
+    return this.templateCopyPatterns != null ? this.templateCopyPatterns : Collections.emptyList();
+  }
+
+  @Override
+  public void setTemplateCopyPatterns(Collection<String> templateCopyPatterns) {
+    Preconditions.checkNotNull(templateCopyPatterns);
+
+    this.templateCopyPatterns = templateCopyPatterns;
+    this.save();
+  }
+
   public String getDefaultHostAddress() {
     return this.defaultHostAddress;
   }
@@ -16,17 +16,40 @@
 
 package de.dytanic.cloudnet.database;
 
+import com.google.common.base.Preconditions;
 import de.dytanic.cloudnet.CloudNet;
 import de.dytanic.cloudnet.common.INameable;
 import de.dytanic.cloudnet.common.concurrent.ITask;
+import de.dytanic.cloudnet.driver.database.Database;
 import de.dytanic.cloudnet.driver.database.DatabaseProvider;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.regex.Pattern;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public abstract class AbstractDatabaseProvider implements DatabaseProvider, INameable, AutoCloseable {
 
+  private static final Pattern INDEXED_FIELD_PATTERN = Pattern.compile("[A-Za-z0-9_]{1,32}");
+
+  private static final long WRITE_BEHIND_WINDOW_MILLIS = Long.getLong("cloudnet.database.write-behind.window-millis",
+    1000);
+  private static final int WRITE_BEHIND_MAX_PENDING = Integer.getInteger("cloudnet.database.write-behind.max-pending",
+    10_000);
+  private static final int WRITE_BEHIND_BATCH_SIZE = Integer.getInteger("cloudnet.database.write-behind.batch-size",
+    64);
+
+  protected final Map<String, Set<String>> indexedFields = new ConcurrentHashMap<>();
+  protected final Map<String, WriteBehindDatabase> writeBehindDatabases = new ConcurrentHashMap<>();
   protected IDatabaseHandler databaseHandler;
 
+  private ScheduledExecutorService writeBehindExecutor;
+
   public abstract boolean init() throws Exception;
 
   public IDatabaseHandler getDatabaseHandler() {
@@ -37,6 +60,103 @@ public void setDatabaseHandler(IDatabaseHandler databaseHandler) {
     this.databaseHandler = databaseHandler;
   }
 
+  /**
+   * Declares that documents of the given database are often looked up by the given top level field. Providers which
+   * support it maintain a secondary index for the field, which is used by {@code get(fieldName, fieldValue)} and {@code
+   * get(filters)} of the database instead of scanning all documents.
+   *
+   * @param database  the name of the database
+   * @param fieldName the name of the top level field to index, only letters, digits and underscores are allowed
+   */
+  public void registerIndexedField(@NotNull String database, @NotNull String fieldName) {
+    Preconditions.checkNotNull(database);
+    Preconditions.checkArgument(INDEXED_FIELD_PATTERN.matcher(fieldName).matches(), "Invalid field name " + fieldName);
+
+    this.indexedFields.computeIfAbsent(database, name -> ConcurrentHashMap.newKeySet()).add(fieldName);
+  }
+
+  public @NotNull Collection<String> getIndexedFields(@NotNull String database) {
+    Set<String> fields = this.indexedFields.get(database);
+    return fields == null ? Collections.emptySet() : Collections.unmodifiableSet(fields);
+  }
+
+  /**
+   * Gets a database which coalesces the writes of the same key within a short window and writes them in batches. It
+   * should be used for databases whose documents are rewritten very often, for example on every server switch of a
+   * player. Writes are only visible to other nodes once they were flushed. If the window is disabled using the {@code
+   * cloudnet.database.write-behind.window-millis} property, the normal database is returned.
+   *
+   * @param name the name of the database
+   * @return the write behind database for the given name
+   */
+  public @NotNull Database getWriteBehindDatabase(@NotNull String name) {
+    Preconditions.checkNotNull(name);
+
+    if (WRITE_BEHIND_WINDOW_MILLIS <= 0) {
+      return this.getDatabase(name);
+    }
+
+    return this.writeBehindDatabases.computeIfAbsent(name, databaseName -> new WriteBehindDatabase(
+      this, databaseName, this.getWriteBehindExecutor(), WRITE_BEHIND_WINDOW_MILLIS, WRITE_BEHIND_MAX_PENDING,
+      WRITE_BEHIND_BATCH_SIZE));
+  }
+
+  /**
+   * Writes the pending writes of all write behind databases, for example before the data is sent to another node.
+   */
+  public void flushWriteBehindDatabases() {
+    for (WriteBehindDatabase database : this.writeBehindDatabases.values()) {
+      database.flush();
+    }
+  }
+
+  /**
+   * Drops the pending write of the given key in the write behind database with the given name, if there is one. Has to
+   * be called before a write received from another node is written to the database directly, otherwise the pending
+   * local write would overwrite it later.
+   *
+   * @param name the name of the database
+   * @param key  the key which was written by another node, or null if the database was cleared
+   */
+  public void invalidateWriteBehind(@NotNull String name, @Nullable String key) {
+    WriteBehindDatabase database = this.writeBehindDatabases.get(name);
+    if (database != null) {
+      database.invalidate(key);
+    }
+  }
+
+  protected void discardWriteBehindDatabase(String name) {
+    WriteBehindDatabase database = this.writeBehindDatabases.remove(name);
+    if (database != null) {
+      database.discard();
+    }
+  }
+
+  protected void closeWriteBehindDatabases() {
+    this.flushWriteBehindDatabases();
+
+    synchronized (this.writeBehindDatabases) {
+      if (this.writeBehindExecutor != null) {
+        this.writeBehindExecutor.shutdownNow();
+        this.writeBehindExecutor = null;
+      }
+    }
+  }
+
+  private ScheduledExecutorService getWriteBehindExecutor() {
+    synchronized (this.writeBehindDatabases) {
+      if (this.writeBehindExecutor == null) {
+        this.writeBehindExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+          Thread thread = new Thread(runnable, "Database write behind");
+          thread.setDaemon(true);
+          return thread;
+        });
+      }
+
+      return this.writeBehindExecutor;
+    }
+  }
+
   @Override
   public @NotNull ITask<Boolean> containsDatabaseAsync(String name) {
     return CloudNet.getInstance().scheduleTask(() -> this.containsDatabase(name));
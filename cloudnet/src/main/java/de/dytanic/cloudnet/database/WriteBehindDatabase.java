@@ -0,0 +1,467 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.database;
+
+import com.google.common.base.Preconditions;
+import de.dytanic.cloudnet.common.concurrent.CompletableTask;
+import de.dytanic.cloudnet.common.concurrent.CompletedTask;
+import de.dytanic.cloudnet.common.concurrent.ITask;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.driver.CloudNetDriver;
+import de.dytanic.cloudnet.driver.database.Database;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A database which keeps inserts, updates and deletes in memory for a short window before writing them to the database
+ * of the provider. Repeated writes of the same key within the window are coalesced, only the last one is written. Reads
+ * of a single key see the pending writes, all other reads write the pending writes before they are executed.
+ *
+ * @see AbstractDatabaseProvider#getWriteBehindDatabase(String)
+ */
+public final class WriteBehindDatabase implements Database {
+
+  private final AbstractDatabaseProvider databaseProvider;
+  private final String name;
+  private final ScheduledExecutorService executorService;
+
+  private final long windowMillis;
+  private final int maxPendingWrites;
+  private final int maxBatchSize;
+
+  private final Map<String, PendingWrite> pendingWrites = new ConcurrentHashMap<>();
+  // the writes which were taken from the pending writes but are not written yet, reads have to see them too
+  private final Map<String, PendingWrite> inFlightWrites = new ConcurrentHashMap<>();
+
+  private final Lock flushLock = new ReentrantLock();
+  private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+  WriteBehindDatabase(AbstractDatabaseProvider databaseProvider, String name, ScheduledExecutorService executorService,
+    long windowMillis, int maxPendingWrites, int maxBatchSize) {
+    Preconditions.checkArgument(maxPendingWrites > 0, "maxPendingWrites has to be positive");
+    Preconditions.checkArgument(maxBatchSize > 0, "maxBatchSize has to be positive");
+
+    this.databaseProvider = databaseProvider;
+    this.name = name;
+    this.executorService = executorService;
+    this.windowMillis = windowMillis;
+    this.maxPendingWrites = maxPendingWrites;
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  private Database database() {
+    // resolved on every access, the provider may replace its cached database instances
+    return this.databaseProvider.getDatabase(this.name);
+  }
+
+  private boolean write(String key, WriteType type, JsonDocument document) {
+    Preconditions.checkNotNull(key);
+
+    this.pendingWrites.put(key, new PendingWrite(type, document));
+
+    if (this.pendingWrites.size() >= this.maxPendingWrites) {
+      // too many writes are waiting, the writing thread has to wait until they are written
+      this.flush();
+    } else {
+      this.scheduleFlush();
+    }
+
+    return true;
+  }
+
+  private void scheduleFlush() {
+    if (this.flushScheduled.compareAndSet(false, true)) {
+      this.executorService.schedule(() -> {
+        this.flushScheduled.set(false);
+        this.flush();
+      }, this.windowMillis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private PendingWrite getPendingWrite(String key) {
+    PendingWrite write = this.pendingWrites.get(key);
+    return write != null ? write : this.inFlightWrites.get(key);
+  }
+
+  /**
+   * Writes all pending writes to the database of the provider and waits until they are written.
+   */
+  public void flush() {
+    this.flushLock.lock();
+    try {
+      // every key is written at most once per flush, failed writes stay pending for the next one
+      Set<String> attemptedKeys = new HashSet<>();
+      while (this.flushBatch(attemptedKeys)) {
+        // continue until there is nothing left to write
+      }
+    } finally {
+      this.flushLock.unlock();
+    }
+  }
+
+  private boolean flushBatch(Set<String> attemptedKeys) {
+    List<String> keys = new ArrayList<>();
+    List<PendingWrite> writes = new ArrayList<>();
+
+    for (Map.Entry<String, PendingWrite> entry : this.pendingWrites.entrySet()) {
+      if (keys.size() >= this.maxBatchSize) {
+        break;
+      }
+
+      if (!attemptedKeys.add(entry.getKey())) {
+        continue;
+      }
+
+      // the write has to be visible in the in flight writes before it disappears from the pending writes
+      this.inFlightWrites.put(entry.getKey(), entry.getValue());
+      if (this.pendingWrites.remove(entry.getKey(), entry.getValue())) {
+        keys.add(entry.getKey());
+        writes.add(entry.getValue());
+      } else {
+        // the key was written again in the meantime, the newer write stays pending
+        this.inFlightWrites.remove(entry.getKey(), entry.getValue());
+        attemptedKeys.remove(entry.getKey());
+      }
+    }
+
+    if (keys.isEmpty()) {
+      return false;
+    }
+
+    Database database = this.database();
+    List<ITask<Boolean>> tasks = new ArrayList<>(writes.size());
+
+    // the writes are executed concurrently to let the database group them
+    for (int i = 0; i < keys.size(); i++) {
+      tasks.add(writes.get(i).execute(database, keys.get(i)));
+    }
+
+    boolean failed = false;
+    for (int i = 0; i < keys.size(); i++) {
+      String key = keys.get(i);
+      PendingWrite write = writes.get(i);
+
+      boolean written = false;
+      try {
+        written = Boolean.TRUE.equals(tasks.get(i).get());
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+      } catch (Exception exception) {
+        exception.printStackTrace();
+      }
+
+      if (!written) {
+        CloudNetDriver.getInstance().getLogger().warning("Unable to write the key " + key + " of the database "
+          + this.name + ", retrying with the next flush");
+        // a newer write of the key replaces the failed one
+        this.pendingWrites.putIfAbsent(key, write);
+        failed = true;
+      }
+      this.inFlightWrites.remove(key, write);
+    }
+
+    if (failed) {
+      this.scheduleFlush();
+    }
+
+    return true;
+  }
+
+  /**
+   * Drops the pending write of the given key, used when a newer write of the key was received from another node and
+   * written to the database directly. Waits for a running flush, so an older write can't overwrite the received one.
+   *
+   * @param key the key to drop the pending write of, or null to drop all pending writes
+   */
+  void invalidate(@Nullable String key) {
+    this.flushLock.lock();
+    try {
+      if (key == null) {
+        this.pendingWrites.clear();
+      } else {
+        this.pendingWrites.remove(key);
+      }
+    } finally {
+      this.flushLock.unlock();
+    }
+  }
+
+  /**
+   * Drops all pending writes without writing them, used when the database itself is deleted.
+   */
+  void discard() {
+    this.flushLock.lock();
+    try {
+      this.pendingWrites.clear();
+    } finally {
+      this.flushLock.unlock();
+    }
+  }
+
+  private <T> T afterFlush(Supplier<T> reader) {
+    this.flush();
+    return reader.get();
+  }
+
+  private <T> ITask<T> afterFlushAsync(Supplier<ITask<T>> reader) {
+    if (this.pendingWrites.isEmpty() && this.inFlightWrites.isEmpty()) {
+      return reader.get();
+    }
+
+    CompletableTask<T> task = new CompletableTask<>();
+    this.executorService.execute(() -> {
+      try {
+        this.flush();
+        reader.get()
+          .onComplete(task::complete)
+          .onFailure(task::fail)
+          .onCancelled($ -> task.cancel(true));
+      } catch (Exception exception) {
+        task.fail(exception);
+      }
+    });
+
+    return task;
+  }
+
+  @Override
+  public String getName() {
+    return this.name;
+  }
+
+  @Override
+  public boolean insert(String key, JsonDocument document) {
+    Preconditions.checkNotNull(document);
+    return this.write(key, WriteType.INSERT, document);
+  }
+
+  @Override
+  public boolean update(String key, JsonDocument document) {
+    Preconditions.checkNotNull(document);
+    return this.write(key, WriteType.UPDATE, document);
+  }
+
+  @Override
+  public boolean contains(String key) {
+    PendingWrite write = this.getPendingWrite(key);
+    return write != null ? write.document != null : this.database().contains(key);
+  }
+
+  @Override
+  public boolean delete(String key) {
+    return this.write(key, WriteType.DELETE, null);
+  }
+
+  @Override
+  public JsonDocument get(String key) {
+    PendingWrite write = this.getPendingWrite(key);
+    return write != null ? write.copyDocument() : this.database().get(key);
+  }
+
+  @Override
+  public List<JsonDocument> get(String fieldName, Object fieldValue) {
+    return this.afterFlush(() -> this.database().get(fieldName, fieldValue));
+  }
+
+  @Override
+  public List<JsonDocument> get(JsonDocument filters) {
+    return this.afterFlush(() -> this.database().get(filters));
+  }
+
+  @Override
+  public Collection<String> keys() {
+    return this.afterFlush(() -> this.database().keys());
+  }
+
+  @Override
+  public Collection<JsonDocument> documents() {
+    return this.afterFlush(() -> this.database().documents());
+  }
+
+  @Override
+  public Map<String, JsonDocument> entries() {
+    return this.afterFlush(() -> this.database().entries());
+  }
+
+  @Override
+  public Map<String, JsonDocument> filter(BiPredicate<String, JsonDocument> predicate) {
+    return this.afterFlush(() -> this.database().filter(predicate));
+  }
+
+  @Override
+  public void iterate(BiConsumer<String, JsonDocument> consumer) {
+    this.flush();
+    this.database().iterate(consumer);
+  }
+
+  @Override
+  public void clear() {
+    this.flushLock.lock();
+    try {
+      this.pendingWrites.clear();
+      this.database().clear();
+    } finally {
+      this.flushLock.unlock();
+    }
+  }
+
+  @Override
+  public long getDocumentsCount() {
+    return this.afterFlush(() -> this.database().getDocumentsCount());
+  }
+
+  @Override
+  public boolean isSynced() {
+    return this.database().isSynced();
+  }
+
+  @Override
+  public @NotNull ITask<Boolean> insertAsync(String key, JsonDocument document) {
+    return CompletedTask.create(this.insert(key, document));
+  }
+
+  @Override
+  public @NotNull ITask<Boolean> updateAsync(String key, JsonDocument document) {
+    return CompletedTask.create(this.update(key, document));
+  }
+
+  @Override
+  public @NotNull ITask<Boolean> containsAsync(String key) {
+    PendingWrite write = this.getPendingWrite(key);
+    return write != null ? CompletedTask.create(write.document != null) : this.database().containsAsync(key);
+  }
+
+  @Override
+  public @NotNull ITask<Boolean> deleteAsync(String key) {
+    return CompletedTask.create(this.delete(key));
+  }
+
+  @Override
+  public @NotNull ITask<JsonDocument> getAsync(String key) {
+    PendingWrite write = this.getPendingWrite(key);
+    return write != null ? CompletedTask.create(write.copyDocument()) : this.database().getAsync(key);
+  }
+
+  @Override
+  public @NotNull ITask<List<JsonDocument>> getAsync(String fieldName, Object fieldValue) {
+    return this.afterFlushAsync(() -> this.database().getAsync(fieldName, fieldValue));
+  }
+
+  @Override
+  public @NotNull ITask<List<JsonDocument>> getAsync(JsonDocument filters) {
+    return this.afterFlushAsync(() -> this.database().getAsync(filters));
+  }
+
+  @Override
+  public @NotNull ITask<Collection<String>> keysAsync() {
+    return this.afterFlushAsync(() -> this.database().keysAsync());
+  }
+
+  @Override
+  public @NotNull ITask<Collection<JsonDocument>> documentsAsync() {
+    return this.afterFlushAsync(() -> this.database().documentsAsync());
+  }
+
+  @Override
+  public @NotNull ITask<Map<String, JsonDocument>> entriesAsync() {
+    return this.afterFlushAsync(() -> this.database().entriesAsync());
+  }
+
+  @Override
+  public @NotNull ITask<Map<String, JsonDocument>> filterAsync(BiPredicate<String, JsonDocument> predicate) {
+    return this.afterFlushAsync(() -> this.database().filterAsync(predicate));
+  }
+
+  @Override
+  public @NotNull ITask<Void> iterateAsync(BiConsumer<String, JsonDocument> consumer) {
+    return this.afterFlushAsync(() -> this.database().iterateAsync(consumer));
+  }
+
+  @Override
+  public @NotNull ITask<Void> clearAsync() {
+    CompletableTask<Void> task = new CompletableTask<>();
+    this.executorService.execute(() -> {
+      try {
+        this.clear();
+        task.complete(null);
+      } catch (Exception exception) {
+        task.fail(exception);
+      }
+    });
+
+    return task;
+  }
+
+  @Override
+  public @NotNull ITask<Long> getDocumentsCountAsync() {
+    return this.afterFlushAsync(() -> this.database().getDocumentsCountAsync());
+  }
+
+  @Override
+  public void close() {
+    this.flush();
+  }
+
+  private enum WriteType {
+    INSERT,
+    UPDATE,
+    DELETE
+  }
+
+  private static final class PendingWrite {
+
+    private final WriteType type;
+    private final JsonDocument document;
+
+    private PendingWrite(WriteType type, JsonDocument document) {
+      this.type = type;
+      this.document = document;
+    }
+
+    private JsonDocument copyDocument() {
+      // the database returns a new document on every read, the pending document must not be changed by the caller
+      return this.document == null ? null : this.document.clone();
+    }
+
+    private ITask<Boolean> execute(Database database, String key) {
+      switch (this.type) {
+        case INSERT:
+          return database.insertAsync(key, this.document);
+        case UPDATE:
+          return database.updateAsync(key, this.document);
+        default:
+          return database.deleteAsync(key);
+      }
+    }
+  }
+
+}
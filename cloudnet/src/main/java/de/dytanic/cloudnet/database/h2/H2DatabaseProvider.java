@@ -17,11 +17,14 @@
 package de.dytanic.cloudnet.database.h2;
 
 import com.google.common.base.Preconditions;
+import de.dytanic.cloudnet.common.concurrent.CompletedTask;
+import de.dytanic.cloudnet.common.concurrent.ITask;
 import de.dytanic.cloudnet.common.concurrent.IThrowableCallback;
 import de.dytanic.cloudnet.common.io.FileUtils;
 import de.dytanic.cloudnet.common.language.LanguageManager;
 import de.dytanic.cloudnet.database.sql.SQLDatabaseProvider;
 import de.dytanic.cloudnet.driver.CloudNetDriver;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.Connection;
@@ -31,6 +34,11 @@
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import org.h2.Driver;
 
@@ -38,6 +46,13 @@ public final class H2DatabaseProvider extends SQLDatabaseProvider {
 
   private static final long NEW_CREATION_DELAY = 600_000;
 
+  private static final int READ_POOL_SIZE = Integer.getInteger("cloudnet.database.h2.pool-size", 4);
+  private static final int MAX_WRITE_BATCH_SIZE = Integer.getInteger("cloudnet.database.h2.max-write-batch", 512);
+  private static final H2WriteDurability WRITE_DURABILITY = H2WriteDurability.valueOf(
+    System.getProperty("cloudnet.database.h2.durability", H2WriteDurability.COMMIT.name()).toUpperCase(Locale.ROOT));
+  private static final String CONNECTION_OPTIONS = System.getProperty("cloudnet.database.h2.options",
+    "MULTI_THREADED=TRUE;LOCK_TIMEOUT=10000");
+
   static {
     Driver.load();
   }
@@ -46,6 +61,9 @@ public final class H2DatabaseProvider extends SQLDatabaseProvider {
   protected final boolean runsInCluster;
   protected Connection connection;
 
+  protected BlockingQueue<Connection> readConnections;
+  protected H2WriteQueue writeQueue;
+
   public H2DatabaseProvider(String h2File, boolean runsInCluster) {
     this(h2File, runsInCluster, null);
   }
@@ -59,7 +77,15 @@ public H2DatabaseProvider(String h2File, boolean runsInCluster, ExecutorService
   @Override
   public boolean init() throws Exception {
     FileUtils.createDirectoryReported(this.h2dbFile.getParent());
-    this.connection = DriverManager.getConnection("jdbc:h2:" + this.h2dbFile.toAbsolutePath());
+    String url = this.buildConnectionUrl();
+
+    this.connection = DriverManager.getConnection(url);
+    this.writeQueue = new H2WriteQueue(DriverManager.getConnection(url), WRITE_DURABILITY, MAX_WRITE_BATCH_SIZE);
+
+    this.readConnections = new ArrayBlockingQueue<>(READ_POOL_SIZE);
+    for (int i = 0; i < READ_POOL_SIZE; i++) {
+      this.readConnections.add(DriverManager.getConnection(url));
+    }
 
     if (this.runsInCluster) {
       CloudNetDriver.getInstance().getLogger().warning("============================================");
@@ -74,6 +100,18 @@ public boolean init() throws Exception {
     return this.connection != null;
   }
 
+  private String buildConnectionUrl() {
+    String url = "jdbc:h2:" + this.h2dbFile.toAbsolutePath();
+
+    // databases created by older versions may still use the page store, forcing the mv store would hide their data
+    Path pageStoreFile = this.h2dbFile.resolveSibling(this.h2dbFile.getFileName() + ".h2.db");
+    if (!Files.exists(pageStoreFile)) {
+      url += ";MV_STORE=TRUE";
+    }
+
+    return CONNECTION_OPTIONS.isEmpty() ? url : url + ";" + CONNECTION_OPTIONS;
+  }
+
   @Override
   public H2Database getDatabase(String name) {
     Preconditions.checkNotNull(name);
@@ -97,6 +135,7 @@ public boolean deleteDatabase(String name) {
     }
 
     this.cachedDatabaseInstances.remove(name);
+    this.discardWriteBehindDatabase(name);
 
     try (PreparedStatement preparedStatement = this.connection
       .prepareStatement("DROP TABLE IF EXISTS `" + name + "`")) {
@@ -132,6 +171,16 @@ public String getName() {
   public void close() throws Exception {
     super.close();
 
+    if (this.writeQueue != null) {
+      this.writeQueue.close();
+    }
+
+    if (this.readConnections != null) {
+      for (Connection readConnection : this.readConnections) {
+        readConnection.close();
+      }
+    }
+
     if (this.connection != null) {
       this.connection.close();
     }
@@ -146,10 +195,23 @@ public int executeUpdate(String query, Object... objects) {
     Preconditions.checkNotNull(query);
     Preconditions.checkNotNull(objects);
 
+    if (isDataManipulation(query)) {
+      try {
+        return this.writeQueue.submit(query, objects).get();
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+      } catch (ExecutionException exception) {
+        exception.printStackTrace();
+      }
+
+      return -1;
+    }
+
+    // schema changes are executed directly, they commit implicitly and can't be part of a group commit
     try (PreparedStatement preparedStatement = this.getConnection().prepareStatement(query)) {
       int i = 1;
       for (Object object : objects) {
-        preparedStatement.setString(i++, object.toString());
+        preparedStatement.setString(i++, object == null ? null : object.toString());
       }
 
       return preparedStatement.executeUpdate();
@@ -161,15 +223,77 @@ public int executeUpdate(String query, Object... objects) {
     return -1;
   }
 
+  /**
+   * Executes the given update without waiting for it. Inserts, updates and deletes are added to the next group commit,
+   * the returned task is completed with the update count, or {@code -1} if the write failed, once the group commit
+   * has the configured durability.
+   *
+   * @param query   the update to execute
+   * @param objects the parameters of the update
+   * @return a task completed with the update count of the update
+   */
+  public ITask<Integer> executeUpdateAsync(String query, Object... objects) {
+    Preconditions.checkNotNull(query);
+    Preconditions.checkNotNull(objects);
+
+    return isDataManipulation(query)
+      ? this.writeQueue.submit(query, objects)
+      : CompletedTask.create(this.executeUpdate(query, objects));
+  }
+
+  @Override
+  public int[] executeBatchUpdate(String query, List<Object[]> parameters) {
+    Preconditions.checkNotNull(query);
+    Preconditions.checkNotNull(parameters);
+
+    if (!isDataManipulation(query)) {
+      return super.executeBatchUpdate(query, parameters);
+    }
+
+    // all updates are queued at once, the write queue sends them in as few batches as possible
+    List<ITask<Integer>> tasks = new ArrayList<>(parameters.size());
+    for (Object[] objects : parameters) {
+      tasks.add(this.writeQueue.submit(query, objects));
+    }
+
+    int[] updateCounts = new int[tasks.size()];
+    for (int i = 0; i < updateCounts.length; i++) {
+      try {
+        updateCounts[i] = tasks.get(i).get();
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+        updateCounts[i] = -1;
+      } catch (ExecutionException exception) {
+        exception.printStackTrace();
+        updateCounts[i] = -1;
+      }
+    }
+
+    return updateCounts;
+  }
+
+  private static boolean isDataManipulation(String query) {
+    String statement = query.trim().toUpperCase(Locale.ROOT);
+    return statement.startsWith("INSERT") || statement.startsWith("UPDATE") || statement.startsWith("DELETE");
+  }
+
   public <T> T executeQuery(String query, IThrowableCallback<ResultSet, T> callback, Object... objects) {
     Preconditions.checkNotNull(query);
     Preconditions.checkNotNull(callback);
     Preconditions.checkNotNull(objects);
 
-    try (PreparedStatement preparedStatement = this.getConnection().prepareStatement(query)) {
+    Connection readConnection;
+    try {
+      readConnection = this.readConnections.take();
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      return null;
+    }
+
+    try (PreparedStatement preparedStatement = readConnection.prepareStatement(query)) {
       int i = 1;
       for (Object object : objects) {
-        preparedStatement.setString(i++, object.toString());
+        preparedStatement.setString(i++, object == null ? null : object.toString());
       }
 
       try (ResultSet resultSet = preparedStatement.executeQuery()) {
@@ -178,6 +302,8 @@ public <T> T executeQuery(String query, IThrowableCallback<ResultSet, T> callbac
 
     } catch (Throwable e) {
       e.printStackTrace();
+    } finally {
+      this.readConnections.add(readConnection);
     }
 
     return null;
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.database.h2;
+
+/**
+ * Defines when a write submitted to the h2 write queue is reported as completed.
+ */
+public enum H2WriteDurability {
+
+  /**
+   * The write completes once the group commit containing it was committed. H2 persists the commit to disk after its
+   * configured write delay, a crash in between may lose the most recent commits.
+   */
+  COMMIT,
+  /**
+   * The write completes once the group commit containing it was committed and the store was synced to disk. If the sync
+   * fails, the task of the write fails although the write was committed.
+   */
+  SYNC
+
+}
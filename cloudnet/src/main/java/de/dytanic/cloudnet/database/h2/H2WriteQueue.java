@@ -0,0 +1,234 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.database.h2;
+
+import com.google.common.base.Preconditions;
+import de.dytanic.cloudnet.common.concurrent.CompletableTask;
+import de.dytanic.cloudnet.common.concurrent.ITask;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Collects the writes of all threads and executes them in group commits on a dedicated connection. Consecutive writes
+ * using the same statement are sent as one jdbc batch, every write gets its own completion task holding its update
+ * count or {@code -1} if it failed.
+ */
+@ApiStatus.Internal
+final class H2WriteQueue implements AutoCloseable {
+
+  private final BlockingQueue<PendingWrite> pendingWrites = new LinkedBlockingQueue<>();
+
+  private final Connection connection;
+  private final H2WriteDurability durability;
+  private final int maxBatchSize;
+  private final Thread worker;
+
+  private boolean closed;
+
+  H2WriteQueue(@NotNull Connection connection, @NotNull H2WriteDurability durability, int maxBatchSize)
+    throws SQLException {
+    Preconditions.checkArgument(maxBatchSize > 0, "maxBatchSize has to be positive");
+
+    this.connection = connection;
+    this.durability = durability;
+    this.maxBatchSize = maxBatchSize;
+
+    this.connection.setAutoCommit(false);
+
+    this.worker = new Thread(this::processWrites, "H2 write queue");
+    this.worker.setDaemon(true);
+    this.worker.start();
+  }
+
+  @NotNull
+  public ITask<Integer> submit(@NotNull String query, @NotNull Object... parameters) {
+    PendingWrite write = new PendingWrite(query, parameters);
+
+    synchronized (this.pendingWrites) {
+      if (!this.closed) {
+        this.pendingWrites.add(write);
+        return write.task;
+      }
+    }
+
+    write.task.complete(-1);
+    return write.task;
+  }
+
+  private void processWrites() {
+    List<PendingWrite> batch = new ArrayList<>();
+
+    while (!this.isClosed() || !this.pendingWrites.isEmpty()) {
+      try {
+        PendingWrite write = this.pendingWrites.poll(100, TimeUnit.MILLISECONDS);
+        if (write == null) {
+          continue;
+        }
+
+        batch.add(write);
+        this.pendingWrites.drainTo(batch, this.maxBatchSize - 1);
+
+        this.commit(batch);
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+        break;
+      } finally {
+        batch.clear();
+      }
+    }
+
+    // the worker was interrupted, nobody is going to execute the remaining writes
+    PendingWrite write;
+    while ((write = this.pendingWrites.poll()) != null) {
+      write.task.complete(-1);
+    }
+  }
+
+  private void commit(List<PendingWrite> batch) {
+    int[] updateCounts = new int[batch.size()];
+
+    try {
+      int start = 0;
+      while (start < batch.size()) {
+        // consecutive writes with the same statement are sent in one batch, the order of all writes is kept
+        String query = batch.get(start).query;
+        int end = start + 1;
+        while (end < batch.size() && batch.get(end).query.equals(query)) {
+          end++;
+        }
+
+        try (PreparedStatement preparedStatement = this.connection.prepareStatement(query)) {
+          for (int i = start; i < end; i++) {
+            batch.get(i).bind(preparedStatement);
+            preparedStatement.addBatch();
+          }
+
+          int[] counts = preparedStatement.executeBatch();
+          System.arraycopy(counts, 0, updateCounts, start, counts.length);
+        }
+
+        start = end;
+      }
+
+      this.connection.commit();
+    } catch (SQLException exception) {
+      this.rollback();
+
+      // one of the writes failed, execute every write on its own to find out which one
+      for (int i = 0; i < batch.size(); i++) {
+        updateCounts[i] = this.executeSingle(batch.get(i));
+      }
+    }
+
+    // the writes are committed at this point, a failed sync must not execute them again
+    SQLException syncException = this.syncIfRequired();
+    for (int i = 0; i < batch.size(); i++) {
+      if (syncException != null && updateCounts[i] != -1) {
+        batch.get(i).task.fail(syncException);
+      } else {
+        batch.get(i).task.complete(updateCounts[i]);
+      }
+    }
+  }
+
+  private int executeSingle(PendingWrite write) {
+    try (PreparedStatement preparedStatement = this.connection.prepareStatement(write.query)) {
+      write.bind(preparedStatement);
+      int updateCount = preparedStatement.executeUpdate();
+
+      this.connection.commit();
+      return updateCount;
+    } catch (SQLException exception) {
+      exception.printStackTrace();
+      this.rollback();
+    }
+
+    return -1;
+  }
+
+  private SQLException syncIfRequired() {
+    if (this.durability == H2WriteDurability.SYNC) {
+      try (Statement statement = this.connection.createStatement()) {
+        statement.execute("CHECKPOINT SYNC");
+      } catch (SQLException exception) {
+        exception.printStackTrace();
+        return exception;
+      }
+    }
+
+    return null;
+  }
+
+  private void rollback() {
+    try {
+      this.connection.rollback();
+    } catch (SQLException exception) {
+      exception.printStackTrace();
+    }
+  }
+
+  private boolean isClosed() {
+    synchronized (this.pendingWrites) {
+      return this.closed;
+    }
+  }
+
+  @Override
+  public void close() throws SQLException {
+    synchronized (this.pendingWrites) {
+      this.closed = true;
+    }
+
+    try {
+      // all writes submitted before are still executed
+      this.worker.join();
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    } finally {
+      this.connection.close();
+    }
+  }
+
+  private static final class PendingWrite {
+
+    private final String query;
+    private final Object[] parameters;
+    private final CompletableTask<Integer> task = new CompletableTask<>();
+
+    private PendingWrite(String query, Object[] parameters) {
+      this.query = query;
+      this.parameters = parameters;
+    }
+
+    private void bind(PreparedStatement preparedStatement) throws SQLException {
+      int i = 1;
+      for (Object object : this.parameters) {
+        preparedStatement.setString(i++, object == null ? null : object.toString());
+      }
+    }
+  }
+
+}
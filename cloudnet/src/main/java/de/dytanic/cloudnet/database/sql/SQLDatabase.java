@@ -17,20 +17,25 @@
 package de.dytanic.cloudnet.database.sql;
 
 import com.google.common.base.Preconditions;
+import com.google.gson.JsonElement;
 import de.dytanic.cloudnet.common.concurrent.ITask;
 import de.dytanic.cloudnet.common.concurrent.IThrowableCallback;
 import de.dytanic.cloudnet.common.concurrent.ListenableTask;
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
 import de.dytanic.cloudnet.database.IDatabase;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.WeakHashMap;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
@@ -40,10 +45,21 @@ public abstract class SQLDatabase implements IDatabase {
 
   protected static final String TABLE_COLUMN_KEY = "Name";
   protected static final String TABLE_COLUMN_VALUE = "Document";
+  protected static final String TABLE_COLUMN_INDEX_PREFIX = "idx_";
+  protected static final int INDEX_VALUE_MAX_LENGTH = 255;
+  // stored for documents without an indexable value, never equal to a serialized json primitive
+  protected static final String INDEX_VALUE_ABSENT = "";
+  protected static final int INDEX_BACKFILL_PAGE_SIZE = Integer.getInteger("cloudnet.database.index-backfill-page-size",
+    1000);
 
   protected final SQLDatabaseProvider databaseProvider;
   protected final String name;
 
+  // the index columns which exist and are written by every insert and update
+  protected final Set<String> writtenIndexedFields = ConcurrentHashMap.newKeySet();
+  // the index columns which are backfilled and can be used for lookups
+  protected final Set<String> queryableIndexedFields = ConcurrentHashMap.newKeySet();
+
   protected final ExecutorService executorService;
 
   public SQLDatabase(SQLDatabaseProvider databaseProvider, String name, ExecutorService executorService) {
@@ -58,6 +74,108 @@ public SQLDatabase(SQLDatabaseProvider databaseProvider, String name, ExecutorSe
     databaseProvider
       .executeUpdate(String.format("CREATE TABLE IF NOT EXISTS `%s` (%s VARCHAR(64) PRIMARY KEY, %s TEXT);",
         name, TABLE_COLUMN_KEY, TABLE_COLUMN_VALUE));
+
+    for (String fieldName : databaseProvider.getIndexedFields(name)) {
+      this.materializeIndex(fieldName);
+    }
+  }
+
+  protected static String indexValue(JsonElement element) {
+    if (element == null || !element.isJsonPrimitive()) {
+      return null;
+    }
+
+    String value = element.toString();
+    return value.length() > INDEX_VALUE_MAX_LENGTH ? null : value;
+  }
+
+  protected static String storedIndexValue(JsonElement element) {
+    // documents without a value are marked as well, they don't have to be processed by a backfill again
+    String value = indexValue(element);
+    return value == null ? INDEX_VALUE_ABSENT : value;
+  }
+
+  /**
+   * Creates the index column for the given top level field if it doesn't exist yet and fills it for all existing
+   * documents. Lookups only use the index once all documents were processed.
+   *
+   * @param fieldName the name of the field to index
+   */
+  protected void materializeIndex(String fieldName) {
+    if (this.queryableIndexedFields.contains(fieldName)) {
+      return;
+    }
+
+    String column = TABLE_COLUMN_INDEX_PREFIX + fieldName;
+    Boolean columnExists = this.databaseProvider.executeQuery(
+      String.format("SELECT * FROM `%s` WHERE 1=0", this.name),
+      resultSet -> {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+          if (metaData.getColumnName(i).equalsIgnoreCase(column)) {
+            return true;
+          }
+        }
+
+        return false;
+      }
+    );
+
+    if (columnExists == null) {
+      return;
+    }
+
+    if (!columnExists) {
+      if (this.databaseProvider.executeUpdate(String.format("ALTER TABLE `%s` ADD COLUMN %s VARCHAR(%d)",
+        this.name, column, INDEX_VALUE_MAX_LENGTH)) == -1) {
+        return;
+      }
+
+      this.databaseProvider.executeUpdate(String.format("CREATE INDEX `%s_%s` ON `%s` (%s)",
+        this.name, column, this.name, column));
+    }
+
+    this.writtenIndexedFields.add(fieldName);
+
+    // documents written from now on carry the index value, backfill all documents which were written before
+    String lastKey = "";
+    while (true) {
+      List<Object[]> page = this.databaseProvider.executeQuery(
+        String.format("SELECT %s, %s FROM `%s` WHERE %s IS NULL AND %s > ? ORDER BY %s LIMIT %d", TABLE_COLUMN_KEY,
+          TABLE_COLUMN_VALUE, this.name, column, TABLE_COLUMN_KEY, TABLE_COLUMN_KEY, INDEX_BACKFILL_PAGE_SIZE),
+        resultSet -> {
+          List<Object[]> rows = new ArrayList<>();
+          while (resultSet.next()) {
+            String document = resultSet.getString(TABLE_COLUMN_VALUE);
+            rows.add(new Object[]{
+              storedIndexValue(JsonDocument.newDocument(document).toJsonObject().get(fieldName)),
+              resultSet.getString(TABLE_COLUMN_KEY)
+            });
+          }
+
+          return rows;
+        },
+        lastKey
+      );
+
+      if (page == null) {
+        return;
+      }
+
+      if (page.isEmpty()) {
+        break;
+      }
+
+      // rows which were written in the meantime already carry the index value
+      this.databaseProvider.executeBatchUpdate(
+        String.format("UPDATE `%s` SET %s=? WHERE %s=? AND %s IS NULL", this.name, column, TABLE_COLUMN_KEY, column),
+        page
+      );
+
+      lastKey = (String) page.get(page.size() - 1)[1];
+    }
+
+    this.queryableIndexedFields.add(fieldName);
   }
 
   @Override
@@ -91,9 +209,28 @@ public boolean insert0(String key, JsonDocument document) {
     Preconditions.checkNotNull(key);
     Preconditions.checkNotNull(document);
 
+    if (this.writtenIndexedFields.isEmpty()) {
+      return this.databaseProvider.executeUpdate(
+        "INSERT INTO `" + this.name + "` (" + TABLE_COLUMN_KEY + "," + TABLE_COLUMN_VALUE + ") VALUES (?, ?);",
+        key, document.toString()
+      ) != -1;
+    }
+
+    StringBuilder columns = new StringBuilder(TABLE_COLUMN_KEY).append(',').append(TABLE_COLUMN_VALUE);
+    StringBuilder values = new StringBuilder("?, ?");
+    List<Object> parameters = new ArrayList<>();
+    parameters.add(key);
+    parameters.add(document.toString());
+
+    for (String fieldName : this.writtenIndexedFields) {
+      columns.append(',').append(TABLE_COLUMN_INDEX_PREFIX).append(fieldName);
+      values.append(", ?");
+      parameters.add(storedIndexValue(document.toJsonObject().get(fieldName)));
+    }
+
     return this.databaseProvider.executeUpdate(
-      "INSERT INTO `" + this.name + "` (" + TABLE_COLUMN_KEY + "," + TABLE_COLUMN_VALUE + ") VALUES (?, ?);",
-      key, document.toString()
+      "INSERT INTO `" + this.name + "` (" + columns + ") VALUES (" + values + ");",
+      parameters.toArray()
     ) != -1;
   }
 
@@ -110,10 +247,27 @@ public boolean update(String key, JsonDocument document) {
   }
 
   public boolean update0(String key, JsonDocument document) {
-    return this.databaseProvider.executeUpdate(
-      "UPDATE `" + this.name + "` SET " + TABLE_COLUMN_VALUE + "=? WHERE " + TABLE_COLUMN_KEY + "=?",
-      document.toString(), key
-    ) != -1;
+    if (this.writtenIndexedFields.isEmpty()) {
+      return this.databaseProvider.executeUpdate(
+        "UPDATE `" + this.name + "` SET " + TABLE_COLUMN_VALUE + "=? WHERE " + TABLE_COLUMN_KEY + "=?",
+        document.toString(), key
+      ) != -1;
+    }
+
+    StringBuilder query = new StringBuilder("UPDATE `").append(this.name).append("` SET ")
+      .append(TABLE_COLUMN_VALUE).append("=?");
+    List<Object> parameters = new ArrayList<>();
+    parameters.add(document.toString());
+
+    for (String fieldName : this.writtenIndexedFields) {
+      query.append(", ").append(TABLE_COLUMN_INDEX_PREFIX).append(fieldName).append("=?");
+      parameters.add(storedIndexValue(document.toJsonObject().get(fieldName)));
+    }
+
+    query.append(" WHERE ").append(TABLE_COLUMN_KEY).append("=?");
+    parameters.add(key);
+
+    return this.databaseProvider.executeUpdate(query.toString(), parameters.toArray()) != -1;
   }
 
   public boolean insertOrUpdate(String key, JsonDocument document) {
@@ -168,17 +322,22 @@ public List<JsonDocument> get(String fieldName, Object fieldValue) {
     Preconditions.checkNotNull(fieldName);
     Preconditions.checkNotNull(fieldValue);
 
+    String indexValue = this.queryableIndexedFields.contains(fieldName)
+      ? indexValue(JsonDocument.GSON.toJsonTree(fieldValue))
+      : null;
+    if (indexValue != null) {
+      return this.databaseProvider.executeQuery(
+        String.format("SELECT %s FROM `%s` WHERE %s%s = ?", TABLE_COLUMN_VALUE, this.name,
+          TABLE_COLUMN_INDEX_PREFIX, fieldName),
+        this::readDocuments,
+        indexValue
+      );
+    }
+
     return this.databaseProvider.executeQuery(
       String.format("SELECT %s FROM `%s` WHERE %s LIKE ? ESCAPE '$'", TABLE_COLUMN_VALUE, this.name,
         TABLE_COLUMN_VALUE),
-      resultSet -> {
-        List<JsonDocument> jsonDocuments = new ArrayList<>();
-        while (resultSet.next()) {
-          jsonDocuments.add(JsonDocument.newDocument(resultSet.getString(TABLE_COLUMN_VALUE)));
-        }
-
-        return jsonDocuments;
-      },
+      this::readDocuments,
       "%\"" + fieldName + "\":" + JsonDocument.GSON.toJson(fieldValue).replaceAll("([_%])", "\\$$1") + "%"
     );
   }
@@ -201,8 +360,16 @@ public List<JsonDocument> get(JsonDocument filters) {
       while (iterator.hasNext()) {
         item = iterator.next();
 
-        stringBuilder.append(TABLE_COLUMN_VALUE).append(" LIKE ? ESCAPE '$'");
-        collection.add("%\"" + item + "\":" + filters.get(item).toString().replaceAll("([_%])", "\\$$1") + "%");
+        String indexValue = this.queryableIndexedFields.contains(item)
+          ? indexValue(filters.toJsonObject().get(item))
+          : null;
+        if (indexValue != null) {
+          stringBuilder.append(TABLE_COLUMN_INDEX_PREFIX).append(item).append(" = ?");
+          collection.add(indexValue);
+        } else {
+          stringBuilder.append(TABLE_COLUMN_VALUE).append(" LIKE ? ESCAPE '$'");
+          collection.add("%\"" + item + "\":" + filters.get(item).toString().replaceAll("([_%])", "\\$$1") + "%");
+        }
 
         if (iterator.hasNext()) {
           stringBuilder.append(" and ");
@@ -210,18 +377,16 @@ public List<JsonDocument> get(JsonDocument filters) {
       }
     }
 
-    return this.databaseProvider.executeQuery(
-      stringBuilder.toString(),
-      resultSet -> {
-        List<JsonDocument> jsonDocuments = new ArrayList<>();
-        while (resultSet.next()) {
-          jsonDocuments.add(JsonDocument.newDocument(resultSet.getString(TABLE_COLUMN_VALUE)));
-        }
+    return this.databaseProvider.executeQuery(stringBuilder.toString(), this::readDocuments, collection.toArray());
+  }
 
-        return jsonDocuments;
-      },
-      collection.toArray()
-    );
+  protected List<JsonDocument> readDocuments(ResultSet resultSet) throws SQLException {
+    List<JsonDocument> jsonDocuments = new ArrayList<>();
+    while (resultSet.next()) {
+      jsonDocuments.add(JsonDocument.newDocument(resultSet.getString(TABLE_COLUMN_VALUE)));
+    }
+
+    return jsonDocuments;
   }
 
   @Override
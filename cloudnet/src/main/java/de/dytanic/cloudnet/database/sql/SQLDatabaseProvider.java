@@ -24,9 +24,11 @@
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import org.jetbrains.annotations.NotNull;
 
 public abstract class SQLDatabaseProvider extends AbstractDatabaseProvider {
 
@@ -58,6 +60,15 @@ public boolean containsDatabase(String name) {
     return false;
   }
 
+  @Override
+  public void registerIndexedField(@NotNull String database, @NotNull String fieldName) {
+    super.registerIndexedField(database, fieldName);
+
+    if (this.cachedDatabaseInstances.contains(database)) {
+      this.cachedDatabaseInstances.getSecond(database).materializeIndex(fieldName);
+    }
+  }
+
   protected void removedOutdatedEntries() {
     for (Map.Entry<String, Pair<Long, SQLDatabase>> entry : this.cachedDatabaseInstances.entrySet()) {
       if (entry.getValue().getFirst() < System.currentTimeMillis()) {
@@ -68,6 +79,9 @@ protected void removedOutdatedEntries() {
 
   @Override
   public void close() throws Exception {
+    // the pending writes need the executor and the connections of the provider
+    this.closeWriteBehindDatabases();
+
     if (this.autoShutdownExecutorService) {
       this.executorService.shutdownNow();
     }
@@ -77,6 +91,25 @@ public void close() throws Exception {
 
   public abstract int executeUpdate(String query, Object... objects);
 
+  /**
+   * Executes the given update once for every parameter set. Providers which support it send all updates in one batch.
+   *
+   * @param query      the update to execute
+   * @param parameters the parameters of every execution
+   * @return the update count of every execution, {@code -1} for failed executions
+   */
+  public int[] executeBatchUpdate(String query, List<Object[]> parameters) {
+    Preconditions.checkNotNull(query);
+    Preconditions.checkNotNull(parameters);
+
+    int[] updateCounts = new int[parameters.size()];
+    for (int i = 0; i < updateCounts.length; i++) {
+      updateCounts[i] = this.executeUpdate(query, parameters.get(i));
+    }
+
+    return updateCounts;
+  }
+
   public abstract <T> T executeQuery(String query, IThrowableCallback<ResultSet, T> callback, Object... objects);
 
 }
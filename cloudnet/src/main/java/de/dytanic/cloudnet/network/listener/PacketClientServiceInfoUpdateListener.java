@@ -18,23 +18,31 @@
 
 import de.dytanic.cloudnet.CloudNet;
 import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.def.PacketConstants;
 import de.dytanic.cloudnet.driver.network.protocol.IPacket;
 import de.dytanic.cloudnet.driver.network.protocol.IPacketListener;
 import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshotDeltaReader;
 import de.dytanic.cloudnet.service.ICloudService;
 import de.dytanic.cloudnet.service.ICloudServiceManager;
 
 public final class PacketClientServiceInfoUpdateListener implements IPacketListener {
 
+  private final ServiceInfoSnapshotDeltaReader reader = new ServiceInfoSnapshotDeltaReader(
+    PacketConstants.INTERNAL_WRAPPER_TO_NODE_INFO_CHANNEL);
+
   @Override
   public void handle(INetworkChannel channel, IPacket packet) {
-    ServiceInfoSnapshot serviceInfoSnapshot = packet.getBuffer().readObject(ServiceInfoSnapshot.class);
+    byte kind = packet.getBuffer().readByte();
 
-    ICloudServiceManager cloudServiceManager = CloudNet.getInstance().getCloudServiceManager();
-    ICloudService cloudService = cloudServiceManager.getCloudService(serviceInfoSnapshot.getServiceId().getUniqueId());
+    for (ServiceInfoSnapshot serviceInfoSnapshot : this.reader.read(channel, kind, packet.getBuffer())) {
+      ICloudServiceManager cloudServiceManager = CloudNet.getInstance().getCloudServiceManager();
+      ICloudService cloudService = cloudServiceManager
+        .getCloudService(serviceInfoSnapshot.getServiceId().getUniqueId());
 
-    if (cloudService != null) {
-      cloudService.updateServiceInfoSnapshot(serviceInfoSnapshot);
+      if (cloudService != null) {
+        cloudService.updateServiceInfoSnapshot(serviceInfoSnapshot);
+      }
     }
   }
 }
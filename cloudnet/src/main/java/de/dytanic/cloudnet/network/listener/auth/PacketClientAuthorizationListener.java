@@ -37,6 +37,7 @@
 import de.dytanic.cloudnet.network.listener.PacketClientServiceInfoUpdateListener;
 import de.dytanic.cloudnet.network.listener.PacketServerChannelMessageListener;
 import de.dytanic.cloudnet.network.listener.PacketServerSetGlobalLogLevelListener;
+import de.dytanic.cloudnet.network.listener.cluster.PacketServerServiceInfoDeltaListener;
 import de.dytanic.cloudnet.network.listener.cluster.PacketServerSyncTemplateStorageChunkListener;
 import de.dytanic.cloudnet.network.listener.driver.PacketServerDriverAPIListener;
 import de.dytanic.cloudnet.network.listener.driver.PacketServerRemoteDatabaseActionListener;
@@ -103,6 +104,8 @@ public void handle(INetworkChannel channel, IPacket packet) throws Exception {
                 .addListener(PacketConstants.CHANNEL_MESSAGING_CHANNEL, new PacketServerChannelMessageListener(true));
               channel.getPacketRegistry().addListener(PacketConstants.INTERNAL_WRAPPER_TO_NODE_INFO_CHANNEL,
                 new PacketClientServiceInfoUpdateListener());
+              channel.getPacketRegistry().addListener(PacketConstants.SERVICE_INFO_DELTA_CHANNEL,
+                new PacketServerServiceInfoDeltaListener());
 
               channel.getPacketRegistry().addListener(PacketConstants.INTERNAL_DEBUGGING_CHANNEL,
                 new PacketServerSetGlobalLogLevelListener(true));
@@ -35,8 +35,8 @@ public final class PacketServerH2DatabaseListener implements IPacketListener {
   public void handle(INetworkChannel channel, IPacket packet) {
     if (packet.getHeader().contains("operationType") && packet.getHeader().contains("name")) {
       if (CloudNet.getInstance().getDatabaseProvider() instanceof H2DatabaseProvider) {
-        H2Database database = (H2Database) CloudNet.getInstance().getDatabaseProvider()
-          .getDatabase(packet.getHeader().getString("name"));
+        String name = packet.getHeader().getString("name");
+        H2Database database = (H2Database) CloudNet.getInstance().getDatabaseProvider().getDatabase(name);
 
         switch (packet.getHeader().get("operationType", PacketServerH2Database.OperationType.class)) {
           case INSERT:
@@ -45,6 +45,7 @@ public void handle(INetworkChannel channel, IPacket packet) {
                 new DatabaseInsertEntryEvent(database, packet.getHeader().getString("key"),
                   packet.getHeader().getDocument("document"))
               );
+              this.invalidateWriteBehind(name, packet.getHeader().getString("key"));
               database.insertOrUpdate(packet.getHeader().getString("key"), packet.getHeader().getDocument("document"));
             }
             break;
@@ -54,6 +55,7 @@ public void handle(INetworkChannel channel, IPacket packet) {
                 new DatabaseUpdateEntryEvent(database, packet.getHeader().getString("key"),
                   packet.getHeader().getDocument("document"))
               );
+              this.invalidateWriteBehind(name, packet.getHeader().getString("key"));
               database.insertOrUpdate(packet.getHeader().getString("key"), packet.getHeader().getDocument("document"));
             }
             break;
@@ -62,11 +64,13 @@ public void handle(INetworkChannel channel, IPacket packet) {
               CloudNetDriver.getInstance().getEventManager().callEvent(
                 new DatabaseDeleteEntryEvent(database, packet.getHeader().getString("key"))
               );
+              this.invalidateWriteBehind(name, packet.getHeader().getString("key"));
               database.delete0(packet.getHeader().getString("key"));
             }
             break;
           case CLEAR:
             CloudNetDriver.getInstance().getEventManager().callEvent(new DatabaseClearEntriesEvent(database));
+            this.invalidateWriteBehind(name, null);
             database.clear0();
             break;
           default:
@@ -75,4 +79,9 @@ public void handle(INetworkChannel channel, IPacket packet) {
       }
     }
   }
+
+  private void invalidateWriteBehind(String name, String key) {
+    // the received write is newer than a write of this node which is still pending
+    CloudNet.getInstance().getDatabaseProvider().invalidateWriteBehind(name, key);
+  }
 }
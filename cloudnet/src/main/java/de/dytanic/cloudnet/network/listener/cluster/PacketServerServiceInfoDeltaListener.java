@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.network.listener.cluster;
+
+import de.dytanic.cloudnet.CloudNet;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.def.packet.PacketClientServerServiceInfoPublisher;
+import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.network.protocol.IPacketListener;
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshotDelta;
+import de.dytanic.cloudnet.service.ICloudService;
+import de.dytanic.cloudnet.service.ICloudServiceManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public final class PacketServerServiceInfoDeltaListener implements IPacketListener {
+
+  @Override
+  public void handle(INetworkChannel channel, IPacket packet) {
+    ICloudServiceManager cloudServiceManager = CloudNet.getInstance().getCloudServiceManager();
+
+    byte kind = packet.getBuffer().readByte();
+
+    if (kind == ServiceInfoSnapshotDelta.KIND_RESYNC) {
+      // sent by other nodes and by the local services, answered by the node of the service if possible
+      UUID uniqueId = packet.getBuffer().readUUID();
+      ICloudService cloudService = cloudServiceManager.getCloudService(uniqueId);
+
+      if (cloudService != null) {
+        cloudService.resendServiceInfoSnapshot(channel);
+      } else {
+        cloudServiceManager.getServiceInfoSnapshotReader().resend(uniqueId, channel);
+      }
+      return;
+    }
+
+    // deltas which were held back before are applied together with this packet, all of them are forwarded
+    List<IPacket> appliedPackets = new ArrayList<>();
+    boolean accepted = false;
+    for (ServiceInfoSnapshot serviceInfoSnapshot : cloudServiceManager.getServiceInfoSnapshotReader()
+      .read(channel, kind, packet.getBuffer(), appliedPackets::add)) {
+      accepted |= cloudServiceManager.handleServiceUpdate(PacketClientServerServiceInfoPublisher.PublisherType.UPDATE,
+        serviceInfoSnapshot);
+    }
+
+    if (accepted) {
+      // the local services rebuild the snapshots on their own from the applied versions in the same order
+      this.sendUpdatesToAllServices(appliedPackets);
+    }
+  }
+
+  private void sendUpdatesToAllServices(List<IPacket> packets) {
+    for (ICloudService cloudService : CloudNet.getInstance().getCloudServiceManager().getCloudServices().values()) {
+      if (cloudService.getNetworkChannel() != null) {
+        for (IPacket packet : packets) {
+          cloudService.getNetworkChannel().sendPacket(packet);
+        }
+      }
+    }
+  }
+}
@@ -39,6 +39,8 @@ public void handle(INetworkChannel channel, IPacket packet) {
       Map<String, Map<String, JsonDocument>> documents = packet.getHeader().get("documents", TYPE);
 
       H2DatabaseProvider databaseProvider = this.getH2DatabaseProvider();
+      // local writes which are still pending would otherwise overwrite the received data later
+      databaseProvider.flushWriteBehindDatabases();
 
       for (String name : databaseProvider.getDatabaseNames()) {
         if (!documents.containsKey(name)) {
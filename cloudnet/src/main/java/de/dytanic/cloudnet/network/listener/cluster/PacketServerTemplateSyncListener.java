@@ -0,0 +1,116 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.network.listener.cluster;
+
+import de.dytanic.cloudnet.CloudNet;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.network.protocol.IPacketListener;
+import de.dytanic.cloudnet.driver.network.protocol.Packet;
+import de.dytanic.cloudnet.driver.serialization.ProtocolBuffer;
+import de.dytanic.cloudnet.driver.service.ServiceTemplate;
+import de.dytanic.cloudnet.driver.template.TemplateStorage;
+import de.dytanic.cloudnet.network.packet.PacketServerTemplateSync;
+import de.dytanic.cloudnet.template.ClusterSynchronizedTemplateStorage;
+import de.dytanic.cloudnet.template.sync.TemplateBlobStore;
+import de.dytanic.cloudnet.template.sync.TemplateManifest;
+import de.dytanic.cloudnet.template.sync.TemplateSynchronizer;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+
+public final class PacketServerTemplateSyncListener implements IPacketListener {
+
+  @Override
+  public void handle(INetworkChannel channel, IPacket packet) {
+    TemplateSynchronizer synchronizer = CloudNet.getInstance().getTemplateSynchronizer();
+    ProtocolBuffer buffer = packet.getBuffer();
+    ProtocolBuffer response = ProtocolBuffer.create();
+
+    try {
+      switch (packet.getHeader().get("operation", PacketServerTemplateSync.Operation.class)) {
+        case MANIFEST: {
+          Path directory = this.resolveTemplateDirectory(buffer.readObject(ServiceTemplate.class));
+          TemplateManifest manifest = buffer.readObject(TemplateManifest.class);
+
+          if (directory == null) {
+            response.writeBoolean(false);
+          } else {
+            Collection<String> missingChunks = synchronizer.prepare(directory, manifest);
+            response.writeBoolean(true).writeStringCollection(missingChunks);
+          }
+          break;
+        }
+
+        case BLOBS: {
+          response.writeBoolean(this.storeBlobs(synchronizer.getBlobStore(), buffer));
+          break;
+        }
+
+        case APPLY: {
+          Path directory = this.resolveTemplateDirectory(buffer.readObject(ServiceTemplate.class));
+          TemplateManifest manifest = buffer.readObject(TemplateManifest.class);
+
+          response.writeBoolean(directory != null && synchronizer.apply(directory, manifest));
+          break;
+        }
+
+        default:
+          throw new IllegalStateException("Unexpected value: " + packet.getHeader().getString("operation"));
+      }
+    } catch (IOException | IllegalArgumentException exception) {
+      exception.printStackTrace();
+      response = ProtocolBuffer.create().writeBoolean(false);
+    }
+
+    channel.sendPacket(Packet.createResponseFor(packet, response));
+  }
+
+  /**
+   * Stores all blobs of the given buffer. The blob store verifies every blob against its hash, a corrupted blob is
+   * skipped so that the remaining blobs are still stored.
+   *
+   * @param blobStore the store to store the blobs in
+   * @param buffer    the buffer to read the blobs from
+   * @return whether all blobs were stored
+   */
+  boolean storeBlobs(TemplateBlobStore blobStore, ProtocolBuffer buffer) {
+    boolean intact = true;
+
+    int count = buffer.readVarInt();
+    for (int i = 0; i < count; i++) {
+      String hash = buffer.readString();
+      byte[] data = buffer.readArray();
+
+      try {
+        blobStore.store(hash, data, data.length);
+      } catch (IOException exception) {
+        exception.printStackTrace();
+        intact = false;
+      }
+    }
+
+    return intact;
+  }
+
+  private Path resolveTemplateDirectory(ServiceTemplate template) {
+    TemplateStorage storage = CloudNet.getInstance().getTemplateStorage(template.getStorage());
+    return storage instanceof ClusterSynchronizedTemplateStorage
+      ? ((ClusterSynchronizedTemplateStorage) storage).getTemplateDirectory(template)
+      : null;
+  }
+}
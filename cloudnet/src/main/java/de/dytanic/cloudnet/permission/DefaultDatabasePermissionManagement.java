@@ -67,6 +67,8 @@ public DefaultDatabasePermissionManagement(Callable<AbstractDatabaseProvider> da
   @Override
   public void init() {
     FileUtils.createDirectoryReported(this.file.getParent());
+    // users are looked up by their name, for example by the permissions command
+    this.getDatabaseProvider().registerIndexedField(DATABASE_USERS_NAME, "name");
     this.loadGroups();
   }
 
@@ -480,7 +482,7 @@ private void loadGroups() {
   }
 
   public Database getDatabase() {
-    return this.getDatabaseProvider().getDatabase(DATABASE_USERS_NAME);
+    return this.getDatabaseProvider().getWriteBehindDatabase(DATABASE_USERS_NAME);
   }
 
   private AbstractDatabaseProvider getDatabaseProvider() {
@@ -196,10 +196,12 @@ public void sendChannelMessage(@NotNull ChannelMessage channelMessage, boolean s
       return;
     }
 
-    IPacket packet = new PacketClientServerChannelMessage(channelMessage, false);
+    Collection<INetworkChannel> networkChannels = new ArrayList<>(channels.size());
     for (ChannelMessageTargetChannel channel : channels) {
-      channel.getChannel().sendPacket(packet);
+      networkChannels.add(channel.getChannel());
     }
+
+    INetworkChannel.broadcastPacket(new PacketClientServerChannelMessage(channelMessage, false), networkChannels);
   }
 
   @Override
@@ -155,6 +155,8 @@ public void reload() {
     } catch (IOException exception) {
       exception.printStackTrace();
     }
+
+    this.cloudNet.getServiceTaskReconciler().wakeUpAll();
   }
 
   @Override
@@ -178,6 +180,8 @@ public void setServiceTasksWithoutClusterSync(@NotNull Collection<ServiceTask> t
     } catch (IOException exception) {
       exception.printStackTrace();
     }
+
+    this.cloudNet.getServiceTaskReconciler().wakeUpAll();
   }
 
   @Override
@@ -218,6 +222,7 @@ public boolean addServiceTaskWithoutClusterSync(ServiceTask serviceTask) {
       this.permanentServiceTasks.add(serviceTask);
 
       this.writeTask(serviceTask);
+      this.cloudNet.getServiceTaskReconciler().wakeUp(serviceTask.getName());
 
       return true;
     }
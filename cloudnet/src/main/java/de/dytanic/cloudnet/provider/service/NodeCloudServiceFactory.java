@@ -77,8 +77,8 @@ private ServiceInfoSnapshot createCloudServiceAsHeadNode(ServiceConfiguration se
         allowedNodes = Collections.emptySet();
       }
 
-      nodeServer = this.cloudNet
-        .searchLogicNodeServer(allowedNodes, serviceConfiguration.getProcessConfig().getMaxHeapMemorySize());
+      nodeServer = this.cloudNet.searchLogicNodeServer(allowedNodes, serviceConfiguration.getServiceId().getTaskName(),
+        serviceConfiguration.getProcessConfig().getMaxHeapMemorySize());
     } else {
       String nodeUniqueId = serviceConfiguration.getServiceId().getNodeUniqueId();
       if (this.cloudNet.getClusterNodeServerProvider().getSelfNode().getNodeInfo().getUniqueId().equals(nodeUniqueId)) {
@@ -86,12 +86,15 @@ private ServiceInfoSnapshot createCloudServiceAsHeadNode(ServiceConfiguration se
       } else {
         nodeServer = this.cloudNet.getClusterNodeServerProvider().getNodeServer(nodeUniqueId);
       }
+
+      if (nodeServer != null && nodeServer.isAvailable()) {
+        this.cloudNet.getNodePlacementScheduler().reserve(nodeServer, serviceConfiguration.getServiceId().getTaskName(),
+          serviceConfiguration.getProcessConfig().getMaxHeapMemorySize());
+      }
     }
 
     if (nodeServer != null && nodeServer.isAvailable()) {
       this.cloudServiceManager.prepareServiceConfiguration(nodeServer, serviceConfiguration);
-      nodeServer.getNodeInfoSnapshot()
-        .addReservedMemory(serviceConfiguration.getProcessConfig().getMaxHeapMemorySize());
 
       ServiceInfoSnapshot snapshot;
       if (nodeServer instanceof LocalNodeServer) {
@@ -110,6 +113,10 @@ private ServiceInfoSnapshot createCloudServiceAsHeadNode(ServiceConfiguration se
         return null;
       }
 
+      if (snapshot == null) {
+        this.cloudServiceManager.releaseServiceResources(serviceConfiguration.getServiceId().getUniqueId());
+      }
+
       return snapshot;
     }
 
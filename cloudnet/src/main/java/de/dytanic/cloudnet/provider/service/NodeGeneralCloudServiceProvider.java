@@ -20,15 +20,11 @@
 import de.dytanic.cloudnet.CloudNet;
 import de.dytanic.cloudnet.common.concurrent.ITask;
 import de.dytanic.cloudnet.driver.provider.service.GeneralCloudServiceProvider;
+import de.dytanic.cloudnet.driver.provider.service.ServiceInfoSnapshotIndex;
 import de.dytanic.cloudnet.driver.service.ServiceEnvironmentType;
 import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
-import de.dytanic.cloudnet.driver.service.ServiceLifeCycle;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.UUID;
-import java.util.stream.Collectors;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -42,57 +38,46 @@ public NodeGeneralCloudServiceProvider(CloudNet cloudNet) {
 
   @Override
   public Collection<UUID> getServicesAsUniqueId() {
-    return Collections
-      .unmodifiableCollection(this.cloudNet.getCloudServiceManager().getGlobalServiceInfoSnapshots().keySet());
+    return this.getServices().getUniqueIds();
   }
 
   @Nullable
   @Override
   public ServiceInfoSnapshot getCloudServiceByName(@NotNull String name) {
-    return this.cloudNet.getCloudServiceManager().getGlobalServiceInfoSnapshots().values().stream()
-      .filter(serviceInfoSnapshot -> serviceInfoSnapshot.getServiceId().getName().equalsIgnoreCase(name))
-      .findFirst()
-      .orElse(null);
+    Preconditions.checkNotNull(name);
+
+    return this.getServices().getByName(name);
   }
 
   @Override
   public Collection<ServiceInfoSnapshot> getCloudServices() {
-    return new ArrayList<>(this.cloudNet.getCloudServiceManager().getGlobalServiceInfoSnapshots().values());
+    return this.getServices().getAll();
   }
 
   @Override
   public Collection<ServiceInfoSnapshot> getStartedCloudServices() {
-    return this.getCloudServices().stream()
-      .filter(serviceInfoSnapshot -> serviceInfoSnapshot.getLifeCycle() == ServiceLifeCycle.RUNNING)
-      .collect(Collectors.toList());
+    return this.getServices().getStarted();
   }
 
   @Override
   public Collection<ServiceInfoSnapshot> getCloudServices(@NotNull String taskName) {
     Preconditions.checkNotNull(taskName);
 
-    return this.getCloudServices().stream()
-      .filter(snapshot -> snapshot.getServiceId().getTaskName().equalsIgnoreCase(taskName))
-      .collect(Collectors.toList());
+    return this.getServices().getByTask(taskName);
   }
 
   @Override
   public Collection<ServiceInfoSnapshot> getCloudServices(@NotNull ServiceEnvironmentType environment) {
     Preconditions.checkNotNull(environment);
 
-    return this.getCloudServices().stream()
-      .filter(snapshot -> snapshot.getServiceId().getEnvironment() == environment)
-      .collect(Collectors.toList());
+    return this.getServices().getByEnvironment(environment);
   }
 
   @Override
   public Collection<ServiceInfoSnapshot> getCloudServicesByGroup(@NotNull String group) {
     Preconditions.checkNotNull(group);
 
-    return this.cloudNet.getCloudServiceManager().getGlobalServiceInfoSnapshots().values()
-      .stream()
-      .filter(serviceInfoSnapshot -> Arrays.asList(serviceInfoSnapshot.getConfiguration().getGroups()).contains(group))
-      .collect(Collectors.toList());
+    return this.getServices().getByGroup(group);
   }
 
   @Nullable
@@ -100,44 +85,26 @@ public Collection<ServiceInfoSnapshot> getCloudServicesByGroup(@NotNull String g
   public ServiceInfoSnapshot getCloudService(@NotNull UUID uniqueId) {
     Preconditions.checkNotNull(uniqueId);
 
-    return this.cloudNet.getCloudServiceManager().getGlobalServiceInfoSnapshots().get(uniqueId);
+    return this.getServices().get(uniqueId);
   }
 
   @Override
   public int getServicesCount() {
-    return this.cloudNet.getCloudServiceManager().getGlobalServiceInfoSnapshots().size();
+    return this.getServices().size();
   }
 
   @Override
   public int getServicesCountByGroup(@NotNull String group) {
     Preconditions.checkNotNull(group);
 
-    int amount = 0;
-
-    for (ServiceInfoSnapshot serviceInfoSnapshot : this.cloudNet.getCloudServiceManager()
-      .getGlobalServiceInfoSnapshots().values()) {
-      if (Arrays.asList(serviceInfoSnapshot.getConfiguration().getGroups()).contains(group)) {
-        amount++;
-      }
-    }
-
-    return amount;
+    return this.getServices().countByGroup(group);
   }
 
   @Override
   public int getServicesCountByTask(@NotNull String taskName) {
     Preconditions.checkNotNull(taskName);
 
-    int amount = 0;
-
-    for (ServiceInfoSnapshot serviceInfoSnapshot : this.cloudNet.getCloudServiceManager()
-      .getGlobalServiceInfoSnapshots().values()) {
-      if (serviceInfoSnapshot.getServiceId().getTaskName().equals(taskName)) {
-        amount++;
-      }
-    }
-
-    return amount;
+    return this.getServices().countByTask(taskName);
   }
 
   @Override
@@ -215,4 +182,8 @@ public ITask<ServiceInfoSnapshot> getCloudServiceAsync(@NotNull UUID uniqueId) {
 
     return this.cloudNet.scheduleTask(() -> this.getCloudService(uniqueId));
   }
+
+  private ServiceInfoSnapshotIndex getServices() {
+    return this.cloudNet.getCloudServiceManager().getGlobalServiceInfoSnapshotIndex();
+  }
 }
@@ -135,4 +135,13 @@ default void deployResources() {
 
   void updateServiceInfoSnapshot(@NotNull ServiceInfoSnapshot serviceInfoSnapshot);
 
+  /**
+   * Sends the latest published snapshot of this service completely to the given channel, used when the channel missed
+   * a delta of the snapshot.
+   *
+   * @param channel the channel to send the snapshot to
+   */
+  @ApiStatus.Internal
+  void resendServiceInfoSnapshot(@NotNull INetworkChannel channel);
+
 }
@@ -18,8 +18,10 @@
 
 import de.dytanic.cloudnet.common.concurrent.ITask;
 import de.dytanic.cloudnet.driver.network.def.packet.PacketClientServerServiceInfoPublisher;
+import de.dytanic.cloudnet.driver.provider.service.ServiceInfoSnapshotIndex;
 import de.dytanic.cloudnet.driver.service.ServiceConfiguration;
 import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshotDeltaReader;
 import java.io.File;
 import java.nio.file.Path;
 import java.util.Collection;
@@ -47,9 +49,25 @@ public interface ICloudServiceManager {
   @NotNull
   Path getPersistentServicesDirectoryPath();
 
+  /**
+   * @return an unmodifiable view of the snapshots of all services in the cluster
+   */
   @NotNull
   Map<UUID, ServiceInfoSnapshot> getGlobalServiceInfoSnapshots();
 
+  /**
+   * @return the snapshots of all services in the cluster indexed by their name, task, group, environment and life cycle
+   */
+  @NotNull
+  ServiceInfoSnapshotIndex getGlobalServiceInfoSnapshotIndex();
+
+  /**
+   * @return the reader of the snapshot deltas of the services of the other nodes in the cluster
+   */
+  @NotNull
+  @ApiStatus.Internal
+  ServiceInfoSnapshotDeltaReader getServiceInfoSnapshotReader();
+
   boolean handleServiceUpdate(@NotNull PacketClientServerServiceInfoPublisher.PublisherType type,
     @NotNull ServiceInfoSnapshot snapshot);
 
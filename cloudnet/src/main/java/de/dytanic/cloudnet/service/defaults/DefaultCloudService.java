@@ -27,11 +27,14 @@
 import de.dytanic.cloudnet.conf.ConfigurationOptionSSL;
 import de.dytanic.cloudnet.driver.api.DriverAPIRequestType;
 import de.dytanic.cloudnet.driver.network.HostAndPort;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.def.PacketConstants;
 import de.dytanic.cloudnet.driver.network.def.packet.PacketClientDriverAPI;
 import de.dytanic.cloudnet.driver.network.def.packet.PacketClientServerServiceInfoPublisher;
 import de.dytanic.cloudnet.driver.service.ProcessSnapshot;
 import de.dytanic.cloudnet.driver.service.ServiceConfiguration;
 import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshotDeltaWriter;
 import de.dytanic.cloudnet.driver.service.ServiceLifeCycle;
 import de.dytanic.cloudnet.service.ICloudServiceManager;
 import de.dytanic.cloudnet.service.handler.CloudServiceHandler;
@@ -51,6 +54,8 @@ public abstract class DefaultCloudService extends DefaultEmptyCloudService {
   private static final Lock START_SEQUENCE_LOCK = new ReentrantLock();
 
   protected final Lock lifeCycleLock = new ReentrantLock();
+  protected final ServiceInfoSnapshotDeltaWriter serviceInfoSnapshotWriter = new ServiceInfoSnapshotDeltaWriter(
+    PacketConstants.SERVICE_INFO_DELTA_CHANNEL);
   private final Path directory;
   protected boolean firstStartupOnStaticService = false;
   private boolean initialized;
@@ -209,8 +214,12 @@ public void updateServiceInfoSnapshot(@NotNull ServiceInfoSnapshot serviceInfoSn
     this.getCloudServiceManager()
       .handleServiceUpdate(PacketClientServerServiceInfoPublisher.PublisherType.UPDATE, serviceInfoSnapshot);
 
-    CloudNet.getInstance().sendAll(new PacketClientServerServiceInfoPublisher(serviceInfoSnapshot,
-      PacketClientServerServiceInfoPublisher.PublisherType.UPDATE));
+    this.serviceInfoSnapshotWriter.publish(serviceInfoSnapshot, packet -> CloudNet.getInstance().sendAll(packet));
+  }
+
+  @Override
+  public void resendServiceInfoSnapshot(@NotNull INetworkChannel channel) {
+    this.serviceInfoSnapshotWriter.resend(channel);
   }
 
   @Override
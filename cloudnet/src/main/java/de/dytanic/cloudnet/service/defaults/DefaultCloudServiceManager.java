@@ -22,7 +22,6 @@
 import de.dytanic.cloudnet.common.concurrent.CompletedTask;
 import de.dytanic.cloudnet.common.concurrent.ITask;
 import de.dytanic.cloudnet.common.concurrent.function.ThrowableConsumer;
-import de.dytanic.cloudnet.common.language.LanguageManager;
 import de.dytanic.cloudnet.driver.CloudNetDriver;
 import de.dytanic.cloudnet.driver.event.events.service.CloudServiceConnectNetworkEvent;
 import de.dytanic.cloudnet.driver.event.events.service.CloudServiceDisconnectNetworkEvent;
@@ -31,12 +30,14 @@
 import de.dytanic.cloudnet.driver.event.events.service.CloudServiceStartEvent;
 import de.dytanic.cloudnet.driver.event.events.service.CloudServiceStopEvent;
 import de.dytanic.cloudnet.driver.event.events.service.CloudServiceUnregisterEvent;
+import de.dytanic.cloudnet.driver.network.def.PacketConstants;
 import de.dytanic.cloudnet.driver.network.def.packet.PacketClientServerServiceInfoPublisher;
+import de.dytanic.cloudnet.driver.provider.service.ServiceInfoSnapshotIndex;
 import de.dytanic.cloudnet.driver.service.GroupConfiguration;
 import de.dytanic.cloudnet.driver.service.ServiceConfiguration;
 import de.dytanic.cloudnet.driver.service.ServiceDeployment;
-import de.dytanic.cloudnet.driver.service.ServiceId;
 import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshotDeltaReader;
 import de.dytanic.cloudnet.driver.service.ServiceLifeCycle;
 import de.dytanic.cloudnet.driver.service.ServiceRemoteInclusion;
 import de.dytanic.cloudnet.driver.service.ServiceTemplate;
@@ -46,7 +47,6 @@
 import de.dytanic.cloudnet.service.ICloudServiceManager;
 import de.dytanic.cloudnet.service.handler.CloudServiceHandler;
 import de.dytanic.cloudnet.service.handler.DefaultCloudServiceHandler;
-import de.dytanic.cloudnet.util.PortValidator;
 import java.io.File;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -54,7 +54,6 @@
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -84,16 +83,20 @@ public final class DefaultCloudServiceManager implements ICloudServiceManager {
     .get(System.getProperty("cloudnet.persistable.services.path", "local/services"));
 
   private final Lock globalServicesUpdateLock = new ReentrantLock();
-  private final Map<UUID, ServiceInfoSnapshot> globalServiceInfoSnapshots = new ConcurrentHashMap<>();
+  private final ServiceInfoSnapshotIndex globalServiceInfoSnapshots = new ServiceInfoSnapshotIndex();
+  private final ServiceInfoSnapshotDeltaReader serviceInfoSnapshotReader = new ServiceInfoSnapshotDeltaReader(
+    PacketConstants.SERVICE_INFO_DELTA_CHANNEL);
 
   private final Map<UUID, ICloudService> cloudServices = new ConcurrentHashMap<>();
   private final Map<String, ICloudServiceFactory> cloudServiceFactories = new ConcurrentHashMap<>();
 
+  private final TaskIdAllocator taskIdAllocator = new TaskIdAllocator(this.globalServiceInfoSnapshots);
+  private final PortAllocator portAllocator = new PortAllocator();
+
   public DefaultCloudServiceManager(@NotNull ScheduledExecutorService service) {
     service.scheduleAtFixedRate(() -> {
       try {
         this.stopDeadServices();
-        this.updateServiceLogs();
       } catch (Throwable throwable) {
         CloudNet.getInstance().getLogger().error("Exception while ticking the cloud service manager", throwable);
       }
@@ -131,6 +134,7 @@ private ICloudService createCloudServiceSync(@NotNull ServiceConfiguration servi
     CloudNetDriver.getInstance().getEventManager().callEvent(event);
 
     if (event.isCancelled()) {
+      this.releaseServiceResources(serviceConfiguration.getServiceId().getUniqueId());
       return null;
     }
 
@@ -138,19 +142,27 @@ private ICloudService createCloudServiceSync(@NotNull ServiceConfiguration servi
       .map(factory -> factory.createCloudService(this, serviceConfiguration))
       .orElseGet(() -> DEFAULT_FACTORY.createCloudService(this, serviceConfiguration));
 
-    if (cloudService != null) {
+    if (cloudService == null) {
+      this.releaseServiceResources(serviceConfiguration.getServiceId().getUniqueId());
+    } else {
       cloudService.init();
 
       if (timeoutMillis == null || timeoutMillis >= System.currentTimeMillis()) {
         this.cloudServices.put(cloudService.getServiceId().getUniqueId(), cloudService);
-        this.globalServiceInfoSnapshots
-          .put(cloudService.getServiceId().getUniqueId(), cloudService.getServiceInfoSnapshot());
+        try {
+          this.globalServicesUpdateLock.lock();
+          this.globalServiceInfoSnapshots.put(cloudService.getServiceInfoSnapshot());
+          this.taskIdAllocator.release(cloudService.getServiceId().getUniqueId());
+        } finally {
+          this.globalServicesUpdateLock.unlock();
+        }
 
         CloudNet.getInstance().sendAll(new PacketClientServerServiceInfoPublisher(cloudService.getServiceInfoSnapshot(),
           PacketClientServerServiceInfoPublisher.PublisherType.REGISTER));
         CloudNet.getInstance().publishNetworkClusterNodeInfoSnapshotUpdate();
       } else {
         cloudService.delete(false);
+        this.releaseServiceResources(cloudService.getServiceId().getUniqueId());
         return null;
       }
     }
@@ -159,7 +171,7 @@ private ICloudService createCloudServiceSync(@NotNull ServiceConfiguration servi
   }
 
   private void prepareServiceConfiguration(ServiceConfiguration configuration) {
-    configuration.setPort(this.checkAndReplacePort(configuration.getPort()));
+    configuration.setPort(this.portAllocator.allocate(configuration.getServiceId().getUniqueId(), configuration.getPort()));
 
     Collection<String> groups = new ArrayList<>(Arrays.asList(configuration.getGroups()));
 
@@ -279,10 +291,8 @@ public Collection<Integer> getReservedTaskIds(@NotNull String task) {
     Preconditions.checkNotNull(task);
 
     Collection<Integer> taskIdList = new ArrayList<>();
-    for (ServiceInfoSnapshot serviceInfoSnapshot : this.globalServiceInfoSnapshots.values()) {
-      if (serviceInfoSnapshot.getServiceId().getTaskName().equalsIgnoreCase(task)) {
-        taskIdList.add(serviceInfoSnapshot.getServiceId().getTaskServiceId());
-      }
+    for (ServiceInfoSnapshot serviceInfoSnapshot : this.globalServiceInfoSnapshots.getByTask(task)) {
+      taskIdList.add(serviceInfoSnapshot.getServiceId().getTaskServiceId());
     }
 
     return taskIdList;
@@ -312,43 +322,16 @@ public int getCurrentReservedMemory() {
     return value;
   }
 
-  private int checkAndReplaceTaskId(ServiceId serviceId) {
-    int taskId = serviceId.getTaskServiceId();
-    if (taskId <= 0) {
-      taskId = 1;
-    }
-
-    Collection<Integer> taskIdList = this.getReservedTaskIds(serviceId.getTaskName());
-    while (taskIdList.contains(taskId)) {
-      taskId++;
-    }
-
-    return taskId;
-  }
-
-  private int checkAndReplacePort(int port) {
-    Collection<Integer> usedPorts = new HashSet<>();
-
-    for (ICloudService cloudService : this.cloudServices.values()) {
-      usedPorts.add(cloudService.getServiceConfiguration().getPort());
-    }
-
-    boolean portBindRetry = false;
-    while (usedPorts.contains(port) || (portBindRetry = !PortValidator.checkPort(port))) {
-      int oldPort = port++;
-
-      if (portBindRetry) {
-        CloudNetDriver.getInstance().getLogger()
-          .extended(LanguageManager.getMessage("cloud-service-port-bind-retry-message")
-            .replace("%port%", String.valueOf(oldPort))
-            .replace("%next_port%", String.valueOf(port)));
-
-        portBindRetry = false;
-      }
-
-    }
-
-    return port;
+  /**
+   * Releases the task service id and port leased to a service which is known to the global service index or not
+   * created
+   *
+   * @param uniqueId the unique id of the service
+   */
+  @ApiStatus.Internal
+  public void releaseServiceResources(@NotNull UUID uniqueId) {
+    this.taskIdAllocator.release(uniqueId);
+    this.portAllocator.release(uniqueId);
   }
 
   @NotNull
@@ -377,9 +360,19 @@ public Path getPersistentServicesDirectoryPath() {
 
   @Override
   public @NotNull Map<UUID, ServiceInfoSnapshot> getGlobalServiceInfoSnapshots() {
+    return this.globalServiceInfoSnapshots.asMap();
+  }
+
+  @Override
+  public @NotNull ServiceInfoSnapshotIndex getGlobalServiceInfoSnapshotIndex() {
     return this.globalServiceInfoSnapshots;
   }
 
+  @Override
+  public @NotNull ServiceInfoSnapshotDeltaReader getServiceInfoSnapshotReader() {
+    return this.serviceInfoSnapshotReader;
+  }
+
   @Override
   public @NotNull Map<UUID, ICloudService> getCloudServices() {
     return this.cloudServices;
@@ -427,12 +420,12 @@ public void prepareServiceConfiguration(NodeServer server, ServiceConfiguration
     Preconditions.checkArgument(CloudNet.getInstance().isMainThread(), "Async service pre-prepare");
 
     configuration.getServiceId().setNodeUniqueId(server.getNodeInfo().getUniqueId());
-    configuration.getServiceId().setTaskServiceId(this.checkAndReplaceTaskId(configuration.getServiceId()));
+    configuration.getServiceId().setTaskServiceId(this.taskIdAllocator.allocate(configuration.getServiceId()));
   }
 
   private boolean doServiceUpdate(PacketClientServerServiceInfoPublisher.PublisherType type,
     ServiceInfoSnapshot snapshot) {
-    if (this.globalServiceInfoSnapshots.containsKey(snapshot.getServiceId().getUniqueId())) {
+    if (this.globalServiceInfoSnapshots.get(snapshot.getServiceId().getUniqueId()) != null) {
       switch (type) {
         case STARTED:
           CloudNetDriver.getInstance().getEventManager().callEvent(new CloudServiceStartEvent(snapshot));
@@ -451,16 +444,19 @@ private boolean doServiceUpdate(PacketClientServerServiceInfoPublisher.Publisher
           break;
         case UNREGISTER:
           this.globalServiceInfoSnapshots.remove(snapshot.getServiceId().getUniqueId());
+          this.serviceInfoSnapshotReader.forget(snapshot.getServiceId().getUniqueId());
+          this.releaseServiceResources(snapshot.getServiceId().getUniqueId());
           CloudNetDriver.getInstance().getEventManager().callEvent(new CloudServiceUnregisterEvent(snapshot));
           return true;
         default:
           return false;
       }
 
-      this.globalServiceInfoSnapshots.put(snapshot.getServiceId().getUniqueId(), snapshot);
+      this.globalServiceInfoSnapshots.put(snapshot);
       return true;
     } else if (type == PacketClientServerServiceInfoPublisher.PublisherType.REGISTER) {
-      this.globalServiceInfoSnapshots.put(snapshot.getServiceId().getUniqueId(), snapshot);
+      this.globalServiceInfoSnapshots.put(snapshot);
+      this.taskIdAllocator.release(snapshot.getServiceId().getUniqueId());
       CloudNetDriver.getInstance().getEventManager().callEvent(new CloudServiceRegisterEvent(snapshot));
       return true;
     } else {
@@ -475,10 +471,4 @@ private void stopDeadServices() {
       }
     }
   }
-
-  private void updateServiceLogs() {
-    for (ICloudService cloudService : this.cloudServices.values()) {
-      cloudService.getServiceConsoleLogCache().update();
-    }
-  }
 }
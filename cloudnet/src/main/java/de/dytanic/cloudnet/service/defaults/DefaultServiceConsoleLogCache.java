@@ -20,90 +20,91 @@
 import de.dytanic.cloudnet.common.logging.LogLevel;
 import de.dytanic.cloudnet.driver.CloudNetDriver;
 import de.dytanic.cloudnet.driver.service.ServiceEnvironmentType;
-import de.dytanic.cloudnet.driver.service.ServiceLifeCycle;
 import de.dytanic.cloudnet.event.service.CloudServiceConsoleLogReceiveEntryEvent;
 import de.dytanic.cloudnet.service.ICloudService;
 import de.dytanic.cloudnet.service.IServiceConsoleLogCache;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
 import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public final class DefaultServiceConsoleLogCache implements IServiceConsoleLogCache {
 
-  private final Queue<String> cachedLogMessages = new ConcurrentLinkedQueue<>();
-
-  private final byte[] buffer = new byte[1024];
-
-  private final StringBuffer stringBuffer = new StringBuffer();
-
+  private static final long READER_EOF_TIMEOUT_MILLIS = Long.getLong("cloudnet.service.console-read-timeout", 500);
 
   private final ICloudService cloudService;
 
+  private volatile ServiceConsoleLineBuffer lineBuffer;
+
+  private volatile Process process;
+  private volatile List<Future<?>> readers = Collections.emptyList();
 
   private boolean autoPrintReceivedInput;
   private boolean screenEnabled;
 
-
-  private int len;
-
   public DefaultServiceConsoleLogCache(ICloudService cloudService) {
     this.cloudService = cloudService;
+    this.lineBuffer = new ServiceConsoleLineBuffer(this.getMaxCachedLines());
   }
 
-  @Override
-  public synchronized IServiceConsoleLogCache update() {
-    if (this.cloudService.getLifeCycle() == ServiceLifeCycle.RUNNING && this.cloudService.isAlive()
-      && this.cloudService.getProcess() != null) {
-      this.readStream(this.cloudService.getProcess().getInputStream(), false);
-      this.readStream(this.cloudService.getProcess().getErrorStream(),
-        CloudNet.getInstance().getConfig().isPrintErrorStreamLinesFromServices());
-    }
-    return this;
+  /**
+   * Starts reading the output of the given process of the service. The readers stop as soon as the process exits.
+   *
+   * @param process the started process of the service
+   */
+  public void startReading(Process process) {
+    this.process = process;
+    this.readers = ServiceConsoleOutputPump.INSTANCE.pump(this, process);
   }
 
-  private synchronized void readStream(InputStream inputStream, boolean printErrorIntoConsole) {
-    try {
-      while (inputStream.available() > 0 && (this.len = inputStream.read(this.buffer, 0, this.buffer.length)) != -1) {
-        this.stringBuffer.append(new String(this.buffer, 0, this.len, StandardCharsets.UTF_8));
-      }
-
-      String stringText = this.stringBuffer.toString();
-      if (!stringText.contains("\n") && !stringText.contains("\r")) {
-        return;
-      }
+  /**
+   * The output is read as soon as it is written by the process. If the process already exited, this waits briefly for
+   * the readers to reach the end of the streams, so that the last lines of the process are cached afterwards.
+   */
+  @Override
+  public IServiceConsoleLogCache update() {
+    Process process = this.process;
+    if (process == null || process.isAlive()) {
+      return this;
+    }
 
-      for (String input : stringText.split("\r")) {
-        for (String text : input.split("\n")) {
-          if (!text.trim().isEmpty()) {
-            this.addCachedItem(text, printErrorIntoConsole);
-          }
-        }
+    long deadline = System.currentTimeMillis() + READER_EOF_TIMEOUT_MILLIS;
+    for (Future<?> reader : this.readers) {
+      try {
+        reader.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+        break;
+      } catch (ExecutionException | TimeoutException exception) {
+        // the stream is still held open by a child process, the lines read until now are cached
       }
-
-      this.stringBuffer.setLength(0);
-
-    } catch (Exception ignored) {
-      this.stringBuffer.setLength(0);
     }
+
+    return this;
   }
 
-  private void addCachedItem(String text, boolean printErrorIntoConsole) {
-    if (text == null) {
-      return;
+  boolean cacheLine(String text) {
+    String trimmedText = text.trim();
+    if (trimmedText.isEmpty()) {
+      return false;
     }
+
     ServiceEnvironmentType environment = this.cloudService.getServiceConfiguration().getProcessConfig()
       .getEnvironment();
-    String trimmedText = text.trim();
     if (!environment.getIgnoredConsoleLines().isEmpty() && environment.getIgnoredConsoleLines().contains(trimmedText)) {
-      return;
+      return false;
     }
 
-    while (this.cachedLogMessages.size() >= CloudNet.getInstance().getConfig().getMaxServiceConsoleLogCacheSize()) {
-      this.cachedLogMessages.poll();
-    }
+    this.getLineBuffer().add(text);
+    return true;
+  }
 
-    this.cachedLogMessages.offer(text);
+  void dispatchLine(String text, boolean errorStream) {
+    boolean printErrorIntoConsole = errorStream
+      && CloudNet.getInstance().getConfig().isPrintErrorStreamLinesFromServices();
 
     CloudNetDriver.getInstance().getEventManager().callEvent(
       new CloudServiceConsoleLogReceiveEntryEvent(this.cloudService.getServiceInfoSnapshot(), text,
@@ -115,30 +116,50 @@ private void addCachedItem(String text, boolean printErrorIntoConsole) {
     }
   }
 
-  public Queue<String> getCachedLogMessages() {
-    return this.cachedLogMessages;
+  private ServiceConsoleLineBuffer getLineBuffer() {
+    ServiceConsoleLineBuffer lineBuffer = this.lineBuffer;
+    int maxCachedLines = this.getMaxCachedLines();
+    if (lineBuffer.capacity() != maxCachedLines) {
+      synchronized (this) {
+        // the configured size was changed, keep the newest lines which fit into the new buffer
+        if (this.lineBuffer.capacity() != maxCachedLines) {
+          ServiceConsoleLineBuffer resized = new ServiceConsoleLineBuffer(maxCachedLines);
+          for (String line : this.lineBuffer.snapshot()) {
+            resized.add(line);
+          }
+          this.lineBuffer = resized;
+        }
+
+        lineBuffer = this.lineBuffer;
+      }
+    }
+
+    return lineBuffer;
   }
 
-  public byte[] getBuffer() {
-    return this.buffer;
+  private int getMaxCachedLines() {
+    return Math.max(1, CloudNet.getInstance().getConfig().getMaxServiceConsoleLogCacheSize());
   }
 
-  public StringBuffer getStringBuffer() {
-    return this.stringBuffer;
+  /**
+   * @return a copy of the cached lines, the oldest line first
+   */
+  @Override
+  public Queue<String> getCachedLogMessages() {
+    return this.lineBuffer.snapshot();
   }
 
+  @Override
   public ICloudService getCloudService() {
     return this.cloudService;
   }
 
-  public int getLen() {
-    return this.len;
-  }
-
+  @Override
   public boolean isAutoPrintReceivedInput() {
     return this.autoPrintReceivedInput;
   }
 
+  @Override
   public void setAutoPrintReceivedInput(boolean autoPrintReceivedInput) {
     this.autoPrintReceivedInput = autoPrintReceivedInput;
   }
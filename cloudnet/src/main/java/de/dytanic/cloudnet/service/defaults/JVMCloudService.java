@@ -200,6 +200,7 @@ protected void startProcess() throws Exception {
       .command(commandArguments)
       .directory(this.getDirectoryPath().toFile())
       .start();
+    this.serviceConsoleLogCache.startReading(this.process);
   }
 
   @Nullable
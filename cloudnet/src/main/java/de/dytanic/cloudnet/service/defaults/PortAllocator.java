@@ -0,0 +1,137 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.service.defaults;
+
+import de.dytanic.cloudnet.common.language.LanguageManager;
+import de.dytanic.cloudnet.driver.CloudNetDriver;
+import de.dytanic.cloudnet.util.PortValidator;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntPredicate;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Allocates the ports of the local services. A port is leased to a service from its creation until it is deleted, the
+ * leased ports are kept in a bitmap so finding a free port doesn't need to collect the ports of all services. Binding
+ * the port is only checked for the candidate picked from the bitmap, ports which are used by other processes are
+ * skipped for a while before they are checked again.
+ */
+@ApiStatus.Internal
+public final class PortAllocator {
+
+  private static final int MAX_PORT = 65535;
+  private static final long BLOCKED_PORT_TIMEOUT_MILLIS = Long.getLong("cloudnet.service.blocked-port-timeout", 30_000);
+
+  private final IntPredicate portValidator;
+
+  private final BitSet leasedPorts = new BitSet(MAX_PORT + 1);
+  private final BitSet blockedPorts = new BitSet(MAX_PORT + 1);
+  private final Map<UUID, Integer> leases = new HashMap<>();
+  private final Map<Integer, Long> blockTimes = new HashMap<>();
+
+  public PortAllocator() {
+    this(PortValidator::checkPort);
+  }
+
+  public PortAllocator(@NotNull IntPredicate portValidator) {
+    this.portValidator = portValidator;
+  }
+
+  /**
+   * Allocates the first free port starting at the requested port of the service
+   *
+   * @param uniqueId the unique id of the service to allocate the port for
+   * @param port     the requested port of the service
+   * @return the allocated port
+   * @throws IllegalStateException if no port is available
+   */
+  public synchronized int allocate(@NotNull UUID uniqueId, int port) {
+    this.release(uniqueId);
+    this.unblockPorts();
+
+    int candidate = this.nextFreePort(port);
+    while (!this.portValidator.test(candidate)) {
+      // the port is used by another process, skip it for the following allocations too
+      this.blockedPorts.set(candidate);
+      this.blockTimes.put(candidate, System.currentTimeMillis());
+
+      int nextCandidate = this.nextFreePort(candidate + 1);
+      CloudNetDriver.getInstance().getLogger()
+        .extended(LanguageManager.getMessage("cloud-service-port-bind-retry-message")
+          .replace("%port%", String.valueOf(candidate))
+          .replace("%next_port%", String.valueOf(nextCandidate)));
+
+      candidate = nextCandidate;
+    }
+
+    this.leasedPorts.set(candidate);
+    this.leases.put(uniqueId, candidate);
+
+    return candidate;
+  }
+
+  /**
+   * Releases the port leased to the given service
+   *
+   * @param uniqueId the unique id of the service
+   */
+  public synchronized void release(@NotNull UUID uniqueId) {
+    Integer port = this.leases.remove(uniqueId);
+    if (port != null) {
+      this.leasedPorts.clear(port);
+    }
+  }
+
+  public synchronized boolean isLeased(int port) {
+    return this.leasedPorts.get(port);
+  }
+
+  private int nextFreePort(int port) {
+    int candidate = Math.max(port, 1);
+    while (candidate <= MAX_PORT) {
+      candidate = this.leasedPorts.nextClearBit(candidate);
+      if (!this.blockedPorts.get(candidate)) {
+        break;
+      }
+
+      candidate++;
+    }
+
+    if (candidate > MAX_PORT) {
+      throw new IllegalStateException("No free port available starting at " + port);
+    }
+
+    return candidate;
+  }
+
+  private void unblockPorts() {
+    long timeout = System.currentTimeMillis() - BLOCKED_PORT_TIMEOUT_MILLIS;
+
+    Iterator<Map.Entry<Integer, Long>> iterator = this.blockTimes.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<Integer, Long> entry = iterator.next();
+      if (entry.getValue() < timeout) {
+        iterator.remove();
+        this.blockedPorts.clear(entry.getKey());
+      }
+    }
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.service.defaults;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A fixed size ring of the last console lines of a service. Adding a line overwrites the oldest line once the ring is
+ * full, neither adding nor reading takes a lock.
+ */
+final class ServiceConsoleLineBuffer {
+
+  private final AtomicReferenceArray<String> lines;
+  private final AtomicLong writeIndex = new AtomicLong();
+
+  ServiceConsoleLineBuffer(int capacity) {
+    Preconditions.checkArgument(capacity > 0, "capacity must be positive");
+    this.lines = new AtomicReferenceArray<>(capacity);
+  }
+
+  void add(String line) {
+    long index = this.writeIndex.getAndIncrement();
+    this.lines.set((int) (index % this.lines.length()), line);
+  }
+
+  /**
+   * @return a copy of the cached lines, the oldest line first
+   */
+  Queue<String> snapshot() {
+    long end = this.writeIndex.get();
+    long start = Math.max(0, end - this.lines.length());
+
+    Queue<String> snapshot = new ArrayDeque<>((int) (end - start));
+    for (long index = start; index < end; index++) {
+      String line = this.lines.get((int) (index % this.lines.length()));
+      if (line != null) {
+        snapshot.add(line);
+      }
+    }
+
+    return snapshot;
+  }
+
+  int capacity() {
+    return this.lines.length();
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.service.defaults;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads the output of the service processes as soon as it is written. Every stream of a process is read line by line by
+ * a blocking reader, the lines are cached directly by the reader and handed to a single dispatcher thread which calls
+ * the events and prints the lines in batches. If the dispatcher falls behind, the readers block and the output of the
+ * processes is buffered by the operating system.
+ */
+final class ServiceConsoleOutputPump {
+
+  static final ServiceConsoleOutputPump INSTANCE = new ServiceConsoleOutputPump();
+
+  private static final int MAX_PENDING_LINES = 16384;
+  private static final int MAX_BATCH_SIZE = 512;
+  // the readers only buffer one line, a small stack is enough
+  private static final long READER_STACK_SIZE = 256 * 1024;
+
+  private final AtomicInteger readerThreadCounter = new AtomicInteger();
+  private final ExecutorService readers = Executors.newCachedThreadPool(runnable -> {
+    Thread thread = new Thread(null, runnable,
+      "CloudNet service output reader #" + this.readerThreadCounter.incrementAndGet(), READER_STACK_SIZE);
+    thread.setDaemon(true);
+    return thread;
+  });
+  private final BlockingQueue<PendingLine> pendingLines = new LinkedBlockingQueue<>(MAX_PENDING_LINES);
+
+  private ServiceConsoleOutputPump() {
+    Thread dispatcher = new Thread(this::dispatchLines, "CloudNet service output dispatcher");
+    dispatcher.setDaemon(true);
+    dispatcher.start();
+  }
+
+  /**
+   * @return the readers of the streams of the process, completed as soon as the end of the stream was reached
+   */
+  List<Future<?>> pump(DefaultServiceConsoleLogCache logCache, Process process) {
+    return Arrays.asList(
+      this.readers.submit(() -> this.readStream(logCache, process.getInputStream(), false)),
+      this.readers.submit(() -> this.readStream(logCache, process.getErrorStream(), true))
+    );
+  }
+
+  private void readStream(DefaultServiceConsoleLogCache logCache, InputStream inputStream, boolean errorStream) {
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (logCache.cacheLine(line)) {
+          this.pendingLines.put(new PendingLine(logCache, line, errorStream));
+        }
+      }
+    } catch (IOException ignored) {
+      // the stream was closed because the process exited
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void dispatchLines() {
+    List<PendingLine> batch = new ArrayList<>(MAX_BATCH_SIZE);
+    while (!Thread.currentThread().isInterrupted()) {
+      try {
+        batch.add(this.pendingLines.take());
+        this.pendingLines.drainTo(batch, MAX_BATCH_SIZE - 1);
+      } catch (InterruptedException exception) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+
+      for (PendingLine pendingLine : batch) {
+        try {
+          pendingLine.logCache.dispatchLine(pendingLine.line, pendingLine.errorStream);
+        } catch (Throwable throwable) {
+          throwable.printStackTrace();
+        }
+      }
+
+      batch.clear();
+    }
+  }
+
+  private static final class PendingLine {
+
+    private final DefaultServiceConsoleLogCache logCache;
+    private final String line;
+    private final boolean errorStream;
+
+    private PendingLine(DefaultServiceConsoleLogCache logCache, String line, boolean errorStream) {
+      this.logCache = logCache;
+      this.line = line;
+      this.errorStream = errorStream;
+    }
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.service.defaults;
+
+import de.dytanic.cloudnet.driver.provider.service.ServiceInfoSnapshotIndex;
+import de.dytanic.cloudnet.driver.service.ServiceId;
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Allocates the task service ids of new services. An allocated id is leased to the service until the service is
+ * registered in the global service index (or the creation failed), so services created in a burst never get the same
+ * id even if the node creating them did not publish them yet.
+ */
+@ApiStatus.Internal
+public final class TaskIdAllocator {
+
+  private static final long LEASE_TIMEOUT_MILLIS = Long.getLong("cloudnet.service.task-id-lease-timeout", 60_000);
+
+  private final ServiceInfoSnapshotIndex services;
+
+  private final Map<String, BitSet> leasedIds = new HashMap<>();
+  private final Map<UUID, Lease> leases = new HashMap<>();
+
+  public TaskIdAllocator(@NotNull ServiceInfoSnapshotIndex services) {
+    this.services = services;
+  }
+
+  /**
+   * Allocates the lowest free task service id which is not lower than the requested id of the service
+   *
+   * @param serviceId the id of the service to allocate the task service id for
+   * @return the allocated task service id
+   */
+  public synchronized int allocate(@NotNull ServiceId serviceId) {
+    this.release(serviceId.getUniqueId());
+    this.expireLeases();
+
+    String taskName = serviceId.getTaskName().toLowerCase();
+
+    BitSet takenIds = new BitSet();
+    for (ServiceInfoSnapshot snapshot : this.services.getByTask(taskName)) {
+      if (snapshot.getServiceId().getTaskServiceId() > 0) {
+        takenIds.set(snapshot.getServiceId().getTaskServiceId());
+      }
+    }
+
+    BitSet leasedIds = this.leasedIds.get(taskName);
+    if (leasedIds != null) {
+      takenIds.or(leasedIds);
+    }
+
+    int taskServiceId = takenIds.nextClearBit(Math.max(1, serviceId.getTaskServiceId()));
+
+    this.leasedIds.computeIfAbsent(taskName, key -> new BitSet()).set(taskServiceId);
+    this.leases.put(serviceId.getUniqueId(), new Lease(taskName, taskServiceId));
+
+    return taskServiceId;
+  }
+
+  /**
+   * Releases the lease of the given service, either because it is known to the global service index now or because
+   * it was not created
+   *
+   * @param uniqueId the unique id of the service
+   */
+  public synchronized void release(@NotNull UUID uniqueId) {
+    Lease lease = this.leases.remove(uniqueId);
+    if (lease != null) {
+      this.clearLeasedId(lease);
+    }
+  }
+
+  private void expireLeases() {
+    long timeout = System.currentTimeMillis() - LEASE_TIMEOUT_MILLIS;
+
+    Iterator<Lease> iterator = this.leases.values().iterator();
+    while (iterator.hasNext()) {
+      Lease lease = iterator.next();
+      if (lease.creationTime < timeout) {
+        iterator.remove();
+        this.clearLeasedId(lease);
+      }
+    }
+  }
+
+  private void clearLeasedId(Lease lease) {
+    BitSet leasedIds = this.leasedIds.get(lease.taskName);
+    if (leasedIds != null) {
+      leasedIds.clear(lease.taskServiceId);
+      if (leasedIds.isEmpty()) {
+        this.leasedIds.remove(lease.taskName);
+      }
+    }
+  }
+
+  private static final class Lease {
+
+    private final String taskName;
+    private final int taskServiceId;
+    private final long creationTime = System.currentTimeMillis();
+
+    public Lease(String taskName, int taskServiceId) {
+      this.taskName = taskName;
+      this.taskServiceId = taskServiceId;
+    }
+  }
+}
@@ -76,11 +76,32 @@ private void sendChunks(DriverAPIRequestType requestType, InputStream inputStrea
       .complete();
   }
 
+  /**
+   * Resolves the local directory of the given template. Storages with a local directory are synchronized incrementally
+   * in the cluster, all other storages send the whole deployed content to the other nodes.
+   *
+   * @param template the template to resolve the directory of
+   * @return the directory of the template or null if this storage doesn't store its templates in local directories
+   */
+  public @Nullable Path getTemplateDirectory(@NotNull ServiceTemplate template) {
+    return null;
+  }
+
+  private boolean syncTemplateDirectory(@NotNull ServiceTemplate template) {
+    Path templateDirectory = this.getTemplateDirectory(template);
+    if (templateDirectory == null) {
+      return false;
+    }
+
+    CloudNet.getInstance().getClusterNodeServerProvider().syncTemplateInCluster(template, templateDirectory);
+    return true;
+  }
+
   @Override
   public boolean deploy(@NotNull Path directory, @NotNull ServiceTemplate target,
     @Nullable Predicate<Path> fileFilter) {
     if (this.deployWithoutSynchronization(directory, target, fileFilter)) {
-      if (this.requiresSynchronization()) {
+      if (this.requiresSynchronization() && !this.syncTemplateDirectory(target)) {
         try (InputStream inputStream = FileUtils.zipToStream(directory, fileFilter != null ? fileFilter::test : null)) {
           this.sendChunks(DriverAPIRequestType.DEPLOY_TEMPLATE_STREAM, inputStream, target, JsonDocument.newDocument());
         } catch (IOException exception) {
@@ -103,6 +124,10 @@ public boolean deploy(@NotNull InputStream inputStream, @NotNull ServiceTemplate
       return this.deployWithoutSynchronization(inputStream, target);
     }
 
+    if (this.getTemplateDirectory(target) != null) {
+      return this.deployWithoutSynchronization(inputStream, target) && this.syncTemplateDirectory(target);
+    }
+
     Path tempFile = FileUtils.createTempFile();
     try {
       Files.copy(inputStream, tempFile);
@@ -29,6 +29,7 @@
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardOpenOption;
@@ -49,6 +50,9 @@ public final class LocalTemplateStorage extends ClusterSynchronizedTemplateStora
   public static final String LOCAL_TEMPLATE_STORAGE = "local";
   private final Path storageDirectory;
 
+  private volatile Collection<PathMatcher> linkedFileMatchers = Collections.emptyList();
+  private volatile Collection<PathMatcher> copiedFileMatchers = Collections.emptyList();
+
   @Deprecated
   public LocalTemplateStorage(File storageDirectory) {
     this(storageDirectory.toPath());
@@ -97,10 +101,69 @@ public boolean copy(@NotNull ServiceTemplate template, @NotNull Path directory)
     Preconditions.checkNotNull(template);
     Preconditions.checkNotNull(directory);
 
-    FileUtils.copyFilesToDirectory(this.storageDirectory.resolve(template.getTemplatePath()), directory);
+    Path templateDirectory = this.storageDirectory.resolve(template.getTemplatePath());
+    if (this.linkedFileMatchers.isEmpty()) {
+      FileUtils.copyFilesToDirectory(templateDirectory, directory);
+      return true;
+    }
+
+    FileUtils.walkFileTree(templateDirectory, (root, current) -> {
+      if (!Files.isDirectory(current)) {
+        Path relativePath = templateDirectory.relativize(current);
+        Path target = directory.resolve(relativePath);
+
+        try {
+          if (!this.shouldLink(relativePath) || !this.link(current, target)) {
+            FileUtils.copy(current, target);
+          }
+        } catch (IOException exception) {
+          exception.printStackTrace();
+        }
+      }
+    });
     return true;
   }
 
+  /**
+   * Sets the files which are hard linked instead of copied into the directory of a service. Linked files share their
+   * content with the template, so only files which are never written by a service (like plugins or server jars) should
+   * be linked. Files matching one of the copy patterns are always copied, even if they match a link pattern.
+   *
+   * @param linkPatterns the glob patterns of the files to link, relative to the template directory
+   * @param copyPatterns the glob patterns of the files to always copy, relative to the template directory
+   */
+  public void setLinkedFiles(@NotNull Collection<String> linkPatterns, @NotNull Collection<String> copyPatterns) {
+    Preconditions.checkNotNull(linkPatterns);
+    Preconditions.checkNotNull(copyPatterns);
+
+    this.copiedFileMatchers = this.createMatchers(copyPatterns);
+    this.linkedFileMatchers = this.createMatchers(linkPatterns);
+  }
+
+  private Collection<PathMatcher> createMatchers(Collection<String> patterns) {
+    return patterns.stream()
+      .map(pattern -> this.storageDirectory.getFileSystem().getPathMatcher("glob:" + pattern))
+      .collect(Collectors.toList());
+  }
+
+  private boolean shouldLink(Path relativePath) {
+    return this.linkedFileMatchers.stream().anyMatch(matcher -> matcher.matches(relativePath))
+      && this.copiedFileMatchers.stream().noneMatch(matcher -> matcher.matches(relativePath));
+  }
+
+  private boolean link(Path file, Path target) throws IOException {
+    Files.createDirectories(target.getParent());
+    Files.deleteIfExists(target);
+
+    try {
+      Files.createLink(target, file);
+      return true;
+    } catch (UnsupportedOperationException | IOException exception) {
+      // the file system doesn't support hard links or the service directory is on another file system
+      return false;
+    }
+  }
+
   @Override
   @Nullable
   public InputStream zipTemplate(@NotNull ServiceTemplate template) throws IOException {
@@ -293,6 +356,11 @@ public Path getStorageDirectory() {
     return this.storageDirectory;
   }
 
+  @Override
+  public @NotNull Path getTemplateDirectory(@NotNull ServiceTemplate template) {
+    return this.storageDirectory.resolve(template.getTemplatePath());
+  }
+
   @Override
   public String getName() {
     return ServiceTemplate.LOCAL_STORAGE;
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.template.sync;
+
+import de.dytanic.cloudnet.common.io.FileUtils;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A cache of template chunks addressed by their hash. Chunks are shared by all templates of a node, so identical files
+ * in different templates are only transferred once. The least recently used chunks are removed once the store exceeds
+ * its maximum size.
+ */
+@ApiStatus.Internal
+public class TemplateBlobStore {
+
+  private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+  private final Path directory;
+  private final long maxSize;
+
+  public TemplateBlobStore(@NotNull Path directory, long maxSize) {
+    this.directory = directory;
+    this.maxSize = maxSize;
+  }
+
+  public static boolean isValidHash(@Nullable String hash) {
+    return hash != null && HASH_PATTERN.matcher(hash).matches();
+  }
+
+  public boolean contains(@NotNull String hash) {
+    return Files.exists(this.resolve(hash));
+  }
+
+  /**
+   * Stores the given chunk in this store.
+   *
+   * @param hash   the expected hash of the chunk
+   * @param data   the array containing the chunk
+   * @param length the length of the chunk in the array
+   * @throws IOException if the data doesn't match the hash or the chunk can't be written
+   */
+  public void store(@NotNull String hash, byte[] data, int length) throws IOException {
+    if (!hash.equals(TemplateChunker.hash(data, length))) {
+      throw new IOException("Chunk content doesn't match its hash " + hash);
+    }
+
+    Path target = this.resolve(hash);
+    if (Files.exists(target)) {
+      Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+      return;
+    }
+
+    FileUtils.createDirectoryReported(target.getParent());
+    Path tempFile = target.resolveSibling(hash + ".tmp");
+    try {
+      Files.write(tempFile, length == data.length ? data : Arrays.copyOf(data, length));
+      Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  /**
+   * Reads the chunk with the given hash and marks it as recently used.
+   *
+   * @param hash the hash of the chunk
+   * @return the content of the chunk or {@code null} if this store doesn't contain the chunk
+   */
+  public byte[] read(@NotNull String hash) {
+    Path file = this.resolve(hash);
+    try {
+      byte[] data = Files.readAllBytes(file);
+      Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+      return data;
+    } catch (IOException exception) {
+      return null;
+    }
+  }
+
+  /**
+   * Removes the least recently used chunks until the size of this store is below its maximum size.
+   */
+  public synchronized void trim() {
+    if (Files.notExists(this.directory)) {
+      return;
+    }
+
+    List<Path> files;
+    try (Stream<Path> stream = Files.walk(this.directory)) {
+      files = stream.filter(Files::isRegularFile).collect(Collectors.toCollection(ArrayList::new));
+    } catch (IOException exception) {
+      exception.printStackTrace();
+      return;
+    }
+
+    long size = files.stream().mapToLong(TemplateBlobStore::size).sum();
+    if (size <= this.maxSize) {
+      return;
+    }
+
+    files.sort(Comparator.comparingLong(TemplateBlobStore::lastModified));
+    for (Path file : files) {
+      if (size <= this.maxSize) {
+        break;
+      }
+
+      long fileSize = size(file);
+      FileUtils.deleteFileReported(file);
+      size -= fileSize;
+    }
+  }
+
+  private Path resolve(@NotNull String hash) {
+    if (!isValidHash(hash)) {
+      throw new IllegalArgumentException("Invalid chunk hash " + hash);
+    }
+
+    return this.directory.resolve(hash.substring(0, 2)).resolve(hash);
+  }
+
+  private static long size(@NotNull Path file) {
+    try {
+      return Files.size(file);
+    } catch (IOException exception) {
+      return 0;
+    }
+  }
+
+  private static long lastModified(@NotNull Path file) {
+    try {
+      return Files.getLastModifiedTime(file).toMillis();
+    } catch (IOException exception) {
+      return 0;
+    }
+  }
+}
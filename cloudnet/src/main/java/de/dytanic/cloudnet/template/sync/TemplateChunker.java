@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.template.sync;
+
+import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Splits files into content-defined chunks using a gear rolling hash. Chunk boundaries depend only on the bytes around
+ * them, so inserting or removing data in a large file only changes the chunks around the modification instead of
+ * shifting every following chunk.
+ */
+@ApiStatus.Internal
+public final class TemplateChunker {
+
+  public static final int MIN_CHUNK_SIZE = 64 * 1024;
+  public static final int MAX_CHUNK_SIZE = 1024 * 1024;
+
+  // a boundary is found on average every 256 KiB after the minimum chunk size
+  private static final long BOUNDARY_MASK = (1L << 18) - 1;
+  private static final long[] GEAR = new long[256];
+
+  static {
+    // the table has to be equal on all nodes, so the seed must never change
+    Random random = new Random(0x436C6F75644E6574L);
+    for (int i = 0; i < GEAR.length; i++) {
+      GEAR[i] = random.nextLong();
+    }
+  }
+
+  private TemplateChunker() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Splits the given file into chunks and hashes each of them.
+   *
+   * @param file the file to split
+   * @return the chunks of the file in order, empty for an empty file
+   * @throws IOException if the file cannot be read
+   */
+  public static @NotNull List<TemplateManifest.Chunk> chunk(@NotNull Path file) throws IOException {
+    List<TemplateManifest.Chunk> chunks = new ArrayList<>();
+
+    try (InputStream inputStream = Files.newInputStream(file)) {
+      byte[] chunk = new byte[MAX_CHUNK_SIZE];
+      byte[] buffer = new byte[64 * 1024];
+
+      int length = 0;
+      long hash = 0;
+      int read;
+
+      while ((read = inputStream.read(buffer)) != -1) {
+        for (int i = 0; i < read; i++) {
+          chunk[length++] = buffer[i];
+          hash = (hash << 1) + GEAR[buffer[i] & 0xFF];
+
+          if (length == MAX_CHUNK_SIZE || (length >= MIN_CHUNK_SIZE && (hash & BOUNDARY_MASK) == 0)) {
+            chunks.add(new TemplateManifest.Chunk(hash(chunk, length), length));
+            length = 0;
+            hash = 0;
+          }
+        }
+      }
+
+      if (length > 0) {
+        chunks.add(new TemplateManifest.Chunk(hash(chunk, length), length));
+      }
+    }
+
+    return chunks;
+  }
+
+  public static @NotNull String hash(byte[] data, int length) {
+    return Hashing.sha256().hashBytes(data, 0, length).toString();
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.template.sync;
+
+import de.dytanic.cloudnet.driver.serialization.ProtocolBuffer;
+import de.dytanic.cloudnet.driver.serialization.SerializableObject;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The content of a template directory, described by the chunk hashes of every file. Two nodes exchange their
+ * manifests to find out which chunks have to be transferred to bring a template up to date.
+ */
+@ToString
+@ApiStatus.Internal
+public class TemplateManifest implements SerializableObject {
+
+  private final Map<String, FileEntry> files = new TreeMap<>();
+  private final Collection<String> directories = new TreeSet<>();
+
+  public TemplateManifest() {
+  }
+
+  public @NotNull Map<String, FileEntry> getFiles() {
+    return this.files;
+  }
+
+  public @NotNull Collection<String> getDirectories() {
+    return this.directories;
+  }
+
+  public long getSize() {
+    return this.files.values().stream().mapToLong(FileEntry::getSize).sum();
+  }
+
+  @Override
+  public void write(@NotNull ProtocolBuffer buffer) {
+    buffer.writeStringCollection(this.directories);
+    buffer.writeVarInt(this.files.size());
+    for (Map.Entry<String, FileEntry> entry : this.files.entrySet()) {
+      buffer.writeString(entry.getKey());
+      buffer.writeObjectCollection(entry.getValue().chunks);
+    }
+  }
+
+  @Override
+  public void read(@NotNull ProtocolBuffer buffer) {
+    this.directories.clear();
+    this.directories.addAll(buffer.readStringCollection());
+
+    this.files.clear();
+    int size = buffer.readVarInt();
+    for (int i = 0; i < size; i++) {
+      this.files.put(buffer.readString(), new FileEntry(new ArrayList<>(buffer.readObjectCollection(Chunk.class))));
+    }
+  }
+
+  @ToString
+  @EqualsAndHashCode
+  public static class FileEntry {
+
+    private final List<Chunk> chunks;
+
+    public FileEntry(@NotNull List<Chunk> chunks) {
+      this.chunks = chunks;
+    }
+
+    public @NotNull List<Chunk> getChunks() {
+      return this.chunks;
+    }
+
+    public long getSize() {
+      return this.chunks.stream().mapToLong(Chunk::getLength).sum();
+    }
+  }
+
+  @ToString
+  @EqualsAndHashCode
+  public static class Chunk implements SerializableObject {
+
+    private String hash;
+    private int length;
+
+    public Chunk(@NotNull String hash, int length) {
+      this.hash = hash;
+      this.length = length;
+    }
+
+    public Chunk() {
+    }
+
+    public @NotNull String getHash() {
+      return this.hash;
+    }
+
+    public int getLength() {
+      return this.length;
+    }
+
+    @Override
+    public void write(@NotNull ProtocolBuffer buffer) {
+      buffer.writeString(this.hash);
+      buffer.writeVarInt(this.length);
+    }
+
+    @Override
+    public void read(@NotNull ProtocolBuffer buffer) {
+      this.hash = buffer.readString();
+      this.length = buffer.readVarInt();
+    }
+  }
+}
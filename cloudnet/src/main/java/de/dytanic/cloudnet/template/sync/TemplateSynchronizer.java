@@ -0,0 +1,416 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.template.sync;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import de.dytanic.cloudnet.common.io.FileUtils;
+import de.dytanic.cloudnet.driver.network.INetworkChannel;
+import de.dytanic.cloudnet.driver.network.protocol.IPacket;
+import de.dytanic.cloudnet.driver.serialization.ProtocolBuffer;
+import de.dytanic.cloudnet.driver.service.ServiceTemplate;
+import de.dytanic.cloudnet.network.packet.PacketServerTemplateSync;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Synchronizes template directories between nodes by transferring only the chunks the other node doesn't have yet.
+ * <p>
+ * The sending node sends the manifest of the template, the receiving node answers with the chunks it can neither find
+ * in its blob store nor in its own copy of the template, the sender transfers these chunks and finally the receiver
+ * rebuilds all changed files of the template from its chunks. Files which are equal on both nodes are never touched.
+ */
+@ApiStatus.Internal
+public class TemplateSynchronizer {
+
+  private static final int MAX_BATCH_SIZE = 2 * 1024 * 1024;
+
+  private static final long MANIFEST_TIMEOUT_MINUTES = 5;
+  private static final long BLOBS_TIMEOUT_MINUTES = 1;
+  private static final long APPLY_TIMEOUT_MINUTES = 10;
+
+  private final TemplateBlobStore blobStore;
+  // the chunks of files are only calculated again if the size or the modification time of the file changed
+  private final Cache<Path, CachedFile> fileCache = CacheBuilder.newBuilder()
+    .expireAfterAccess(30, TimeUnit.MINUTES)
+    .build();
+
+  public TemplateSynchronizer(@NotNull TemplateBlobStore blobStore) {
+    this.blobStore = blobStore;
+  }
+
+  public @NotNull TemplateBlobStore getBlobStore() {
+    return this.blobStore;
+  }
+
+  /**
+   * Synchronizes the given template directory to the template of the given channels.
+   *
+   * @param template  the template on the other nodes
+   * @param directory the directory of the local template
+   * @param channels  the channels of the nodes to synchronize the template to
+   * @return the channels the template couldn't be synchronized to
+   */
+  public @NotNull Collection<INetworkChannel> push(@NotNull ServiceTemplate template, @NotNull Path directory,
+    @NotNull Collection<INetworkChannel> channels) {
+    TemplateManifest manifest;
+    try {
+      manifest = this.createManifest(directory);
+    } catch (IOException exception) {
+      exception.printStackTrace();
+      return channels;
+    }
+
+    Map<String, ChunkLocation> locations = this.locateChunks(directory, manifest, null);
+    Collection<INetworkChannel> failedChannels = new ArrayList<>();
+
+    for (INetworkChannel channel : channels) {
+      try {
+        if (!this.push(channel, template, manifest, locations)) {
+          failedChannels.add(channel);
+        }
+      } catch (IOException exception) {
+        exception.printStackTrace();
+        failedChannels.add(channel);
+      }
+    }
+
+    return failedChannels;
+  }
+
+  private boolean push(@NotNull INetworkChannel channel, @NotNull ServiceTemplate template,
+    @NotNull TemplateManifest manifest, @NotNull Map<String, ChunkLocation> locations) throws IOException {
+    ProtocolBuffer response = this.query(channel, PacketServerTemplateSync.Operation.MANIFEST,
+      ProtocolBuffer.create().writeObject(template).writeObject(manifest), MANIFEST_TIMEOUT_MINUTES);
+    if (response == null || !response.readBoolean()) {
+      return false;
+    }
+
+    List<String> batch = new ArrayList<>();
+    List<byte[]> batchData = new ArrayList<>();
+    int batchSize = 0;
+
+    for (String hash : response.readStringCollection()) {
+      ChunkLocation location = locations.get(hash);
+      if (location == null) {
+        return false;
+      }
+
+      byte[] data = location.read();
+      batch.add(hash);
+      batchData.add(data);
+      batchSize += data.length;
+
+      if (batchSize >= MAX_BATCH_SIZE) {
+        if (!this.sendBlobs(channel, batch, batchData)) {
+          return false;
+        }
+
+        batch.clear();
+        batchData.clear();
+        batchSize = 0;
+      }
+    }
+
+    if (!batch.isEmpty() && !this.sendBlobs(channel, batch, batchData)) {
+      return false;
+    }
+
+    response = this.query(channel, PacketServerTemplateSync.Operation.APPLY,
+      ProtocolBuffer.create().writeObject(template).writeObject(manifest), APPLY_TIMEOUT_MINUTES);
+    return response != null && response.readBoolean();
+  }
+
+  private boolean sendBlobs(@NotNull INetworkChannel channel, @NotNull List<String> hashes,
+    @NotNull List<byte[]> data) {
+    ProtocolBuffer buffer = ProtocolBuffer.create().writeVarInt(hashes.size());
+    for (int i = 0; i < hashes.size(); i++) {
+      buffer.writeString(hashes.get(i)).writeArray(data.get(i));
+    }
+
+    ProtocolBuffer response = this.query(channel, PacketServerTemplateSync.Operation.BLOBS, buffer,
+      BLOBS_TIMEOUT_MINUTES);
+    return response != null && response.readBoolean();
+  }
+
+  private @Nullable ProtocolBuffer query(@NotNull INetworkChannel channel,
+    @NotNull PacketServerTemplateSync.Operation operation, @NotNull ProtocolBuffer buffer, long timeoutMinutes) {
+    IPacket response = channel.sendQuery(new PacketServerTemplateSync(operation, buffer), timeoutMinutes,
+      TimeUnit.MINUTES);
+    return response == null ? null : response.getBuffer();
+  }
+
+  /**
+   * Prepares the given template directory for the given manifest. Chunks of files which are going to be replaced are
+   * moved into the blob store, so that they are still available when the files are rebuilt.
+   *
+   * @param directory the directory of the template to update
+   * @param manifest  the manifest the template should be updated to
+   * @return the hashes of the chunks which have to be transferred from the other node
+   * @throws IOException if the template directory can't be read
+   */
+  public synchronized @NotNull Collection<String> prepare(@NotNull Path directory, @NotNull TemplateManifest manifest)
+    throws IOException {
+    TemplateManifest localManifest = this.createManifest(directory);
+    Map<String, ChunkLocation> unchangedChunks = this.locateChunks(directory, localManifest, manifest);
+    Map<String, ChunkLocation> localChunks = this.locateChunks(directory, localManifest, null);
+
+    Set<String> missingChunks = new HashSet<>();
+    for (Map.Entry<String, TemplateManifest.FileEntry> entry : manifest.getFiles().entrySet()) {
+      if (entry.getValue().equals(localManifest.getFiles().get(entry.getKey()))) {
+        continue;
+      }
+
+      for (TemplateManifest.Chunk chunk : entry.getValue().getChunks()) {
+        String hash = chunk.getHash();
+        if (unchangedChunks.containsKey(hash) || missingChunks.contains(hash) || this.blobStore.contains(hash)) {
+          continue;
+        }
+
+        ChunkLocation location = localChunks.get(hash);
+        if (location != null) {
+          byte[] data = location.read();
+          this.blobStore.store(hash, data, data.length);
+        } else {
+          missingChunks.add(hash);
+        }
+      }
+    }
+
+    return missingChunks;
+  }
+
+  /**
+   * Rebuilds all files of the given template directory which differ from the given manifest and removes the files which
+   * are not part of the manifest.
+   *
+   * @param directory the directory of the template to update
+   * @param manifest  the manifest the template should be updated to
+   * @return if all files were updated, false if a required chunk is missing
+   * @throws IOException if the template directory can't be written
+   */
+  public synchronized boolean apply(@NotNull Path directory, @NotNull TemplateManifest manifest) throws IOException {
+    TemplateManifest localManifest = this.createManifest(directory);
+    Map<String, ChunkLocation> unchangedChunks = this.locateChunks(directory, localManifest, manifest);
+
+    for (String name : manifest.getDirectories()) {
+      FileUtils.createDirectoryReported(this.resolve(directory, name));
+    }
+
+    try {
+      for (Map.Entry<String, TemplateManifest.FileEntry> entry : manifest.getFiles().entrySet()) {
+        if (!entry.getValue().equals(localManifest.getFiles().get(entry.getKey()))
+          && !this.rebuild(this.resolve(directory, entry.getKey()), entry.getValue(), unchangedChunks)) {
+          return false;
+        }
+      }
+
+      for (String name : localManifest.getFiles().keySet()) {
+        if (!manifest.getFiles().containsKey(name)) {
+          FileUtils.deleteFileReported(this.resolve(directory, name));
+        }
+      }
+
+      localManifest.getDirectories().stream()
+        .filter(name -> !manifest.getDirectories().contains(name))
+        .sorted(Comparator.reverseOrder())
+        .forEach(name -> FileUtils.delete(directory.resolve(name)));
+      return true;
+    } finally {
+      this.blobStore.trim();
+    }
+  }
+
+  private boolean rebuild(@NotNull Path file, @NotNull TemplateManifest.FileEntry entry,
+    @NotNull Map<String, ChunkLocation> unchangedChunks) throws IOException {
+    FileUtils.createDirectoryReported(file.getParent());
+    Path tempFile = file.resolveSibling(file.getFileName() + ".sync.tmp");
+
+    try {
+      try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+        for (TemplateManifest.Chunk chunk : entry.getChunks()) {
+          ChunkLocation location = unchangedChunks.get(chunk.getHash());
+          byte[] data = location != null ? location.read() : this.blobStore.read(chunk.getHash());
+          if (data == null) {
+            return false;
+          }
+
+          outputStream.write(data);
+        }
+      }
+
+      // move the file instead of writing to it, the file may be linked into the directory of a service
+      Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+      BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+      this.fileCache.put(file.toAbsolutePath(), new CachedFile(attributes, entry));
+      return true;
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  /**
+   * Creates the manifest of the given directory. The chunks of files which didn't change since the last call are taken
+   * from a cache instead of reading the files again.
+   *
+   * @param directory the directory to create the manifest of
+   * @return the manifest of the directory, empty if the directory doesn't exist
+   * @throws IOException if the directory can't be read
+   */
+  public @NotNull TemplateManifest createManifest(@NotNull Path directory) throws IOException {
+    TemplateManifest manifest = new TemplateManifest();
+    if (!Files.isDirectory(directory)) {
+      return manifest;
+    }
+
+    Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+      @Override
+      public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+        if (!dir.equals(directory)) {
+          manifest.getDirectories().add(TemplateSynchronizer.this.relativize(directory, dir));
+        }
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+        if (attrs.isRegularFile()) {
+          manifest.getFiles().put(
+            TemplateSynchronizer.this.relativize(directory, file),
+            TemplateSynchronizer.this.describe(file, attrs)
+          );
+        }
+        return FileVisitResult.CONTINUE;
+      }
+    });
+
+    return manifest;
+  }
+
+  private @NotNull TemplateManifest.FileEntry describe(@NotNull Path file, @NotNull BasicFileAttributes attributes)
+    throws IOException {
+    Path key = file.toAbsolutePath();
+
+    CachedFile cachedFile = this.fileCache.getIfPresent(key);
+    if (cachedFile != null && cachedFile.matches(attributes)) {
+      return cachedFile.entry;
+    }
+
+    TemplateManifest.FileEntry entry = new TemplateManifest.FileEntry(TemplateChunker.chunk(file));
+    this.fileCache.put(key, new CachedFile(attributes, entry));
+    return entry;
+  }
+
+  private @NotNull Map<String, ChunkLocation> locateChunks(@NotNull Path directory, @NotNull TemplateManifest manifest,
+    @Nullable TemplateManifest unchangedIn) {
+    Map<String, ChunkLocation> locations = new HashMap<>();
+
+    for (Map.Entry<String, TemplateManifest.FileEntry> entry : manifest.getFiles().entrySet()) {
+      if (unchangedIn != null && !entry.getValue().equals(unchangedIn.getFiles().get(entry.getKey()))) {
+        continue;
+      }
+
+      Path file = directory.resolve(entry.getKey());
+      long offset = 0;
+      for (TemplateManifest.Chunk chunk : entry.getValue().getChunks()) {
+        locations.putIfAbsent(chunk.getHash(), new ChunkLocation(file, offset, chunk.getLength()));
+        offset += chunk.getLength();
+      }
+    }
+
+    return locations;
+  }
+
+  private @NotNull Path resolve(@NotNull Path directory, @NotNull String name) throws IOException {
+    Path root = directory.toAbsolutePath().normalize();
+    Path path = root.resolve(name).normalize();
+    if (path.equals(root) || !path.startsWith(root)) {
+      throw new IOException("Path " + name + " is outside of the template directory");
+    }
+
+    return path;
+  }
+
+  private @NotNull String relativize(@NotNull Path directory, @NotNull Path path) {
+    return directory.relativize(path).toString().replace(File.separatorChar, '/');
+  }
+
+  private static final class ChunkLocation {
+
+    private final Path file;
+    private final long offset;
+    private final int length;
+
+    public ChunkLocation(Path file, long offset, int length) {
+      this.file = file;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    public byte[] read() throws IOException {
+      ByteBuffer buffer = ByteBuffer.allocate(this.length);
+      try (SeekableByteChannel channel = Files.newByteChannel(this.file)) {
+        channel.position(this.offset);
+        while (buffer.hasRemaining()) {
+          if (channel.read(buffer) == -1) {
+            throw new IOException("File " + this.file + " changed while reading");
+          }
+        }
+      }
+
+      return buffer.array();
+    }
+  }
+
+  private static final class CachedFile {
+
+    private final long size;
+    private final long lastModified;
+    private final TemplateManifest.FileEntry entry;
+
+    public CachedFile(BasicFileAttributes attributes, TemplateManifest.FileEntry entry) {
+      this.size = attributes.size();
+      this.lastModified = attributes.lastModifiedTime().toMillis();
+      this.entry = entry;
+    }
+
+    public boolean matches(BasicFileAttributes attributes) {
+      return this.size == attributes.size() && this.lastModified == attributes.lastModifiedTime().toMillis();
+    }
+  }
+}
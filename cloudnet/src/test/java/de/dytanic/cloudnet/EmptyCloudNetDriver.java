@@ -18,6 +18,7 @@
 
 import de.dytanic.cloudnet.common.collection.Pair;
 import de.dytanic.cloudnet.common.concurrent.ITask;
+import de.dytanic.cloudnet.common.logging.ILogger;
 import de.dytanic.cloudnet.common.logging.LogLevel;
 import de.dytanic.cloudnet.driver.CloudNetDriver;
 import de.dytanic.cloudnet.driver.database.DatabaseProvider;
@@ -36,6 +37,10 @@ public EmptyCloudNetDriver() {
     super(null);
   }
 
+  public EmptyCloudNetDriver(ILogger logger) {
+    super(logger);
+  }
+
   @Override
   public void start() throws Exception {
 
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet;
+
+import de.dytanic.cloudnet.driver.service.ServiceConfiguration;
+import de.dytanic.cloudnet.driver.service.ServiceDeployment;
+import de.dytanic.cloudnet.driver.service.ServiceEnvironmentType;
+import de.dytanic.cloudnet.driver.service.ServiceId;
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import de.dytanic.cloudnet.driver.service.ServiceLifeCycle;
+import de.dytanic.cloudnet.driver.service.ServiceRemoteInclusion;
+import de.dytanic.cloudnet.driver.service.ServiceTemplate;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class ServiceTaskReconcilerTest {
+
+  @Test
+  public void testGracefulStopIsNoFailure() {
+    AtomicLong clock = new AtomicLong(1_000_000);
+    ServiceTaskReconciler reconciler = new ServiceTaskReconciler(null, clock::get);
+    ServiceId serviceId = this.createServiceId();
+
+    Assert.assertTrue(reconciler.updateServiceRun(this.createSnapshot(serviceId, ServiceLifeCycle.PREPARED), false));
+    Assert.assertTrue(reconciler.updateServiceRun(this.createSnapshot(serviceId, ServiceLifeCycle.RUNNING), false));
+    Assert.assertFalse(reconciler.updateServiceRun(this.createSnapshot(serviceId, ServiceLifeCycle.RUNNING), false));
+
+    clock.addAndGet(60_000);
+    Assert.assertTrue(reconciler.updateServiceRun(this.createSnapshot(serviceId, ServiceLifeCycle.STOPPED), false));
+    Assert.assertTrue(reconciler.updateServiceRun(this.createSnapshot(serviceId, ServiceLifeCycle.DELETED), true));
+
+    Assert.assertTrue(reconciler.getBackoff("Lobby").canStart());
+  }
+
+  @Test
+  public void testCrashedServiceIsFailure() {
+    AtomicLong clock = new AtomicLong(1_000_000);
+    ServiceTaskReconciler reconciler = new ServiceTaskReconciler(null, clock::get);
+    ServiceId serviceId = this.createServiceId();
+
+    reconciler.updateServiceRun(this.createSnapshot(serviceId, ServiceLifeCycle.RUNNING), false);
+    clock.addAndGet(5_000);
+    reconciler.updateServiceRun(this.createSnapshot(serviceId, ServiceLifeCycle.STOPPED), false);
+    // the stop is only counted once
+    reconciler.updateServiceRun(this.createSnapshot(serviceId, ServiceLifeCycle.DELETED), true);
+
+    Assert.assertFalse(reconciler.getBackoff("Lobby").canStart());
+    clock.addAndGet(1_000);
+    Assert.assertTrue(reconciler.getBackoff("Lobby").canStart());
+  }
+
+  @Test
+  public void testServiceRemovedBeforeRunningIsFailure() {
+    AtomicLong clock = new AtomicLong(1_000_000);
+    ServiceTaskReconciler reconciler = new ServiceTaskReconciler(null, clock::get);
+    ServiceId serviceId = this.createServiceId();
+
+    reconciler.updateServiceRun(this.createSnapshot(serviceId, ServiceLifeCycle.PREPARED), false);
+    reconciler.updateServiceRun(this.createSnapshot(serviceId, ServiceLifeCycle.DELETED), true);
+
+    Assert.assertFalse(reconciler.getBackoff("Lobby").canStart());
+    // other tasks are not affected
+    Assert.assertTrue(reconciler.getBackoff("Proxy").canStart());
+  }
+
+  @Test
+  public void testBackoff() {
+    AtomicLong clock = new AtomicLong(1_000_000);
+    ServiceStartBackoff backoff = new ServiceStartBackoff(clock::get, 1_000, 4_000, 10_000);
+
+    Assert.assertTrue(backoff.canStart());
+    backoff.recordStart();
+    Assert.assertFalse(backoff.canStart());
+    clock.addAndGet(1_000);
+    Assert.assertTrue(backoff.canStart());
+
+    // every failure doubles the backoff up to the maximum
+    for (long expectedBackoff : new long[]{1_000, 2_000, 4_000, 4_000}) {
+      backoff.recordFailure();
+      clock.addAndGet(expectedBackoff - 1);
+      Assert.assertFalse(backoff.canStart());
+      clock.incrementAndGet();
+      Assert.assertTrue(backoff.canStart());
+    }
+
+    // failures which are further apart than the reset time start with the initial backoff again
+    clock.addAndGet(10_001);
+    backoff.recordFailure();
+    clock.addAndGet(1_000);
+    Assert.assertTrue(backoff.canStart());
+  }
+
+  private ServiceId createServiceId() {
+    return new ServiceId(UUID.randomUUID(), "Node-1", "Lobby", 1, ServiceEnvironmentType.MINECRAFT_SERVER);
+  }
+
+  private ServiceInfoSnapshot createSnapshot(ServiceId serviceId, ServiceLifeCycle lifeCycle) {
+    ServiceConfiguration configuration = new ServiceConfiguration(serviceId, "jvm", false, false, new String[0],
+      new ServiceRemoteInclusion[0], new ServiceTemplate[0], new ServiceDeployment[0], new String[0], null, 1, null);
+    return new ServiceInfoSnapshot(0, null, 1, lifeCycle, null, configuration);
+  }
+}
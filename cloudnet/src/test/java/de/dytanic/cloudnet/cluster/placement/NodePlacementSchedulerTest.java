@@ -0,0 +1,132 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.cluster.placement;
+
+import de.dytanic.cloudnet.cluster.DefaultNodeServer;
+import de.dytanic.cloudnet.cluster.NodeServer;
+import de.dytanic.cloudnet.cluster.NodeServerProvider;
+import de.dytanic.cloudnet.driver.network.HostAndPort;
+import de.dytanic.cloudnet.driver.network.cluster.NetworkClusterNode;
+import de.dytanic.cloudnet.driver.network.cluster.NetworkClusterNodeInfoSnapshot;
+import de.dytanic.cloudnet.driver.provider.service.CloudServiceFactory;
+import de.dytanic.cloudnet.driver.provider.service.SpecificCloudServiceProvider;
+import de.dytanic.cloudnet.driver.service.ProcessSnapshot;
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class NodePlacementSchedulerTest {
+
+  @Test
+  public void testSpreadReservations() {
+    NodePlacementScheduler scheduler = new NodePlacementScheduler(null);
+    TestNodeServer first = new TestNodeServer("Node-1");
+    TestNodeServer second = new TestNodeServer("Node-2");
+    List<NodeServer> nodes = Arrays.asList(first, second);
+
+    int firstPlacements = 0;
+    for (int i = 0; i < 6; i++) {
+      NodeServer nodeServer = scheduler.place(nodes, null, 256);
+      Assert.assertNotNull(nodeServer);
+
+      if (nodeServer == first) {
+        firstPlacements++;
+      }
+    }
+
+    Assert.assertEquals(3, firstPlacements);
+    // 3 * 256 MB are reserved on both nodes, another 512 MB do not fit
+    Assert.assertNull(scheduler.place(nodes, null, 512));
+  }
+
+  @Test
+  public void testBinPackReservations() {
+    NodePlacementScheduler scheduler = new NodePlacementScheduler(null);
+    scheduler.setDefaultStrategy(NodePlacementStrategies.BIN_PACK);
+
+    TestNodeServer first = new TestNodeServer("Node-1");
+    TestNodeServer second = new TestNodeServer("Node-2");
+    List<NodeServer> nodes = Arrays.asList(first, second);
+
+    NodeServer packed = scheduler.place(nodes, null, 256);
+    Assert.assertNotNull(packed);
+
+    for (int i = 0; i < 3; i++) {
+      Assert.assertSame(packed, scheduler.place(nodes, null, 256));
+    }
+    Assert.assertNotSame(packed, scheduler.place(nodes, null, 256));
+  }
+
+  @Test
+  public void testReservationReleasedBySnapshots() {
+    NodePlacementScheduler scheduler = new NodePlacementScheduler(null);
+    TestNodeServer node = new TestNodeServer("Node-1");
+    List<NodeServer> nodes = Collections.singletonList(node);
+
+    Assert.assertSame(node, scheduler.place(nodes, null, 1024));
+    Assert.assertNull(scheduler.place(nodes, null, 1024));
+
+    // the first snapshot may have been created before the service was registered
+    node.publishSnapshot();
+    Assert.assertNull(scheduler.place(nodes, null, 1024));
+
+    node.publishSnapshot();
+    Assert.assertSame(node, scheduler.place(nodes, null, 1024));
+  }
+
+  private static final class TestNodeServer extends DefaultNodeServer {
+
+    public TestNodeServer(String uniqueId) {
+      this.setNodeInfo(new NetworkClusterNode(uniqueId, new HostAndPort[0]));
+      this.publishSnapshot();
+    }
+
+    public void publishSnapshot() {
+      this.setNodeInfoSnapshot(new NetworkClusterNodeInfoSnapshot(System.currentTimeMillis(), 0, this.nodeInfo,
+        "", 0, 0, 0, 1024, 100, ProcessSnapshot.empty(), Collections.emptyList(), 10));
+    }
+
+    @Override
+    public NodeServerProvider<? extends NodeServer> getProvider() {
+      return null;
+    }
+
+    @Override
+    public boolean isAvailable() {
+      return true;
+    }
+
+    @Override
+    public String[] sendCommandLine(@NotNull String commandLine) {
+      return new String[0];
+    }
+
+    @Override
+    public CloudServiceFactory getCloudServiceFactory() {
+      return null;
+    }
+
+    @Override
+    public SpecificCloudServiceProvider getCloudServiceProvider(@NotNull ServiceInfoSnapshot serviceInfoSnapshot) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.database;
+
+import de.dytanic.cloudnet.EmptyCloudNetDriver;
+import de.dytanic.cloudnet.common.document.gson.JsonDocument;
+import de.dytanic.cloudnet.common.logging.DefaultAsyncLogger;
+import de.dytanic.cloudnet.common.logging.ILogger;
+import de.dytanic.cloudnet.database.h2.H2DatabaseProvider;
+import de.dytanic.cloudnet.driver.database.Database;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class WriteBehindDatabaseTest implements IDatabaseHandler {
+
+  private final AtomicInteger updates = new AtomicInteger();
+  private final AtomicInteger deletes = new AtomicInteger();
+
+  @Test
+  public void testCoalescedWrites() throws Exception {
+    H2DatabaseProvider databaseProvider = new H2DatabaseProvider("build/h2database", false);
+    Assert.assertTrue(databaseProvider.init());
+    databaseProvider.setDatabaseHandler(this);
+    databaseProvider.deleteDatabase("writeBehindDatabase");
+
+    ScheduledExecutorService executorService = Executors.newSingleThreadScheduledExecutor();
+    // the window is long enough to never flush on its own during the test
+    WriteBehindDatabase database = new WriteBehindDatabase(databaseProvider, "writeBehindDatabase", executorService,
+      TimeUnit.MINUTES.toMillis(10), 1000, 4);
+    Database backingDatabase = databaseProvider.getDatabase("writeBehindDatabase");
+
+    for (int i = 0; i < 100; i++) {
+      Assert.assertTrue(database.update("player", new JsonDocument("switches", i)));
+    }
+    Assert.assertTrue(database.update("other", new JsonDocument("switches", 0)));
+    Assert.assertTrue(database.update("deleted", new JsonDocument("switches", 0)));
+    Assert.assertTrue(database.delete("deleted"));
+
+    // single key reads see the pending writes, the backing database doesn't
+    Assert.assertEquals(99, database.get("player").getInt("switches"));
+    Assert.assertTrue(database.contains("other"));
+    Assert.assertFalse(database.contains("deleted"));
+    Assert.assertNull(database.get("deleted"));
+    Assert.assertNull(backingDatabase.get("player"));
+
+    database.get("player").append("switches", -1);
+    Assert.assertEquals(99, database.get("player").getInt("switches"));
+
+    // other reads write the pending writes first
+    Assert.assertEquals(2, database.getDocumentsCount());
+    Assert.assertEquals(99, backingDatabase.get("player").getInt("switches"));
+    Assert.assertEquals(2, this.updates.get());
+    Assert.assertEquals(1, this.deletes.get());
+
+    database.delete("other");
+    database.close();
+    Assert.assertFalse(backingDatabase.contains("other"));
+
+    executorService.shutdownNow();
+    databaseProvider.close();
+  }
+
+  @Test
+  public void testMaxPendingWrites() throws Exception {
+    H2DatabaseProvider databaseProvider = new H2DatabaseProvider("build/h2database", false);
+    Assert.assertTrue(databaseProvider.init());
+    databaseProvider.deleteDatabase("writeBehindLimitDatabase");
+
+    ScheduledExecutorService executorService = Executors.newSingleThreadScheduledExecutor();
+    WriteBehindDatabase database = new WriteBehindDatabase(databaseProvider, "writeBehindLimitDatabase",
+      executorService, TimeUnit.MINUTES.toMillis(10), 10, 3);
+    Database backingDatabase = databaseProvider.getDatabase("writeBehindLimitDatabase");
+
+    for (int i = 0; i < 9; i++) {
+      database.insert(String.valueOf(i), new JsonDocument("val", i));
+    }
+    Assert.assertEquals(0, backingDatabase.getDocumentsCount());
+
+    // reaching the limit writes all pending writes before the insert returns
+    database.insert("9", new JsonDocument("val", 9));
+    Assert.assertEquals(10, backingDatabase.getDocumentsCount());
+
+    executorService.shutdownNow();
+    databaseProvider.close();
+  }
+
+  @Test
+  public void testRemoteWritesInvalidatePendingWrites() throws Exception {
+    H2DatabaseProvider databaseProvider = new H2DatabaseProvider("build/h2database", false);
+    Assert.assertTrue(databaseProvider.init());
+    databaseProvider.deleteDatabase("writeBehindRemoteDatabase");
+
+    ScheduledExecutorService executorService = Executors.newSingleThreadScheduledExecutor();
+    WriteBehindDatabase database = new WriteBehindDatabase(databaseProvider, "writeBehindRemoteDatabase",
+      executorService, TimeUnit.MINUTES.toMillis(10), 1000, 4);
+    Database backingDatabase = databaseProvider.getDatabase("writeBehindRemoteDatabase");
+
+    database.update("user", new JsonDocument("rank", "local"));
+    database.update("other", new JsonDocument("rank", "local"));
+
+    // another node wrote the key, the write is applied to the database directly
+    database.invalidate("user");
+    backingDatabase.update("user", new JsonDocument("rank", "remote"));
+
+    Assert.assertEquals("remote", database.get("user").getString("rank"));
+    database.flush();
+    Assert.assertEquals("remote", backingDatabase.get("user").getString("rank"));
+    Assert.assertEquals("local", backingDatabase.get("other").getString("rank"));
+
+    database.update("other", new JsonDocument("rank", "newer"));
+    database.invalidate(null);
+    Assert.assertEquals("local", database.get("other").getString("rank"));
+
+    executorService.shutdownNow();
+    databaseProvider.close();
+  }
+
+  @Test
+  public void testFailedWritesStayPending() throws Exception {
+    // the failed writes are logged by the driver
+    ILogger logger = new DefaultAsyncLogger();
+    new EmptyCloudNetDriver(logger) {{
+      setInstance(this);
+    }};
+
+    H2DatabaseProvider databaseProvider = new H2DatabaseProvider("build/h2database", false);
+    Assert.assertTrue(databaseProvider.init());
+    databaseProvider.deleteDatabase("writeBehindFailureDatabase");
+
+    ScheduledExecutorService executorService = Executors.newSingleThreadScheduledExecutor();
+    WriteBehindDatabase database = new WriteBehindDatabase(databaseProvider, "writeBehindFailureDatabase",
+      executorService, TimeUnit.MINUTES.toMillis(10), 1000, 4);
+
+    // keys are limited to 64 characters, the write of this key fails
+    StringBuilder key = new StringBuilder();
+    for (int i = 0; i < 80; i++) {
+      key.append('k');
+    }
+
+    database.insert(key.toString(), new JsonDocument("val", 1));
+    database.insert("valid", new JsonDocument("val", 2));
+    database.flush();
+
+    Assert.assertNotNull(database.get(key.toString()));
+    Assert.assertEquals(2, databaseProvider.getDatabase("writeBehindFailureDatabase").get("valid").getInt("val"));
+
+    database.invalidate(key.toString());
+    Assert.assertEquals(1, database.getDocumentsCount());
+
+    executorService.shutdownNow();
+    databaseProvider.close();
+    logger.close();
+  }
+
+  @Override
+  public void handleInsert(Database database, String key, JsonDocument document) {
+  }
+
+  @Override
+  public void handleUpdate(Database database, String key, JsonDocument document) {
+    this.updates.incrementAndGet();
+  }
+
+  @Override
+  public void handleDelete(Database database, String key) {
+    this.deletes.incrementAndGet();
+  }
+
+  @Override
+  public void handleClear(Database database) {
+  }
+}
@@ -16,12 +16,19 @@
 
 package de.dytanic.cloudnet.database.h2;
 
+import de.dytanic.cloudnet.common.concurrent.ITask;
 import de.dytanic.cloudnet.common.document.gson.JsonDocument;
 import de.dytanic.cloudnet.database.AbstractDatabaseProvider;
 import de.dytanic.cloudnet.database.IDatabaseHandler;
 import de.dytanic.cloudnet.driver.database.Database;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Assert;
 import org.junit.Test;
@@ -94,6 +101,83 @@ public void testDatabaseProvider() throws Exception {
     databaseProvider.close();
   }
 
+  @Test
+  public void testIndexedFields() throws Exception {
+    AbstractDatabaseProvider databaseProvider = new H2DatabaseProvider("build/h2database", false);
+    Assert.assertTrue(databaseProvider.init());
+
+    databaseProvider.deleteDatabase("indexedDatabase");
+    Database database = databaseProvider.getDatabase("indexedDatabase");
+
+    for (int i = 0; i < 50; i++) {
+      Assert.assertTrue(database.insert(String.valueOf(i), new JsonDocument("name", i % 2 == 0 ? "Even" : "Odd")
+        .append("val", i).append("nested", new JsonDocument("name", "Nested"))));
+    }
+
+    Assert.assertTrue(database.insert("unnamed", new JsonDocument("val", -1)));
+
+    // existing documents have to be found after the index column was backfilled
+    databaseProvider.registerIndexedField("indexedDatabase", "name");
+    Assert.assertEquals(1, databaseProvider.getIndexedFields("indexedDatabase").size());
+    // documents without the field are marked as well, a later backfill doesn't have to process them again
+    Assert.assertEquals(0, (int) ((H2DatabaseProvider) databaseProvider).executeQuery(
+      "SELECT COUNT(*) FROM `indexedDatabase` WHERE idx_name IS NULL", resultSet -> {
+        resultSet.next();
+        return resultSet.getInt(1);
+      }));
+    Assert.assertEquals(25, database.get("name", "Even").size());
+    Assert.assertEquals(0, database.get("name", "Nested").size());
+
+    Assert.assertTrue(database.insert("50", new JsonDocument("name", "Even").append("val", 50)));
+    Assert.assertTrue(database.update("49", new JsonDocument("name", "Even").append("val", 49)));
+    Assert.assertEquals(27, database.get("name", "Even").size());
+    Assert.assertEquals(24, database.get("name", "Odd").size());
+
+    Assert.assertEquals(1, database.get(new JsonDocument("name", "Even").append("val", 49)).size());
+    Assert.assertEquals(0, database.get(new JsonDocument("name", "Odd").append("val", 49)).size());
+
+    Assert.assertTrue(database.update("2", new JsonDocument("val", 2)));
+    Assert.assertEquals(26, database.get("name", "Even").size());
+
+    databaseProvider.close();
+  }
+
+  @Test
+  public void testGroupCommitWrites() throws Exception {
+    H2DatabaseProvider databaseProvider = new H2DatabaseProvider("build/h2database", false);
+    Assert.assertTrue(databaseProvider.init());
+
+    databaseProvider.deleteDatabase("groupCommitDatabase");
+    Database database = databaseProvider.getDatabase("groupCommitDatabase");
+
+    ExecutorService executorService = Executors.newFixedThreadPool(8);
+    List<Future<Boolean>> futures = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      String key = String.valueOf(i);
+      futures.add(executorService.submit(() -> database.insert(key, new JsonDocument("val", key))));
+    }
+
+    for (Future<Boolean> future : futures) {
+      Assert.assertTrue(future.get(30, TimeUnit.SECONDS));
+    }
+    executorService.shutdown();
+
+    Assert.assertEquals(200, database.documents().size());
+
+    // a failing write must not fail the other writes of the same group commit
+    String insert = "INSERT INTO `groupCommitDatabase` (Name, Document) VALUES (?, ?);";
+    ITask<Integer> first = databaseProvider.executeUpdateAsync(insert, "200", "{}");
+    ITask<Integer> duplicate = databaseProvider.executeUpdateAsync(insert, "10", "{}");
+    ITask<Integer> last = databaseProvider.executeUpdateAsync(insert, "201", "{}");
+
+    Assert.assertEquals(1, (int) first.get(30, TimeUnit.SECONDS));
+    Assert.assertEquals(-1, (int) duplicate.get(30, TimeUnit.SECONDS));
+    Assert.assertEquals(1, (int) last.get(30, TimeUnit.SECONDS));
+    Assert.assertEquals(202, database.documents().size());
+
+    databaseProvider.close();
+  }
+
   @Override
   public void handleInsert(Database database, String key, JsonDocument document) {
     this.resultString = "foobar";
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.database.h2;
+
+import de.dytanic.cloudnet.common.concurrent.ITask;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class H2WriteQueueTest {
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException exception) {
+      throw exception.getCause();
+    }
+  }
+
+  // a connection whose checkpoints fail, all other calls are passed to the given connection
+  private static Connection failingCheckpoints(Connection connection) {
+    return (Connection) Proxy.newProxyInstance(H2WriteQueueTest.class.getClassLoader(),
+      new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+        if (!method.getName().equals("createStatement") || args != null) {
+          return invoke(connection, method, args);
+        }
+
+        Statement statement = connection.createStatement();
+        return Proxy.newProxyInstance(H2WriteQueueTest.class.getClassLoader(), new Class<?>[]{Statement.class},
+          (statementProxy, statementMethod, statementArgs) -> {
+            if (statementMethod.getName().equals("execute") && String.valueOf(statementArgs[0]).startsWith("CHECKPOINT")) {
+              throw new SQLException("Sync failed");
+            }
+
+            return invoke(statement, statementMethod, statementArgs);
+          });
+      });
+  }
+
+  @Test
+  public void testFailedSyncDoesNotRepeatWrites() throws Exception {
+    Connection connection = DriverManager.getConnection("jdbc:h2:mem:write_queue_sync");
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("CREATE TABLE documents (Name VARCHAR(64) PRIMARY KEY, Counter INT)");
+      statement.execute("INSERT INTO documents VALUES ('counter', 0)");
+    }
+
+    H2WriteQueue writeQueue = new H2WriteQueue(failingCheckpoints(DriverManager.getConnection(
+      "jdbc:h2:mem:write_queue_sync")), H2WriteDurability.SYNC, 16);
+
+    ITask<Integer> task = writeQueue.submit("UPDATE documents SET Counter = Counter + 1 WHERE Name = ?", "counter");
+    try {
+      task.get(30, TimeUnit.SECONDS);
+      Assert.fail("The write was reported as durable although the sync failed");
+    } catch (ExecutionException expected) {
+      Assert.assertEquals("Sync failed", expected.getCause().getMessage());
+    }
+
+    // the write was committed exactly once
+    try (Statement statement = connection.createStatement();
+      ResultSet resultSet = statement.executeQuery("SELECT Counter FROM documents")) {
+      Assert.assertTrue(resultSet.next());
+      Assert.assertEquals(1, resultSet.getInt(1));
+    }
+
+    writeQueue.close();
+    connection.close();
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.network.listener.cluster;
+
+import de.dytanic.cloudnet.common.io.FileUtils;
+import de.dytanic.cloudnet.driver.serialization.ProtocolBuffer;
+import de.dytanic.cloudnet.template.sync.TemplateBlobStore;
+import de.dytanic.cloudnet.template.sync.TemplateChunker;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class PacketServerTemplateSyncListenerTest {
+
+  @Test
+  public void testCorruptedBlobRejected() {
+    Path directory = Paths.get("build/template_sync_listener");
+
+    try {
+      TemplateBlobStore blobStore = new TemplateBlobStore(directory, Long.MAX_VALUE);
+
+      byte[] properties = "motd=new".getBytes(StandardCharsets.UTF_8);
+      byte[] corrupted = "max-players=20".getBytes(StandardCharsets.UTF_8);
+      byte[] world = "world".getBytes(StandardCharsets.UTF_8);
+
+      String propertiesHash = TemplateChunker.hash(properties, properties.length);
+      String corruptedHash = TemplateChunker.hash(corrupted, corrupted.length);
+      String worldHash = TemplateChunker.hash(world, world.length);
+
+      ProtocolBuffer buffer = ProtocolBuffer.create().writeVarInt(3);
+      buffer.writeString(propertiesHash).writeArray(properties);
+      buffer.writeString(corruptedHash).writeArray(Arrays.copyOf(corrupted, corrupted.length - 1));
+      buffer.writeString(worldHash).writeArray(world);
+
+      Assert.assertFalse(new PacketServerTemplateSyncListener().storeBlobs(blobStore, buffer));
+
+      Assert.assertFalse(blobStore.contains(corruptedHash));
+      Assert.assertArrayEquals(properties, blobStore.read(propertiesHash));
+      Assert.assertArrayEquals(world, blobStore.read(worldHash));
+    } finally {
+      FileUtils.delete(directory);
+    }
+  }
+}
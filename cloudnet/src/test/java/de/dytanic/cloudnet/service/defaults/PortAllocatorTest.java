@@ -0,0 +1,54 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.service.defaults;
+
+import java.util.UUID;
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class PortAllocatorTest {
+
+  @Test
+  public void testAllocateLeasedPorts() {
+    PortAllocator allocator = new PortAllocator(port -> true);
+
+    UUID first = UUID.randomUUID();
+    UUID second = UUID.randomUUID();
+    UUID third = UUID.randomUUID();
+
+    Assert.assertEquals(44955, allocator.allocate(first, 44955));
+    Assert.assertEquals(44956, allocator.allocate(second, 44955));
+    Assert.assertTrue(allocator.isLeased(44956));
+
+    // the port of a deleted service can be used again
+    allocator.release(first);
+    Assert.assertFalse(allocator.isLeased(44955));
+    Assert.assertEquals(44955, allocator.allocate(third, 44955));
+
+    // allocating again for the same service replaces its lease
+    Assert.assertEquals(44957, allocator.allocate(second, 44957));
+    Assert.assertFalse(allocator.isLeased(44956));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testNoPortAvailable() {
+    PortAllocator allocator = new PortAllocator(port -> true);
+
+    allocator.allocate(UUID.randomUUID(), 65535);
+    allocator.allocate(UUID.randomUUID(), 65535);
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.service.defaults;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ServiceConsoleLineBufferTest {
+
+  @Test
+  public void testLineBuffer() {
+    ServiceConsoleLineBuffer buffer = new ServiceConsoleLineBuffer(3);
+    Assert.assertTrue(buffer.snapshot().isEmpty());
+
+    buffer.add("first");
+    buffer.add("second");
+    Assert.assertEquals(Arrays.asList("first", "second"), new ArrayList<>(buffer.snapshot()));
+
+    buffer.add("third");
+    buffer.add("fourth");
+    buffer.add("fifth");
+    Assert.assertEquals(Arrays.asList("third", "fourth", "fifth"), new ArrayList<>(buffer.snapshot()));
+
+    buffer.add("sixth");
+    Assert.assertEquals(Collections.singletonList("sixth"), new ArrayList<>(buffer.snapshot()).subList(2, 3));
+    Assert.assertEquals(3, buffer.snapshot().size());
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.service.defaults;
+
+import de.dytanic.cloudnet.driver.provider.service.ServiceInfoSnapshotIndex;
+import de.dytanic.cloudnet.driver.service.ServiceConfiguration;
+import de.dytanic.cloudnet.driver.service.ServiceDeployment;
+import de.dytanic.cloudnet.driver.service.ServiceEnvironmentType;
+import de.dytanic.cloudnet.driver.service.ServiceId;
+import de.dytanic.cloudnet.driver.service.ServiceInfoSnapshot;
+import de.dytanic.cloudnet.driver.service.ServiceLifeCycle;
+import de.dytanic.cloudnet.driver.service.ServiceRemoteInclusion;
+import de.dytanic.cloudnet.driver.service.ServiceTemplate;
+import java.util.UUID;
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class TaskIdAllocatorTest {
+
+  @Test
+  public void testAllocateLeasedIds() {
+    ServiceInfoSnapshotIndex index = new ServiceInfoSnapshotIndex();
+    TaskIdAllocator allocator = new TaskIdAllocator(index);
+
+    index.put(this.createSnapshot(this.createServiceId("Lobby", 1)));
+    index.put(this.createSnapshot(this.createServiceId("Lobby", 3)));
+
+    // the ids of the burst are leased before the services are registered
+    Assert.assertEquals(2, allocator.allocate(this.createServiceId("Lobby", 0)));
+    Assert.assertEquals(4, allocator.allocate(this.createServiceId("Lobby", 0)));
+    Assert.assertEquals(5, allocator.allocate(this.createServiceId("Lobby", 0)));
+    Assert.assertEquals(1, allocator.allocate(this.createServiceId("Proxy", 0)));
+
+    // a preferred id is kept if it is free
+    Assert.assertEquals(10, allocator.allocate(this.createServiceId("Lobby", 10)));
+  }
+
+  @Test
+  public void testReleaseLease() {
+    ServiceInfoSnapshotIndex index = new ServiceInfoSnapshotIndex();
+    TaskIdAllocator allocator = new TaskIdAllocator(index);
+
+    ServiceId first = this.createServiceId("Lobby", 0);
+    ServiceId second = this.createServiceId("Lobby", 0);
+
+    first.setTaskServiceId(allocator.allocate(first));
+    Assert.assertEquals(1, first.getTaskServiceId());
+
+    // the creation of the first service failed
+    allocator.release(first.getUniqueId());
+    second.setTaskServiceId(allocator.allocate(second));
+    Assert.assertEquals(1, second.getTaskServiceId());
+
+    // the second service is registered, the id stays taken after the lease was released
+    index.put(this.createSnapshot(second));
+    allocator.release(second.getUniqueId());
+    Assert.assertEquals(2, allocator.allocate(this.createServiceId("Lobby", 0)));
+  }
+
+  private ServiceId createServiceId(String taskName, int taskServiceId) {
+    return new ServiceId(UUID.randomUUID(), "Node-1", taskName, taskServiceId,
+      ServiceEnvironmentType.MINECRAFT_SERVER);
+  }
+
+  private ServiceInfoSnapshot createSnapshot(ServiceId serviceId) {
+    ServiceConfiguration configuration = new ServiceConfiguration(serviceId, "jvm", false, false, new String[0],
+      new ServiceRemoteInclusion[0], new ServiceTemplate[0], new ServiceDeployment[0], new String[0], null, 1, null);
+    return new ServiceInfoSnapshot(0, null, 1, ServiceLifeCycle.PREPARED, null, configuration);
+  }
+}
@@ -19,9 +19,11 @@
 import de.dytanic.cloudnet.common.io.FileUtils;
 import de.dytanic.cloudnet.driver.service.ServiceTemplate;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collections;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -56,4 +58,34 @@ public void testTemplateStorage() throws Exception {
     FileUtils.delete(directory);
     Assert.assertFalse(Files.exists(directory));
   }
+
+  @Test
+  public void testLinkedFiles() throws Exception {
+    Path directory = Paths.get("build/local_template_storage_linked");
+    LocalTemplateStorage storage = new LocalTemplateStorage(directory);
+    storage.toggleSynchronization(false);
+    storage.setLinkedFiles(Collections.singleton("**.jar"), Collections.emptyList());
+
+    Path template = directory.resolve("Test/default");
+    FileUtils.createDirectoryReported(template.resolve("plugins"));
+    Files.write(template.resolve("server.jar"), "server".getBytes(StandardCharsets.UTF_8));
+    Files.write(template.resolve("plugins/config.yml"), "config".getBytes(StandardCharsets.UTF_8));
+
+    Path overlay = directory.resolve("Test/overlay");
+    FileUtils.createDirectoryReported(overlay);
+    Files.write(overlay.resolve("server.jar"), "overlay".getBytes(StandardCharsets.UTF_8));
+
+    Path service = directory.resolve("service");
+    Assert.assertTrue(storage.copy(new ServiceTemplate("Test", "default", "local"), service));
+    Assert.assertTrue(Files.isSameFile(template.resolve("server.jar"), service.resolve("server.jar")));
+    Assert.assertFalse(Files.isSameFile(template.resolve("plugins/config.yml"), service.resolve("plugins/config.yml")));
+
+    // overlaying another template must replace the link instead of writing through it
+    Assert.assertTrue(storage.copy(new ServiceTemplate("Test", "overlay", "local"), service));
+    Assert.assertEquals("overlay", new String(Files.readAllBytes(service.resolve("server.jar")), StandardCharsets.UTF_8));
+    Assert.assertEquals("server", new String(Files.readAllBytes(template.resolve("server.jar")), StandardCharsets.UTF_8));
+
+    FileUtils.delete(directory);
+    Assert.assertFalse(Files.exists(directory));
+  }
 }
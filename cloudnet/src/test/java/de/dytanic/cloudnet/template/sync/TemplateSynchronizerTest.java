@@ -0,0 +1,96 @@
+/*
+ * Copyright 2019-2021 CloudNetService team & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.dytanic.cloudnet.template.sync;
+
+import de.dytanic.cloudnet.common.io.FileUtils;
+import de.dytanic.cloudnet.driver.serialization.ProtocolBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class TemplateSynchronizerTest {
+
+  @Test
+  public void testIncrementalSynchronization() throws Exception {
+    Path directory = Paths.get("build/template_synchronizer");
+    Path source = directory.resolve("source");
+    Path target = directory.resolve("target");
+
+    try {
+      byte[] world = new byte[4 * 1024 * 1024];
+      new Random(42).nextBytes(world);
+      // the target holds an older version of the world without the data inserted in the middle
+      byte[] changedWorld = new byte[world.length + 1024];
+      System.arraycopy(world, 0, changedWorld, 0, world.length / 2);
+      System.arraycopy(world, world.length / 2, changedWorld, world.length / 2 + 1024, world.length / 2);
+
+      FileUtils.createDirectoryReported(source.resolve("world/region"));
+      FileUtils.createDirectoryReported(source.resolve("empty"));
+      Files.write(source.resolve("world/region/r.0.0.mca"), changedWorld);
+      Files.write(source.resolve("server.properties"), "motd=new".getBytes(StandardCharsets.UTF_8));
+
+      FileUtils.createDirectoryReported(target.resolve("world/region"));
+      FileUtils.createDirectoryReported(target.resolve("logs"));
+      Files.write(target.resolve("world/region/r.0.0.mca"), world);
+      Files.write(target.resolve("server.properties"), "motd=old".getBytes(StandardCharsets.UTF_8));
+      Files.write(target.resolve("logs/latest.log"), "log".getBytes(StandardCharsets.UTF_8));
+
+      TemplateSynchronizer synchronizer = new TemplateSynchronizer(
+        new TemplateBlobStore(directory.resolve("blobs"), Long.MAX_VALUE));
+
+      TemplateManifest manifest = synchronizer.createManifest(source);
+      ProtocolBuffer buffer = ProtocolBuffer.create().writeObject(manifest);
+      manifest = buffer.readObject(TemplateManifest.class);
+
+      Collection<String> missingChunks = synchronizer.prepare(target, manifest);
+      int worldChunks = manifest.getFiles().get("world/region/r.0.0.mca").getChunks().size();
+      Assert.assertFalse(missingChunks.isEmpty());
+      // only the chunks around the inserted data and the changed properties file have to be transferred
+      Assert.assertTrue(missingChunks.size() < worldChunks);
+
+      for (Map.Entry<String, TemplateManifest.FileEntry> entry : manifest.getFiles().entrySet()) {
+        byte[] content = Files.readAllBytes(source.resolve(entry.getKey()));
+        int offset = 0;
+        for (TemplateManifest.Chunk chunk : entry.getValue().getChunks()) {
+          if (missingChunks.contains(chunk.getHash())) {
+            byte[] data = Arrays.copyOfRange(content, offset, offset + chunk.getLength());
+            synchronizer.getBlobStore().store(chunk.getHash(), data, data.length);
+          }
+          offset += chunk.getLength();
+        }
+      }
+
+      Assert.assertTrue(synchronizer.apply(target, manifest));
+
+      Assert.assertArrayEquals(changedWorld, Files.readAllBytes(target.resolve("world/region/r.0.0.mca")));
+      Assert.assertEquals("motd=new",
+        new String(Files.readAllBytes(target.resolve("server.properties")), StandardCharsets.UTF_8));
+      Assert.assertTrue(Files.isDirectory(target.resolve("empty")));
+      Assert.assertFalse(Files.exists(target.resolve("logs")));
+      Assert.assertEquals(synchronizer.createManifest(source).getFiles(), synchronizer.createManifest(target).getFiles());
+    } finally {
+      FileUtils.delete(directory);
+    }
+  }
+}